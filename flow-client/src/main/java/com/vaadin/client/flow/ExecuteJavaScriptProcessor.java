@@ -28,9 +28,11 @@ import com.vaadin.client.flow.util.NativeFunction;
 import com.vaadin.flow.component.page.Page;
 import com.vaadin.flow.internal.nodefeature.NodeFeatures;
 import com.vaadin.flow.internal.nodefeature.NodeProperties;
+import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
+import elemental.json.JsonType;
 import elemental.json.JsonValue;
 
 /**
@@ -42,8 +44,17 @@ import elemental.json.JsonValue;
  */
 public class ExecuteJavaScriptProcessor {
 
+    // The server limits the number of interned expressions, but the cache is
+    // bounded on its own as well
+    static final int MAX_CACHED_FUNCTIONS = 512;
+
     private final Registry registry;
 
+    // Functions compiled for interned expressions, keyed by the constant id
+    // and the parameter count
+    private final JsMap<String, NativeFunction> functions = JsCollections
+            .map();
+
     /**
      * Creates a new processor with the given registry.
      *
@@ -100,10 +111,22 @@ public class ExecuteJavaScriptProcessor {
         }
 
         // Set the script source as the last parameter
-        String expression = invocation.getString(invocation.length() - 1);
+        JsonValue script = invocation.get(invocation.length() - 1);
+        String functionKey = null;
+        String expression;
+        if (script.getType() == JsonType.OBJECT) {
+            // The expression has been interned in the constant pool
+            String constantId = ((JsonObject) script)
+                    .getString(JsonConstants.UIDL_KEY_EXECUTE_EXPRESSION);
+            JsonValue constant = registry.getConstantPool().get(constantId);
+            expression = constant.asString();
+            functionKey = constantId + "/" + parameterCount;
+        } else {
+            expression = script.asString();
+        }
         parameterNamesAndCode[parameterNamesAndCode.length - 1] = expression;
 
-        invoke(parameterNamesAndCode, parameters, map);
+        invoke(functionKey, parameterNamesAndCode, parameters, map);
     }
 
     private boolean isVirtualChildAwaitingInitialization(StateNode node) {
@@ -138,6 +161,9 @@ public class ExecuteJavaScriptProcessor {
      * Executes the actual invocation. This method is protected instead of
      * private for testing purposes.
      *
+     * @param functionKey
+     *            the key used to cache the compiled function for reuse, or
+     *            <code>null</code> to not cache the function
      * @param parameterNamesAndCode
      *            an array consisting of parameter names followed by the
      *            JavaScript expression to execute
@@ -146,13 +172,14 @@ public class ExecuteJavaScriptProcessor {
      * @param nodeParameters
      *            the node parameters
      */
-    protected void invoke(String[] parameterNamesAndCode,
+    protected void invoke(String functionKey, String[] parameterNamesAndCode,
             JsArray<Object> parameters,
             JsMap<Object, StateNode> nodeParameters) {
         assert parameterNamesAndCode.length == parameters.length() + 1;
 
         try {
-            NativeFunction function = new NativeFunction(parameterNamesAndCode);
+            NativeFunction function = getFunction(functionKey,
+                    parameterNamesAndCode);
 
             function.apply(getContextExecutionObject(nodeParameters, () -> {
                 if (!registry.getUILifecycle().isTerminated()) {
@@ -185,6 +212,35 @@ public class ExecuteJavaScriptProcessor {
         }
     }
 
+    /**
+     * Gets the compiled function for the given parameter names and code,
+     * reusing a previously compiled function with the same key. The cache is
+     * cleared when it reaches {@link #MAX_CACHED_FUNCTIONS} functions.
+     *
+     * @param functionKey
+     *            the cache key of the function, or <code>null</code> to always
+     *            compile a new function
+     * @param parameterNamesAndCode
+     *            an array consisting of parameter names followed by the
+     *            JavaScript expression
+     * @return the compiled function, not <code>null</code>
+     */
+    protected NativeFunction getFunction(String functionKey,
+            String[] parameterNamesAndCode) {
+        if (functionKey == null) {
+            return new NativeFunction(parameterNamesAndCode);
+        }
+        NativeFunction function = functions.get(functionKey);
+        if (function == null) {
+            function = new NativeFunction(parameterNamesAndCode);
+            if (functions.size() >= MAX_CACHED_FUNCTIONS) {
+                functions.clear();
+            }
+            functions.set(functionKey, function);
+        }
+        return function;
+    }
+
     private boolean handleRemoveExistingNode(Integer removedId, int nodeId,
             JsonArray invocation) {
         if (removedId.intValue() == nodeId) {
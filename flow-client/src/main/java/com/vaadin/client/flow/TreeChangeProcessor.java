@@ -64,9 +64,16 @@ public class TreeChangeProcessor {
             for (int i = 0; i < length; i++) {
                 JsonObject change = changes.getObject(i);
                 if (!isAttach(change)) {
-                    final StateNode value = processChange(tree, change);
-                    if (value != null) {
-                        nodes.add(value);
+                    if (change.hasKey(JsonConstants.CHANGE_NODES)) {
+                        // Same change applied to several nodes
+                        JsonArray nodeIds = change
+                                .getArray(JsonConstants.CHANGE_NODES);
+                        for (int j = 0; j < nodeIds.length(); j++) {
+                            addNode(nodes, processChange(tree, change,
+                                    (int) nodeIds.getNumber(j)));
+                        }
+                    } else {
+                        addNode(nodes, processChange(tree, change));
                     }
                 }
             }
@@ -77,6 +84,12 @@ public class TreeChangeProcessor {
         }
     }
 
+    private static void addNode(JsSet<StateNode> nodes, StateNode node) {
+        if (node != null) {
+            nodes.add(node);
+        }
+    }
+
     private static JsSet<StateNode> processAttachChanges(StateTree tree,
             JsonArray changes) {
         JsSet<StateNode> nodes = JsCollections.set();
@@ -112,8 +125,13 @@ public class TreeChangeProcessor {
      * @return the updated node addressed by the provided {@code change}
      */
     public static StateNode processChange(StateTree tree, JsonObject change) {
+        return processChange(tree, change,
+                (int) change.getNumber(JsonConstants.CHANGE_NODE));
+    }
+
+    private static StateNode processChange(StateTree tree, JsonObject change,
+            int nodeId) {
         String type = change.getString(JsonConstants.CHANGE_TYPE);
-        int nodeId = (int) change.getNumber(JsonConstants.CHANGE_NODE);
 
         StateNode node = tree.getNode(nodeId);
         if (node == null && tree.isResync()) {
@@ -132,6 +150,9 @@ public class TreeChangeProcessor {
         case JsonConstants.CHANGE_TYPE_PUT:
             processPutChange(change, node);
             break;
+        case JsonConstants.CHANGE_TYPE_PUTS:
+            processPutsChange(change, node);
+            break;
         case JsonConstants.CHANGE_TYPE_REMOVE:
             processRemoveChange(change, node);
             break;
@@ -186,6 +207,16 @@ public class TreeChangeProcessor {
         }
     }
 
+    private static void processPutsChange(JsonObject change, StateNode node) {
+        int nsId = (int) change.getNumber(JsonConstants.CHANGE_FEATURE);
+        NodeMap map = node.getMap(nsId);
+        JsonObject values = change.getObject(JsonConstants.CHANGE_PUTS_VALUES);
+        for (String key : values.keys()) {
+            map.getProperty(key).setValue(
+                    ClientJsonCodec.decodeWithoutTypeInfo(values.get(key)));
+        }
+    }
+
     private static void processRemoveChange(JsonObject change, StateNode node) {
         MapProperty property = findProperty(change, node);
 
@@ -27,10 +27,12 @@ import com.vaadin.client.Registry;
 import com.vaadin.client.flow.collection.JsArray;
 import com.vaadin.client.flow.collection.JsMap;
 import com.vaadin.client.flow.reactive.Reactive;
+import com.vaadin.client.flow.util.NativeFunction;
 import com.vaadin.flow.internal.JsonCodec;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.nodefeature.NodeFeatures;
 import com.vaadin.flow.internal.nodefeature.NodeProperties;
+import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.js.dom.JsElement;
 import elemental.json.Json;
@@ -40,6 +42,7 @@ import elemental.json.JsonObject;
 public class ExecuteJavaScriptProcessorTest {
     private static class CollectingExecuteJavaScriptProcessor
             extends ExecuteJavaScriptProcessor {
+        private final List<String> functionKeyList = new ArrayList<>();
         private final List<String[]> parameterNamesAndCodeList = new ArrayList<>();
         private final List<JsArray<Object>> parametersList = new ArrayList<>();
         private final List<JsMap<Object, StateNode>> nodeParametersList = new ArrayList<>();
@@ -66,9 +69,10 @@ public class ExecuteJavaScriptProcessorTest {
         }
 
         @Override
-        protected void invoke(String[] parameterNamesAndCode,
-                JsArray<Object> parameters,
+        protected void invoke(String functionKey,
+                String[] parameterNamesAndCode, JsArray<Object> parameters,
                 JsMap<Object, StateNode> nodeParameters) {
+            functionKeyList.add(functionKey);
             parameterNamesAndCodeList.add(parameterNamesAndCode);
             parametersList.add(parameters);
             nodeParametersList.add(nodeParameters);
@@ -132,6 +136,88 @@ public class ExecuteJavaScriptProcessorTest {
         Assert.assertEquals(0, processor.nodeParametersList.get(1).size());
     }
 
+    @Test
+    public void execute_internedExpression_expressionResolvedFromConstantPool() {
+        ConstantPool constantPool = new ConstantPool();
+        JsonObject constants = Json.createObject();
+        constants.put("exprId", "script");
+        constantPool.importFromJson(constants);
+        CollectingExecuteJavaScriptProcessor processor = new CollectingExecuteJavaScriptProcessor(
+                new Registry() {
+                    {
+                        set(StateTree.class, new StateTree(this));
+                        set(ConstantPool.class, constantPool);
+                    }
+                });
+
+        JsonObject reference = Json.createObject();
+        reference.put(JsonConstants.UIDL_KEY_EXECUTE_EXPRESSION, "exprId");
+        JsonArray invocation1 = JsonUtils.createArray(reference);
+        JsonArray invocation2 = JsonUtils.createArray(Json.create("param"),
+                reference);
+        JsonArray invocation3 = JsonUtils.createArray(Json.create("script"));
+
+        processor.execute(
+                JsonUtils.createArray(invocation1, invocation2, invocation3));
+
+        Assert.assertEquals(3, processor.parameterNamesAndCodeList.size());
+        Assert.assertArrayEquals(new String[] { "script" },
+                processor.parameterNamesAndCodeList.get(0));
+        Assert.assertArrayEquals(new String[] { "$0", "script" },
+                processor.parameterNamesAndCodeList.get(1));
+        Assert.assertArrayEquals(new String[] { "script" },
+                processor.parameterNamesAndCodeList.get(2));
+
+        // The parameter count is part of the key since it changes the
+        // compiled function
+        Assert.assertEquals("exprId/0", processor.functionKeyList.get(0));
+        Assert.assertEquals("exprId/1", processor.functionKeyList.get(1));
+        Assert.assertNull(processor.functionKeyList.get(2));
+    }
+
+    @Test
+    public void getFunction_sameKey_functionReused() {
+        TestJsProcessor processor = new TestJsProcessor();
+        String[] parameterNamesAndCode = new String[] { "$0", "script" };
+
+        NativeFunction function = processor.getFunction("exprId/1",
+                parameterNamesAndCode);
+
+        Assert.assertSame(function,
+                processor.getFunction("exprId/1", parameterNamesAndCode));
+        Assert.assertNotSame(function,
+                processor.getFunction("exprId/0", new String[] { "script" }));
+    }
+
+    @Test
+    public void getFunction_cacheFull_cacheCleared() {
+        TestJsProcessor processor = new TestJsProcessor();
+        String[] parameterNamesAndCode = new String[] { "script" };
+
+        NativeFunction function = processor.getFunction("exprId/0",
+                parameterNamesAndCode);
+        for (int i = 1; i < ExecuteJavaScriptProcessor.MAX_CACHED_FUNCTIONS; i++) {
+            processor.getFunction("exprId" + i + "/0", parameterNamesAndCode);
+        }
+        Assert.assertSame(function,
+                processor.getFunction("exprId/0", parameterNamesAndCode));
+
+        processor.getFunction("other/0", parameterNamesAndCode);
+
+        Assert.assertNotSame(function,
+                processor.getFunction("exprId/0", parameterNamesAndCode));
+    }
+
+    @Test
+    public void getFunction_noKey_functionNotReused() {
+        TestJsProcessor processor = new TestJsProcessor();
+        String[] parameterNamesAndCode = new String[] { "script" };
+
+        Assert.assertNotSame(
+                processor.getFunction(null, parameterNamesAndCode),
+                processor.getFunction(null, parameterNamesAndCode));
+    }
+
     @Test
     public void execute_nodeParametersAreCorrectlyPassed() {
         Registry registry = new Registry() {
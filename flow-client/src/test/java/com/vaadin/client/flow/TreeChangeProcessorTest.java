@@ -26,6 +26,7 @@ import com.vaadin.client.Registry;
 import com.vaadin.client.flow.collection.JsSet;
 import com.vaadin.client.flow.nodefeature.MapProperty;
 import com.vaadin.client.flow.nodefeature.NodeList;
+import com.vaadin.client.flow.nodefeature.NodeMap;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.nodefeature.NodeFeatures;
 import com.vaadin.flow.shared.JsonConstants;
@@ -202,6 +203,43 @@ public class TreeChangeProcessorTest {
         Assert.assertTrue(updatedNodes.has(tree.getNode(nodeId)));
     }
 
+    @Test
+    public void testPutsChange() {
+        JsonObject values = Json.createObject();
+        values.put(myKey, myValue);
+        values.put("otherKey", 42);
+        JsonObject change = baseChange(rootId, JsonConstants.CHANGE_TYPE_PUTS);
+        change.put(JsonConstants.CHANGE_FEATURE, ns);
+        change.put(JsonConstants.CHANGE_PUTS_VALUES, values);
+
+        StateNode node = TreeChangeProcessor.processChange(tree, change);
+
+        NodeMap map = tree.getRootNode().getMap(ns);
+        Assert.assertEquals(myValue, map.getProperty(myKey).getValue());
+        Assert.assertEquals(42.0, map.getProperty("otherKey").getValue());
+        Assert.assertEquals(tree.getRootNode(), node);
+    }
+
+    @Test
+    public void testChangeForSeveralNodes() {
+        JsonObject change = spliceChange(0, ns, 0, 0, Json.create("foo"));
+        change.remove(JsonConstants.CHANGE_NODE);
+        change.put(JsonConstants.CHANGE_NODES, toArray(Json.create(2),
+                Json.create(3)));
+        JsonArray changes = toArray(attachChange(2), attachChange(3), change);
+
+        JsSet<StateNode> updatedNodes = TreeChangeProcessor.processChanges(tree,
+                changes);
+
+        for (int nodeId : new int[] { 2, 3 }) {
+            NodeList list = tree.getNode(nodeId).getList(ns);
+            Assert.assertEquals(1, list.length());
+            Assert.assertEquals("foo", list.get(0));
+            Assert.assertTrue(updatedNodes.has(tree.getNode(nodeId)));
+        }
+        Assert.assertEquals(2, updatedNodes.size());
+    }
+
     @Test
     public void testDetachRemovesNode() {
         AtomicInteger unregisterCount = new AtomicInteger(0);
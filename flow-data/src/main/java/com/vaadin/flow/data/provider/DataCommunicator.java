@@ -16,11 +16,14 @@
 package com.vaadin.flow.data.provider;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -49,6 +52,8 @@ import com.vaadin.flow.internal.NullOwner;
 import com.vaadin.flow.internal.Range;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.server.FlowMetrics;
+import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.shared.Registration;
 import com.vaadin.flow.shared.communication.PushMode;
 
@@ -75,6 +80,7 @@ public class DataCommunicator<T> implements Serializable {
 
     private static final int DEFAULT_PAGE_SIZE = 50;
     private static final int MAXIMUM_ALLOWED_PAGES = 10;
+    private static final int MAXIMUM_CACHED_ITEM_COUNTS = 100;
 
     private final DataGenerator<T> dataGenerator;
     private final ArrayUpdater arrayUpdater;
@@ -107,6 +113,12 @@ public class DataCommunicator<T> implements Serializable {
     private boolean resendEntireRange = true;
     private boolean assumeEmptyClient = true;
 
+    // Row JSON last sent to the client by key, only used with row diffing
+    private final HashMap<String, JsonValue> sentRows = new HashMap<>();
+    private boolean rowDiffingEnabled;
+    // Size given to the array updater in the last update
+    private int lastUpdateSize = -1;
+
     private int nextUpdateId = 0;
 
     private DataProvider<T, ?> dataProvider = new EmptyDataProvider<>();
@@ -127,12 +139,31 @@ public class DataCommunicator<T> implements Serializable {
     private boolean sizeReset;
     private int pageSize = DEFAULT_PAGE_SIZE;
 
+    // Item counts by filter object, from the least to the most recently used
+    private final LinkedHashMap<Object, CachedItemCount> itemCountCache = new LinkedHashMap<>(
+            16, 0.75f, true);
+    private Duration itemCountCacheTimeToLive;
+    // Nanoseconds spent on the last count query, -1 if served from the cache
+    private long lastCountNanos = -1;
+
+    private Duration itemCountEstimateThreshold;
+    private Duration itemCountEstimateRetryInterval;
+    // Whether undefined size is used because the count queries were slow
+    private boolean estimatedByThreshold;
+    // Wall clock time, since the communicator may be deserialized on another
+    // node
+    private long estimatedSince;
+
+    private final ArrayList<ItemCountListener<T>> itemCountListeners = new ArrayList<>(
+            0);
+
     // Paged queries are enabled by default
     private boolean pagingEnabled = true;
 
     private boolean fetchEnabled;
 
     private transient Executor executor = null;
+    private boolean useServiceExecutor;
     private transient CompletableFuture<Activation> future;
 
     /**
@@ -241,6 +272,17 @@ public class DataCommunicator<T> implements Serializable {
         }
     }
 
+    private static final class CachedItemCount implements Serializable {
+        private final int count;
+        // Wall clock time, since the cache is serialized with the session
+        private final long cachedAt;
+
+        private CachedItemCount(int count, long cachedAt) {
+            this.count = count;
+            this.cachedAt = cachedAt;
+        }
+    }
+
     private static class SizeVerifier<T> implements Consumer<T>, Serializable {
 
         private int size;
@@ -356,11 +398,27 @@ public class DataCommunicator<T> implements Serializable {
      *            The Executor used for async updates.
      */
     public void enablePushUpdates(Executor executor) {
-        if (this.executor != null && future != null) {
+        if ((this.executor != null || useServiceExecutor) && future != null) {
             future.cancel(true);
             future = null;
         }
         this.executor = executor;
+        useServiceExecutor = false;
+    }
+
+    /**
+     * Makes DataCommunicator push data updates to the component
+     * asynchronously, fetching the data with the executor of the service, see
+     * {@link com.vaadin.flow.server.VaadinService#getExecutor()}. Calling
+     * {@link #enablePushUpdates(Executor)} with {@code null} disables the
+     * feature.
+     * <p>
+     * Note: This works only with Grid component. Push needs to be enabled and
+     * set to PushMode.AUTOMATIC in order this to work.
+     */
+    public void enablePushUpdates() {
+        enablePushUpdates(null);
+        useServiceExecutor = true;
     }
 
     /**
@@ -458,7 +516,9 @@ public class DataCommunicator<T> implements Serializable {
 
         countCallback = null;
         definedSize = true;
+        estimatedByThreshold = false;
         sizeReset = true;
+        invalidateItemCountCache();
 
         handleDetach();
 
@@ -521,10 +581,7 @@ public class DataCommunicator<T> implements Serializable {
     public int getItemCount() {
         if (isDefinedSize()
                 && (resendEntireRange || assumeEmptyClient || sizeReset)) {
-            // TODO it could be possible to cache the value returned here
-            // and use it next time instead of making another query, unless
-            // the conditions like filter (or another reset) have changed
-            return getDataProviderSize();
+            return countItems();
         }
         // do not report a stale size or size estimate
         if (!isDefinedSize() && sizeReset) {
@@ -655,7 +712,9 @@ public class DataCommunicator<T> implements Serializable {
         }
         this.countCallback = countCallback;
         definedSize = true;
+        estimatedByThreshold = false;
         skipCountIncreaseUntilReset = false;
+        invalidateItemCountCache();
         // there is no reset but we need to get the defined size
         sizeReset = true;
         requestFlush();
@@ -683,6 +742,7 @@ public class DataCommunicator<T> implements Serializable {
         this.itemCountEstimate = itemCountEstimate;
         this.countCallback = null;
         definedSize = false;
+        estimatedByThreshold = false;
         if (!skipCountIncreaseUntilReset
                 && requestedRange.getEnd() < itemCountEstimate) {
             sizeReset = true;
@@ -720,6 +780,7 @@ public class DataCommunicator<T> implements Serializable {
         this.itemCountEstimateIncrease = itemCountEstimateIncrease;
         countCallback = null;
         definedSize = false;
+        estimatedByThreshold = false;
     }
 
     /**
@@ -751,6 +812,7 @@ public class DataCommunicator<T> implements Serializable {
      *            size
      */
     public void setDefinedSize(boolean definedSize) {
+        estimatedByThreshold = false;
         if (this.definedSize != definedSize) {
             this.definedSize = definedSize;
             countCallback = null;
@@ -779,6 +841,151 @@ public class DataCommunicator<T> implements Serializable {
         return definedSize;
     }
 
+    /**
+     * Sets how long the item counts queried from the data provider are cached.
+     * <p>
+     * The counts are cached by the filter object, so changing the sorting or
+     * returning to a previously used filter does not query the count again
+     * while it is cached. The cache is cleared when the data provider fires a
+     * {@link DataChangeEvent}, e.g. on
+     * {@link DataProvider#refreshAll()}, when a new data provider or count
+     * callback is set, and when {@link #invalidateItemCountCache()} is called.
+     * <p>
+     * Changes made to the backend without notifying the data provider are not
+     * reflected in the item count until the cached count expires. The item
+     * counts are not cached by default.
+     *
+     * @param timeToLive
+     *            how long an item count is cached, or {@code null} to not cache
+     *            the item counts
+     */
+    public void setItemCountCacheTimeToLive(Duration timeToLive) {
+        if (timeToLive != null && timeToLive.isNegative()) {
+            throw new IllegalArgumentException(
+                    "The time to live of the item count cache cannot be negative");
+        }
+        itemCountCacheTimeToLive = timeToLive == null || timeToLive.isZero()
+                ? null
+                : timeToLive;
+        invalidateItemCountCache();
+    }
+
+    /**
+     * Gets how long the item counts queried from the data provider are cached.
+     *
+     * @return how long an item count is cached, or {@code null} if the item
+     *         counts are not cached
+     * @see #setItemCountCacheTimeToLive(Duration)
+     */
+    public Duration getItemCountCacheTimeToLive() {
+        return itemCountCacheTimeToLive;
+    }
+
+    /**
+     * Removes all the item counts from the item count cache, so that the count
+     * is queried from the data provider the next time it is needed.
+     * <p>
+     * This does not send the data to the client again. Use {@link #reset()}
+     * for that.
+     *
+     * @see #setItemCountCacheTimeToLive(Duration)
+     */
+    public void invalidateItemCountCache() {
+        if (!itemCountCache.isEmpty()) {
+            itemCountCache.clear();
+            notifyItemCountListeners(ItemCountEvent.Type.CACHE_INVALIDATED,
+                    null, -1, 0);
+        }
+    }
+
+    /**
+     * Makes the data communicator switch from defined size to undefined size
+     * automatically when querying the item count takes longer than the given
+     * threshold.
+     * <p>
+     * The slow count is still used until the next reset, e.g. until the filter
+     * changes, and it is also used as the item count estimate after that, see
+     * {@link #setItemCountEstimate(int)}. Defined size is used again without
+     * querying the data provider for a filter whose count is found in the item
+     * count cache, see {@link #setItemCountCacheTimeToLive(Duration)}. This
+     * includes the counts discovered by scrolling to the end of the data with
+     * undefined size. Otherwise the count is queried again at the first reset
+     * after the given retry interval, and defined size is used again if the
+     * count is fast enough.
+     * <p>
+     * The switches are reported to the
+     * {@link #addItemCountListener(ItemCountListener) item count listeners}.
+     * Explicitly setting the size mode, the item count estimate or the count
+     * callback cancels a switch made by this mode, but does not disable the
+     * mode.
+     *
+     * @param threshold
+     *            the longest acceptable item count query duration, or
+     *            {@code null} to always use the configured size mode
+     * @param retryInterval
+     *            how long to use undefined size before querying the item count
+     *            again, or {@code null} to only use defined size again for
+     *            cached counts
+     */
+    public void setItemCountEstimateThreshold(Duration threshold,
+            Duration retryInterval) {
+        if ((threshold != null && threshold.isNegative())
+                || (retryInterval != null && retryInterval.isNegative())) {
+            throw new IllegalArgumentException(
+                    "The item count estimate threshold and retry interval cannot be negative");
+        }
+        itemCountEstimateThreshold = threshold;
+        itemCountEstimateRetryInterval = retryInterval;
+        if (threshold == null && estimatedByThreshold) {
+            estimatedByThreshold = false;
+            definedSize = true;
+            skipCountIncreaseUntilReset = false;
+            sizeReset = true;
+            requestFlush();
+            notifyItemCountListeners(ItemCountEvent.Type.ESTIMATE_DISABLED,
+                    getFilter(), -1, 0);
+        }
+    }
+
+    /**
+     * Gets the item count query duration after which the data communicator
+     * switches to undefined size.
+     *
+     * @return the threshold, or {@code null} if the size mode is not switched
+     *         automatically
+     * @see #setItemCountEstimateThreshold(Duration, Duration)
+     */
+    public Duration getItemCountEstimateThreshold() {
+        return itemCountEstimateThreshold;
+    }
+
+    /**
+     * Gets how long undefined size is used before the item count is queried
+     * again after a slow item count query.
+     *
+     * @return the retry interval, or {@code null} if the count is not queried
+     *         again based on time
+     * @see #setItemCountEstimateThreshold(Duration, Duration)
+     */
+    public Duration getItemCountEstimateRetryInterval() {
+        return itemCountEstimateRetryInterval;
+    }
+
+    /**
+     * Adds a listener which is notified when the item count is queried from
+     * the data provider or found in the item count cache, when the cache is
+     * invalidated and when the size mode is switched because of slow item
+     * count queries.
+     *
+     * @param listener
+     *            the listener to add, not {@code null}
+     * @return a registration for removing the listener
+     */
+    public Registration addItemCountListener(ItemCountListener<T> listener) {
+        Objects.requireNonNull(listener, "listener cannot be null");
+        return Registration.addAndRemove(itemCountListeners, listener);
+    }
+
     /**
      * Gets the {@link DataKeyMapper} used by this {@link DataCommunicator}. Key
      * mapper can be used to map keys sent to the client-side back to their
@@ -871,6 +1078,42 @@ public class DataCommunicator<T> implements Serializable {
         this.pagingEnabled = pagingEnabled;
     }
 
+    /**
+     * Returns whether row diffing is enabled or not.
+     *
+     * @return {@code true} if only changed rows are sent to the client,
+     *         {@code false} otherwise
+     *
+     * @see #setRowDiffingEnabled(boolean)
+     */
+    public boolean isRowDiffingEnabled() {
+        return rowDiffingEnabled;
+    }
+
+    /**
+     * Sets whether only the rows whose generated data has changed are sent to
+     * the client.
+     * <p>
+     * When enabled, the JSON generated for each row sent to the client is
+     * cached by the item key. Refreshed items whose data is unchanged are not
+     * sent again, and a reset that keeps the same items in the same positions
+     * sends only the rows that have actually changed instead of the whole
+     * active range. This trades some server memory for less traffic and less
+     * client side rendering, e.g. for periodically refreshed data.
+     * <p>
+     * Row diffing is disabled by default.
+     *
+     * @param rowDiffingEnabled
+     *            {@code true} to send only changed rows, {@code false} to
+     *            always send all the affected rows
+     */
+    public void setRowDiffingEnabled(boolean rowDiffingEnabled) {
+        this.rowDiffingEnabled = rowDiffingEnabled;
+        if (!rowDiffingEnabled) {
+            sentRows.clear();
+        }
+    }
+
     /**
      * Returns whether the data communicator will call Data Provider for
      * fetching the items and/or getting the items count, or ignore such a
@@ -924,6 +1167,126 @@ public class DataCommunicator<T> implements Serializable {
         }
     }
 
+    /*
+     * Gets the item count from the cache, or from getDataProviderSize() if it
+     * is not cached, and records how long the query took.
+     */
+    private int countItems() {
+        Object filterObject = getFilter();
+        CachedItemCount cached = getCachedItemCount(filterObject);
+        if (cached != null) {
+            lastCountNanos = -1;
+            notifyItemCountListeners(ItemCountEvent.Type.CACHE_HIT,
+                    filterObject, cached.count, 0);
+            return cached.count;
+        }
+        long start = currentTimeNanos();
+        int count = getDataProviderSize();
+        lastCountNanos = currentTimeNanos() - start;
+        cacheItemCount(filterObject, count);
+        notifyItemCountListeners(ItemCountEvent.Type.COUNT_QUERIED,
+                filterObject, count, lastCountNanos);
+        return count;
+    }
+
+    private CachedItemCount getCachedItemCount(Object filterObject) {
+        if (itemCountCacheTimeToLive == null) {
+            return null;
+        }
+        CachedItemCount cached = itemCountCache.get(filterObject);
+        if (cached != null && isElapsed(cached.cachedAt,
+                itemCountCacheTimeToLive.toMillis())) {
+            itemCountCache.remove(filterObject);
+            return null;
+        }
+        return cached;
+    }
+
+    private void cacheItemCount(Object filterObject, int count) {
+        if (itemCountCacheTimeToLive == null) {
+            return;
+        }
+        itemCountCache.put(filterObject,
+                new CachedItemCount(count, currentTimeMillis()));
+        Iterator<CachedItemCount> iterator = itemCountCache.values()
+                .iterator();
+        while (itemCountCache.size() > MAXIMUM_CACHED_ITEM_COUNTS) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private boolean shouldRetryDefinedSize() {
+        return getCachedItemCount(getFilter()) != null
+                || (itemCountEstimateRetryInterval != null
+                        && isElapsed(estimatedSince,
+                                itemCountEstimateRetryInterval.toMillis()));
+    }
+
+    /*
+     * Checks whether the given time has passed since the stamp. A stamp in the
+     * future, e.g. from another node of the cluster with a clock ahead of this
+     * one, is considered elapsed.
+     */
+    private boolean isElapsed(long stampMillis, long intervalMillis) {
+        long elapsed = currentTimeMillis() - stampMillis;
+        return elapsed < 0 || elapsed >= intervalMillis;
+    }
+
+    /*
+     * Switches to undefined size if the count that was just queried was slow,
+     * or confirms the switch back to defined size when retrying it.
+     */
+    private void adaptToCountDuration(boolean retrying) {
+        if (lastCountNanos > itemCountEstimateThreshold.toNanos()) {
+            definedSize = false;
+            // the count is exact until the next reset
+            skipCountIncreaseUntilReset = true;
+            itemCountEstimate = Math.max(assumedSize, 1);
+            estimatedSince = currentTimeMillis();
+            if (!retrying) {
+                estimatedByThreshold = true;
+                notifyItemCountListeners(ItemCountEvent.Type.ESTIMATE_ENABLED,
+                        getFilter(), assumedSize, lastCountNanos);
+            }
+        } else if (retrying) {
+            estimatedByThreshold = false;
+            notifyItemCountListeners(ItemCountEvent.Type.ESTIMATE_DISABLED,
+                    getFilter(), assumedSize, Math.max(lastCountNanos, 0));
+        }
+    }
+
+    private void notifyItemCountListeners(ItemCountEvent.Type type,
+            Object filterObject, int itemCount, long nanos) {
+        if (itemCountListeners.isEmpty()) {
+            return;
+        }
+        ItemCountEvent<T> event = new ItemCountEvent<>(this, type,
+                filterObject, itemCount, Duration.ofNanos(nanos));
+        new ArrayList<>(itemCountListeners)
+                .forEach(listener -> listener.onItemCountEvent(event));
+    }
+
+    /**
+     * Gets the current value of the time source used for measuring the item
+     * count queries, in nanoseconds.
+     *
+     * @return the current time in nanoseconds
+     */
+    long currentTimeNanos() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Gets the current wall clock time used for the item count cache and the
+     * estimate retry interval, in milliseconds.
+     *
+     * @return the current time in milliseconds
+     */
+    long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
     private void updateUndefinedSize() {
         assert !definedSize
                 : "This method should never be called when using defined size";
@@ -1064,6 +1427,7 @@ public class DataCommunicator<T> implements Serializable {
                     if (event instanceof DataRefreshEvent) {
                         handleDataRefreshEvent((DataRefreshEvent<T>) event);
                     } else {
+                        invalidateItemCountCache();
                         reset();
                     }
                 });
@@ -1082,6 +1446,7 @@ public class DataCommunicator<T> implements Serializable {
             future = null;
         }
         dataGenerator.destroyAllData();
+        sentRows.clear();
         if (dataProviderUpdateRegistration != null) {
             dataProviderUpdateRegistration.remove();
             dataProviderUpdateRegistration = null;
@@ -1105,6 +1470,8 @@ public class DataCommunicator<T> implements Serializable {
             }
             flushRequest = FlushRequest.register(stateNode, context -> {
                 if (!context.isClientSideInitialized()) {
+                    // Nothing sent before is available on the client
+                    sentRows.clear();
                     reset();
                     arrayUpdater.initialize();
                 }
@@ -1143,8 +1510,17 @@ public class DataCommunicator<T> implements Serializable {
         // Phase 1: Find all items that the client should have
 
         // With defined size the backend is only queried when necessary
-        if (definedSize && (resendEntireRange || sizeReset)) {
-            assumedSize = getDataProviderSize();
+        boolean countNeeded = resendEntireRange || sizeReset;
+        boolean retryingDefinedSize = countNeeded && estimatedByThreshold
+                && shouldRetryDefinedSize();
+        if (retryingDefinedSize) {
+            definedSize = true;
+        }
+        if (definedSize && countNeeded) {
+            assumedSize = countItems();
+            if (itemCountEstimateThreshold != null) {
+                adaptToCountDuration(retryingDefinedSize);
+            }
         } else if (!definedSize
                 && (!skipCountIncreaseUntilReset || sizeReset)) {
             // with undefined size, size estimate is checked when scrolling down
@@ -1157,7 +1533,8 @@ public class DataCommunicator<T> implements Serializable {
                 || (previousActive.isEmpty() && effectiveRequested.isEmpty()));
 
         UI ui = getUI();
-        if (ui != null && executor != null) {
+        Executor updateExecutor = getUpdateExecutor(ui);
+        if (ui != null && updateExecutor != null) {
             // In async mode wrap fetching data in future, collectKeysToFlush
             // will perform fetch from data provider with given range.
             if (ui.getPushConfiguration().getPushMode() != PushMode.AUTOMATIC) {
@@ -1169,7 +1546,7 @@ public class DataCommunicator<T> implements Serializable {
             }
             future = CompletableFuture
                     .supplyAsync(() -> collectKeysToFlush(previousActive,
-                            effectiveRequested), executor);
+                            effectiveRequested), updateExecutor);
             future.thenAccept(activation -> {
                 if (ui == null) {
                     return;
@@ -1189,17 +1566,32 @@ public class DataCommunicator<T> implements Serializable {
         }
     }
 
+    private Executor getUpdateExecutor(UI ui) {
+        if (useServiceExecutor && ui != null && ui.getSession() != null) {
+            return ui.getSession().getService().getExecutor();
+        }
+        return executor;
+    }
+
     private void performUpdate(Set<String> oldActive, Range effectiveRequested,
             final Range previousActive, Activation activation) {
         // In case received less items than what was expected, adjust size
         if (activation.isSizeRecheckNeeded()) {
             if (definedSize) {
-                assumedSize = getDataProviderSize();
+                // the cached count, if any, is evidently stale
+                itemCountCache.remove(getFilter());
+                assumedSize = countItems();
             } else {
                 // the end has been reached
                 assumedSize = requestedRange.getStart()
                         + activation.getActiveKeys().size();
                 skipCountIncreaseUntilReset = true;
+                if (estimatedByThreshold && (requestedRange.getStart() == 0
+                        || !activation.getActiveKeys().isEmpty())) {
+                    // the exact count is known, so defined size can be used
+                    // for this filter again while the count is cached
+                    cacheItemCount(getFilter(), assumedSize);
+                }
                 /*
                  * If the fetch query returned 0 items, it means that the user
                  * has scrolled past the end of the exact item count or the
@@ -1225,13 +1617,22 @@ public class DataCommunicator<T> implements Serializable {
                     .restrictTo(Range.withLength(0, assumedSize));
         }
 
+        List<String> previousKeyOrder = activeKeyOrder;
         activeKeyOrder = activation.getActiveKeys();
         activeStart = effectiveRequested.getStart();
 
         // Phase 2: Collect changes to send
         Update update = arrayUpdater.startUpdate(assumedSize);
-        boolean updated = collectChangesToSend(previousActive,
-                effectiveRequested, update);
+        boolean updated;
+        if (canSendChangedRowsOnly(previousActive, effectiveRequested,
+                previousKeyOrder)) {
+            sendChangedRows(activeKeyOrder.stream().map(keyMapper::get));
+            updated = false;
+        } else {
+            updated = collectChangesToSend(previousActive, effectiveRequested,
+                    update);
+        }
+        lastUpdateSize = assumedSize;
 
         resendEntireRange = false;
         assumeEmptyClient = false;
@@ -1243,6 +1644,9 @@ public class DataCommunicator<T> implements Serializable {
         // Phase 4: unregister passivated and updated items
         unregisterPassivatedKeys();
 
+        // Phase 5: evict keys of items no longer needed by the client
+        evictInactiveKeys();
+
         fireItemCountEvent(assumedSize);
     }
 
@@ -1278,11 +1682,49 @@ public class DataCommunicator<T> implements Serializable {
         if (updatedData.isEmpty()) {
             return;
         }
-        dataUpdater.accept(updatedData.stream().map(this::generateJson)
-                .collect(JsonUtils.asArray()));
+        if (rowDiffingEnabled) {
+            sendChangedRows(updatedData.stream());
+        } else {
+            dataUpdater.accept(updatedData.stream().map(this::generateJson)
+                    .collect(JsonUtils.asArray()));
+        }
         updatedData.clear();
     }
 
+    /*
+     * A full resend can be reduced to sending only the changed rows when the
+     * client already has exactly the same rows in the same positions.
+     */
+    private boolean canSendChangedRowsOnly(Range previousActive,
+            Range effectiveRequested, List<String> previousKeyOrder) {
+        return rowDiffingEnabled && resendEntireRange && !assumeEmptyClient
+                && lastUpdateSize == assumedSize
+                && previousActive.equals(effectiveRequested)
+                && previousKeyOrder.equals(activeKeyOrder);
+    }
+
+    private void sendChangedRows(Stream<T> items) {
+        JsonArray changed = items.map(this::generateJson)
+                .filter(this::isChangedRow).collect(JsonUtils.asArray());
+        if (changed.length() > 0) {
+            dataUpdater.accept(changed);
+        }
+    }
+
+    private boolean isChangedRow(JsonObject json) {
+        String key = json.getString("key");
+        JsonValue previous = sentRows.get(key);
+        if (previous == null) {
+            // Not known to be on the client, send it without tracking
+            return true;
+        }
+        if (JsonUtils.jsonEquals(previous, json)) {
+            return false;
+        }
+        sentRows.put(key, json);
+        return true;
+    }
+
     private void unregisterPassivatedKeys() {
         /*
          * Actually unregister anything that was removed in an update that the
@@ -1294,6 +1736,17 @@ public class DataCommunicator<T> implements Serializable {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private void evictInactiveKeys() {
+        if (keyMapper instanceof LongKeyMapper) {
+            Set<String> retained = new HashSet<>(activeKeyOrder);
+            passivatedByUpdate.values().forEach(retained::addAll);
+            ((LongKeyMapper<T>) keyMapper).retainKeys(retained::contains,
+                    dataGenerator::destroyData);
+            sentRows.keySet().retainAll(retained);
+        }
+    }
+
     private void doUnregister(Integer updateId) {
         Set<String> passivated = passivatedByUpdate.remove(updateId);
         if (passivated != null) {
@@ -1303,6 +1756,7 @@ public class DataCommunicator<T> implements Serializable {
                     dataGenerator.destroyData(item);
                     keyMapper.remove(item);
                 }
+                sentRows.remove(key);
             });
         }
     }
@@ -1406,7 +1860,14 @@ public class DataCommunicator<T> implements Serializable {
         return range.stream()
                 .mapToObj(index -> activeKeyOrder.get(index - activeStart))
                 .map(keyMapper::get).map(this::generateJson)
-                .collect(Collectors.toList());
+                .map(this::trackSentRow).collect(Collectors.toList());
+    }
+
+    private JsonValue trackSentRow(JsonObject json) {
+        if (rowDiffingEnabled) {
+            sentRows.put(json.getString("key"), json);
+        }
+        return json;
     }
 
     private static void withMissing(Range expected, Range actual,
@@ -1428,6 +1889,9 @@ public class DataCommunicator<T> implements Serializable {
             return Activation.empty();
         }
 
+        FlowMetrics metrics = FlowMetrics.get(VaadinService.getCurrent());
+        long start = metrics.isEnabled() ? System.nanoTime() : 0;
+
         // XXX Explicitly refresh anything that is updated
         List<String> activeKeys = new ArrayList<>(range.length());
         fetchFromProvider(range.getStart(), range.length()).forEach(bean -> {
@@ -1441,11 +1905,15 @@ public class DataCommunicator<T> implements Serializable {
             }
             activeKeys.add(key);
         });
+        if (metrics.isEnabled()) {
+            metrics.recordDataFetch(System.nanoTime() - start,
+                    activeKeys.size());
+        }
         boolean needsSizeRecheck = activeKeys.size() < range.length();
         return new Activation(activeKeys, needsSizeRecheck);
     }
 
-    private JsonValue generateJson(T item) {
+    private JsonObject generateJson(T item) {
         JsonObject json = Json.createObject();
         json.put("key", getKeyMapper().key(item));
         dataGenerator.generateData(item, json);
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.time.Duration;
+import java.util.EventObject;
+
+/**
+ * An event fired by a {@link DataCommunicator} about the way it determines the
+ * item count: counts queried from the data provider, counts served from the
+ * item count cache, invalidation of the cache and automatic switches between
+ * defined and undefined size.
+ *
+ * @see DataCommunicator#addItemCountListener(ItemCountListener)
+ * @see DataCommunicator#setItemCountCacheTimeToLive(Duration)
+ * @see DataCommunicator#setItemCountEstimateThreshold(Duration, Duration)
+ *
+ * @author Vaadin Ltd
+ * @since
+ *
+ * @param <T>
+ *            the data type
+ */
+public class ItemCountEvent<T> extends EventObject {
+
+    /**
+     * The type of an item count event.
+     */
+    public enum Type {
+        /**
+         * The item count was queried from the data provider.
+         */
+        COUNT_QUERIED,
+        /**
+         * The item count was found in the item count cache, so the data
+         * provider was not queried.
+         */
+        CACHE_HIT,
+        /**
+         * The item count cache was cleared, e.g. because the data of the data
+         * provider has changed.
+         */
+        CACHE_INVALIDATED,
+        /**
+         * Querying the item count took longer than the threshold, so the data
+         * communicator switched to undefined size with an item count
+         * estimate.
+         */
+        ESTIMATE_ENABLED,
+        /**
+         * The data communicator switched back to defined size after it had
+         * switched to undefined size because of slow item count queries.
+         */
+        ESTIMATE_DISABLED;
+    }
+
+    private final Type type;
+    private final int itemCount;
+    private final transient Object filter;
+    private final Duration duration;
+
+    /**
+     * Creates a new event.
+     *
+     * @param source
+     *            the data communicator, not {@code null}
+     * @param type
+     *            the event type, not {@code null}
+     * @param filter
+     *            the filter the item count applies to, or {@code null}
+     * @param itemCount
+     *            the item count, or {@code -1} if the event is not about a
+     *            specific count
+     * @param duration
+     *            the time spent querying the item count, not {@code null}
+     */
+    public ItemCountEvent(DataCommunicator<T> source, Type type, Object filter,
+            int itemCount, Duration duration) {
+        super(source);
+        this.type = type;
+        this.filter = filter;
+        this.itemCount = itemCount;
+        this.duration = duration;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public DataCommunicator<T> getSource() {
+        return (DataCommunicator<T>) super.getSource();
+    }
+
+    /**
+     * Gets the type of this event.
+     *
+     * @return the event type, not {@code null}
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the filter the item count applies to.
+     *
+     * @return the filter, or {@code null} if there is no filter
+     */
+    public Object getFilter() {
+        return filter;
+    }
+
+    /**
+     * Gets the item count.
+     *
+     * @return the item count, or {@code -1} if the event is not about a
+     *         specific count, e.g. for {@link Type#CACHE_INVALIDATED}
+     */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Gets the time spent querying the item count from the data provider. It
+     * is zero if the data provider was not queried.
+     *
+     * @return the query duration, not {@code null}
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+}
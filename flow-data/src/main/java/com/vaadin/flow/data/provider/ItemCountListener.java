@@ -0,0 +1,41 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.io.Serializable;
+
+/**
+ * Listener for the {@link ItemCountEvent}s of a {@link DataCommunicator}.
+ *
+ * @author Vaadin Ltd
+ * @since
+ *
+ * @param <T>
+ *            the data type
+ * @see DataCommunicator#addItemCountListener(ItemCountListener)
+ */
+@FunctionalInterface
+public interface ItemCountListener<T> extends Serializable {
+
+    /**
+     * Invoked when the data communicator has determined the item count or
+     * changed the way it determines it.
+     *
+     * @param event
+     *            the event, not {@code null}
+     */
+    void onItemCountEvent(ItemCountEvent<T> event);
+}
@@ -0,0 +1,450 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import com.vaadin.flow.function.ValueProvider;
+
+/**
+ * A {@link DataKeyMapper} for large data sets which uses primitive
+ * {@code long} keys internally.
+ * <p>
+ * Keys are only encoded to strings when requested through
+ * {@link #key(Object)}, and the mappings are stored in open addressing hash
+ * tables instead of {@link java.util.HashMap}s, which avoids allocating a key
+ * string and map entries for every mapped object.
+ * <p>
+ * When used with a {@link DataCommunicator}, the mappings of items that are
+ * neither active nor waiting for a passivation confirmation from the client
+ * are evicted automatically after each update. This means that keys are only
+ * valid for items currently loaded on the client side, so this mapper should
+ * not be used by components that need stable keys for other items, e.g. for
+ * selected items that have been scrolled out of view.
+ *
+ * @param <V>
+ *            the type of mapped objects
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class LongKeyMapper<V> implements DataKeyMapper<V> {
+
+    private static final String NULL_KEY = "null";
+
+    private long lastKey = 0;
+
+    private IdTable ids = new IdTable();
+
+    private KeyTable<V> items = new KeyTable<>();
+
+    private ValueProvider<V, Object> identifierGetter;
+
+    /**
+     * Constructs a new mapper.
+     *
+     * @param identifierGetter
+     *            has to return a unique key for every bean, and the returned
+     *            key has to follow general {@code hashCode()} and
+     *            {@code equals()} contract, see {@link Object#hashCode()} for
+     *            details.
+     */
+    public LongKeyMapper(ValueProvider<V, Object> identifierGetter) {
+        this.identifierGetter = identifierGetter;
+    }
+
+    /**
+     * Constructs a new mapper with trivial {@code identifierGetter}
+     */
+    public LongKeyMapper() {
+        this(v -> v);
+    }
+
+    @Override
+    public String key(V dataObject) {
+        if (dataObject == null) {
+            return NULL_KEY;
+        }
+        Object id = identifierGetter.apply(dataObject);
+        long key = ids.get(id);
+        if (key == 0) {
+            key = ++lastKey;
+            ids.put(id, key);
+            items.put(key, dataObject);
+        }
+        return Long.toString(key);
+    }
+
+    @Override
+    public boolean has(V dataObject) {
+        return ids.get(identifierGetter.apply(dataObject)) != 0;
+    }
+
+    @Override
+    public V get(String key) {
+        long parsed = parseKey(key);
+        return parsed == 0 ? null : items.get(parsed);
+    }
+
+    @Override
+    public void remove(V dataObject) {
+        long key = ids.remove(identifierGetter.apply(dataObject));
+        if (key != 0) {
+            items.remove(key);
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        ids = new IdTable();
+        items = new KeyTable<>();
+    }
+
+    /**
+     * Checks if the given key is mapped to an object.
+     *
+     * @param key
+     *            the key to check
+     * @return <code>true</code> if the key is currently mapped,
+     *         <code>false</code> otherwise
+     */
+    public boolean containsKey(String key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Gets the number of mapped objects.
+     *
+     * @return the number of mapped objects
+     */
+    public int size() {
+        return items.size;
+    }
+
+    @Override
+    public void refresh(V dataObject) {
+        long key = ids.get(identifierGetter.apply(dataObject));
+        if (key != 0) {
+            items.put(key, dataObject);
+        }
+    }
+
+    @Override
+    public void setIdentifierGetter(ValueProvider<V, Object> identifierGetter) {
+        if (this.identifierGetter != identifierGetter) {
+            this.identifierGetter = identifierGetter;
+            rebuild(key -> true, null);
+        }
+    }
+
+    /**
+     * Removes the mappings of all the objects whose key is not accepted by the
+     * given filter.
+     * <p>
+     * For internal use only. May be renamed or removed in a future release.
+     *
+     * @param retained
+     *            the filter for the keys to retain, not {@code null}
+     * @param removalHandler
+     *            a handler notified about every removed object, or
+     *            {@code null} to not notify
+     */
+    public void retainKeys(Predicate<String> retained,
+            Consumer<V> removalHandler) {
+        Objects.requireNonNull(retained, "Retained keys filter can't be null");
+        long[] keys = items.keys;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && !retained.test(Long.toString(keys[i]))) {
+                rebuild(retained, removalHandler);
+                return;
+            }
+        }
+    }
+
+    private void rebuild(Predicate<String> retained,
+            Consumer<V> removalHandler) {
+        KeyTable<V> oldItems = items;
+        ids = new IdTable(oldItems.size);
+        items = new KeyTable<>(oldItems.size);
+        for (int i = 0; i < oldItems.keys.length; i++) {
+            long key = oldItems.keys[i];
+            if (key == 0) {
+                continue;
+            }
+            V item = oldItems.valueAt(i);
+            if (retained.test(Long.toString(key))) {
+                ids.put(identifierGetter.apply(item), key);
+                items.put(key, item);
+            } else if (removalHandler != null) {
+                removalHandler.accept(item);
+            }
+        }
+    }
+
+    /*
+     * Parses a key created by this mapper without throwing for invalid input.
+     * Returns 0 for anything that can't be a key.
+     */
+    private static long parseKey(String key) {
+        if (key == null || key.isEmpty() || key.length() > 18) {
+            return 0;
+        }
+        long result = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static int capacityFor(int size) {
+        // Keep the load factor at most 0.5
+        int capacity = 16;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /*
+     * Fibonacci hashing: the high bits of the product are well distributed
+     * even for sequential hash codes or hash codes differing only in the high
+     * bits.
+     */
+    private static int home(int hash, int capacity) {
+        return (hash * 0x9E3779B9) >>> (Integer.numberOfLeadingZeros(capacity)
+                + 1);
+    }
+
+    /**
+     * Marker for a {@code null} identifier, since {@code null} is used for
+     * free slots in the id table.
+     */
+    private enum NullId {
+        INSTANCE
+    }
+
+    /**
+     * Open addressing table from object identifiers to keys using linear
+     * probing. A zero key denotes an absent mapping.
+     */
+    private static class IdTable implements Serializable {
+        private Object[] ids;
+        private long[] keys;
+        private int size;
+
+        IdTable() {
+            this(0);
+        }
+
+        IdTable(int expectedSize) {
+            int capacity = capacityFor(expectedSize);
+            ids = new Object[capacity];
+            keys = new long[capacity];
+        }
+
+        long get(Object id) {
+            Object maskedId = mask(id);
+            int mask = ids.length - 1;
+            int i = home(maskedId.hashCode(), ids.length);
+            while (ids[i] != null) {
+                if (ids[i].equals(maskedId)) {
+                    return keys[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return 0;
+        }
+
+        void put(Object id, long key) {
+            Object maskedId = mask(id);
+            int mask = ids.length - 1;
+            int i = home(maskedId.hashCode(), ids.length);
+            while (ids[i] != null) {
+                if (ids[i].equals(maskedId)) {
+                    keys[i] = key;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            ids[i] = maskedId;
+            keys[i] = key;
+            if (++size * 2 > ids.length) {
+                resize();
+            }
+        }
+
+        long remove(Object id) {
+            Object maskedId = mask(id);
+            int mask = ids.length - 1;
+            int i = home(maskedId.hashCode(), ids.length);
+            while (ids[i] != null) {
+                if (ids[i].equals(maskedId)) {
+                    long key = keys[i];
+                    removeAt(i);
+                    return key;
+                }
+                i = (i + 1) & mask;
+            }
+            return 0;
+        }
+
+        private void removeAt(int index) {
+            // Backward shift deletion keeps probe sequences intact without
+            // tombstones
+            int mask = ids.length - 1;
+            int free = index;
+            int i = (index + 1) & mask;
+            while (ids[i] != null) {
+                int home = home(ids[i].hashCode(), ids.length);
+                if (((i - home) & mask) >= ((i - free) & mask)) {
+                    ids[free] = ids[i];
+                    keys[free] = keys[i];
+                    free = i;
+                }
+                i = (i + 1) & mask;
+            }
+            ids[free] = null;
+            keys[free] = 0;
+            size--;
+        }
+
+        private void resize() {
+            Object[] oldIds = ids;
+            long[] oldKeys = keys;
+            ids = new Object[oldIds.length * 2];
+            keys = new long[oldIds.length * 2];
+            size = 0;
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] != null) {
+                    put(oldIds[i], oldKeys[i]);
+                }
+            }
+        }
+
+        private static Object mask(Object id) {
+            return id == null ? NullId.INSTANCE : id;
+        }
+    }
+
+    /**
+     * Open addressing table from keys to mapped objects using linear probing.
+     * Keys are always positive, so zero denotes a free slot.
+     */
+    private static class KeyTable<V> implements Serializable {
+        private long[] keys;
+        private Object[] values;
+        private int size;
+
+        KeyTable() {
+            this(0);
+        }
+
+        KeyTable(int expectedSize) {
+            int capacity = capacityFor(expectedSize);
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+
+        V get(long key) {
+            int mask = keys.length - 1;
+            int i = slot(key, keys.length);
+            while (keys[i] != 0) {
+                if (keys[i] == key) {
+                    return valueAt(i);
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        void put(long key, V value) {
+            int mask = keys.length - 1;
+            int i = slot(key, keys.length);
+            while (keys[i] != 0) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+        }
+
+        void remove(long key) {
+            int mask = keys.length - 1;
+            int i = slot(key, keys.length);
+            while (keys[i] != 0) {
+                if (keys[i] == key) {
+                    removeAt(i);
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        V valueAt(int index) {
+            return (V) values[index];
+        }
+
+        private void removeAt(int index) {
+            int mask = keys.length - 1;
+            int free = index;
+            int i = (index + 1) & mask;
+            while (keys[i] != 0) {
+                int home = slot(keys[i], keys.length);
+                if (((i - home) & mask) >= ((i - free) & mask)) {
+                    keys[free] = keys[i];
+                    values[free] = values[i];
+                    free = i;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[free] = 0;
+            values[free] = null;
+            size--;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void resize() {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Object[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], (V) oldValues[i]);
+                }
+            }
+        }
+
+        private static int slot(long key, int capacity) {
+            return home(Long.hashCode(key), capacity);
+        }
+    }
+}
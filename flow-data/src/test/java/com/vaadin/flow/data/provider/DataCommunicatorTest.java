@@ -15,10 +15,15 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -50,6 +55,8 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
 import elemental.json.JsonValue;
 
 public class DataCommunicatorTest {
@@ -1604,6 +1611,358 @@ public class DataCommunicatorTest {
         }
     }
 
+    @Test
+    public void rowDiffing_resetWithSameItems_onlyChangedRowsSent() {
+        List<Item> items = createItems(10);
+        ListDataProvider<Item> dataProvider = new ListDataProvider<>(items);
+        List<JsonArray> updates = new ArrayList<>();
+        dataCommunicator = createDiffingCommunicator(updates);
+        dataCommunicator.setDataProvider(dataProvider, null);
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 10), lastSet);
+        lastSet = null;
+
+        items.set(3, new Item(3, "Updated"));
+        dataProvider.refreshAll();
+        fakeClientCommunication();
+
+        Assert.assertNull("Entire range should not be resent", lastSet);
+        Assert.assertNull("Nothing should be cleared", lastClear);
+        Assert.assertEquals(1, updates.size());
+        Assert.assertEquals(1, updates.get(0).length());
+        JsonObject row = updates.get(0).getObject(0);
+        Assert.assertEquals("Updated", row.getString("value"));
+        Assert.assertEquals(dataCommunicator.getKeyMapper().key(items.get(3)),
+                row.getString("key"));
+
+        updates.clear();
+        dataProvider.refreshAll();
+        fakeClientCommunication();
+
+        Assert.assertNull(lastSet);
+        Assert.assertTrue("Unchanged rows should not be sent",
+                updates.isEmpty());
+    }
+
+    @Test
+    public void rowDiffing_resetWithDifferentItems_entireRangeResent() {
+        List<Item> items = createItems(10);
+        ListDataProvider<Item> dataProvider = new ListDataProvider<>(items);
+        List<JsonArray> updates = new ArrayList<>();
+        dataCommunicator = createDiffingCommunicator(updates);
+        dataCommunicator.setDataProvider(dataProvider, null);
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+        lastSet = null;
+
+        items.add(0, new Item(42));
+        dataProvider.refreshAll();
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 10), lastSet);
+        Assert.assertEquals(Range.withLength(0, 10), lastClear);
+        Assert.assertTrue(updates.isEmpty());
+    }
+
+    @Test
+    public void rowDiffing_refreshItem_sentOnlyWhenChanged() {
+        List<Item> items = createItems(10);
+        ListDataProvider<Item> dataProvider = new ListDataProvider<>(items);
+        List<JsonArray> updates = new ArrayList<>();
+        dataCommunicator = createDiffingCommunicator(updates);
+        dataCommunicator.setDataProvider(dataProvider, null);
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+
+        dataProvider.refreshItem(items.get(5));
+        fakeClientCommunication();
+        Assert.assertTrue("Unchanged item should not be sent",
+                updates.isEmpty());
+
+        items.get(5).value = "Updated";
+        dataProvider.refreshItem(items.get(5));
+        fakeClientCommunication();
+        Assert.assertEquals(1, updates.size());
+        Assert.assertEquals("Updated",
+                updates.get(0).getObject(0).getString("value"));
+    }
+
+    @Test
+    public void rowDiffingDisabled_resetWithSameItems_entireRangeResent() {
+        List<Item> items = createItems(10);
+        ListDataProvider<Item> dataProvider = new ListDataProvider<>(items);
+        List<JsonArray> updates = new ArrayList<>();
+        dataCommunicator = createDiffingCommunicator(updates);
+        dataCommunicator.setRowDiffingEnabled(false);
+        dataCommunicator.setDataProvider(dataProvider, null);
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+        lastSet = null;
+
+        dataProvider.refreshAll();
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 10), lastSet);
+
+        dataProvider.refreshItem(items.get(5));
+        fakeClientCommunication();
+        Assert.assertEquals(1, updates.size());
+    }
+
+    @Test
+    public void longKeyMapper_scrolledAway_inactiveKeysEvicted() {
+        LongKeyMapper<Item> keyMapper = new LongKeyMapper<>();
+        dataCommunicator.setKeyMapper(keyMapper);
+        dataCommunicator.setDataProvider(createDataProvider(), null);
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+
+        Assert.assertEquals(10, keyMapper.size());
+        String firstKey = keyMapper.key(new Item(0));
+
+        dataCommunicator.setRequestedRange(50, 10);
+        fakeClientCommunication();
+
+        Assert.assertEquals(
+                "Passivated keys should be kept until the update is confirmed",
+                20, keyMapper.size());
+        Assert.assertNotNull(keyMapper.get(firstKey));
+
+        dataCommunicator.confirmUpdate(lastUpdateId);
+        dataCommunicator.setRequestedRange(50, 10);
+        fakeClientCommunication();
+
+        Assert.assertEquals(10, keyMapper.size());
+        Assert.assertNull(keyMapper.get(firstKey));
+        Mockito.verify(dataGenerator).destroyData(new Item(0));
+    }
+
+    @Test
+    public void longKeyMapper_keyCreatedForInactiveItem_evictedOnNextUpdate() {
+        LongKeyMapper<Item> keyMapper = new LongKeyMapper<>();
+        dataCommunicator.setKeyMapper(keyMapper);
+        dataCommunicator.setDataProvider(createDataProvider(), null);
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+
+        keyMapper.key(new Item(99));
+        Assert.assertEquals(11, keyMapper.size());
+
+        dataCommunicator.setRequestedRange(0, 11);
+        fakeClientCommunication();
+
+        Assert.assertEquals(11, keyMapper.size());
+        Assert.assertFalse(keyMapper.has(new Item(99)));
+    }
+
+    @Test
+    public void itemCountCache_sortingChangedOrFilterReused_countNotQueriedAgain() {
+        AtomicLong clock = new AtomicLong();
+        AtomicInteger countQueries = new AtomicInteger();
+        dataCommunicator = createClockedCommunicator(clock);
+        SerializableConsumer<Integer> filterSlot = dataCommunicator
+                .setDataProvider(createCountingDataProvider(countQueries,
+                        clock, new AtomicLong()), 100);
+        dataCommunicator.setItemCountCacheTimeToLive(Duration.ofMinutes(1));
+        List<ItemCountEvent.Type> events = new ArrayList<>();
+        dataCommunicator.addItemCountListener(
+                event -> events.add(event.getType()));
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        dataCommunicator.setBackEndSorting(Collections.singletonList(
+                new QuerySortOrder("value", SortDirection.DESCENDING)));
+        fakeClientCommunication();
+        filterSlot.accept(200);
+        fakeClientCommunication();
+        filterSlot.accept(100);
+        fakeClientCommunication();
+
+        Assert.assertEquals(2, countQueries.get());
+        Assert.assertEquals(Arrays.asList(ItemCountEvent.Type.COUNT_QUERIED,
+                ItemCountEvent.Type.CACHE_HIT,
+                ItemCountEvent.Type.COUNT_QUERIED,
+                ItemCountEvent.Type.CACHE_HIT), events);
+        Assert.assertEquals(100, dataCommunicator.getItemCount());
+    }
+
+    @Test
+    public void itemCountCache_expiredOrInvalidated_countQueriedAgain() {
+        AtomicLong clock = new AtomicLong();
+        AtomicInteger countQueries = new AtomicInteger();
+        dataCommunicator = createClockedCommunicator(clock);
+        CallbackDataProvider<Item, Integer> dataProvider = createCountingDataProvider(
+                countQueries, clock, new AtomicLong());
+        dataCommunicator.setDataProvider(dataProvider, 100);
+        dataCommunicator.setItemCountCacheTimeToLive(Duration.ofSeconds(10));
+        List<ItemCountEvent.Type> events = new ArrayList<>();
+        dataCommunicator.addItemCountListener(
+                event -> events.add(event.getType()));
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        dataCommunicator.reset();
+        fakeClientCommunication();
+        Assert.assertEquals(2, countQueries.get());
+
+        dataProvider.refreshAll();
+        fakeClientCommunication();
+        Assert.assertEquals(3, countQueries.get());
+
+        dataCommunicator.invalidateItemCountCache();
+        dataCommunicator.reset();
+        fakeClientCommunication();
+        Assert.assertEquals(4, countQueries.get());
+        Assert.assertEquals(2, events.stream()
+                .filter(ItemCountEvent.Type.CACHE_INVALIDATED::equals)
+                .count());
+        Assert.assertFalse(events.contains(ItemCountEvent.Type.CACHE_HIT));
+    }
+
+    @Test
+    public void itemCountCache_cachedAtInTheFuture_countQueriedAgain() {
+        // e.g. deserialized on a node with a clock behind the original one
+        AtomicLong clock = new AtomicLong(Duration.ofMinutes(10).toNanos());
+        AtomicInteger countQueries = new AtomicInteger();
+        dataCommunicator = createClockedCommunicator(clock);
+        dataCommunicator.setDataProvider(createCountingDataProvider(
+                countQueries, clock, new AtomicLong()), 100);
+        dataCommunicator.setItemCountCacheTimeToLive(Duration.ofMinutes(1));
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        clock.set(0);
+        dataCommunicator.reset();
+        fakeClientCommunication();
+
+        Assert.assertEquals(2, countQueries.get());
+    }
+
+    @Test
+    public void itemCountEstimateThreshold_slowCount_undefinedSizeUntilRetryIsFast() {
+        AtomicLong clock = new AtomicLong();
+        AtomicInteger countQueries = new AtomicInteger();
+        AtomicLong countDuration = new AtomicLong(
+                Duration.ofSeconds(2).toNanos());
+        dataCommunicator = createClockedCommunicator(clock);
+        dataCommunicator.setItemCountEstimateThreshold(Duration.ofSeconds(1),
+                Duration.ofMinutes(1));
+        SerializableConsumer<Integer> filterSlot = dataCommunicator
+                .setDataProvider(createCountingDataProvider(countQueries,
+                        clock, countDuration), 1000);
+        List<ItemCountEvent<Item>> events = new ArrayList<>();
+        dataCommunicator.addItemCountListener(events::add);
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Assert.assertFalse(dataCommunicator.isDefinedSize());
+        Assert.assertEquals(1000, dataCommunicator.getItemCount());
+        Assert.assertEquals(ItemCountEvent.Type.ESTIMATE_ENABLED,
+                events.get(1).getType());
+        Assert.assertEquals(Duration.ofSeconds(2),
+                events.get(1).getDuration());
+
+        filterSlot.accept(500);
+        fakeClientCommunication();
+        Assert.assertEquals(1, countQueries.get());
+        Assert.assertFalse(dataCommunicator.isDefinedSize());
+
+        countDuration.set(0);
+        clock.addAndGet(Duration.ofMinutes(2).toNanos());
+        filterSlot.accept(300);
+        fakeClientCommunication();
+
+        Assert.assertEquals(2, countQueries.get());
+        Assert.assertTrue(dataCommunicator.isDefinedSize());
+        Assert.assertEquals(300, dataCommunicator.getItemCount());
+        Assert.assertEquals(ItemCountEvent.Type.ESTIMATE_DISABLED,
+                events.get(events.size() - 1).getType());
+    }
+
+    @Test
+    public void itemCountEstimateThreshold_countCached_definedSizeWithoutQuery() {
+        AtomicLong clock = new AtomicLong();
+        AtomicInteger countQueries = new AtomicInteger();
+        dataCommunicator = createClockedCommunicator(clock);
+        dataCommunicator.setItemCountCacheTimeToLive(Duration.ofMinutes(1));
+        dataCommunicator.setItemCountEstimateThreshold(Duration.ofSeconds(1),
+                null);
+        SerializableConsumer<Integer> filterSlot = dataCommunicator
+                .setDataProvider(createCountingDataProvider(countQueries,
+                        clock, new AtomicLong(Duration.ofSeconds(2).toNanos())),
+                        100);
+        List<ItemCountEvent.Type> events = new ArrayList<>();
+        dataCommunicator.addItemCountListener(
+                event -> events.add(event.getType()));
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        filterSlot.accept(200);
+        fakeClientCommunication();
+        Assert.assertFalse(dataCommunicator.isDefinedSize());
+
+        filterSlot.accept(100);
+        fakeClientCommunication();
+
+        Assert.assertEquals(1, countQueries.get());
+        Assert.assertTrue(dataCommunicator.isDefinedSize());
+        Assert.assertEquals(100, dataCommunicator.getItemCount());
+        Assert.assertEquals(Arrays.asList(ItemCountEvent.Type.COUNT_QUERIED,
+                ItemCountEvent.Type.ESTIMATE_ENABLED,
+                ItemCountEvent.Type.CACHE_HIT,
+                ItemCountEvent.Type.ESTIMATE_DISABLED), events);
+    }
+
+    private DataCommunicator<Item> createClockedCommunicator(AtomicLong clock) {
+        return new DataCommunicator<Item>(dataGenerator, arrayUpdater, data -> {
+        }, element.getNode()) {
+            @Override
+            long currentTimeNanos() {
+                return clock.get();
+            }
+
+            @Override
+            long currentTimeMillis() {
+                return TimeUnit.NANOSECONDS.toMillis(clock.get());
+            }
+        };
+    }
+
+    /*
+     * The filter is the number of items, and each count query advances the
+     * clock by the given duration.
+     */
+    private CallbackDataProvider<Item, Integer> createCountingDataProvider(
+            AtomicInteger countQueries, AtomicLong clock,
+            AtomicLong countDuration) {
+        return DataProvider.fromFilteringCallbacks(query -> {
+            int end = Math.min(query.getFilter().orElse(0),
+                    query.getOffset() + query.getLimit());
+            return IntStream.range(query.getOffset(), end)
+                    .mapToObj(Item::new);
+        }, query -> {
+            countQueries.incrementAndGet();
+            clock.addAndGet(countDuration.get());
+            return query.getFilter().orElse(0);
+        });
+    }
+
+    private DataCommunicator<Item> createDiffingCommunicator(
+            List<JsonArray> updates) {
+        DataCommunicator<Item> communicator = new DataCommunicator<>(
+                (item, json) -> json.put("value", item.value), arrayUpdater,
+                updates::add, element.getNode());
+        communicator.setRowDiffingEnabled(true);
+        return communicator;
+    }
+
+    private List<Item> createItems(int count) {
+        return IntStream.range(0, count).mapToObj(Item::new)
+                .collect(Collectors.toList());
+    }
+
     private int getPageSizeIncrease() {
         return dataCommunicator.getPageSize() * 4;
     }
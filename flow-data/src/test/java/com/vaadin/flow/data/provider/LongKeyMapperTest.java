@@ -0,0 +1,193 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LongKeyMapperTest {
+
+    private final LongKeyMapper<StrBean> mapper = new LongKeyMapper<>();
+
+    @Test
+    public void key_sameObject_sameKey() {
+        StrBean bean = new StrBean("foo", 1, 1);
+        String key = mapper.key(bean);
+
+        Assert.assertEquals(key, mapper.key(bean));
+        Assert.assertSame(bean, mapper.get(key));
+        Assert.assertTrue(mapper.has(bean));
+        Assert.assertTrue(mapper.containsKey(key));
+    }
+
+    @Test
+    public void key_differentObjects_differentKeys() {
+        String key1 = mapper.key(new StrBean("foo", 1, 1));
+        String key2 = mapper.key(new StrBean("bar", 2, 2));
+
+        Assert.assertNotEquals(key1, key2);
+        Assert.assertEquals(2, mapper.size());
+    }
+
+    @Test
+    public void key_null_nullKey() {
+        Assert.assertEquals("null", mapper.key(null));
+        Assert.assertNull(mapper.get("null"));
+        Assert.assertEquals(0, mapper.size());
+    }
+
+    @Test
+    public void get_invalidKey_null() {
+        mapper.key(new StrBean("foo", 1, 1));
+
+        Assert.assertNull(mapper.get(null));
+        Assert.assertNull(mapper.get(""));
+        Assert.assertNull(mapper.get("-1"));
+        Assert.assertNull(mapper.get("0"));
+        Assert.assertNull(mapper.get("abc"));
+        Assert.assertNull(mapper.get("99999999999999999999"));
+    }
+
+    @Test
+    public void remove_keyNotReused() {
+        StrBean bean = new StrBean("foo", 1, 1);
+        String key = mapper.key(bean);
+        mapper.remove(bean);
+
+        Assert.assertFalse(mapper.has(bean));
+        Assert.assertNull(mapper.get(key));
+        Assert.assertNotEquals(key, mapper.key(bean));
+    }
+
+    @Test
+    public void removeAll_allRemoved() {
+        StrBean bean = new StrBean("foo", 1, 1);
+        String key = mapper.key(bean);
+        mapper.removeAll();
+
+        Assert.assertFalse(mapper.has(bean));
+        Assert.assertNull(mapper.get(key));
+        Assert.assertEquals(0, mapper.size());
+    }
+
+    @Test
+    public void refresh_identifierGetter_latestInstanceReturned() {
+        LongKeyMapper<StrBean> idMapper = new LongKeyMapper<>(
+                StrBean::getId);
+        StrBean bean = new StrBean("foo", 1, 1);
+        String key = idMapper.key(bean);
+
+        StrBean updated = new StrBean("bar", 1, 2);
+        Assert.assertTrue(idMapper.has(updated));
+        idMapper.refresh(updated);
+
+        Assert.assertSame(updated, idMapper.get(key));
+        Assert.assertEquals(key, idMapper.key(updated));
+    }
+
+    @Test
+    public void refresh_notMapped_nothingAdded() {
+        mapper.refresh(new StrBean("foo", 1, 1));
+
+        Assert.assertEquals(0, mapper.size());
+    }
+
+    @Test
+    public void setIdentifierGetter_mappingsUpdated() {
+        StrBean bean = new StrBean("foo", 1, 1);
+        String key = mapper.key(bean);
+
+        mapper.setIdentifierGetter(StrBean::getId);
+
+        Assert.assertTrue(mapper.has(new StrBean("bar", 1, 2)));
+        Assert.assertEquals(key, mapper.key(new StrBean("bar", 1, 2)));
+    }
+
+    @Test
+    public void nullIdentifier_mapped() {
+        LongKeyMapper<StrBean> idMapper = new LongKeyMapper<>(bean -> null);
+        StrBean bean = new StrBean("foo", 1, 1);
+        String key = idMapper.key(bean);
+
+        Assert.assertSame(bean, idMapper.get(key));
+        idMapper.remove(bean);
+        Assert.assertFalse(idMapper.has(bean));
+    }
+
+    @Test
+    public void retainKeys_otherKeysRemovedAndReported() {
+        List<StrBean> beans = StrBean.generateRandomBeans(10);
+        List<String> keys = new ArrayList<>();
+        beans.forEach(bean -> keys.add(mapper.key(bean)));
+
+        List<StrBean> removed = new ArrayList<>();
+        mapper.retainKeys(key -> keys.indexOf(key) < 3, removed::add);
+
+        Assert.assertEquals(3, mapper.size());
+        Assert.assertEquals(beans.subList(3, 10).size(), removed.size());
+        Assert.assertTrue(removed.containsAll(beans.subList(3, 10)));
+        for (int i = 0; i < 3; i++) {
+            Assert.assertSame(beans.get(i), mapper.get(keys.get(i)));
+            Assert.assertEquals(keys.get(i), mapper.key(beans.get(i)));
+        }
+    }
+
+    @Test
+    public void randomOperations_behavesLikeHashMap() {
+        LongKeyMapper<Integer> intMapper = new LongKeyMapper<>();
+        Map<Integer, String> reference = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            Integer value = random.nextInt(5000);
+            if (random.nextInt(3) == 0) {
+                intMapper.remove(value);
+                reference.remove(value);
+            } else {
+                String key = intMapper.key(value);
+                String previous = reference.put(value, key);
+                if (previous != null) {
+                    Assert.assertEquals(previous, key);
+                }
+            }
+        }
+        Assert.assertEquals(reference.size(), intMapper.size());
+        reference.forEach((value, key) -> {
+            Assert.assertTrue(intMapper.has(value));
+            Assert.assertEquals(value, intMapper.get(key));
+        });
+    }
+
+    @Test
+    public void serializable_mappingsRetained() {
+        LongKeyMapper<Integer> intMapper = new LongKeyMapper<>();
+        String key = intMapper.key(1);
+        intMapper.key(null);
+
+        LongKeyMapper<Integer> copy = SerializationUtils
+                .roundtrip(intMapper);
+
+        Assert.assertEquals(Integer.valueOf(1), copy.get(key));
+        Assert.assertEquals(key, copy.key(1));
+        Assert.assertNotEquals(key, copy.key(2));
+    }
+}
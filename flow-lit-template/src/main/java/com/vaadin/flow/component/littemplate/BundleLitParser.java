@@ -18,13 +18,11 @@ package com.vaadin.flow.component.littemplate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.vaadin.flow.internal.StringUtil;
+import com.vaadin.flow.component.template.internal.TemplateIdIndex;
 import com.vaadin.flow.server.VaadinService;
 
 import elemental.json.Json;
@@ -57,39 +55,9 @@ public final class BundleLitParser {
     private static final String CHUNKS = "chunks";
     private static final String MODULES = "modules";
 
-    /**
-     * Lit template pattern matches the template getter
-     *
-     * <pre>
-     *     render() {
-     *       return html`
-     *         &lt;style&gt;
-     *           .response { margin-top: 10px`; }
-     *         &lt;/style&gt;
-     *         &lt;paper-checkbox checked=&quot;${liked}&quot;&gt;I like web components.&lt;/paper-checkbox&gt;
-     *
-     *         &lt;div id=&quot;test&quot; ?hidden=&quot;${liked}&quot; class=&quot;response&quot;&gt;Web components like you, too.&lt;/div&gt;
-     *       `;
-     *     }
-     * </pre>
-     *
-     * <p>
-     * <code>render\(\)[\s]*\{</code> finds the template getter method
-     * <p>
-     * <code>[\s]*return[\s]*html[\s]*(\`)</code> finds the return statement
-     * <p>
-     * </p>
-     * <code>([\s\S]*)</code> captures all text until we encounter the end
-     * character with <code>\1;}</code> e.g. <code>';}</code>
-     */
-    private static final Pattern LIT_TEMPLATE_PATTERN = Pattern.compile(
-            "render\\(\\)[\\s]*\\{[\\s]*return[\\s]*html[\\s]*(\\`)([\\s\\S]*?)\\1;[\\s]*\\}");
-
     private static final Pattern HASH_PATTERN = Pattern
             .compile("\"hash\"\\s*:\\s*\"([^\"]+)\"\\s*,");
 
-    private static final String TEMPLATE_TAG_NAME = "template";
-
     private BundleLitParser() {
     }
 
@@ -144,27 +112,9 @@ public final class BundleLitParser {
      */
     public static Element parseLitTemplateElement(String fileName,
             String source) {
-        Document templateDocument = null;
-        String content = StringUtil.removeComments(source);
-        Matcher templateMatcher = LIT_TEMPLATE_PATTERN.matcher(content);
-
-        // GroupCount should be 2 as the first group contains `|'|" depending
-        // on what was in template return html' and the second is the
-        // template contents.
-        if (templateMatcher.find() && templateMatcher.groupCount() == 2) {
-            String group = templateMatcher.group(2);
-            LOGGER.trace("Found regular Lit template content was {}", group);
-
-            templateDocument = Jsoup.parse(group);
-            LOGGER.trace("The parsed template document was {}",
-                    templateDocument);
-            Element template = templateDocument
-                    .createElement(TEMPLATE_TAG_NAME);
-            Element body = templateDocument.body();
-            templateDocument.body().children().stream()
-                    .filter(node -> !node.equals(body))
-                    .forEach(template::appendChild);
-
+        Element template = TemplateIdIndex.parseLitTemplate(source);
+        if (template != null) {
+            LOGGER.trace("The parsed template element was {}", template);
             return template;
         }
         LOGGER.warn("No lit template data found in {} sources.", fileName);
@@ -21,6 +21,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.FilenameUtils;
@@ -32,6 +33,7 @@ import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.littemplate.BundleLitParser;
 import com.vaadin.flow.component.littemplate.LitTemplate;
 import com.vaadin.flow.component.littemplate.LitTemplateParser;
+import com.vaadin.flow.component.template.internal.TemplateIdIndex;
 import com.vaadin.flow.di.Lookup;
 import com.vaadin.flow.di.ResourceProvider;
 import com.vaadin.flow.internal.AnnotationReader;
@@ -43,6 +45,9 @@ import com.vaadin.flow.server.frontend.FrontendUtils;
 import com.vaadin.flow.shared.ui.Dependency;
 import com.vaadin.flow.shared.ui.LoadMode;
 
+import elemental.json.Json;
+import elemental.json.JsonException;
+
 /**
  * Lit template parser implementation.
  * <p>
@@ -50,6 +55,9 @@ import com.vaadin.flow.shared.ui.LoadMode;
  * class and tries to find the one that contains template definition using the
  * tag name.
  * <p>
+ * In production mode, the index of template elements with an id generated at
+ * build time is used when available instead of parsing the template sources.
+ * <p>
  * The class is Singleton. Use {@link LitTemplateParserImpl#getInstance()} to
  * get its instance.
  * <p>
@@ -93,6 +101,14 @@ public class LitTemplateParserImpl implements LitTemplateParser {
                     service);
         }
 
+        if (service.getDeploymentConfiguration().isProductionMode()) {
+            TemplateData indexed = getIndexedTemplateContent(dependencies, tag,
+                    service);
+            if (indexed != null) {
+                return indexed;
+            }
+        }
+
         Pair<Dependency, String> chosenDep = null;
 
         for (Dependency dependency : dependencies) {
@@ -145,6 +161,74 @@ public class LitTemplateParserImpl implements LitTemplateParser {
         return null;
     }
 
+    /**
+     * Gets the template data from the template id index generated at build
+     * time, if available.
+     *
+     * @param dependencies
+     *            the module dependencies of the template
+     * @param tag
+     *            tag name for element
+     * @param service
+     *            the Vaadin service
+     * @return the template data, or {@code null} if none of the dependencies
+     *         is indexed
+     */
+    private TemplateData getIndexedTemplateContent(
+            List<Dependency> dependencies, String tag, VaadinService service) {
+        TemplateIdIndex index = service.getContext().getAttribute(
+                TemplateIdIndex.class, () -> loadTemplateIndex(service));
+
+        Dependency chosenDep = null;
+        Element templateElement = null;
+        for (Dependency dependency : dependencies) {
+            if (dependency.getType() != Dependency.Type.JS_MODULE) {
+                continue;
+            }
+            Optional<Element> element = index
+                    .getTemplateElement(dependency.getUrl());
+            if (!element.isPresent()) {
+                continue;
+            }
+            boolean hasTagName = dependencyHasTagName(dependency, tag);
+            if (chosenDep == null || hasTagName) {
+                chosenDep = dependency;
+                templateElement = element.get();
+            }
+            if (hasTagName) {
+                break;
+            }
+        }
+        if (chosenDep == null) {
+            return null;
+        }
+        getLogger().debug("Found the tag '{}' in the template id index for '{}'",
+                tag, chosenDep.getUrl());
+        // Template needs to be wrapped in an element with id, to look
+        // like a P2 template
+        Element parent = new Element(tag);
+        parent.attr("id", tag);
+        templateElement.appendTo(parent);
+        return new TemplateData(chosenDep.getUrl(), templateElement);
+    }
+
+    private TemplateIdIndex loadTemplateIndex(VaadinService service) {
+        InputStream content = getResourceStream(service,
+                Constants.VAADIN_SERVLET_RESOURCES
+                        + Constants.TEMPLATE_ID_INDEX);
+        if (content == null) {
+            return TemplateIdIndex.empty();
+        }
+        try {
+            return new TemplateIdIndex(
+                    Json.parse(FrontendUtils.streamToString(content)));
+        } catch (JsonException e) {
+            getLogger().warn("Unable to parse the template id index, "
+                    + "templates are parsed from their sources", e);
+            return TemplateIdIndex.empty();
+        }
+    }
+
     /**
      * Dependency should match the tag name ignoring the extension of the file.
      *
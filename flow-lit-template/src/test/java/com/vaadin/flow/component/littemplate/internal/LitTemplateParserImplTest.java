@@ -15,14 +15,21 @@
  */
 package com.vaadin.flow.component.littemplate.internal;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.Properties;
 import java.util.stream.Stream;
 
+import org.apache.commons.io.FileUtils;
 import org.hamcrest.CoreMatchers;
+import org.jsoup.nodes.Element;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -36,11 +43,15 @@ import com.vaadin.flow.di.Instantiator;
 import com.vaadin.flow.di.Lookup;
 import com.vaadin.flow.di.ResourceProvider;
 import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.server.Constants;
 import com.vaadin.flow.server.MockVaadinServletService;
 import com.vaadin.flow.server.frontend.FrontendUtils;
 
 public class LitTemplateParserImplTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private MockVaadinServletService service;
     @Mock
     DeploymentConfiguration configuration;
@@ -256,6 +267,65 @@ public class LitTemplateParserImplTest {
                         "Tag name doesn't match the JS module name")));
     }
 
+    @Test
+    public void getTemplateContent_productionModeTemplateIndexExists_indexUsed()
+            throws IOException {
+        Mockito.when(configuration.isProductionMode()).thenReturn(true);
+        File index = temporaryFolder.newFile("template-ids.json");
+        FileUtils.write(index, "{\"frontend/indexed-element.js\": {"
+                + "\"name\": {\"tag\": \"vaadin-text-field\", "
+                + "\"attributes\": {\"id\": \"name\", "
+                + "\"label\": \"Name\", \"required\": null}}}}",
+                StandardCharsets.UTF_8);
+        ResourceProvider resourceProvider = service.getContext()
+                .getAttribute(Lookup.class).lookup(ResourceProvider.class);
+        Mockito.when(resourceProvider.getApplicationResource(
+                Constants.VAADIN_SERVLET_RESOURCES
+                        + Constants.TEMPLATE_ID_INDEX))
+                .thenReturn(index.toURI().toURL());
+
+        TemplateData templateContent = LitTemplateParserImpl.getInstance()
+                .getTemplateContent(IndexedElement.class, "indexed-element",
+                        service);
+
+        Assert.assertEquals("Parent element ID not the expected one.",
+                "indexed-element",
+                templateContent.getTemplateElement().parent().id());
+        Element field = templateContent.getTemplateElement()
+                .getElementById("name");
+        Assert.assertEquals("vaadin-text-field", field.tagName());
+        Assert.assertEquals("Name", field.attr("label"));
+        Assert.assertEquals("required",
+                field.attributes().asList().stream()
+                        .filter(attr -> attr.getKey().equals("required"))
+                        .findFirst().get().toString());
+    }
+
+    @Test
+    public void getTemplateContent_productionModeModuleNotIndexed_sourcesParsed()
+            throws IOException {
+        Mockito.when(configuration.isProductionMode()).thenReturn(true);
+        File index = temporaryFolder.newFile("template-ids.json");
+        FileUtils.write(index, "{}", StandardCharsets.UTF_8);
+        ResourceProvider resourceProvider = service.getContext()
+                .getAttribute(Lookup.class).lookup(ResourceProvider.class);
+        Mockito.when(resourceProvider.getApplicationResource(
+                Constants.VAADIN_SERVLET_RESOURCES
+                        + Constants.TEMPLATE_ID_INDEX))
+                .thenReturn(index.toURI().toURL());
+
+        TemplateData templateContent = LitTemplateParserImpl.getInstance()
+                .getTemplateContent(MyLitElement.class, "my-element", service);
+
+        Assert.assertEquals("Expected template element to have 2 children", 2,
+                templateContent.getTemplateElement().childNodeSize());
+    }
+
+    @Tag("indexed-element")
+    @JsModule("./frontend/indexed-element.js")
+    public class IndexedElement extends LitTemplate {
+    }
+
     @Tag("my-element")
     @JsModule("./frontend/MyLitElement.js")
     public class MyLitElement extends LitTemplate {
@@ -164,6 +164,8 @@ internal class GradlePluginAdapter(val project: Project, private val isBeforePro
 
     override fun generateBundle(): Boolean = extension.generateBundle
 
+    override fun webappDirectory(): File = extension.webappDirectory
+
     override fun generateEmbeddableWebComponents(): Boolean = extension.generateEmbeddableWebComponents
 
     override fun optimizeBundle(): Boolean = extension.optimizeBundle
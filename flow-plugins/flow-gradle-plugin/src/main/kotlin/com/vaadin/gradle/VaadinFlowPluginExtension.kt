@@ -82,6 +82,12 @@ public open class VaadinFlowPluginExtension(project: Project) {
      */
     public var optimizeBundle: Boolean = true
 
+    /**
+     * Defines the project web application directory, from where the PWA logo
+     * is read when rendering the PWA icons.
+     */
+    public var webappDirectory: File = File(project.projectDir, "src/main/webapp")
+
     /**
      * Instructs to use pnpm for installing npm frontend resources. Default is [Constants.ENABLE_PNPM_DEFAULT]
      * Responds to the `-Pvaadin.useDeprecatedV14Bootstrapping` property.
@@ -240,6 +246,7 @@ public open class VaadinFlowPluginExtension(project: Project) {
             "generateEmbeddableWebComponents=$generateEmbeddableWebComponents, " +
             "frontendResourcesDirectory=$frontendResourcesDirectory, " +
             "optimizeBundle=$optimizeBundle, " +
+            "webappDirectory=$webappDirectory, " +
             "pnpmEnable=$pnpmEnable, " +
             "useGlobalPnpm=$useGlobalPnpm, " +
             "requireHomeNodeExec=$requireHomeNodeExec, " +
@@ -92,6 +92,13 @@ public class BuildFrontendMojo extends FlowModeAbstractMojo
     @Parameter(defaultValue = "true")
     private boolean optimizeBundle;
 
+    /**
+     * Defines the project web application directory, from where the PWA logo
+     * is read when rendering the PWA icons.
+     */
+    @Parameter(defaultValue = "${project.basedir}/src/main/webapp")
+    private File webappDirectory;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         long start = System.nanoTime();
@@ -148,4 +155,10 @@ public class BuildFrontendMojo extends FlowModeAbstractMojo
         return runNpmInstall;
     }
 
+    @Override
+    public File webappDirectory() {
+
+        return webappDirectory;
+    }
+
 }
@@ -320,6 +320,8 @@ public class BuildFrontendUtil {
                     .useByteCodeScanner(adapter.optimizeBundle())
                     .withFlowResourcesFolder(flowResourcesFolder)
                     .copyResources(jarFiles).copyTemplates(true)
+                    .generatePwaIcons(true)
+                    .setWebappSourceFolder(adapter.webappDirectory())
                     .copyLocalResources(adapter.frontendResourcesDirectory())
                     .enableImportsUpdate(true)
                     .withEmbeddableWebComponents(
@@ -65,4 +65,12 @@ public interface PluginAdapterBuild extends PluginAdapterBase {
      */
     boolean runNpmInstall();
 
+    /**
+     * Defines the project web application directory, from where the PWA logo
+     * is read when rendering the PWA icons.
+     *
+     * @return {@link File}
+     */
+    File webappDirectory();
+
 }
@@ -33,6 +33,7 @@ import com.vaadin.flow.component.template.internal.DeprecatedPolymerTemplate;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
 import com.vaadin.flow.templatemodel.BeanModelType;
+import com.vaadin.flow.templatemodel.BulkModelType;
 import com.vaadin.flow.templatemodel.ListModelType;
 import com.vaadin.flow.templatemodel.ModelDescriptor;
 import com.vaadin.flow.templatemodel.ModelType;
@@ -135,6 +136,7 @@ public abstract class AbstractTemplate<M extends TemplateModel>
     public boolean isSupportedClass(Class<?> type) {
         List<ModelType> modelTypes = ModelDescriptor.get(getModelType())
                 .getPropertyNames().map(this::getModelType)
+                .map(AbstractTemplate::unwrapBulkModelType)
                 .collect(Collectors.toList());
 
         boolean result = false;
@@ -176,6 +178,7 @@ public abstract class AbstractTemplate<M extends TemplateModel>
     public ModelType getModelType(Type type) {
         List<ModelType> modelTypes = ModelDescriptor.get(getModelType())
                 .getPropertyNames().map(this::getModelType)
+                .map(AbstractTemplate::unwrapBulkModelType)
                 .collect(Collectors.toList());
 
         for (ModelType mtype : modelTypes) {
@@ -194,6 +197,17 @@ public abstract class AbstractTemplate<M extends TemplateModel>
         throw new IllegalArgumentException(msg);
     }
 
+    /*
+     * A bulk model property has the same structure as the wrapped bean or list
+     * type, it is only stored differently.
+     */
+    private static ModelType unwrapBulkModelType(ModelType modelType) {
+        if (modelType instanceof BulkModelType) {
+            return ((BulkModelType) modelType).getWrappedModelType();
+        }
+        return modelType;
+    }
+
     private M createTemplateModelInstance() {
         ModelDescriptor<? extends M> descriptor = ModelDescriptor
                 .get(getModelType());
@@ -300,8 +314,14 @@ public abstract class AbstractTemplate<M extends TemplateModel>
     private List<String> removeSimpleProperties() {
         ElementPropertyMap map = getStateNode()
                 .getFeature(ElementPropertyMap.class);
+        ModelDescriptor<? extends M> descriptor = ModelDescriptor
+                .get(getModelType());
+        // Bulk model values are kept like the state nodes of the bean and list
+        // properties which they replace
         List<String> props = map.getPropertyNames()
                 .filter(name -> !(map.getProperty(name) instanceof StateNode))
+                .filter(name -> !descriptor.hasProperty(name) || !(descriptor
+                        .getPropertyType(name) instanceof BulkModelType))
                 .collect(Collectors.toList());
         props.forEach(map::removeProperty);
         return props;
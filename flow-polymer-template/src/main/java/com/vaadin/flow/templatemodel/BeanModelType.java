@@ -427,6 +427,29 @@ public class BeanModelType<T> implements ComplexModelType<T> {
      */
     public void importProperties(ElementPropertyMap model, Object bean,
             PropertyFilter propertyFilter) {
+        Map<String, Object> values = getPropertyValues(bean, propertyFilter);
+
+        // Populate the model with the extracted values
+        values.forEach((name, value) -> {
+            ModelType type = getPropertyType(name);
+            model.setProperty(name, type.applicationToModel(value,
+                    new PropertyFilter(propertyFilter, name)));
+        });
+    }
+
+    /**
+     * Gets the values of the properties of the given bean which are included
+     * in this model type.
+     *
+     * @param bean
+     *            the bean to get values from
+     * @param propertyFilter
+     *            defines which properties from this model type to include
+     * @return a map of property names to the property values, not
+     *         <code>null</code>
+     */
+    Map<String, Object> getPropertyValues(Object bean,
+            PropertyFilter propertyFilter) {
         Class<?> beanClass = bean.getClass();
         assert isBean(beanClass);
 
@@ -461,13 +484,7 @@ public class BeanModelType<T> implements ComplexModelType<T> {
                         "Cannot access bean property " + propertyName, e);
             }
         });
-
-        // Populate the model with the extracted values
-        values.forEach((name, value) -> {
-            ModelType type = getPropertyType(name);
-            model.setProperty(name, type.applicationToModel(value,
-                    new PropertyFilter(propertyFilter, name)));
-        });
+        return values;
     }
 
     /**
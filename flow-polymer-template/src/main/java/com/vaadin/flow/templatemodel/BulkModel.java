@@ -0,0 +1,55 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.templatemodel;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Defines that a bean or list model property is sent to the client as a single
+ * JSON value instead of a tree of state nodes.
+ * <p>
+ * Use this annotation on accessors in your {@link TemplateModel} class for
+ * read-only data, e.g. large lists of beans used only for rendering. Importing
+ * such a value does not create a state node per bean and per list item, and
+ * setting a value equal to the current one does not send anything to the
+ * client.
+ * <p>
+ * The value of a bulk property can only be replaced as a whole: the bean or the
+ * list returned by the getter is a snapshot of the current value and changes
+ * made to it are not sent to the client. Sub properties of a bulk property
+ * cannot be updated from the client side.
+ *
+ * @see BulkModelType
+ *
+ * @author Vaadin Ltd
+ * @since
+ *
+ * @deprecated Template model and polymer template support is deprecated - we
+ *             recommend you to use {@code LitTemplate} instead. Read more
+ *             details from <a href=
+ *             "https://vaadin.com/blog/future-of-html-templates-in-vaadin">the
+ *             Vaadin blog.</a>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+@Deprecated
+public @interface BulkModel {
+}
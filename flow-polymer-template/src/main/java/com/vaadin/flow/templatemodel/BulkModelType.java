@@ -0,0 +1,275 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.templatemodel;
+
+import java.io.Serializable;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+
+import com.vaadin.flow.internal.JsonCodec;
+import com.vaadin.flow.internal.JsonUtils;
+import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.nodefeature.BasicTypeValue;
+import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
+import com.vaadin.flow.internal.nodefeature.ModelList;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+import elemental.json.JsonValue;
+
+/**
+ * A model type that stores a bean or a list value as a single JSON value
+ * instead of a tree of state nodes.
+ * <p>
+ * The structure of the value is described by the wrapped model type, which is
+ * used for encoding application values and for decoding the stored JSON back
+ * to the application type.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @see BulkModel
+ *
+ * @author Vaadin Ltd
+ * @since
+ *
+ * @deprecated Template model and polymer template support is deprecated - we
+ *             recommend you to use {@code LitTemplate} instead. Read more
+ *             details from <a href=
+ *             "https://vaadin.com/blog/future-of-html-templates-in-vaadin">the
+ *             Vaadin blog.</a>
+ */
+@Deprecated
+public class BulkModelType implements ModelType {
+
+    private final ModelType wrappedModelType;
+
+    /**
+     * Creates a new bulk model type for the given bean or list model type.
+     *
+     * @param modelType
+     *            the model type describing the value structure, not
+     *            <code>null</code>
+     */
+    BulkModelType(ModelType modelType) {
+        assert modelType != null;
+        if (!isBulkCapable(modelType)) {
+            throw new InvalidTemplateModelException(String.format(
+                    "@%s can only be used for bean and list properties, "
+                            + "got type '%s'",
+                    BulkModel.class.getSimpleName(),
+                    modelType.getJavaType().getTypeName()));
+        }
+        wrappedModelType = modelType;
+    }
+
+    /**
+     * Gets the model type describing the structure of the stored JSON.
+     *
+     * @return the wrapped model type
+     */
+    public ModelType getWrappedModelType() {
+        return wrappedModelType;
+    }
+
+    @Override
+    public Object modelToApplication(Serializable modelValue) {
+        if (modelValue != null && !(modelValue instanceof JsonValue)) {
+            throw new IllegalArgumentException(String.format(
+                    "The stored model value '%s' type '%s' "
+                            + "cannot be used as a type for a bulk model property",
+                    modelValue, modelValue.getClass().getName()));
+        }
+        Serializable snapshot = decode(wrappedModelType,
+                (JsonValue) modelValue);
+        if (snapshot == null) {
+            return wrappedModelType instanceof ListModelType<?>
+                    ? Collections.emptyList()
+                    : null;
+        }
+        Object value = wrappedModelType.modelToApplication(snapshot);
+        if (value instanceof List<?>) {
+            return Collections.unmodifiableList((List<?>) value);
+        }
+        return value;
+    }
+
+    @Override
+    public JsonValue applicationToModel(Object applicationValue,
+            PropertyFilter filter) {
+        if (applicationValue == null) {
+            return null;
+        }
+        return encode(wrappedModelType, applicationValue, filter);
+    }
+
+    @Override
+    public boolean accepts(Type applicationType) {
+        return wrappedModelType.accepts(applicationType);
+    }
+
+    @Override
+    public Type getJavaType() {
+        return wrappedModelType.getJavaType();
+    }
+
+    @Override
+    public JsonValue toJson() {
+        return wrappedModelType.toJson();
+    }
+
+    @Override
+    public void createInitialValue(StateNode node, String property) {
+        ElementPropertyMap model = node.getFeature(ElementPropertyMap.class);
+        if (model.hasProperty(property)) {
+            return;
+        }
+        // Use the same initial value as the per-node representation, i.e. an
+        // empty list or a bean with the default property values
+        StateNode initialNode = new StateNode(
+                Collections.singletonList(ElementPropertyMap.class));
+        wrappedModelType.createInitialValue(initialNode, property);
+        model.setProperty(property, toJson(initialNode
+                .getFeature(ElementPropertyMap.class).getProperty(property)));
+    }
+
+    /**
+     * Checks whether the two given model values are equal, so that replacing
+     * one with the other would not change anything on the client side.
+     *
+     * @param value1
+     *            the first model value
+     * @param value2
+     *            the second model value
+     * @return <code>true</code> if the values are equal JSON values
+     */
+    static boolean isSameValue(Serializable value1, Serializable value2) {
+        if (value1 instanceof JsonValue && value2 instanceof JsonValue) {
+            return JsonUtils.jsonEquals((JsonValue) value1,
+                    (JsonValue) value2);
+        }
+        return false;
+    }
+
+    private static boolean isBulkCapable(ModelType type) {
+        ModelType unwrapped = unwrap(type);
+        return unwrapped instanceof BeanModelType<?>
+                || unwrapped instanceof ListModelType<?>;
+    }
+
+    private static ModelType unwrap(ModelType type) {
+        if (type instanceof ConvertedModelType<?, ?>) {
+            return unwrap(
+                    ((ConvertedModelType<?, ?>) type).getWrappedModelType());
+        }
+        return type;
+    }
+
+    private static JsonValue encode(ModelType type, Object value,
+            PropertyFilter filter) {
+        if (value == null) {
+            return Json.createNull();
+        }
+        if (type instanceof ConvertedModelType<?, ?>) {
+            ConvertedModelType<?, ?> convertedType = (ConvertedModelType<?, ?>) type;
+            return encode(convertedType.getWrappedModelType(),
+                    convertedType.encode(value), filter);
+        } else if (type instanceof BeanModelType<?>) {
+            BeanModelType<?> beanType = (BeanModelType<?>) type;
+            JsonObject json = Json.createObject();
+            beanType.getPropertyValues(value, filter)
+                    .forEach((name, propertyValue) -> json.put(name,
+                            encode(beanType.getPropertyType(name),
+                                    propertyValue,
+                                    new PropertyFilter(filter, name))));
+            return json;
+        } else if (type instanceof ListModelType<?>) {
+            ModelType itemType = ((ListModelType<?>) type).getItemType();
+            JsonArray json = Json.createArray();
+            for (Object item : (List<?>) value) {
+                json.set(json.length(), encode(itemType, item, filter));
+            }
+            return json;
+        }
+        return JsonCodec.encodeWithoutTypeInfo(value);
+    }
+
+    private static JsonValue toJson(Serializable modelValue) {
+        if (!(modelValue instanceof StateNode)) {
+            return JsonCodec.encodeWithoutTypeInfo(modelValue);
+        }
+        StateNode node = (StateNode) modelValue;
+        if (node.hasFeature(ModelList.class)) {
+            ModelList list = node.getFeature(ModelList.class);
+            JsonArray json = Json.createArray();
+            for (int i = 0; i < list.size(); i++) {
+                json.set(i, toJson(list.get(i)));
+            }
+            return json;
+        } else if (node.hasFeature(BasicTypeValue.class)) {
+            return JsonCodec.encodeWithoutTypeInfo(
+                    node.getFeature(BasicTypeValue.class).getValue());
+        }
+        ElementPropertyMap model = node.getFeature(ElementPropertyMap.class);
+        JsonObject json = Json.createObject();
+        model.getPropertyNames().forEach(
+                name -> json.put(name, toJson(model.getProperty(name))));
+        return json;
+    }
+
+    private static Serializable decode(ModelType type, JsonValue json) {
+        if (json == null || json.getType() == JsonType.NULL) {
+            return null;
+        }
+        if (type instanceof ConvertedModelType<?, ?>) {
+            return decode(
+                    ((ConvertedModelType<?, ?>) type).getWrappedModelType(),
+                    json);
+        } else if (type instanceof BeanModelType<?>) {
+            BeanModelType<?> beanType = (BeanModelType<?>) type;
+            JsonObject object = (JsonObject) json;
+            StateNode node = new StateNode(
+                    Collections.singletonList(ElementPropertyMap.class));
+            ElementPropertyMap model = ElementPropertyMap.getModel(node);
+            for (String name : object.keys()) {
+                if (beanType.hasProperty(name)) {
+                    model.setProperty(name, decode(
+                            beanType.getPropertyType(name), object.get(name)));
+                }
+            }
+            return node;
+        } else if (type instanceof ListModelType<?>) {
+            ModelType itemType = ((ListModelType<?>) type).getItemType();
+            JsonArray array = (JsonArray) json;
+            StateNode node = new StateNode(
+                    Collections.singletonList(ModelList.class));
+            ModelList list = node.getFeature(ModelList.class);
+            for (int i = 0; i < array.length(); i++) {
+                list.add((StateNode) decode(itemType, array.get(i)));
+            }
+            return node;
+        } else if (type instanceof BasicComplexModelType<?>) {
+            StateNode node = new StateNode(
+                    Collections.singletonList(BasicTypeValue.class));
+            node.getFeature(BasicTypeValue.class)
+                    .setValue(JsonCodec.decodeWithoutTypeInfo(json));
+            return node;
+        }
+        return JsonCodec.decodeWithoutTypeInfo(json);
+    }
+}
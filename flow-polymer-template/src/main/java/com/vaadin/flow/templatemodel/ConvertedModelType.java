@@ -76,9 +76,20 @@ public class ConvertedModelType<A, M extends Serializable>
     @Override
     public Serializable applicationToModel(Object applicationValue,
             PropertyFilter filter) {
-        @SuppressWarnings("unchecked")
-        M convertedValue = converter.encode((A) applicationValue);
-        return wrappedModelType.applicationToModel(convertedValue, filter);
+        return wrappedModelType.applicationToModel(encode(applicationValue),
+                filter);
+    }
+
+    /**
+     * Encodes the given application value using the converter of this type.
+     *
+     * @param applicationValue
+     *            the application value to encode
+     * @return the value in the form accepted by the wrapped model type
+     */
+    @SuppressWarnings("unchecked")
+    M encode(Object applicationValue) {
+        return converter.encode((A) applicationValue);
     }
 
     @Override
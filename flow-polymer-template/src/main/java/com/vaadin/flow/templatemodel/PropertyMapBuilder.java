@@ -101,6 +101,18 @@ class PropertyMapBuilder {
         private ModelType createModelType(PropertyFilter innerFilter,
                 PathLookup<ModelEncoder<?, ?>> innerConverters,
                 PathLookup<ClientUpdateMode> innerUpdateModes) {
+            ModelType modelType = createNodeModelType(innerFilter,
+                    innerConverters, innerUpdateModes);
+            if (accessors.stream().anyMatch(
+                    method -> method.isAnnotationPresent(BulkModel.class))) {
+                return new BulkModelType(modelType);
+            }
+            return modelType;
+        }
+
+        private ModelType createNodeModelType(PropertyFilter innerFilter,
+                PathLookup<ModelEncoder<?, ?>> innerConverters,
+                PathLookup<ClientUpdateMode> innerUpdateModes) {
             if (innerConverters.getItem(innerFilter.getPrefix()).isPresent()) {
                 return BeanModelType.getConvertedModelType(propertyType,
                         innerFilter, propertyName, declaringClass,
@@ -336,6 +336,13 @@ public class TemplateModelProxyHandler implements Serializable {
         Serializable modelValue = propertyType.applicationToModel(value,
                 PropertyFilter.ACCEPT_ALL);
 
+        if (propertyType instanceof BulkModelType
+                && modelMap.hasProperty(propertyName)
+                && BulkModelType.isSameValue(
+                        modelMap.getProperty(propertyName), modelValue)) {
+            // Nothing changed, no need to send the value again
+            return;
+        }
         modelMap.setProperty(propertyName, modelValue);
     }
 
@@ -5,6 +5,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -34,6 +35,9 @@ import com.vaadin.flow.internal.nodefeature.ModelList;
 import com.vaadin.flow.internal.nodefeature.NodeList;
 import com.vaadin.flow.server.VaadinService;
 
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
 public class TemplateModelTest extends HasCurrentService {
 
     @Rule
@@ -473,6 +477,53 @@ public class TemplateModelTest extends HasCurrentService {
         }
     }
 
+    public interface BulkBeansModel extends TemplateModel {
+        @BulkModel
+        void setBeans(List<Bean> beans);
+
+        List<Bean> getBeans();
+
+        @BulkModel
+        void setBean(Bean bean);
+
+        Bean getBean();
+    }
+
+    public interface BulkListModel extends TemplateModel {
+        @BulkModel
+        void setBeans(List<Bean> beans);
+
+        List<Bean> getBeans();
+    }
+
+    public interface InvalidBulkModel extends TemplateModel {
+        @BulkModel
+        void setString(String string);
+    }
+
+    public static class BulkModelTemplate extends NoModelTemplate<BulkBeansModel> {
+        @Override
+        public BulkBeansModel getModel() {
+            return super.getModel();
+        }
+    }
+
+    public static class BulkListModelTemplate
+            extends NoModelTemplate<BulkListModel> {
+        @Override
+        public BulkListModel getModel() {
+            return super.getModel();
+        }
+    }
+
+    public static class InvalidBulkModelTemplate
+            extends NoModelTemplate<InvalidBulkModel> {
+        @Override
+        public InvalidBulkModel getModel() {
+            return super.getModel();
+        }
+    }
+
     public static class StringListModelTemplate
             extends NoModelTemplate<StringListModel> {
         @Override
@@ -1442,6 +1493,123 @@ public class TemplateModelTest extends HasCurrentService {
                 collectChanges(nodeList).isEmpty());
     }
 
+    @Test
+    public void bulkModel_setBeans_storedAsSingleJsonValue() {
+        BulkModelTemplate template = new BulkModelTemplate();
+        BulkBeansModel model = template.getModel();
+
+        List<Bean> beans = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            beans.add(new Bean(i));
+        }
+        model.setBeans(beans);
+
+        ElementPropertyMap modelMap = template.getElement().getNode()
+                .getFeature(ElementPropertyMap.class);
+        Serializable value = modelMap.getProperty("beans");
+        Assert.assertThat(value, CoreMatchers.instanceOf(JsonArray.class));
+        JsonArray json = (JsonArray) value;
+        Assert.assertEquals(100, json.length());
+        Assert.assertEquals(42,
+                (int) json.getObject(42).getNumber("intValue"));
+        Assert.assertEquals("42", json.getObject(42).getString("string"));
+
+        List<Bean> result = model.getBeans();
+        Assert.assertEquals(100, result.size());
+        Assert.assertEquals(42, result.get(42).getIntValue());
+        Assert.assertEquals(Integer.valueOf(42),
+                result.get(42).getIntObject());
+        Assert.assertEquals("42", result.get(42).getString());
+    }
+
+    @Test
+    public void bulkModel_setBean_storedAsJsonObject() {
+        BulkModelTemplate template = new BulkModelTemplate();
+        BulkBeansModel model = template.getModel();
+
+        model.setBean(new Bean(3));
+
+        ElementPropertyMap modelMap = template.getElement().getNode()
+                .getFeature(ElementPropertyMap.class);
+        Assert.assertThat(modelMap.getProperty("bean"),
+                CoreMatchers.instanceOf(JsonObject.class));
+        Assert.assertEquals(3, model.getBean().getIntValue());
+        Assert.assertEquals(3.0, model.getBean().getDoubleValue(), 0);
+    }
+
+    @Test
+    public void bulkModel_setEqualBeans_noChanges() {
+        BulkModelTemplate template = new BulkModelTemplate();
+        BulkBeansModel model = template.getModel();
+        model.setBeans(Arrays.asList(new Bean(1), new Bean(2)));
+
+        template.getElement().getNode().clearChanges();
+        model.setBeans(Arrays.asList(new Bean(1), new Bean(2)));
+
+        List<NodeChange> changes = new ArrayList<>();
+        template.getElement().getNode().getFeature(ElementPropertyMap.class)
+                .collectChanges(changes::add);
+        Assert.assertEquals(0, changes.size());
+
+        model.setBeans(Arrays.asList(new Bean(1), new Bean(3)));
+        template.getElement().getNode().getFeature(ElementPropertyMap.class)
+                .collectChanges(changes::add);
+        Assert.assertEquals(1, changes.size());
+    }
+
+    @Test
+    public void bulkModel_initialValue_emptyList() {
+        BulkModelTemplate template = new BulkModelTemplate();
+        BulkBeansModel model = template.getModel();
+
+        Assert.assertEquals(0, model.getBeans().size());
+        // Sent to the client like the state node of a non-bulk list
+        Serializable value = template.getElement().getNode()
+                .getFeature(ElementPropertyMap.class).getProperty("beans");
+        Assert.assertThat(value, CoreMatchers.instanceOf(JsonArray.class));
+        Assert.assertEquals(0, ((JsonArray) value).length());
+    }
+
+    @Test
+    public void bulkModel_initialValue_beanWithDefaultValues() {
+        BulkModelTemplate template = new BulkModelTemplate();
+        BulkBeansModel model = template.getModel();
+
+        Bean bean = model.getBean();
+        Assert.assertNotNull(bean);
+        Assert.assertEquals(0, bean.getIntValue());
+        Assert.assertFalse(bean.isBooleanValue());
+        Assert.assertNull(bean.getString());
+        Assert.assertThat(
+                template.getElement().getNode()
+                        .getFeature(ElementPropertyMap.class)
+                        .getProperty("bean"),
+                CoreMatchers.instanceOf(JsonObject.class));
+    }
+
+    @Test
+    public void bulkModel_listItemType_supportedClass() {
+        BulkListModelTemplate template = new BulkListModelTemplate();
+
+        Assert.assertTrue(template.isSupportedClass(Bean.class));
+        Assert.assertEquals(Bean.class,
+                template.getModelType(Bean.class).getJavaType());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void bulkModel_getBeans_unmodifiable() {
+        BulkModelTemplate template = new BulkModelTemplate();
+        BulkBeansModel model = template.getModel();
+        model.setBeans(Arrays.asList(new Bean(1)));
+
+        model.getBeans().add(new Bean(2));
+    }
+
+    @Test(expected = InvalidTemplateModelException.class)
+    public void bulkModel_basicType_throws() {
+        new InvalidBulkModelTemplate();
+    }
+
     private List<NodeChange> collectChanges(NodeList<?> nodeList) {
         List<NodeChange> changes = new ArrayList<>();
         nodeList.collectChanges(changes::add);
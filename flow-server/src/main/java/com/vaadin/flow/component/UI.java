@@ -40,6 +40,7 @@ import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.component.page.LoadingIndicatorConfiguration;
 import com.vaadin.flow.component.page.Page;
 import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.function.SerializableRunnable;
 import com.vaadin.flow.i18n.I18NProvider;
@@ -118,6 +119,10 @@ public class UI extends Component
 
     private Locale locale = Locale.getDefault();
 
+    // The locale the observers were last notified of, while a batched locale
+    // change is pending
+    private Locale notifiedLocale;
+
     private final UIInternals internals;
 
     private final Page page = new Page(this);
@@ -757,6 +762,14 @@ public class UI extends Component
      * Note that {@link VaadinSession#setLocale(Locale)} will set the locale for
      * all UI instances in that session, and might thus override any custom
      * locale previous set for a specific UI.
+     * <p>
+     * The {@link com.vaadin.flow.i18n.LocaleChangeObserver}s are notified
+     * immediately, unless
+     * {@link com.vaadin.flow.server.InitParameters#I18N_BATCH_LOCALE_CHANGES}
+     * is enabled. Then they are notified in one pass before the response is
+     * written, only if the locale is different from the one they were last
+     * notified of, so that several changes in the same round trip cause no
+     * more updates than one change.
      *
      * @param locale
      *            the locale to use, not null
@@ -764,11 +777,43 @@ public class UI extends Component
     public void setLocale(Locale locale) {
         assert locale != null : "Null locale is not supported!";
         if (!this.locale.equals(locale)) {
+            Locale previousLocale = this.locale;
             this.locale = locale;
-            EventUtil.informLocaleChangeObservers(this);
+            if (isLocaleChangeBatchingEnabled()) {
+                scheduleLocaleChangeNotification(previousLocale);
+            } else {
+                EventUtil.informLocaleChangeObservers(this);
+            }
         }
     }
 
+    private boolean isLocaleChangeBatchingEnabled() {
+        VaadinSession session = getSession();
+        if (session == null || session.getService() == null) {
+            return false;
+        }
+        DeploymentConfiguration configuration = session.getService()
+                .getDeploymentConfiguration();
+        return configuration != null
+                && configuration.isLocaleChangeBatchingEnabled();
+    }
+
+    private void scheduleLocaleChangeNotification(Locale previousLocale) {
+        if (notifiedLocale != null) {
+            // Already scheduled
+            return;
+        }
+        notifiedLocale = previousLocale;
+        getInternals().getStateTree().beforeClientResponse(getNode(),
+                context -> {
+                    Locale notified = notifiedLocale;
+                    notifiedLocale = null;
+                    if (!notified.equals(this.locale)) {
+                        EventUtil.informLocaleChangeObservers(this);
+                    }
+                });
+    }
+
     /**
      * Sets the direction for the UI.
      * <p>
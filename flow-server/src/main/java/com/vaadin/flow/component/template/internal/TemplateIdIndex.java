@@ -0,0 +1,210 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.template.internal;
+
+import java.io.Serializable;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import com.vaadin.flow.internal.StringUtil;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+import elemental.json.JsonValue;
+
+/**
+ * Precomputed index of the elements having an {@code id} in template files.
+ * <p>
+ * The index is generated at build time for production bundles and maps a
+ * template module path to the tag name and attributes of every element with an
+ * id. At runtime it is used instead of parsing the template sources, so that
+ * the first instantiation of a template does not need to scan and parse the
+ * whole JavaScript source.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class TemplateIdIndex implements Serializable {
+
+    /**
+     * Lit template pattern matches the template getter
+     *
+     * <pre>
+     *     render() {
+     *       return html`
+     *         &lt;div id=&quot;test&quot; ?hidden=&quot;${liked}&quot;&gt;Web components like you, too.&lt;/div&gt;
+     *       `;
+     *     }
+     * </pre>
+     *
+     * <p>
+     * <code>render\(\)[\s]*\{</code> finds the template getter method
+     * <p>
+     * <code>[\s]*return[\s]*html[\s]*(\`)</code> finds the return statement
+     * <p>
+     * <code>([\s\S]*)</code> captures all text until we encounter the end
+     * character with <code>\1;}</code> e.g. <code>';}</code>
+     */
+    private static final Pattern LIT_TEMPLATE_PATTERN = Pattern.compile(
+            "render\\(\\)[\\s]*\\{[\\s]*return[\\s]*html[\\s]*(\\`)([\\s\\S]*?)\\1;[\\s]*\\}");
+
+    private static final String TEMPLATE_TAG_NAME = "template";
+    private static final String TAG = "tag";
+    private static final String ATTRIBUTES = "attributes";
+
+    private final JsonObject index;
+
+    /**
+     * Creates a new index instance backed by the given JSON data.
+     *
+     * @param index
+     *            the index JSON, mapping module paths to the elements with an
+     *            id as produced by {@link #collectIds(Element)}, not
+     *            {@code null}
+     */
+    public TemplateIdIndex(JsonObject index) {
+        this.index = index;
+    }
+
+    /**
+     * Creates an empty index.
+     *
+     * @return an empty index
+     */
+    public static TemplateIdIndex empty() {
+        return new TemplateIdIndex(Json.createObject());
+    }
+
+    /**
+     * Gets a template element for the given module path containing all the
+     * elements with an id declared in the template.
+     * <p>
+     * The returned element contains only the indexed elements as direct
+     * children, without the rest of the template structure.
+     *
+     * @param modulePath
+     *            the module path as declared in the {@code @JsModule}
+     *            annotation
+     * @return a template element, or an empty optional if the module is not
+     *         indexed
+     */
+    public Optional<Element> getTemplateElement(String modulePath) {
+        String key = getKey(modulePath);
+        if (!index.hasKey(key)
+                || index.get(key).getType() != JsonType.OBJECT) {
+            return Optional.empty();
+        }
+        JsonObject ids = index.getObject(key);
+        Element template = new Element(TEMPLATE_TAG_NAME);
+        for (String id : ids.keys()) {
+            JsonObject data = ids.getObject(id);
+            Element element = new Element(data.getString(TAG));
+            JsonObject attributes = data.getObject(ATTRIBUTES);
+            for (String name : attributes.keys()) {
+                JsonValue value = attributes.get(name);
+                // null marks a boolean attribute, i.e. an attribute without
+                // a value in the template
+                element.attributes().put(name,
+                        value.getType() == JsonType.NULL ? null
+                                : value.asString());
+            }
+            template.appendChild(element);
+        }
+        return Optional.of(template);
+    }
+
+    /**
+     * Gets the index key for the given module path.
+     *
+     * @param modulePath
+     *            the module path as declared in the {@code @JsModule}
+     *            annotation
+     * @return the index key
+     */
+    public static String getKey(String modulePath) {
+        return modulePath.replaceFirst("^\\./", "");
+    }
+
+    /**
+     * Collects the tag names and attributes of all elements having an id in
+     * the given template root.
+     *
+     * @param templateRoot
+     *            the template root element
+     * @return JSON object mapping ids to the element data
+     */
+    public static JsonObject collectIds(Element templateRoot) {
+        JsonObject result = Json.createObject();
+        for (Element element : templateRoot.select("[id]")) {
+            String id = element.id();
+            // Element.getElementById returns the first match in document
+            // order, so the index does the same
+            if (id.isEmpty() || result.hasKey(id)) {
+                continue;
+            }
+            JsonObject attributes = Json.createObject();
+            for (Attribute attribute : element.attributes()) {
+                if (attribute.getKey().equals(attribute.toString())) {
+                    attributes.put(attribute.getKey(), Json.createNull());
+                } else {
+                    attributes.put(attribute.getKey(), attribute.getValue());
+                }
+            }
+            JsonObject data = Json.createObject();
+            data.put(TAG, element.tagName());
+            data.put(ATTRIBUTES, attributes);
+            result.put(id, data);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the Lit template element for the given Lit template source.
+     *
+     * @param source
+     *            source js to get template element from
+     * @return template element or {@code null} if not found
+     */
+    public static Element parseLitTemplate(String source) {
+        String content = StringUtil.removeComments(source);
+        Matcher templateMatcher = LIT_TEMPLATE_PATTERN.matcher(content);
+
+        // GroupCount should be 2 as the first group contains `|'|" depending
+        // on what was in template return html' and the second is the
+        // template contents.
+        if (templateMatcher.find() && templateMatcher.groupCount() == 2) {
+            String group = templateMatcher.group(2);
+            Document templateDocument = Jsoup.parse(group);
+            Element template = templateDocument
+                    .createElement(TEMPLATE_TAG_NAME);
+            Element body = templateDocument.body();
+            templateDocument.body().children().stream()
+                    .filter(node -> !node.equals(body))
+                    .forEach(template::appendChild);
+            return template;
+        }
+        return null;
+    }
+}
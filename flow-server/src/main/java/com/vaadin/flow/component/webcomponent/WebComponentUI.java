@@ -50,6 +50,12 @@ import elemental.json.JsonObject;
 /**
  * Custom UI for use with WebComponents served from the server.
  * <p>
+ * All the exported web components on a host page share one instance of this
+ * UI and its communication channel. The web components on the page connect in
+ * the same task on the client, so their connection events and the responses
+ * to them are sent in a single round trip. The number of round trips used for
+ * connecting web components is logged on the debug level.
+ * <p>
  * For internal use only. May be renamed or removed in a future release.
  *
  * @author Vaadin Ltd.
@@ -58,6 +64,11 @@ import elemental.json.JsonObject;
 public class WebComponentUI extends UI {
     public static final String NO_NAVIGATION = "Navigation is not available for WebComponents";
 
+    // Web components connected since the previous response
+    private int pendingConnections;
+    private int connectRoundTrips;
+    private int connectedWebComponents;
+
     @Override
     public void doInit(VaadinRequest request, int uiId) {
         super.doInit(request, uiId);
@@ -231,6 +242,42 @@ public class WebComponentUI extends UI {
                 getElement().getNode(), child, NodeProperties.INJECT_BY_ID,
                 elementId);
         child.executeJs("$0.serverConnected()");
+        countConnection();
+    }
+
+    private void countConnection() {
+        if (pendingConnections++ > 0) {
+            return;
+        }
+        beforeClientResponse(this, context -> {
+            connectRoundTrips++;
+            connectedWebComponents += pendingConnections;
+            LoggerFactory.getLogger(WebComponentUI.class).debug(
+                    "Connected {} web component(s) in round trip {}, "
+                            + "{} web component(s) in total",
+                    pendingConnections, connectRoundTrips,
+                    connectedWebComponents);
+            pendingConnections = 0;
+        });
+    }
+
+    /**
+     * Gets the number of responses which have connected web components.
+     *
+     * @return the number of round trips used for connecting web components
+     */
+    int getConnectRoundTrips() {
+        return connectRoundTrips;
+    }
+
+    /**
+     * Gets the number of web components connected so far, not counting the
+     * ones connected after the latest response.
+     *
+     * @return the number of connected web components
+     */
+    int getConnectedWebComponentCount() {
+        return connectedWebComponents;
     }
 
     private boolean isConfigurationAnnotated(
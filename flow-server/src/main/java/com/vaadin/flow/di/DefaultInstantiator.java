@@ -22,6 +22,7 @@ import java.util.stream.StreamSupport;
 
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.i18n.CachingI18NProvider;
 import com.vaadin.flow.i18n.I18NProvider;
 import com.vaadin.flow.internal.ReflectTools;
 import com.vaadin.flow.server.InitParameters;
@@ -40,6 +41,7 @@ import com.vaadin.flow.server.VaadinServiceInitListener;
 public class DefaultInstantiator implements Instantiator {
     private VaadinService service;
     private static final AtomicReference<I18NProvider> i18nProvider = new AtomicReference<>();
+    private final AtomicReference<CachingI18NProvider> cachingI18NProvider = new AtomicReference<>();
 
     /**
      * Creates a new instantiator for the given service.
@@ -92,7 +94,36 @@ public class DefaultInstantiator implements Instantiator {
         if (i18nProvider.get() == null) {
             i18nProvider.compareAndSet(null, getI18NProviderInstance());
         }
-        return i18nProvider.get();
+        return cacheTranslations(i18nProvider.get());
+    }
+
+    /**
+     * Wraps the given provider in a {@link CachingI18NProvider} if the
+     * translations are configured to be cached with
+     * {@link InitParameters#I18N_PROVIDER_CACHE}. The same caching provider is
+     * returned for as long as the given provider stays the same, and its
+     * translations are preloaded when it is created.
+     *
+     * @param provider
+     *            the provider found by this instantiator, or {@code null}
+     * @return the caching provider, or the given provider if the translations
+     *         are not cached
+     */
+    protected I18NProvider cacheTranslations(I18NProvider provider) {
+        DeploymentConfiguration deploymentConfiguration = service
+                .getDeploymentConfiguration();
+        if (provider == null || provider instanceof CachingI18NProvider
+                || deploymentConfiguration == null
+                || !deploymentConfiguration.isI18NProviderCacheEnabled()) {
+            return provider;
+        }
+        CachingI18NProvider caching = cachingI18NProvider.get();
+        if (caching == null || caching.getProvider() != provider) {
+            caching = new CachingI18NProvider(provider);
+            caching.preload();
+            cachingI18NProvider.set(caching);
+        }
+        return caching;
     }
 
     private I18NProvider getI18NProviderInstance() {
@@ -43,6 +43,8 @@ import com.vaadin.flow.function.VaadinApplicationInitializationBootstrap;
 import com.vaadin.flow.internal.ReflectTools;
 import com.vaadin.flow.router.DefaultRoutePathProvider;
 import com.vaadin.flow.router.RoutePathProvider;
+import com.vaadin.flow.server.DefaultExecutorFactory;
+import com.vaadin.flow.server.ExecutorFactory;
 import com.vaadin.flow.server.StaticFileHandler;
 import com.vaadin.flow.server.StaticFileHandlerFactory;
 import com.vaadin.flow.server.StaticFileServer;
@@ -280,6 +282,8 @@ public class LookupInitializer implements AbstractLookupInitializer {
                 StaticFileHandlerFactoryImpl.class);
         ensureService(services, RoutePathProvider.class,
                 DefaultRoutePathProvider.class);
+        ensureService(services, ExecutorFactory.class,
+                DefaultExecutorFactory.class);
         bootstrap.bootstrap(createLookup(context, services));
     }
 
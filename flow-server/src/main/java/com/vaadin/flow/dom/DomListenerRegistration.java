@@ -178,6 +178,38 @@ public interface DomListenerRegistration extends Registration {
                 DebouncePhase.INTERMEDIATE);
     }
 
+    /**
+     * Configures this listener to be throttled with a period that adapts to
+     * the time it takes to handle the event on the server.
+     * <p>
+     * The period starts at <code>minPeriod</code> and is adjusted as events
+     * are handled, so that the events are not sent more often than the server
+     * side listeners can keep up with. The period stays between
+     * <code>minPeriod</code> and <code>maxPeriod</code>. This is useful for
+     * e.g. input events of fields whose listeners do expensive work.
+     * <p>
+     * This methods overrides the settings previously set through
+     * {@link #debounce(int)}, {@link #throttle(int)} or
+     * {@link #debounce(int, DebouncePhase, DebouncePhase...)}, and is in turn
+     * overridden by them.
+     *
+     * @param minPeriod
+     *            the minimum period between listener invocations in
+     *            milliseconds, not negative
+     * @param maxPeriod
+     *            the maximum period between listener invocations in
+     *            milliseconds, not less than <code>minPeriod</code>
+     * @return this registration, for chaining
+     */
+    default DomListenerRegistration throttleAdaptively(int minPeriod,
+            int maxPeriod) {
+        /*
+         * Dummy backwards compatibility implementation to keep old custom code
+         * compiling.
+         */
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Gets the debounce timeout that is configured by debounce or throttle.
      *
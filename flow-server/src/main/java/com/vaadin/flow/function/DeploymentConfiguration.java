@@ -273,6 +273,176 @@ public interface DeploymentConfiguration
                 Constants.DEFAULT_EXTERNAL_STATS_URL);
     }
 
+    /**
+     * Returns the number of seconds between the background sweeps which close
+     * inactive UIs in all the sessions, also in sessions not receiving any
+     * requests.
+     * <p>
+     * By default it is <code>-1</code>, which means that inactive UIs are only
+     * closed at the end of the requests to the same session.
+     *
+     * @return the sweep interval in seconds, zero or a negative value if the
+     *         sweeps are disabled
+     * @see InitParameters#SERVLET_PARAMETER_INACTIVE_UI_SWEEP_INTERVAL
+     */
+    default int getInactiveUISweepInterval() {
+        return getApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_INACTIVE_UI_SWEEP_INTERVAL, -1,
+                Integer::parseInt);
+    }
+
+    /**
+     * Returns the maximum number of stream resources kept registered per
+     * session, or in total if {@link #isSharedStreamResources()} is enabled.
+     * <p>
+     * By default it is <code>-1</code>, which means that resources stay
+     * registered until they are unregistered.
+     *
+     * @return the maximum number of registered resources, zero or a negative
+     *         value if there is no limit
+     * @see InitParameters#SERVLET_PARAMETER_STREAM_RESOURCE_MAX_ENTRIES
+     */
+    default int getStreamResourceMaxEntries() {
+        return getApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_STREAM_RESOURCE_MAX_ENTRIES,
+                -1, Integer::parseInt);
+    }
+
+    /**
+     * Returns the number of seconds after which a registered stream resource
+     * which has not been requested is evicted.
+     * <p>
+     * By default it is <code>-1</code>, which means that resources are not
+     * evicted based on time.
+     *
+     * @return the time to live in seconds, zero or a negative value if
+     *         resources don't expire
+     * @see InitParameters#SERVLET_PARAMETER_STREAM_RESOURCE_TIME_TO_LIVE
+     */
+    default int getStreamResourceTimeToLive() {
+        return getApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_STREAM_RESOURCE_TIME_TO_LIVE,
+                -1, Integer::parseInt);
+    }
+
+    /**
+     * Returns whether stream resources are stored in a store shared by all
+     * the sessions instead of in the sessions.
+     * <p>
+     * By default it is <code>false</code>.
+     *
+     * @return {@code true} if stream resources are stored outside of the
+     *         sessions, {@code false} otherwise
+     * @see InitParameters#SERVLET_PARAMETER_SHARED_STREAM_RESOURCES
+     */
+    default boolean isSharedStreamResources() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_SHARED_STREAM_RESOURCES,
+                false);
+    }
+
+    /**
+     * Returns whether the state tree changes of UIDL responses are batched.
+     * Consecutive property changes of a node are then merged and identical
+     * changes of several nodes are written only once, which makes responses
+     * changing many similar elements considerably smaller at the cost of
+     * some additional processing for each response.
+     * <p>
+     * By default it is <code>false</code>.
+     *
+     * @return {@code true} if the changes are batched, {@code false}
+     *         otherwise
+     * @see InitParameters#SERVLET_PARAMETER_BATCH_UIDL_CHANGES
+     */
+    default boolean isUidlChangeBatchingEnabled() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_BATCH_UIDL_CHANGES, false);
+    }
+
+    /**
+     * Returns whether the body of UIDL requests is received with non-blocking
+     * servlet I/O when the servlet supports asynchronous processing.
+     * <p>
+     * The RPC invocations are handled in an asynchronous dispatch of the
+     * request, so filters that set up a thread context must be mapped for the
+     * {@code ASYNC} dispatcher type.
+     * <p>
+     * By default it is <code>false</code>.
+     *
+     * @return {@code true} if UIDL requests are handled asynchronously,
+     *         {@code false} otherwise
+     * @see InitParameters#SERVLET_PARAMETER_ASYNC_UIDL_HANDLING
+     */
+    default boolean isAsyncUidlHandlingEnabled() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_ASYNC_UIDL_HANDLING, false);
+    }
+
+    /**
+     * Returns whether pending access tasks of a session are run by
+     * {@link com.vaadin.flow.server.VaadinService#getExecutor()} when they are
+     * enqueued by a thread which does not hold the session lock.
+     * <p>
+     * By default it is <code>false</code>.
+     *
+     * @return {@code true} if the access queue is purged asynchronously,
+     *         {@code false} otherwise
+     * @see InitParameters#SERVLET_PARAMETER_ASYNC_ACCESS_QUEUE_PURGE
+     */
+    default boolean isAsyncAccessQueuePurgeEnabled() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_ASYNC_ACCESS_QUEUE_PURGE,
+                false);
+    }
+
+    /**
+     * Returns whether the translations of the I18N provider are cached by a
+     * {@link com.vaadin.flow.i18n.CachingI18NProvider}.
+     * <p>
+     * By default it is <code>false</code>.
+     *
+     * @return {@code true} if the translations are cached, {@code false}
+     *         otherwise
+     * @see InitParameters#I18N_PROVIDER_CACHE
+     */
+    default boolean isI18NProviderCacheEnabled() {
+        return getBooleanProperty(InitParameters.I18N_PROVIDER_CACHE, false);
+    }
+
+    /**
+     * Returns whether the locale changes of a UI are batched, so that the
+     * {@link com.vaadin.flow.i18n.LocaleChangeObserver}s are notified once
+     * before the response is written instead of on each change.
+     * <p>
+     * By default it is <code>false</code>.
+     *
+     * @return {@code true} if the locale changes are batched, {@code false}
+     *         otherwise
+     * @see InitParameters#I18N_BATCH_LOCALE_CHANGES
+     */
+    default boolean isLocaleChangeBatchingEnabled() {
+        return getBooleanProperty(InitParameters.I18N_BATCH_LOCALE_CHANGES,
+                false);
+    }
+
+    /**
+     * Returns the number of milliseconds after which a thread waiting for a
+     * session lock, or holding a session lock, is reported by
+     * {@link com.vaadin.flow.server.SessionLockDiagnostics}.
+     * <p>
+     * By default it is <code>-1</code>, which means that the session locks are
+     * not instrumented.
+     *
+     * @return the threshold in milliseconds, zero or a negative value if the
+     *         diagnostics are disabled
+     * @see InitParameters#SERVLET_PARAMETER_SESSION_LOCK_DIAGNOSTICS_THRESHOLD
+     */
+    default int getSessionLockDiagnosticsThreshold() {
+        return getApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_SESSION_LOCK_DIAGNOSTICS_THRESHOLD,
+                -1, Integer::parseInt);
+    }
+
     /**
      * Get if the bootstrap page should include the initial UIDL fragment. This
      * only makes sense for the client-side bootstrapping.
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.i18n;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link I18NProvider} which caches the translations of another provider.
+ * <p>
+ * The translations of each locale are kept in a compact table, which is
+ * loaded in one go the first time the locale is used or when
+ * {@link #preload()} is called. If the provider returns the
+ * {@link I18NProvider#getMessagePatterns(Locale) message patterns} of the
+ * locale, the table contains them compiled into {@link MessageFormat}s, so
+ * translating those keys never calls the provider and does not parse the
+ * patterns again. Other translations without parameters are cached as they
+ * are returned by the provider. Translations with parameters are only cached
+ * as patterns.
+ * <p>
+ * The cache assumes that the translations of the provider do not change.
+ * {@link #clearCache()} can be used to load them again, e.g. after the
+ * translation files have been reloaded.
+ * <p>
+ * This provider is used automatically for the provider found through the
+ * {@link com.vaadin.flow.di.Instantiator} when
+ * {@link com.vaadin.flow.server.InitParameters#I18N_PROVIDER_CACHE} is
+ * enabled.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class CachingI18NProvider implements I18NProvider {
+
+    // Upper limit for the translations cached without a pattern, per locale,
+    // in case the keys are generated
+    private static final int MAXIMUM_CACHED_TRANSLATIONS = 10000;
+
+    private final I18NProvider provider;
+
+    private transient ConcurrentHashMap<Locale, MessageTable> tables = new ConcurrentHashMap<>();
+
+    private transient volatile List<Locale> providedLocales;
+
+    /*
+     * The patterns of a locale sorted by key, with each message either the
+     * translation itself, if it has no format elements or quotes, or a
+     * compiled MessageFormat.
+     */
+    private static final class MessageTable implements Serializable {
+        private final String[] keys;
+        private final Object[] messages;
+        private final ConcurrentHashMap<String, String> translations = new ConcurrentHashMap<>();
+
+        private MessageTable(Map<String, String> patterns, Locale locale) {
+            String[] sortedKeys = patterns.keySet().stream()
+                    .filter(Objects::nonNull).sorted().toArray(String[]::new);
+            Object[] compiled = new Object[sortedKeys.length];
+            int size = 0;
+            for (String key : sortedKeys) {
+                Object message = compile(patterns.get(key), locale);
+                if (message != null) {
+                    sortedKeys[size] = key;
+                    compiled[size] = message;
+                    size++;
+                } else {
+                    getLogger().debug(
+                            "Unable to compile the translation '{}' for {}, "
+                                    + "it is translated by the provider",
+                            key, locale);
+                }
+            }
+            keys = Arrays.copyOf(sortedKeys, size);
+            messages = Arrays.copyOf(compiled, size);
+        }
+
+        private static Object compile(String pattern, Locale locale) {
+            if (pattern == null) {
+                return null;
+            }
+            if (pattern.indexOf('{') < 0 && pattern.indexOf('\'') < 0) {
+                return pattern;
+            }
+            try {
+                return new MessageFormat(pattern, locale);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private Object getMessage(String key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? null : messages[index];
+        }
+    }
+
+    /**
+     * Creates a caching provider for the given provider.
+     *
+     * @param provider
+     *            the provider to get the translations from, not {@code null}
+     */
+    public CachingI18NProvider(I18NProvider provider) {
+        this.provider = Objects.requireNonNull(provider,
+                "The provider cannot be null");
+    }
+
+    /**
+     * Gets the provider whose translations are cached.
+     *
+     * @return the provider, not {@code null}
+     */
+    public I18NProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Loads the translations of all the provided locales, so that the first
+     * translations of each locale do not need to wait for the table to be
+     * loaded.
+     */
+    public void preload() {
+        getProvidedLocales().forEach(this::getTable);
+    }
+
+    /**
+     * Removes all the cached translations and provided locales, so that they
+     * are loaded again from the provider when they are needed.
+     */
+    public void clearCache() {
+        tables.clear();
+        providedLocales = null;
+    }
+
+    @Override
+    public List<Locale> getProvidedLocales() {
+        List<Locale> locales = providedLocales;
+        if (locales == null) {
+            locales = Collections
+                    .unmodifiableList(provider.getProvidedLocales());
+            providedLocales = locales;
+        }
+        return locales;
+    }
+
+    @Override
+    public String getTranslation(String key, Locale locale,
+            Object... params) {
+        if (key == null || locale == null) {
+            return provider.getTranslation(key, locale, params);
+        }
+        MessageTable table = getTable(locale);
+        Object message = table.getMessage(key);
+        if (message instanceof String) {
+            return (String) message;
+        }
+        if (message != null) {
+            MessageFormat format = (MessageFormat) message;
+            // MessageFormat is not thread safe
+            synchronized (format) {
+                return format.format(params == null ? new Object[0] : params);
+            }
+        }
+        if (params != null && params.length > 0) {
+            return provider.getTranslation(key, locale, params);
+        }
+        String translation = table.translations.get(key);
+        if (translation == null) {
+            translation = provider.getTranslation(key, locale, params);
+            if (translation != null && table.translations
+                    .size() < MAXIMUM_CACHED_TRANSLATIONS) {
+                table.translations.put(key, translation);
+            }
+        }
+        return translation;
+    }
+
+    @Override
+    public String getTranslation(Object key, Locale locale, Object... params) {
+        if (key instanceof String) {
+            return getTranslation((String) key, locale, params);
+        }
+        return provider.getTranslation(key, locale, params);
+    }
+
+    @Override
+    public Map<String, String> getMessagePatterns(Locale locale) {
+        return provider.getMessagePatterns(locale);
+    }
+
+    private MessageTable getTable(Locale locale) {
+        return tables.computeIfAbsent(locale, this::loadTable);
+    }
+
+    private MessageTable loadTable(Locale locale) {
+        Map<String, String> patterns = provider.getMessagePatterns(locale);
+        return new MessageTable(
+                patterns == null ? Collections.emptyMap() : patterns, locale);
+    }
+
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        tables = new ConcurrentHashMap<>();
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(CachingI18NProvider.class);
+    }
+}
@@ -16,8 +16,10 @@
 package com.vaadin.flow.i18n;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * I18N provider interface for internationalization usage.
@@ -67,4 +69,23 @@ public interface I18NProvider extends Serializable {
     default String getTranslation(Object key, Locale locale, Object... params) {
         return getTranslation(key.toString(), locale, params);
     }
+
+    /**
+     * Gets the translation patterns of the given locale, for a provider whose
+     * translations are {@link java.text.MessageFormat} patterns.
+     * <p>
+     * If a provider returns the patterns, {@link CachingI18NProvider} compiles
+     * them once and formats the translations of those keys itself, with a
+     * {@code MessageFormat} for the requested locale, instead of calling
+     * {@link #getTranslation(String, Locale, Object...)}. The keys which are
+     * not included are still translated by the provider.
+     *
+     * @param locale
+     *            the locale to get the patterns for, not {@code null}
+     * @return the patterns by translation key, or an empty map if the patterns
+     *         are not available
+     */
+    default Map<String, String> getMessagePatterns(Locale locale) {
+        return Collections.emptyMap();
+    }
 }
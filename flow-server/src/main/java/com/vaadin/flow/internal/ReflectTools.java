@@ -19,6 +19,9 @@ import java.beans.IntrospectionException;
 import java.beans.PropertyDescriptor;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
@@ -68,6 +71,9 @@ public class ReflectTools implements Serializable {
 
     private static final Predicate<Method> IS_SYNTHETIC = Method::isSynthetic;
 
+    private static final ReflectionCache<Object, InstantiationPlan> INSTANTIATION_PLANS = new ReflectionCache<>(
+            InstantiationPlan::new);
+
     /**
      * Locates the method in the given class. Returns null if the method is not
      * found. Throws an ExceptionInInitializerError if there is a problem
@@ -475,23 +481,15 @@ public class ReflectTools implements Serializable {
      */
     public static <T> T createProxyInstance(Class<T> proxyClass,
             Class<?> originalClass) {
-        checkClassAccessibility(originalClass);
+        InstantiationPlan plan = INSTANTIATION_PLANS.get(proxyClass);
+        if (proxyClass == originalClass) {
+            plan.checkAccessibility();
+        } else {
+            checkClassAccessibility(originalClass);
+        }
         try {
-            Optional<Constructor<?>> constructor = Stream
-                    .of(proxyClass.getConstructors())
-                    .filter(ctor -> ctor.getParameterCount() == 0).findFirst();
-            if (constructor.isPresent()) {
-                return proxyClass.cast(constructor.get().newInstance());
-            }
-
-            constructor = Stream.of(proxyClass.getConstructors())
-                    .filter(ctor -> ctor.getParameterCount() == 1)
-                    .filter(ctor -> ctor.isVarArgs()).findFirst();
-            if (constructor.isPresent()) {
-                Class<?> paramType = constructor.get().getParameterTypes()[0];
-
-                return proxyClass.cast(constructor.get().newInstance(
-                        Array.newInstance(paramType.getComponentType(), 0)));
+            if (plan.isInstantiable()) {
+                return proxyClass.cast(plan.newInstance());
             }
         } catch (InstantiationException e) {
             if (originalClass.isMemberClass()
@@ -914,4 +912,95 @@ public class ReflectTools implements Serializable {
         }
         return staticFinalFields;
     }
+
+    /**
+     * The precompiled way of instantiating a class through its public no-arg
+     * or varargs constructor, so that the constructor doesn't need to be
+     * looked up again for every instance.
+     */
+    private static final class InstantiationPlan {
+        private final Constructor<?> constructor;
+        private final Object[] arguments;
+        private final MethodHandle handle;
+        private final String accessibilityError;
+
+        private InstantiationPlan(Class<?> type) {
+            accessibilityError = findAccessibilityError(type);
+            Optional<Constructor<?>> noArgConstructor = Stream
+                    .of(type.getConstructors())
+                    .filter(ctor -> ctor.getParameterCount() == 0).findFirst();
+            if (noArgConstructor.isPresent()) {
+                constructor = noArgConstructor.get();
+                arguments = new Object[0];
+            } else {
+                constructor = Stream.of(type.getConstructors())
+                        .filter(ctor -> ctor.getParameterCount() == 1)
+                        .filter(Constructor::isVarArgs).findFirst()
+                        .orElse(null);
+                arguments = constructor == null ? null
+                        : new Object[] { Array.newInstance(
+                                constructor.getParameterTypes()[0]
+                                        .getComponentType(),
+                                0) };
+            }
+            handle = createHandle(type);
+        }
+
+        private MethodHandle createHandle(Class<?> type) {
+            if (constructor == null
+                    || Modifier.isAbstract(type.getModifiers())) {
+                // Let reflection report the failure on instantiation
+                return null;
+            }
+            try {
+                MethodHandle result = MethodHandles.publicLookup()
+                        .unreflectConstructor(constructor);
+                if (arguments.length > 0) {
+                    // Only the shared empty varargs array is passed, the
+                    // array is never modified since it has no elements
+                    result = MethodHandles.insertArguments(
+                            result.asFixedArity(), 0, arguments);
+                }
+                return result.asType(MethodType.methodType(Object.class));
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+
+        private static String findAccessibilityError(Class<?> type) {
+            try {
+                checkClassAccessibility(type);
+                return null;
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+        }
+
+        /*
+         * Same as checkClassAccessibility, but without the relatively slow
+         * class introspection on every call.
+         */
+        private void checkAccessibility() {
+            if (accessibilityError != null) {
+                throw new IllegalArgumentException(accessibilityError);
+            }
+        }
+
+        private boolean isInstantiable() {
+            return constructor != null;
+        }
+
+        private Object newInstance() throws InstantiationException,
+                IllegalAccessException, InvocationTargetException {
+            if (handle == null) {
+                return constructor.newInstance(arguments);
+            }
+            try {
+                return handle.invokeExact();
+            } catch (Throwable e) {
+                // Same as what Constructor.newInstance throws
+                throw new InvocationTargetException(e);
+            }
+        }
+    }
 }
@@ -63,6 +63,21 @@ public class ElementListenerMap extends NodeMap {
     private static final EnumSet<DebouncePhase> NO_TIMEOUT_PHASES = EnumSet
             .of(DebouncePhase.LEADING);
 
+    private static final EnumSet<DebouncePhase> THROTTLE_PHASES = EnumSet
+            .of(DebouncePhase.LEADING, DebouncePhase.INTERMEDIATE);
+
+    /*
+     * Weight of the latest sample in the moving average of the processing
+     * time of adaptively throttled listeners.
+     */
+    private static final double PROCESSING_TIME_WEIGHT = 0.2;
+
+    /*
+     * Adaptive throttling aims at the server spending at most half of the time
+     * between events handling them.
+     */
+    private static final double PERIOD_PER_PROCESSING_TIME = 2;
+
     // Server-side only data
     private Map<String, List<DomEventListenerWrapper>> listeners;
 
@@ -115,6 +130,11 @@ public class ElementListenerMap extends NodeMap {
         private EnumSet<DebouncePhase> debouncePhases = NO_TIMEOUT_PHASES;
         private List<SerializableRunnable> unregisterHandlers;
 
+        private boolean adaptiveThrottle;
+        private int minThrottlePeriod;
+        private int maxThrottlePeriod;
+        private double averageProcessingMillis = -1;
+
         private DomEventListenerWrapper(ElementListenerMap listenerMap,
                 String type, DomEventListener origin) {
             this.listenerMap = listenerMap;
@@ -222,6 +242,7 @@ public class ElementListenerMap extends NodeMap {
                         "Timeout cannot be negative");
             }
 
+            adaptiveThrottle = false;
             debounceTimeout = timeout;
 
             if (timeout == 0) {
@@ -235,6 +256,72 @@ public class ElementListenerMap extends NodeMap {
             return this;
         }
 
+        @Override
+        public DomListenerRegistration throttleAdaptively(int minPeriod,
+                int maxPeriod) {
+            if (minPeriod < 0) {
+                throw new IllegalArgumentException(
+                        "Minimum period cannot be negative");
+            }
+            if (maxPeriod < minPeriod) {
+                throw new IllegalArgumentException(
+                        "Maximum period cannot be less than minimum period");
+            }
+
+            adaptiveThrottle = true;
+            minThrottlePeriod = minPeriod;
+            maxThrottlePeriod = maxPeriod;
+            averageProcessingMillis = -1;
+            setThrottlePeriod(minPeriod);
+
+            return this;
+        }
+
+        private void setThrottlePeriod(int period) {
+            debounceTimeout = period;
+            debouncePhases = period == 0 ? NO_TIMEOUT_PHASES : THROTTLE_PHASES;
+
+            listenerMap.updateEventSettings(type);
+        }
+
+        private void handleEvent(DomEvent event) {
+            if (!adaptiveThrottle) {
+                origin.handleEvent(event);
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                origin.handleEvent(event);
+            } finally {
+                recordProcessingTime((System.nanoTime() - start) / 1_000_000d);
+            }
+        }
+
+        private void recordProcessingTime(double millis) {
+            if (!adaptiveThrottle) {
+                // Reconfigured by the listener itself
+                return;
+            }
+            if (averageProcessingMillis < 0) {
+                averageProcessingMillis = millis;
+            } else {
+                averageProcessingMillis += PROCESSING_TIME_WEIGHT
+                        * (millis - averageProcessingMillis);
+            }
+            long target = Math
+                    .round(averageProcessingMillis * PERIOD_PER_PROCESSING_TIME);
+            int period = (int) Math.max(minThrottlePeriod,
+                    Math.min(maxThrottlePeriod, target));
+            // Only send new settings to the client when the period changes
+            // notably or reaches a limit
+            if (period != debounceTimeout
+                    && (Math.abs(period - debounceTimeout) > debounceTimeout / 4
+                            || period == minThrottlePeriod
+                            || period == maxThrottlePeriod)) {
+                setThrottlePeriod(period);
+            }
+        }
+
         @Override
         public int getDebounceTimeout() {
             return debounceTimeout;
@@ -434,13 +521,13 @@ public class ElementListenerMap extends NodeMap {
             return;
         }
 
-        List<DomEventListener> listeners = new ArrayList<>();
+        List<DomEventListenerWrapper> listeners = new ArrayList<>();
         for (DomEventListenerWrapper wrapper : typeListeners) {
             if ((isElementEnabled
                     || DisabledUpdateMode.ALWAYS.equals(wrapper.mode))
                     && wrapper.matchesFilter(event.getEventData())
                     && wrapper.matchesPhase(event.getPhase())) {
-                listeners.add(wrapper.origin);
+                listeners.add(wrapper);
             }
         }
 
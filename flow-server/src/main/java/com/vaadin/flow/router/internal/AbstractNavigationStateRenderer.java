@@ -57,6 +57,7 @@ import com.vaadin.flow.router.PreserveOnRefresh;
 import com.vaadin.flow.router.RouteParameters;
 import com.vaadin.flow.router.Router;
 import com.vaadin.flow.router.RouterLayout;
+import com.vaadin.flow.server.FlowMetrics;
 import com.vaadin.flow.server.HttpStatusCode;
 import com.vaadin.flow.server.VaadinSession;
 
@@ -132,6 +133,22 @@ public abstract class AbstractNavigationStateRenderer
 
     @Override
     public int handle(NavigationEvent event) {
+        VaadinSession session = event.getUI().getSession();
+        FlowMetrics metrics = FlowMetrics
+                .get(session == null ? null : session.getService());
+        if (!metrics.isEnabled()) {
+            return doHandle(event);
+        }
+        long start = System.nanoTime();
+        try {
+            return doHandle(event);
+        } finally {
+            metrics.recordNavigation(navigationState.getNavigationTarget(),
+                    System.nanoTime() - start);
+        }
+    }
+
+    private int doHandle(NavigationEvent event) {
         UI ui = event.getUI();
 
         final Class<? extends Component> routeTargetType = navigationState
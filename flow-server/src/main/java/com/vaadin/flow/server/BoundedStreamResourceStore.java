@@ -0,0 +1,173 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * A thread safe {@link StreamResourceStore} which evicts the least recently
+ * used resources when the number of resources exceeds a limit, and resources
+ * which have not been used for a given time.
+ * <p>
+ * Registering and requesting a resource both count as using it. The time of
+ * the last use is taken from the wall clock, so that it stays meaningful when
+ * the store is serialized with the session and deserialized in another server.
+ * <p>
+ * The store is thread safe, but it does not opt out of the session lock, see
+ * {@link #isConcurrent()}. Resources in it are thus still looked up and served
+ * while holding the session lock, like the resources of the default store.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class BoundedStreamResourceStore implements StreamResourceStore {
+
+    private final int maxEntries;
+
+    private final long timeToLiveMillis;
+
+    // Iteration order is from the least to the most recently used entry
+    private final LinkedHashMap<URI, Entry> entries = new LinkedHashMap<>(16,
+            0.75f, true);
+
+    private long evictionCount;
+
+    private static final class Entry implements Serializable {
+        private final AbstractStreamResource resource;
+        private long lastUsed;
+
+        private Entry(AbstractStreamResource resource, long lastUsed) {
+            this.resource = resource;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    /**
+     * Creates a new store.
+     *
+     * @param maxEntries
+     *            the maximum number of resources to keep, zero or a negative
+     *            value for no limit
+     * @param timeToLiveSeconds
+     *            the number of seconds after which an unused resource is
+     *            evicted, zero or a negative value to not evict resources
+     *            based on time
+     */
+    public BoundedStreamResourceStore(int maxEntries, int timeToLiveSeconds) {
+        this.maxEntries = maxEntries;
+        timeToLiveMillis = timeToLiveSeconds > 0
+                ? TimeUnit.SECONDS.toMillis(timeToLiveSeconds)
+                : -1;
+    }
+
+    @Override
+    public synchronized void put(URI uri, AbstractStreamResource resource) {
+        long now = currentTimeMillis();
+        evictExpired(now);
+        entries.put(uri, new Entry(resource, now));
+        if (maxEntries > 0) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() > maxEntries) {
+                iterator.next();
+                iterator.remove();
+                evictionCount++;
+            }
+        }
+    }
+
+    @Override
+    public synchronized AbstractStreamResource get(URI uri) {
+        Entry entry = entries.get(uri);
+        if (entry == null) {
+            return null;
+        }
+        long now = currentTimeMillis();
+        if (isExpired(entry, now)) {
+            entries.remove(uri);
+            evictionCount++;
+            return null;
+        }
+        entry.lastUsed = now;
+        return entry.resource;
+    }
+
+    @Override
+    public synchronized void remove(URI uri) {
+        entries.remove(uri);
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all the resources whose URI matches the given filter.
+     *
+     * @param filter
+     *            the filter for the URIs of the resources to remove, not
+     *            {@code null}
+     */
+    synchronized void removeAll(Predicate<URI> filter) {
+        entries.keySet().removeIf(filter);
+    }
+
+    /**
+     * Gets the number of resources evicted from this store since it was
+     * created, not counting the resources removed explicitly.
+     *
+     * @return the number of evicted resources
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Gets the current value of the time source used for expiring resources,
+     * in milliseconds since the epoch.
+     *
+     * @return the current time in milliseconds
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private void evictExpired(long now) {
+        if (timeToLiveMillis < 0) {
+            return;
+        }
+        // The least recently used entries come first, so the expired entries
+        // are all at the beginning
+        Iterator<Map.Entry<URI, Entry>> iterator = entries.entrySet()
+                .iterator();
+        while (iterator.hasNext()
+                && isExpired(iterator.next().getValue(), now)) {
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return timeToLiveMillis >= 0
+                && now - entry.lastUsed > timeToLiveMillis;
+    }
+}
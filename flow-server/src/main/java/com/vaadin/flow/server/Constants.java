@@ -232,6 +232,29 @@ public final class Constants implements Serializable {
     public static final String TEMPLATE_DIRECTORY = Constants.VAADIN_CONFIGURATION
             + "templates/";
 
+    /**
+     * Default resource path of the precomputed index of elements with an id
+     * in the template files. It is generated together with the template
+     * sources in {@link #TEMPLATE_DIRECTORY} for production builds.
+     */
+    public static final String TEMPLATE_ID_INDEX = Constants.VAADIN_CONFIGURATION
+            + "template-ids.json";
+
+    /**
+     * Default resource directory for the PWA icons rendered at build time for
+     * production bundles.
+     */
+    public static final String PWA_ICONS_DIRECTORY = Constants.VAADIN_CONFIGURATION
+            + "pwa-icons/";
+
+    /**
+     * Default resource path of the index of the PWA icons in
+     * {@link #PWA_ICONS_DIRECTORY}. The index records the logo the icons were
+     * rendered from, so that stale icons are never served.
+     */
+    public static final String PWA_ICONS_INDEX = PWA_ICONS_DIRECTORY
+            + "icons.json";
+
     /**
      * Name of the <code>npm</code> main file.
      */
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.vaadin.flow.internal.CurrentInstance;
+
+/**
+ * Executor service which runs the tasks with the current instances of the
+ * submitting thread, e.g. {@link VaadinService#getCurrent()} and
+ * {@link com.vaadin.flow.component.UI#getCurrent()}, except for the current
+ * request and response.
+ * <p>
+ * Note that the session is not locked when the tasks are run. Tasks which
+ * access the UI should do that through
+ * {@link com.vaadin.flow.component.UI#access(com.vaadin.flow.server.Command)}.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+class CurrentInstancePropagatingExecutor extends AbstractExecutorService
+        implements Serializable {
+
+    private final transient ExecutorService delegate;
+
+    CurrentInstancePropagatingExecutor(ExecutorService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Map<Class<?>, CurrentInstance> instances = new HashMap<>(
+                CurrentInstance.getInstances());
+        // The request and response are not valid after the request has been
+        // handled, so they are not propagated
+        instances.remove(VaadinRequest.class);
+        instances.remove(VaadinResponse.class);
+        delegate.execute(() -> {
+            Map<Class<?>, CurrentInstance> oldInstances = CurrentInstance
+                    .getInstances();
+            CurrentInstance.clearAll();
+            CurrentInstance.restoreInstances(instances);
+            try {
+                command.run();
+            } finally {
+                CurrentInstance.clearAll();
+                CurrentInstance.restoreInstances(oldInstances);
+            }
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Default implementation of {@link ExecutorFactory}.
+ * <p>
+ * Creates an executor which runs each task in a new virtual thread when the
+ * Java runtime supports virtual threads, and otherwise an executor with a
+ * cached pool of daemon threads.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class DefaultExecutorFactory implements ExecutorFactory {
+
+    private static final String VIRTUAL_THREAD_EXECUTOR_METHOD = "newVirtualThreadPerTaskExecutor";
+
+    @Override
+    public ExecutorService createExecutor(VaadinService service) {
+        ExecutorService executor = createVirtualThreadExecutor();
+        if (executor != null) {
+            getLogger().debug("Using virtual threads for background tasks");
+            return executor;
+        }
+        return Executors.newCachedThreadPool(new DaemonThreadFactory());
+    }
+
+    /**
+     * Creates an executor which starts a new virtual thread for each task.
+     *
+     * @return the executor, or {@code null} if virtual threads are not
+     *         available in the Java runtime
+     */
+    protected ExecutorService createVirtualThreadExecutor() {
+        Method method;
+        try {
+            method = Executors.class.getMethod(VIRTUAL_THREAD_EXECUTOR_METHOD);
+        } catch (NoSuchMethodException e) { // NOSONAR
+            return null;
+        }
+        try {
+            return (ExecutorService) method.invoke(null);
+        } catch (InvocationTargetException | IllegalAccessException e) {
+            // Virtual threads are a preview feature in some Java versions and
+            // cannot be used unless enabled
+            getLogger().debug("Virtual threads are not available", e);
+            return null;
+        }
+    }
+
+    private static class DaemonThreadFactory
+            implements ThreadFactory, Serializable {
+
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable,
+                    "vaadin-executor-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(DefaultExecutorFactory.class);
+    }
+}
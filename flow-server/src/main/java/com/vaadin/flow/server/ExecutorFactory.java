@@ -0,0 +1,45 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A factory to create the {@link ExecutorService} which runs the background
+ * tasks of a {@link VaadinService}.
+ * <p>
+ * An implementation can be provided through the {@link com.vaadin.flow.di.Lookup
+ * Lookup} to e.g. use a container managed executor. By default
+ * {@link DefaultExecutorFactory} is used.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see VaadinService#getExecutor()
+ */
+public interface ExecutorFactory extends Serializable {
+
+    /**
+     * Creates a new executor for the given {@code service}.
+     * <p>
+     * The executor is shut down when the service is destroyed.
+     *
+     * @param service
+     *            the service to create the executor for
+     * @return a new executor service, not {@code null}
+     */
+    ExecutorService createExecutor(VaadinService service);
+}
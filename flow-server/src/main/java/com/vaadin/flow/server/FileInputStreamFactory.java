@@ -0,0 +1,88 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Factory which reads the data of a {@link StreamResource} from a file.
+ * <p>
+ * The file is read through a {@link FileChannel} positioned at the requested
+ * offset, so range requests only read the requested part of the file. The
+ * file is read without holding the session lock.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class FileInputStreamFactory implements RangeInputStreamFactory {
+
+    private final File file;
+
+    /**
+     * Creates a new factory for the given file.
+     *
+     * @param file
+     *            the file to read, not {@code null}
+     */
+    public FileInputStreamFactory(File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        this.file = file;
+    }
+
+    /**
+     * Gets the file the data is read from.
+     *
+     * @return the file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public long getLength() {
+        return file.isFile() ? file.length() : -1;
+    }
+
+    @Override
+    public InputStream createInputStream(long start) {
+        try {
+            FileChannel channel = FileChannel.open(file.toPath(),
+                    StandardOpenOption.READ);
+            try {
+                channel.position(start);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            return Channels.newInputStream(channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean requiresLock() {
+        return false;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+
+import com.vaadin.flow.component.Component;
+
+/**
+ * Receives measurements of the internals of a {@link VaadinService}, e.g. to
+ * publish them to a metrics registry.
+ * <p>
+ * An implementation can be provided through the
+ * {@link com.vaadin.flow.di.Lookup Lookup}. If there is none, nothing is
+ * measured. The measurements are only taken if {@link #isEnabled()} returns
+ * {@code true}, so a disabled implementation costs no more than one method
+ * call at each measurement point.
+ * <p>
+ * The methods are called from request threads, push threads and the threads
+ * of the {@link VaadinService#getExecutor() executor}, so implementations
+ * must be thread safe. They are called in the middle of request handling, so
+ * they should not block. All the methods do nothing by default.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see VaadinService#getMetrics()
+ */
+public interface FlowMetrics extends Serializable {
+
+    /**
+     * An implementation which does not measure anything.
+     */
+    FlowMetrics DISABLED = new FlowMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    /**
+     * The phases of creating a response to a client.
+     */
+    enum UidlPhase {
+        /**
+         * Handling the RPC invocations sent by the client.
+         */
+        RPC_HANDLING,
+        /**
+         * Running the tasks registered through
+         * {@link com.vaadin.flow.internal.StateTree#beforeClientResponse(com.vaadin.flow.internal.StateNode, com.vaadin.flow.function.SerializableConsumer)
+         * beforeClientResponse}.
+         */
+        BEFORE_CLIENT_RESPONSE,
+        /**
+         * Collecting the changes of the dirty state nodes.
+         */
+        COLLECT_CHANGES,
+        /**
+         * Encoding the collected changes as JSON, including batching them if
+         * enabled.
+         */
+        ENCODE;
+    }
+
+    /**
+     * Checks whether measurements should be taken and reported to this
+     * instance.
+     *
+     * @return {@code true} if the measurements are taken, {@code false} if
+     *         not
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Records the time spent in a phase of creating a response to a client,
+     * for both requests and push messages.
+     *
+     * @param phase
+     *            the phase, not {@code null}
+     * @param nanos
+     *            the time spent, in nanoseconds
+     */
+    default void recordUidlPhase(UidlPhase phase, long nanos) {
+    }
+
+    /**
+     * Records the size of a response to a UIDL request.
+     *
+     * @param bytes
+     *            the size of the response body, in bytes
+     */
+    default void recordUidlResponseSize(int bytes) {
+    }
+
+    /**
+     * Records the number of state nodes which had changes to send to the
+     * client in a response or push message.
+     *
+     * @param count
+     *            the number of dirty nodes
+     */
+    default void recordDirtyNodes(int count) {
+    }
+
+    /**
+     * Records a push message sent to a client.
+     *
+     * @param length
+     *            the length of the message, in characters
+     * @param queueDepth
+     *            the number of tasks waiting in the access queue of the
+     *            session when the message was sent
+     */
+    default void recordPush(int length, int queueDepth) {
+    }
+
+    /**
+     * Records the time a thread waited for a session lock.
+     *
+     * @param nanos
+     *            the wait time, in nanoseconds
+     */
+    default void recordSessionLockWait(long nanos) {
+    }
+
+    /**
+     * Records the time a session lock was held, from acquiring it to finally
+     * releasing it.
+     *
+     * @param nanos
+     *            the hold time, in nanoseconds
+     */
+    default void recordSessionLockHold(long nanos) {
+    }
+
+    /**
+     * Called when a session has been initialized.
+     */
+    default void sessionCreated() {
+    }
+
+    /**
+     * Called when a session has been destroyed.
+     */
+    default void sessionDestroyed() {
+    }
+
+    /**
+     * Called when a UI has been initialized.
+     */
+    default void uiCreated() {
+    }
+
+    /**
+     * Called when a UI has been detached, i.e. closed or removed from its
+     * session.
+     */
+    default void uiDestroyed() {
+    }
+
+    /**
+     * Records the time spent fetching items from a data provider, including
+     * the time spent iterating the returned stream.
+     *
+     * @param nanos
+     *            the fetch time, in nanoseconds
+     * @param items
+     *            the number of fetched items
+     */
+    default void recordDataFetch(long nanos, int items) {
+    }
+
+    /**
+     * Records the time spent navigating to a route, including the navigation
+     * life cycle observers and creating the route target.
+     *
+     * @param navigationTarget
+     *            the route target navigated to, not {@code null}
+     * @param nanos
+     *            the navigation time, in nanoseconds
+     */
+    default void recordNavigation(Class<? extends Component> navigationTarget,
+            long nanos) {
+    }
+
+    /**
+     * Gets the metrics of the given service, or {@link #DISABLED} if there is
+     * no service.
+     *
+     * @param service
+     *            the service, or {@code null}
+     * @return the metrics, not {@code null}
+     */
+    static FlowMetrics get(VaadinService service) {
+        FlowMetrics metrics = service == null ? null : service.getMetrics();
+        return metrics == null ? DISABLED : metrics;
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Periodically closes and removes inactive UIs from all the sessions of a
+ * service.
+ * <p>
+ * Normally inactive UIs are only cleaned up at the end of a request to the same
+ * session, so a session that stops sending requests keeps its UIs until the
+ * HTTP session expires. The sweeper checks the sessions in the background in
+ * batches. A session is skipped if its lock is not immediately available, so
+ * the sweeper never waits for request threads, which clean up the session
+ * themselves at the end of the request anyway.
+ * <p>
+ * The number of closed UIs and released state nodes are logged after each
+ * sweep which reclaimed anything.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see InitParameters#SERVLET_PARAMETER_INACTIVE_UI_SWEEP_INTERVAL
+ */
+class InactiveUISweeper implements Serializable {
+
+    static final int BATCH_SIZE = 100;
+
+    private final VaadinService service;
+
+    private final transient Set<VaadinSession> sessions = Collections
+            .newSetFromMap(Collections.synchronizedMap(new WeakHashMap<>()));
+
+    private final List<Registration> registrations = new ArrayList<>();
+
+    private transient ScheduledExecutorService executor;
+
+    private volatile boolean stopped;
+
+    /**
+     * Creates a new sweeper for the given service. The sweeper tracks the
+     * sessions initialized after its creation.
+     *
+     * @param service
+     *            the service to sweep the sessions of, not {@code null}
+     */
+    InactiveUISweeper(VaadinService service) {
+        this.service = service;
+        registrations.add(service.addSessionInitListener(
+                event -> sessions.add(event.getSession())));
+        registrations.add(service.addSessionDestroyListener(
+                event -> sessions.remove(event.getSession())));
+    }
+
+    /**
+     * Starts sweeping the sessions periodically.
+     *
+     * @param intervalSeconds
+     *            the interval between the sweeps, in seconds
+     */
+    void start(int intervalSeconds) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vaadin-inactive-ui-sweeper-"
+                    + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::sweep, intervalSeconds,
+                intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops sweeping and releases the tracked sessions.
+     */
+    void stop() {
+        stopped = true;
+        registrations.forEach(Registration::remove);
+        registrations.clear();
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        sessions.clear();
+    }
+
+    /**
+     * Runs one sweep over all the tracked sessions.
+     *
+     * @return the result of the sweep
+     */
+    SweepResult sweep() {
+        long start = System.nanoTime();
+        List<VaadinSession> snapshot;
+        synchronized (sessions) {
+            snapshot = new ArrayList<>(sessions);
+        }
+        SweepResult result = new SweepResult();
+        try {
+            for (int i = 0; i < snapshot.size() && !stopped; i += BATCH_SIZE) {
+                List<VaadinSession> batch = snapshot.subList(i,
+                        Math.min(i + BATCH_SIZE, snapshot.size()));
+                batch.forEach(session -> sweep(session, result));
+                Thread.yield();
+            }
+        } catch (RuntimeException e) {
+            // Don't let an exception cancel the scheduled sweeps
+            getLogger().error("Sweeping inactive UIs failed", e);
+        }
+        if (result.getClosedUIs() > 0) {
+            getLogger().debug(
+                    "Closed {} inactive UIs in {} sessions, releasing {} state nodes, in {} ms",
+                    result.getClosedUIs(), result.getSessions(),
+                    result.getReleasedNodes(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return result;
+    }
+
+    private void sweep(VaadinSession session, SweepResult result) {
+        Lock lock = session.getLockInstance();
+        if (lock == null || !lock.tryLock()) {
+            return;
+        }
+        try {
+            if (session.getState() != VaadinSessionState.OPEN
+                    || session.getSession() == null) {
+                return;
+            }
+            Map<Integer, Integer> inactiveNodeCounts = new HashMap<>();
+            for (UI ui : session.getUIs()) {
+                if (!service.isUIActive(ui)) {
+                    inactiveNodeCounts.put(ui.getUIId(), countNodes(ui));
+                }
+            }
+            if (inactiveNodeCounts.isEmpty()) {
+                return;
+            }
+            service.cleanupInactiveUIs(session);
+            int closed = 0;
+            for (Map.Entry<Integer, Integer> entry : inactiveNodeCounts
+                    .entrySet()) {
+                if (session.getUIById(entry.getKey()) == null) {
+                    closed++;
+                    result.releasedNodes += entry.getValue();
+                }
+            }
+            if (closed > 0) {
+                result.closedUIs += closed;
+                result.sessions++;
+            }
+        } finally {
+            session.unlock();
+        }
+    }
+
+    private static int countNodes(UI ui) {
+        int[] count = new int[1];
+        ui.getInternals().getStateTree().getRootNode()
+                .visitNodeTree(node -> count[0]++);
+        return count[0];
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(InactiveUISweeper.class);
+    }
+
+    /**
+     * The outcome of a sweep.
+     */
+    static class SweepResult implements Serializable {
+        private int sessions;
+        private int closedUIs;
+        private long releasedNodes;
+
+        /**
+         * Gets the number of sessions in which UIs were closed.
+         *
+         * @return the number of sessions
+         */
+        int getSessions() {
+            return sessions;
+        }
+
+        /**
+         * Gets the number of closed and removed UIs.
+         *
+         * @return the number of UIs
+         */
+        int getClosedUIs() {
+            return closedUIs;
+        }
+
+        /**
+         * Gets the number of state nodes of the removed UIs, which is a
+         * measure of the released memory.
+         *
+         * @return the number of state nodes
+         */
+        long getReleasedNodes() {
+            return releasedNodes;
+        }
+    }
+}
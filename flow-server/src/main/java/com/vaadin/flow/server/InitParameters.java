@@ -55,6 +55,93 @@ public class InitParameters implements Serializable {
     public static final String SERVLET_PARAMETER_HEARTBEAT_INTERVAL = "heartbeatInterval";
     public static final String SERVLET_PARAMETER_WEB_COMPONENT_DISCONNECT = "webComponentDisconnect";
     public static final String SERVLET_PARAMETER_CLOSE_IDLE_SESSIONS = "closeIdleSessions";
+
+    /**
+     * Configuration name for the interval in seconds between background sweeps
+     * that close inactive UIs in all sessions. Zero or a negative value, which
+     * is the default, disables the sweeps.
+     *
+     * @since
+     */
+    public static final String SERVLET_PARAMETER_INACTIVE_UI_SWEEP_INTERVAL = "inactiveUISweepInterval";
+
+    /**
+     * Configuration name for the maximum number of stream resources kept
+     * registered per session, or in total if
+     * {@link #SERVLET_PARAMETER_SHARED_STREAM_RESOURCES} is enabled. The least
+     * recently used resources are evicted when the limit is exceeded. Zero or
+     * a negative value, which is the default, means no limit.
+     *
+     * @since
+     */
+    public static final String SERVLET_PARAMETER_STREAM_RESOURCE_MAX_ENTRIES = "streamResourceMaxEntries";
+
+    /**
+     * Configuration name for the number of seconds after which a stream
+     * resource which has not been requested is evicted. Zero or a negative
+     * value, which is the default, means that resources are not evicted based
+     * on time.
+     *
+     * @since
+     */
+    public static final String SERVLET_PARAMETER_STREAM_RESOURCE_TIME_TO_LIVE = "streamResourceTimeToLive";
+
+    /**
+     * Configuration name for the flag that stores the registered stream
+     * resources in a store shared by all the sessions instead of in the
+     * sessions. Shared resources are not serialized with the session, are
+     * removed when the session is destroyed and are served without locking the
+     * session. Limiting the resources with
+     * {@link #SERVLET_PARAMETER_STREAM_RESOURCE_MAX_ENTRIES} or
+     * {@link #SERVLET_PARAMETER_STREAM_RESOURCE_TIME_TO_LIVE} alone does not
+     * change the locking.
+     *
+     * @since
+     */
+    public static final String SERVLET_PARAMETER_SHARED_STREAM_RESOURCES = "sharedStreamResources";
+
+    /**
+     * Configuration name for the flag that rewrites the state tree changes of
+     * each UIDL response to a more compact form, e.g. writing identical
+     * changes of several nodes only once.
+     *
+     * @since
+     */
+    public static final String SERVLET_PARAMETER_BATCH_UIDL_CHANGES = "batchUidlChanges";
+
+    /**
+     * Configuration name for the flag that receives the body of UIDL requests
+     * with non-blocking servlet I/O, so that no container thread is occupied
+     * while the request body is received. The request is then dispatched
+     * asynchronously and the RPC invocations are handled as usual. Requires
+     * the servlet and all the filters in the chain to support asynchronous
+     * processing, otherwise requests are handled synchronously. Filters that
+     * set up a thread context, e.g. a security context, must also be mapped
+     * for the {@code ASYNC} dispatcher type.
+     *
+     * @since
+     */
+    public static final String SERVLET_PARAMETER_ASYNC_UIDL_HANDLING = "asyncUidlHandling";
+
+    /**
+     * Configuration name for the flag that makes pending
+     * {@link com.vaadin.flow.component.UI#access(com.vaadin.flow.server.Command)}
+     * tasks run by the executor of the service instead of the thread that
+     * enqueued them, when that thread does not hold the session lock.
+     *
+     * @since
+     */
+    public static final String SERVLET_PARAMETER_ASYNC_ACCESS_QUEUE_PURGE = "asyncAccessQueuePurge";
+
+    /**
+     * Configuration name for the number of milliseconds after which a thread
+     * waiting for a session lock, or holding a session lock, is reported by
+     * {@link SessionLockDiagnostics}. Zero or a negative value, which is the
+     * default, disables the diagnostics.
+     *
+     * @since
+     */
+    public static final String SERVLET_PARAMETER_SESSION_LOCK_DIAGNOSTICS_THRESHOLD = "sessionLockDiagnosticsThreshold";
     public static final String SERVLET_PARAMETER_PUSH_MODE = "pushMode";
     public static final String SERVLET_PARAMETER_PUSH_URL = "pushURL";
     public static final String SERVLET_PARAMETER_SYNC_ID_CHECK = "syncIdCheck";
@@ -115,6 +202,15 @@ public class InitParameters implements Serializable {
      */
     public static final String SERVLET_PARAMETER_DEVMODE_VITE_OPTIONS = "devmode.vite.options";
 
+    /**
+     * Boolean parameter for caching the responses of the dev server which are
+     * marked as immutable, such as the pre-bundled dependencies served by
+     * Vite, in memory. Disabled by default.
+     *
+     * @since
+     */
+    public static final String SERVLET_PARAMETER_DEVMODE_CACHE_IMMUTABLE_RESPONSES = "devmode.cacheImmutableResponses";
+
     /**
      * Boolean parameter for enabling/disabling bytecode scanning in dev mode.
      * If enabled, entry points are scanned for reachable frontend resources. If
@@ -175,6 +271,25 @@ public class InitParameters implements Serializable {
      */
     public static final String I18N_PROVIDER = "i18n.provider";
 
+    /**
+     * Configuration name for the parameter that determines whether the
+     * translations of the I18N provider are cached by a
+     * {@link com.vaadin.flow.i18n.CachingI18NProvider}.
+     *
+     * @since
+     */
+    public static final String I18N_PROVIDER_CACHE = "i18n.provider.cache";
+
+    /**
+     * Configuration name for the parameter that determines whether the locale
+     * changes of a UI are batched, so that the locale change observers are
+     * notified once before the response is written, instead of on each
+     * change.
+     *
+     * @since
+     */
+    public static final String I18N_BATCH_LOCALE_CHANGES = "i18n.batchLocaleChanges";
+
     /**
      * Configuration name for the parameter that determines if Flow should
      * automatically register servlets needed for the application to work.
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A session lock which reports the time spent waiting for the lock and the
+ * time the lock is held to {@link FlowMetrics} and
+ * {@link SessionLockDiagnostics}.
+ * <p>
+ * Only the outermost acquisition and release of the reentrant lock are
+ * measured. When a thread has waited for the lock for longer than the
+ * threshold of the diagnostics, the stack trace of the thread holding the
+ * lock is captured and reported, and the thread keeps waiting.
+ * <p>
+ * The lock is stored in the HTTP session, so the metrics and diagnostics are
+ * not serialized with it and a deserialized lock no longer reports anything.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see VaadinService#getSessionLockDiagnostics()
+ */
+public class InstrumentedSessionLock extends ReentrantLock {
+
+    private static final StackTraceElement[] NO_STACK_TRACE = new StackTraceElement[0];
+
+    private transient FlowMetrics metrics;
+
+    private transient SessionLockDiagnostics diagnostics;
+
+    // Only accessed by the thread holding the lock
+    private transient long acquiredAt;
+
+    // Captured by a waiting thread while the lock is held
+    private transient volatile StackTraceElement[] holderStackTrace;
+
+    /**
+     * Creates a new lock reporting to the given metrics and diagnostics.
+     *
+     * @param metrics
+     *            the metrics to report to, or {@code null} to not report to
+     *            metrics
+     * @param diagnostics
+     *            the diagnostics to report to, or {@code null} to not report
+     *            to diagnostics
+     */
+    public InstrumentedSessionLock(FlowMetrics metrics,
+            SessionLockDiagnostics diagnostics) {
+        this.metrics = metrics == null || !metrics.isEnabled() ? null
+                : metrics;
+        this.diagnostics = diagnostics;
+    }
+
+    @Override
+    public void lock() {
+        if (!isInstrumented() || isHeldByCurrentThread()) {
+            super.lock();
+            return;
+        }
+        long start = System.nanoTime();
+        if (diagnostics == null) {
+            super.lock();
+        } else {
+            lockReportingSlowWait(start);
+        }
+        acquired(start);
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (!isInstrumented() || isHeldByCurrentThread()) {
+            super.lockInterruptibly();
+            return;
+        }
+        long start = System.nanoTime();
+        if (diagnostics == null || !super.tryLock(
+                diagnostics.getThresholdNanos(), TimeUnit.NANOSECONDS)) {
+            reportSlowWait(start);
+            super.lockInterruptibly();
+        }
+        acquired(start);
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (!isInstrumented() || isHeldByCurrentThread()) {
+            return super.tryLock();
+        }
+        long start = System.nanoTime();
+        if (super.tryLock()) {
+            acquired(start);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean tryLock(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        if (!isInstrumented() || isHeldByCurrentThread()) {
+            return super.tryLock(timeout, unit);
+        }
+        long start = System.nanoTime();
+        long timeoutNanos = unit.toNanos(timeout);
+        boolean locked;
+        if (diagnostics == null
+                || timeoutNanos <= diagnostics.getThresholdNanos()) {
+            locked = super.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+        } else {
+            locked = super.tryLock(diagnostics.getThresholdNanos(),
+                    TimeUnit.NANOSECONDS);
+            if (!locked) {
+                reportSlowWait(start);
+                locked = super.tryLock(
+                        timeoutNanos - (System.nanoTime() - start),
+                        TimeUnit.NANOSECONDS);
+            }
+        }
+        if (locked) {
+            acquired(start);
+        }
+        return locked;
+    }
+
+    @Override
+    public void unlock() {
+        if (!isInstrumented() || getHoldCount() != 1) {
+            super.unlock();
+            return;
+        }
+        long held = System.nanoTime() - acquiredAt;
+        StackTraceElement[] stackTrace = holderStackTrace;
+        holderStackTrace = null;
+        super.unlock();
+        if (metrics != null) {
+            metrics.recordSessionLockHold(held);
+        }
+        if (diagnostics != null) {
+            diagnostics.held(held,
+                    stackTrace == null ? NO_STACK_TRACE : stackTrace);
+        }
+    }
+
+    private boolean isInstrumented() {
+        return metrics != null || diagnostics != null;
+    }
+
+    private void lockReportingSlowWait(long start) {
+        boolean interrupted = false;
+        try {
+            if (super.tryLock(diagnostics.getThresholdNanos(),
+                    TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            reportSlowWait(start);
+        } catch (InterruptedException e) {
+            // lock() is not interruptible, so only preserve the status
+            interrupted = true;
+        }
+        super.lock();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void reportSlowWait(long start) {
+        if (diagnostics == null) {
+            return;
+        }
+        Thread holder = getOwner();
+        StackTraceElement[] stackTrace = holder == null ? NO_STACK_TRACE
+                : holder.getStackTrace();
+        if (stackTrace.length > 0 && getOwner() == holder) {
+            // Reported with the hold time when the holder releases the lock
+            holderStackTrace = stackTrace;
+        }
+        diagnostics.waitingTooLong(System.nanoTime() - start, holder,
+                stackTrace);
+    }
+
+    private void acquired(long start) {
+        acquiredAt = System.nanoTime();
+        long waited = acquiredAt - start;
+        if (metrics != null) {
+            metrics.recordSessionLockWait(waited);
+        }
+        if (diagnostics != null) {
+            diagnostics.waited(waited);
+        }
+    }
+}
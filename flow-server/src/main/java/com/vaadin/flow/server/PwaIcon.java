@@ -219,14 +219,24 @@ public class PwaIcon implements Serializable {
         try (ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
             ImageIO.write(image, "png", stream);
             stream.flush();
-            data = stream.toByteArray();
-            fileHash = Arrays.hashCode(data);
-            setRelativeName();
+            setData(stream.toByteArray());
         } catch (IOException ioe) {
             throw new UncheckedIOException("Failed to write an image ", ioe);
         }
     }
 
+    /**
+     * Sets the already encoded image presenting the icon.
+     *
+     * @param data
+     *            the image bytes in png format
+     */
+    void setData(byte[] data) {
+        this.data = data;
+        fileHash = Arrays.hashCode(data);
+        setRelativeName();
+    }
+
     /**
      * Writes the icon image to output stream.
      *
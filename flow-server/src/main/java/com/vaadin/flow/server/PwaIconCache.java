@@ -0,0 +1,235 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import com.vaadin.flow.internal.MessageDigestUtil;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+
+/**
+ * Index of PWA icons rendered ahead of time.
+ * <p>
+ * The Maven and Gradle plugins render the icons for production bundles into
+ * {@link Constants#PWA_ICONS_DIRECTORY} and describe them in
+ * {@link Constants#PWA_ICONS_INDEX}, so that {@link PwaRegistry} does not need
+ * to decode and rescale the logo when the application starts. The index
+ * records the icon path and a hash of the logo the icons were rendered from,
+ * and is only used if both match the runtime configuration.
+ * <p>
+ * Also contains the icon rendering shared by the build and the runtime.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class PwaIconCache implements Serializable {
+
+    private static final String HEADLESS_PROPERTY = "java.awt.headless";
+    private static final String ICON_PATH = "iconPath";
+    private static final String LOGO = "logo";
+    private static final String ICONS = "icons";
+
+    private final JsonObject index;
+
+    /**
+     * Creates a new icon cache backed by the given index JSON.
+     *
+     * @param index
+     *            the index JSON as produced by {@link #createIndex(String,
+     *            byte[])} and {@link #addIcon(JsonObject, PwaIcon)}, not
+     *            {@code null}
+     */
+    public PwaIconCache(JsonObject index) {
+        this.index = index;
+    }
+
+    /**
+     * Checks whether the cached icons have been rendered from the given logo
+     * for the given icon path.
+     *
+     * @param iconPath
+     *            the icon path of the PWA configuration
+     * @param logo
+     *            the bytes of the logo image
+     * @return {@code true} if the cached icons can be used, {@code false}
+     *         otherwise
+     */
+    public boolean isRenderedFrom(String iconPath, byte[] logo) {
+        return hasString(index, ICON_PATH) && hasString(index, LOGO)
+                && index.getString(ICON_PATH).equals(iconPath)
+                && index.getString(LOGO).equals(hash(logo))
+                && index.hasKey(ICONS)
+                && index.get(ICONS).getType() == JsonType.OBJECT;
+    }
+
+    /**
+     * Gets the name of the cached image file of the given icon, relative to
+     * {@link Constants#PWA_ICONS_DIRECTORY}.
+     *
+     * @param icon
+     *            the icon to get the file for
+     * @return the file name, or {@code null} if the icon is not cached
+     */
+    public String getIconFile(PwaIcon icon) {
+        if (!index.hasKey(ICONS)
+                || index.get(ICONS).getType() != JsonType.OBJECT) {
+            return null;
+        }
+        JsonObject icons = index.getObject(ICONS);
+        return hasString(icons, icon.getSizes())
+                ? icons.getString(icon.getSizes())
+                : null;
+    }
+
+    /**
+     * Creates an index without icons for the given icon path and logo.
+     *
+     * @param iconPath
+     *            the icon path of the PWA configuration
+     * @param logo
+     *            the bytes of the logo image the icons are rendered from
+     * @return the index JSON
+     */
+    public static JsonObject createIndex(String iconPath, byte[] logo) {
+        JsonObject index = Json.createObject();
+        index.put(ICON_PATH, iconPath);
+        index.put(LOGO, hash(logo));
+        index.put(ICONS, Json.createObject());
+        return index;
+    }
+
+    /**
+     * Adds the given icon to the index, stored in the file returned by
+     * {@link #getFileName(PwaIcon)}.
+     *
+     * @param index
+     *            the index JSON created by {@link #createIndex(String,
+     *            byte[])}
+     * @param icon
+     *            the icon to add
+     */
+    public static void addIcon(JsonObject index, PwaIcon icon) {
+        index.getObject(ICONS).put(icon.getSizes(), getFileName(icon));
+    }
+
+    /**
+     * Gets the file name to use for the rendered image of the given icon.
+     *
+     * @param icon
+     *            the icon
+     * @return the file name
+     */
+    public static String getFileName(PwaIcon icon) {
+        return icon.getSizes() + ".png";
+    }
+
+    /**
+     * Gets the icons needed for the given icon path, without images.
+     *
+     * @param iconPath
+     *            the icon path of the PWA configuration
+     * @return the icons
+     */
+    public static List<PwaIcon> getIconTemplates(String iconPath) {
+        return PwaRegistry.getIconTemplates(iconPath);
+    }
+
+    /**
+     * Renders all the icons needed for the given icon path from the given
+     * logo.
+     *
+     * @param iconPath
+     *            the icon path of the PWA configuration
+     * @param baseImage
+     *            the logo image, not {@code null}
+     * @return the icons with their images
+     */
+    public static List<PwaIcon> renderIcons(String iconPath,
+            BufferedImage baseImage) {
+        if (System.getProperty(HEADLESS_PROPERTY) == null) {
+            // set headless mode if the property is not explicitly set
+            System.setProperty(HEADLESS_PROPERTY, Boolean.TRUE.toString());
+        }
+        // Pick top-left pixel as fill color if needed for image resizing
+        int bgColor = baseImage.getRGB(0, 0);
+        List<PwaIcon> icons = new ArrayList<>();
+        for (PwaIcon icon : getIconTemplates(iconPath)) {
+            // New image with wanted size
+            icon.setImage(drawIconImage(baseImage, bgColor, icon));
+            icons.add(icon);
+        }
+        return icons;
+    }
+
+    private static BufferedImage drawIconImage(BufferedImage baseImage,
+            int bgColor, PwaIcon icon) {
+        BufferedImage bimage = new BufferedImage(icon.getWidth(),
+                icon.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        // Draw the image on to the buffered image
+        Graphics2D graphics = bimage.createGraphics();
+
+        // fill bg with fill-color
+        graphics.setBackground(new Color(bgColor, true));
+        graphics.clearRect(0, 0, icon.getWidth(), icon.getHeight());
+
+        // calculate ratio (bigger ratio) for resize
+        float ratio = (float) baseImage.getWidth()
+                / (float) icon.getWidth() > (float) baseImage.getHeight()
+                        / (float) icon.getHeight()
+                                ? (float) baseImage.getWidth()
+                                        / (float) icon.getWidth()
+                                : (float) baseImage.getHeight()
+                                        / (float) icon.getHeight();
+
+        // Forbid upscaling of image
+        ratio = ratio > 1.0f ? ratio : 1.0f;
+
+        // calculate sizes with ratio
+        int newWidth = Math.round(baseImage.getHeight() / ratio);
+        int newHeight = Math.round(baseImage.getWidth() / ratio);
+
+        // draw rescaled img in the center of created image
+        graphics.drawImage(
+                baseImage.getScaledInstance(newWidth, newHeight,
+                        Image.SCALE_SMOOTH),
+                (icon.getWidth() - newWidth) / 2,
+                (icon.getHeight() - newHeight) / 2, null);
+        graphics.dispose();
+        return bimage;
+    }
+
+    private static String hash(byte[] logo) {
+        return Base64.getEncoder()
+                .encodeToString(MessageDigestUtil.sha256(logo));
+    }
+
+    private static boolean hasString(JsonObject object, String key) {
+        return object.hasKey(key)
+                && object.get(key).getType() == JsonType.STRING;
+    }
+}
@@ -18,11 +18,9 @@ package com.vaadin.flow.server;
 import javax.imageio.ImageIO;
 import javax.servlet.ServletContext;
 
-import java.awt.Color;
-import java.awt.Graphics2D;
-import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -36,18 +34,24 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.experimental.FeatureFlags;
+import com.vaadin.flow.di.Lookup;
+import com.vaadin.flow.di.ResourceProvider;
 import com.vaadin.flow.server.communication.PwaHandler;
 import com.vaadin.flow.server.startup.ApplicationConfiguration;
 import com.vaadin.flow.server.startup.ApplicationRouteRegistry;
 
 import elemental.json.Json;
 import elemental.json.JsonArray;
+import elemental.json.JsonException;
 import elemental.json.JsonObject;
 
 /**
@@ -62,12 +66,17 @@ import elemental.json.JsonObject;
  * <li>Manifest json
  * <li>Service worker
  * </ul>
+ * <p>
+ * The icons are loaded from the images rendered at build time, see
+ * {@link PwaIconCache}. If they are not available, the icons are rendered
+ * from the logo, in the background in production mode.
  *
  * @since 1.2
  */
 public class PwaRegistry implements Serializable {
 
     private static final String META_INF_RESOURCES = "/META-INF/resources";
+    private static final String STATIC_RESOURCES = "/static";
     private static final String HEADLESS_PROPERTY = "java.awt.headless";
     private static final String APPLE_STARTUP_IMAGE = "apple-touch-startup-image";
     private static final String APPLE_IMAGE_MEDIA = "screen and (device-width: %dpx) and (device-height: %dpx)"
@@ -82,6 +91,7 @@ public class PwaRegistry implements Serializable {
     private long offlineHash;
     private List<PwaIcon> icons = new ArrayList<>();
     private final PwaConfiguration pwaConfiguration;
+    private transient volatile CompletableFuture<Void> resourcesInitialization;
 
     /**
      * Creates a new PwaRegistry instance.
@@ -101,10 +111,12 @@ public class PwaRegistry implements Serializable {
         }
 
         boolean useV14Bootstrap = false;
+        boolean productionMode = false;
         ApplicationConfiguration applicationConfiguration = (ApplicationConfiguration) servletContext
                 .getAttribute(ApplicationConfiguration.class.getName());
         if (applicationConfiguration != null) {
             useV14Bootstrap = applicationConfiguration.useV14Bootstrap();
+            productionMode = applicationConfiguration.isProductionMode();
         }
 
         // set basic configuration by given PWA annotation
@@ -113,11 +125,11 @@ public class PwaRegistry implements Serializable {
                 : new PwaConfiguration(pwa, useV14Bootstrap);
 
         // Build pwa elements only if they are enabled
-        initializeResources(servletContext);
+        initializeResources(servletContext, productionMode);
     }
 
-    private void initializeResources(ServletContext servletContext)
-            throws MalformedURLException, IOException {
+    private void initializeResources(ServletContext servletContext,
+            boolean productionMode) throws MalformedURLException, IOException {
         if (!pwaConfiguration.isEnabled()) {
             return;
         }
@@ -131,21 +143,62 @@ public class PwaRegistry implements Serializable {
                         pwaConfiguration.relOfflinePath())
                 : null;
 
+        // Needs the current service, so it can't be evaluated in the
+        // background
+        boolean cacheRoot = shouldCacheRoot();
+
         // Load base logo from servlet context if available
         // fall back to local image if unavailable
-        BufferedImage baseImage = getBaseImage(logo);
+        byte[] logoData = getBaseImageData(logo);
+
+        if (loadPrecomputedIcons(servletContext, logoData)) {
+            initializeDerivedResources(servletContext, offlinePage,
+                    cacheRoot);
+            getLogger().debug("{} initialization from precomputed icons "
+                    + "took {}ms", getClass().getSimpleName(),
+                    System.currentTimeMillis() - start);
+        } else if (productionMode) {
+            // The icons have not been rendered by the build: render them in
+            // the background instead of delaying the first request
+            getLogger().debug("No precomputed PWA icons found for '{}', "
+                    + "rendering them in the background",
+                    pwaConfiguration.getIconPath());
+            resourcesInitialization = CompletableFuture.runAsync(() -> {
+                try {
+                    initializeIcons(logo, logoData);
+                    initializeDerivedResources(servletContext, offlinePage,
+                            cacheRoot);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                getLogger().debug("{} initialization took {}ms",
+                        getClass().getSimpleName(),
+                        System.currentTimeMillis() - start);
+            }, PwaRegistry::runInBackground);
+        } else {
+            initializeIcons(logo, logoData);
+            initializeDerivedResources(servletContext, offlinePage,
+                    cacheRoot);
+            getLogger().debug("{} initialization took {}ms",
+                    getClass().getSimpleName(),
+                    System.currentTimeMillis() - start);
+        }
+    }
 
+    private void initializeIcons(URL logo, byte[] logoData)
+            throws IOException {
+        BufferedImage baseImage = ImageIO
+                .read(new ByteArrayInputStream(logoData));
         if (baseImage == null) {
             getLogger().error("Image is not found or can't be loaded: " + logo);
         } else {
-            // Pick top-left pixel as fill color if needed for image
-            // resizing
-            int bgColor = baseImage.getRGB(0, 0);
-
-            // initialize icons
-            icons = initializeIcons(baseImage, bgColor);
+            icons = PwaIconCache.renderIcons(pwaConfiguration.getIconPath(),
+                    baseImage);
         }
+    }
 
+    private void initializeDerivedResources(ServletContext servletContext,
+            URL offlinePage, boolean cacheRoot) throws IOException {
         // Load offline page as string, from servlet context if
         // available, fall back to default page
         offlineHtml = initializeOfflinePage(pwaConfiguration, offlinePage);
@@ -155,10 +208,86 @@ public class PwaRegistry implements Serializable {
         manifestJson = initializeManifest().toJson();
 
         // Initialize sw-runtime.js
-        runtimeServiceWorkerJs = initializeRuntimeServiceWorker(servletContext);
-        getLogger().debug(
-                getClass().getSimpleName() + " initialization took {}ms",
-                System.currentTimeMillis() - start);
+        runtimeServiceWorkerJs = initializeRuntimeServiceWorker(servletContext,
+                cacheRoot);
+    }
+
+    /**
+     * Loads the icons rendered at build time, if they are available and have
+     * been rendered from the given logo.
+     */
+    private boolean loadPrecomputedIcons(ServletContext servletContext,
+            byte[] logoData) throws IOException {
+        Lookup lookup = new VaadinServletContext(servletContext)
+                .getAttribute(Lookup.class);
+        ResourceProvider resourceProvider = lookup == null ? null
+                : lookup.lookup(ResourceProvider.class);
+        if (resourceProvider == null) {
+            return false;
+        }
+        URL indexUrl = resourceProvider.getApplicationResource(
+                Constants.VAADIN_SERVLET_RESOURCES
+                        + Constants.PWA_ICONS_INDEX);
+        if (indexUrl == null) {
+            return false;
+        }
+        PwaIconCache cache;
+        try (InputStream stream = indexUrl.openStream()) {
+            cache = new PwaIconCache(Json.parse(
+                    IOUtils.toString(stream, StandardCharsets.UTF_8)));
+        } catch (JsonException e) {
+            getLogger().warn("Unable to parse the PWA icon index", e);
+            return false;
+        }
+        if (!cache.isRenderedFrom(pwaConfiguration.getIconPath(), logoData)) {
+            getLogger().debug("The precomputed PWA icons have been rendered "
+                    + "from another logo, ignoring them");
+            return false;
+        }
+        List<PwaIcon> precomputed = new ArrayList<>();
+        for (PwaIcon icon : getIconTemplates(pwaConfiguration.getIconPath())) {
+            String file = cache.getIconFile(icon);
+            URL iconUrl = file == null ? null
+                    : resourceProvider.getApplicationResource(
+                            Constants.VAADIN_SERVLET_RESOURCES
+                                    + Constants.PWA_ICONS_DIRECTORY + file);
+            if (iconUrl == null) {
+                getLogger().debug("The precomputed PWA icon {} is missing",
+                        icon.getSizes());
+                return false;
+            }
+            try (InputStream stream = iconUrl.openStream()) {
+                icon.setData(IOUtils.toByteArray(stream));
+            }
+            precomputed.add(icon);
+        }
+        icons = precomputed;
+        return true;
+    }
+
+    private static void runInBackground(Runnable task) {
+        Thread thread = new Thread(task, "vaadin-pwa-icons");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Waits for the resources being initialized in the background, if any.
+     */
+    private void awaitResources() {
+        CompletableFuture<Void> initialization = resourcesInitialization;
+        if (initialization == null) {
+            return;
+        }
+        try {
+            initialization.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw (UncheckedIOException) e.getCause();
+            }
+            throw new IllegalStateException(
+                    "Failed to initialize the PWA resources", e.getCause());
+        }
     }
 
     private static Logger getLogger() {
@@ -168,62 +297,18 @@ public class PwaRegistry implements Serializable {
     private URL getResourceUrl(ServletContext context, String path)
             throws MalformedURLException {
         URL resourceUrl = context.getResource(path);
+        String relativePath = path.startsWith("/") ? path : "/" + path;
         if (resourceUrl == null) {
             // this is a workaround specific for Spring default static resources
             // location: see #8705
-            String cpPath = path.startsWith("/") ? META_INF_RESOURCES + path
-                    : META_INF_RESOURCES + "/" + path;
-            resourceUrl = PwaRegistry.class.getResource(cpPath);
+            resourceUrl = PwaRegistry.class
+                    .getResource(META_INF_RESOURCES + relativePath);
         }
-        return resourceUrl;
-    }
-
-    private List<PwaIcon> initializeIcons(BufferedImage baseImage,
-            int bgColor) {
-        for (PwaIcon icon : getIconTemplates(pwaConfiguration.getIconPath())) {
-            // New image with wanted size
-            icon.setImage(drawIconImage(baseImage, bgColor, icon));
-            // Store byte array and hashcode of image (GeneratedImage)
-            icons.add(icon);
+        if (resourceUrl == null) {
+            resourceUrl = PwaRegistry.class
+                    .getResource(STATIC_RESOURCES + relativePath);
         }
-        return icons;
-    }
-
-    private BufferedImage drawIconImage(BufferedImage baseImage, int bgColor,
-            PwaIcon icon) {
-        BufferedImage bimage = new BufferedImage(icon.getWidth(),
-                icon.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        // Draw the image on to the buffered image
-        Graphics2D graphics = bimage.createGraphics();
-
-        // fill bg with fill-color
-        graphics.setBackground(new Color(bgColor, true));
-        graphics.clearRect(0, 0, icon.getWidth(), icon.getHeight());
-
-        // calculate ratio (bigger ratio) for resize
-        float ratio = (float) baseImage.getWidth()
-                / (float) icon.getWidth() > (float) baseImage.getHeight()
-                        / (float) icon.getHeight()
-                                ? (float) baseImage.getWidth()
-                                        / (float) icon.getWidth()
-                                : (float) baseImage.getHeight()
-                                        / (float) icon.getHeight();
-
-        // Forbid upscaling of image
-        ratio = ratio > 1.0f ? ratio : 1.0f;
-
-        // calculate sizes with ratio
-        int newWidth = Math.round(baseImage.getHeight() / ratio);
-        int newHeight = Math.round(baseImage.getWidth() / ratio);
-
-        // draw rescaled img in the center of created image
-        graphics.drawImage(
-                baseImage.getScaledInstance(newWidth, newHeight,
-                        Image.SCALE_SMOOTH),
-                (icon.getWidth() - newWidth) / 2,
-                (icon.getHeight() - newHeight) / 2, null);
-        graphics.dispose();
-        return bimage;
+        return resourceUrl;
     }
 
     /**
@@ -248,7 +333,7 @@ public class PwaRegistry implements Serializable {
         // Add icons
         JsonArray iconList = Json.createArray();
         int iconIndex = 0;
-        for (PwaIcon icon : getManifestIcons()) {
+        for (PwaIcon icon : getIcons(PwaIcon.Domain.MANIFEST)) {
             JsonObject iconData = Json.createObject();
             iconData.put("src", icon.getHref());
             iconData.put("sizes", icon.getSizes());
@@ -260,11 +345,11 @@ public class PwaRegistry implements Serializable {
     }
 
     private String initializeRuntimeServiceWorker(
-            ServletContext servletContext) {
+            ServletContext servletContext, boolean cacheRoot) {
         StringBuilder stringBuilder = new StringBuilder();
 
         // List of files to precache
-        Collection<String> filesToCache = getIcons().stream()
+        Collection<String> filesToCache = icons.stream()
                 .filter(PwaIcon::shouldBeCached).map(PwaIcon::getCacheFormat)
                 .collect(Collectors.toCollection(LinkedHashSet::new));
 
@@ -273,7 +358,7 @@ public class PwaRegistry implements Serializable {
         if (pwaConfiguration.isOfflinePathEnabled()) {
             filesToCache
                     .add(offlinePageCache(pwaConfiguration.getOfflinePath()));
-        } else if (shouldCacheRoot()) {
+        } else if (cacheRoot) {
             // No offlinePath configured, cache the root (#13987):
             filesToCache.add(offlinePageCache("."));
         }
@@ -361,7 +446,7 @@ public class PwaRegistry implements Serializable {
     private String initializeOfflinePage(PwaConfiguration config, URL resource)
             throws IOException {
         // Use only icons which are cached with service worker
-        List<PwaIcon> iconList = getIcons().stream()
+        List<PwaIcon> iconList = icons.stream()
                 .filter(PwaIcon::shouldBeCached).collect(Collectors.toList());
         // init header inject of icons
         String iconHead = iconList.stream()
@@ -405,11 +490,13 @@ public class PwaRegistry implements Serializable {
         }
     }
 
-    private BufferedImage getBaseImage(URL logo) throws IOException {
+    private byte[] getBaseImageData(URL logo) throws IOException {
         URLConnection logoResource = logo != null ? logo.openConnection()
                 : BootstrapHandler.class.getResource("default-logo.png")
                         .openConnection();
-        return ImageIO.read(logoResource.getInputStream());
+        try (InputStream stream = logoResource.getInputStream()) {
+            return IOUtils.toByteArray(stream);
+        }
     }
 
     /**
@@ -418,6 +505,7 @@ public class PwaRegistry implements Serializable {
      * @return contents of offline page
      */
     public String getOfflineHtml() {
+        awaitResources();
         return offlineHtml;
     }
 
@@ -427,6 +515,7 @@ public class PwaRegistry implements Serializable {
      * @return contents of manifest.webmanifest
      */
     public String getManifestJson() {
+        awaitResources();
         return manifestJson;
     }
 
@@ -437,6 +526,7 @@ public class PwaRegistry implements Serializable {
      * @return contents of sw-runtime.js
      */
     public String getRuntimeServiceWorkerJs() {
+        awaitResources();
         return runtimeServiceWorkerJs;
     }
 
@@ -455,6 +545,7 @@ public class PwaRegistry implements Serializable {
      * @return List of {@link PwaIcon}:s that should be added to header
      */
     public List<PwaIcon> getHeaderIcons() {
+        awaitResources();
         return getIcons(PwaIcon.Domain.HEADER);
     }
 
@@ -465,6 +556,7 @@ public class PwaRegistry implements Serializable {
      *         manifest.webmanifest
      */
     public List<PwaIcon> getManifestIcons() {
+        awaitResources();
         return getIcons(PwaIcon.Domain.MANIFEST);
     }
 
@@ -474,6 +566,7 @@ public class PwaRegistry implements Serializable {
      * @return List of all icons managed by {@link PwaRegistry}
      */
     public List<PwaIcon> getIcons() {
+        awaitResources();
         return new ArrayList<>(icons);
     }
 
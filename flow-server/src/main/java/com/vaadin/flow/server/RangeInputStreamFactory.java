@@ -0,0 +1,67 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.InputStream;
+
+/**
+ * Creates input stream instances which provide the data of a
+ * {@link StreamResource} starting from any position.
+ * <p>
+ * A {@link StreamResource} created with a factory implementing this interface
+ * answers HTTP range requests with partial content, so that e.g. seeking in
+ * audio and video or resuming a download only reads the requested part of the
+ * data.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see FileInputStreamFactory
+ */
+public interface RangeInputStreamFactory extends InputStreamFactory {
+
+    /**
+     * Gets the total length of the data in bytes.
+     * <p>
+     * This method is called under the Vaadin session lock unless the resource
+     * is registered in a concurrent {@link StreamResourceStore}.
+     *
+     * @return the length of the data, or a negative value if the length is not
+     *         known, in which case range requests are answered with the full
+     *         data
+     */
+    long getLength();
+
+    /**
+     * Produce {@link InputStream} instance to read resource data starting
+     * from the given position.
+     * <p>
+     * This method is called under the Vaadin session lock, in the same way as
+     * {@link #createInputStream()}. The returned stream may contain more data
+     * than requested, only the requested number of bytes is read from it.
+     * <p>
+     * Return value may not be null.
+     *
+     * @param start
+     *            the offset of the first byte to read
+     * @return data input stream positioned at {@code start}. May not be null.
+     */
+    InputStream createInputStream(long start);
+
+    @Override
+    default InputStream createInputStream() {
+        return createInputStream(0);
+    }
+}
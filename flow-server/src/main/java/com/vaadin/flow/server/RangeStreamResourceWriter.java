@@ -0,0 +1,73 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream consumer which is able to write any part of the resource data.
+ * <p>
+ * Stream resources with a writer implementing this interface are able to
+ * answer HTTP range requests with partial content, which allows e.g. seeking
+ * in audio and video and resuming interrupted downloads.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see RangeInputStreamFactory
+ */
+public interface RangeStreamResourceWriter extends StreamResourceWriter {
+
+    /**
+     * Gets the total length of the resource data in bytes.
+     * <p>
+     * The method is called under the session lock unless the resource is
+     * registered in a concurrent {@link StreamResourceStore}.
+     *
+     * @return the length of the data, or a negative value if the length is not
+     *         known, in which case range requests are answered with the full
+     *         data
+     */
+    long getLength();
+
+    /**
+     * Writes the given part of the resource data to the {@code stream} using
+     * {@code session} as a context.
+     * <p>
+     * Note that the method is not called under the session lock. It means that
+     * if implementation requires access to the application/session data then
+     * the session has to be locked explicitly.
+     *
+     * @param stream
+     *            data output stream
+     * @param session
+     *            vaadin session
+     * @param start
+     *            the offset of the first byte to write
+     * @param length
+     *            the number of bytes to write
+     * @throws IOException
+     *             if an IO error occurred
+     */
+    void accept(OutputStream stream, VaadinSession session, long start,
+            long length) throws IOException;
+
+    @Override
+    default void accept(OutputStream stream, VaadinSession session)
+            throws IOException {
+        accept(stream, session, 0, getLength());
+    }
+}
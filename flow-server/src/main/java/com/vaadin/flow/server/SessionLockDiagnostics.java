@@ -0,0 +1,274 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Collects the wait and hold times of the session locks of a service and
+ * reports locks which are waited for or held for longer than a threshold.
+ * <p>
+ * When a thread has waited for a lock for longer than the threshold, the
+ * stack trace of the thread holding the lock is captured and logged, which
+ * shows e.g. the blocking call made inside {@link
+ * com.vaadin.flow.component.UI#access(Command) UI.access()} that keeps the
+ * lock. Locks held for longer than the threshold are logged when they are
+ * released. In both cases a {@link SlowSessionLockEvent} is fired to the
+ * registered listeners.
+ * <p>
+ * Diagnostics are enabled by setting
+ * {@link InitParameters#SERVLET_PARAMETER_SESSION_LOCK_DIAGNOSTICS_THRESHOLD}
+ * to a positive value. The service then creates
+ * {@link InstrumentedSessionLock}s reporting to its diagnostics, see
+ * {@link VaadinService#getSessionLockDiagnostics()}.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class SessionLockDiagnostics implements Serializable {
+
+    private final long thresholdNanos;
+
+    private final Histogram waitTimes = new Histogram();
+
+    private final Histogram holdTimes = new Histogram();
+
+    private final List<SlowSessionLockListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * A histogram of durations with exponentially growing buckets, from one
+     * millisecond to about a minute.
+     * <p>
+     * The histogram is thread safe. The values are updated independently, so
+     * the values read while durations are being recorded may not add up
+     * exactly.
+     */
+    public static class Histogram implements Serializable {
+
+        // Upper bounds 1, 2, 4, ..., 65536 ms and one for longer durations
+        private static final int BUCKETS = 18;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        /**
+         * Records a duration.
+         *
+         * @param nanos
+         *            the duration, in nanoseconds
+         */
+        public void record(long nanos) {
+            counts.incrementAndGet(getBucket(nanos));
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        /**
+         * Gets the number of recorded durations.
+         *
+         * @return the number of durations
+         */
+        public long getCount() {
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                count += counts.get(i);
+            }
+            return count;
+        }
+
+        /**
+         * Gets the sum of the recorded durations.
+         *
+         * @return the total duration, in milliseconds
+         */
+        public long getTotalMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos.sum());
+        }
+
+        /**
+         * Gets the longest recorded duration.
+         *
+         * @return the longest duration, in milliseconds
+         */
+        public long getMaxMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        }
+
+        /**
+         * Gets the inclusive upper bounds of the buckets. The last bucket has
+         * no upper bound, which is denoted by {@link Long#MAX_VALUE}.
+         *
+         * @return the upper bounds, in milliseconds
+         */
+        public long[] getBucketUpperBounds() {
+            long[] bounds = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS - 1; i++) {
+                bounds[i] = 1L << i;
+            }
+            bounds[BUCKETS - 1] = Long.MAX_VALUE;
+            return bounds;
+        }
+
+        /**
+         * Gets the number of durations recorded in each bucket, in the same
+         * order as {@link #getBucketUpperBounds()}.
+         *
+         * @return the counts per bucket
+         */
+        public long[] getBucketCounts() {
+            long[] result = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                result[i] = counts.get(i);
+            }
+            return result;
+        }
+
+        private static int getBucket(long nanos) {
+            long millis = (nanos + 999_999) / 1_000_000;
+            if (millis <= 1) {
+                return 0;
+            }
+            // The smallest power of two which is at least millis
+            int bucket = Long.SIZE - Long.numberOfLeadingZeros(millis - 1);
+            return Math.min(bucket, BUCKETS - 1);
+        }
+    }
+
+    /**
+     * Creates new diagnostics.
+     *
+     * @param thresholdMillis
+     *            the wait and hold time after which a lock is reported, in
+     *            milliseconds, must be positive
+     */
+    public SessionLockDiagnostics(long thresholdMillis) {
+        if (thresholdMillis <= 0) {
+            throw new IllegalArgumentException(
+                    "The threshold must be positive, got " + thresholdMillis);
+        }
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    /**
+     * Gets the wait and hold time after which a lock is reported.
+     *
+     * @return the threshold, in milliseconds
+     */
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     * Gets the histogram of the times threads have waited for the locks.
+     *
+     * @return the wait time histogram
+     */
+    public Histogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    /**
+     * Gets the histogram of the times the locks have been held.
+     *
+     * @return the hold time histogram
+     */
+    public Histogram getHoldTimes() {
+        return holdTimes;
+    }
+
+    /**
+     * Adds a listener that gets notified when a lock is waited for or held for
+     * longer than the threshold.
+     *
+     * @param listener
+     *            the listener to add, not {@code null}
+     * @return a handle that can be used for removing the listener
+     */
+    public Registration addSlowSessionLockListener(
+            SlowSessionLockListener listener) {
+        return Registration.addAndRemove(listeners, listener);
+    }
+
+    long getThresholdNanos() {
+        return thresholdNanos;
+    }
+
+    void waited(long nanos) {
+        waitTimes.record(nanos);
+    }
+
+    void held(long nanos, StackTraceElement[] holderStackTrace) {
+        holdTimes.record(nanos);
+        if (nanos > thresholdNanos) {
+            String holder = Thread.currentThread().getName();
+            log().warn("Thread '{}' held a session lock for {} ms{}", holder,
+                    TimeUnit.NANOSECONDS.toMillis(nanos),
+                    format(holderStackTrace));
+            fire(new SlowSessionLockEvent(this, SlowSessionLockEvent.Type.HOLD,
+                    nanos, null, holder, holderStackTrace));
+        }
+    }
+
+    void waitingTooLong(long nanos, Thread holder,
+            StackTraceElement[] holderStackTrace) {
+        String waiter = Thread.currentThread().getName();
+        String holderName = holder == null ? null : holder.getName();
+        log().warn(
+                "Thread '{}' has waited {} ms for a session lock held by '{}'{}",
+                waiter, TimeUnit.NANOSECONDS.toMillis(nanos), holderName,
+                format(holderStackTrace));
+        fire(new SlowSessionLockEvent(this, SlowSessionLockEvent.Type.WAIT,
+                nanos, waiter, holderName, holderStackTrace));
+    }
+
+    private void fire(SlowSessionLockEvent event) {
+        for (SlowSessionLockListener listener : listeners) {
+            try {
+                listener.slowSessionLock(event);
+            } catch (RuntimeException e) {
+                // Don't let a listener break locking
+                log().error("Slow session lock listener failed", e);
+            }
+        }
+    }
+
+    private static String format(StackTraceElement[] stackTrace) {
+        if (stackTrace.length == 0) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(", holder stack trace:");
+        for (StackTraceElement element : stackTrace) {
+            builder.append("\n\tat ").append(element);
+        }
+        return builder.toString();
+    }
+
+    private static Logger log() {
+        return LoggerFactory.getLogger(SessionLockDiagnostics.class);
+    }
+}
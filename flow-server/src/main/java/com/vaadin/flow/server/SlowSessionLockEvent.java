@@ -0,0 +1,141 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.EventObject;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event fired when a thread has waited for a session lock, or held a session
+ * lock, for longer than the threshold of the {@link SessionLockDiagnostics}.
+ *
+ * @see SlowSessionLockListener#slowSessionLock(SlowSessionLockEvent)
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class SlowSessionLockEvent extends EventObject {
+
+    /**
+     * The kind of slowness the event is about.
+     */
+    public enum Type {
+        /**
+         * A thread has waited for the lock for longer than the threshold. The
+         * event is fired while the thread is still waiting.
+         */
+        WAIT,
+        /**
+         * A thread has held the lock for longer than the threshold. The event
+         * is fired when the lock is released.
+         */
+        HOLD;
+    }
+
+    private final Type type;
+    private final long durationNanos;
+    private final String waiterName;
+    private final String holderName;
+    private final StackTraceElement[] holderStackTrace;
+
+    /**
+     * Creates a new event.
+     *
+     * @param diagnostics
+     *            the diagnostics from which the event originates
+     * @param type
+     *            the type of the event, not {@code null}
+     * @param durationNanos
+     *            the wait or hold time, in nanoseconds
+     * @param waiterName
+     *            the name of the waiting thread, or {@code null} for
+     *            {@link Type#HOLD} events
+     * @param holderName
+     *            the name of the thread holding the lock, or {@code null} if
+     *            not known
+     * @param holderStackTrace
+     *            the stack trace of the thread holding the lock when it was
+     *            captured, empty if not captured
+     */
+    public SlowSessionLockEvent(SessionLockDiagnostics diagnostics, Type type,
+            long durationNanos, String waiterName, String holderName,
+            StackTraceElement[] holderStackTrace) {
+        super(diagnostics);
+        this.type = type;
+        this.durationNanos = durationNanos;
+        this.waiterName = waiterName;
+        this.holderName = holderName;
+        this.holderStackTrace = holderStackTrace;
+    }
+
+    @Override
+    public SessionLockDiagnostics getSource() {
+        return (SessionLockDiagnostics) super.getSource();
+    }
+
+    /**
+     * Gets the type of the event.
+     *
+     * @return the type, not {@code null}
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the time the lock has been waited for or held.
+     *
+     * @return the duration, in milliseconds
+     */
+    public long getDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    /**
+     * Gets the name of the thread waiting for the lock.
+     *
+     * @return the name of the waiting thread, or {@code null} for
+     *         {@link Type#HOLD} events
+     */
+    public String getWaiterName() {
+        return waiterName;
+    }
+
+    /**
+     * Gets the name of the thread holding the lock.
+     *
+     * @return the name of the holding thread, or {@code null} if the lock was
+     *         released before the holder could be determined
+     */
+    public String getHolderName() {
+        return holderName;
+    }
+
+    /**
+     * Gets the stack trace of the thread holding the lock.
+     * <p>
+     * For {@link Type#WAIT} events the stack trace is captured when the wait
+     * exceeds the threshold. For {@link Type#HOLD} events it is the stack
+     * trace captured for a waiting thread during the hold, if any, since the
+     * stack trace at the time of releasing the lock rarely tells what kept the
+     * lock.
+     *
+     * @return the stack trace, empty if it has not been captured
+     */
+    public StackTraceElement[] getHolderStackTrace() {
+        return holderStackTrace.clone();
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+
+/**
+ * A listener that gets notified when a session lock is waited for or held for
+ * too long.
+ *
+ * @see SessionLockDiagnostics#addSlowSessionLockListener(SlowSessionLockListener)
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@FunctionalInterface
+public interface SlowSessionLockListener extends Serializable {
+    /**
+     * Called when a thread has waited for a session lock, or held a session
+     * lock, for longer than the threshold.
+     * <p>
+     * The listener is called by the waiting or releasing thread, so it should
+     * return quickly.
+     *
+     * @param event
+     *            the event with details about the lock
+     */
+    void slowSessionLock(SlowSessionLockEvent event);
+}
@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.slf4j.LoggerFactory;
 
@@ -57,6 +58,10 @@ public class StreamResource extends AbstractStreamResource {
 
     private Map<String, String> headers;
 
+    private String eTag;
+
+    private long lastModified = -1;
+
     private static class DefaultResolver implements ContentTypeResolver {
 
         @Override
@@ -80,8 +85,15 @@ public class StreamResource extends AbstractStreamResource {
         @Override
         public void accept(OutputStream stream, VaadinSession session)
                 throws IOException {
-            try (InputStream input = createInputStream(session)) {
-                copy(session, input, stream);
+            write(stream, session, factory::createInputStream, -1);
+        }
+
+        protected void write(OutputStream stream, VaadinSession session,
+                Supplier<InputStream> inputStreamSupplier, long length)
+                throws IOException {
+            try (InputStream input = createInputStream(session,
+                    inputStreamSupplier)) {
+                copy(session, input, stream, length);
             } catch (IOException ioe) {
                 if ("Broken pipe".equals(ioe.getMessage())) {
                     LoggerFactory.getLogger(StreamResource.class).debug(
@@ -93,39 +105,71 @@ public class StreamResource extends AbstractStreamResource {
             }
         }
 
-        private InputStream createInputStream(VaadinSession session) {
+        private InputStream createInputStream(VaadinSession session,
+                Supplier<InputStream> inputStreamSupplier) {
             session.lock();
             try {
-                return factory.createInputStream();
+                return inputStreamSupplier.get();
             } finally {
                 session.unlock();
             }
         }
 
         private void copy(VaadinSession session, InputStream source,
-                OutputStream out) throws IOException {
+                OutputStream out, long length) throws IOException {
             byte[] buf = new byte[BUFFER_SIZE];
+            long remaining = length;
             int n;
-            while ((n = read(session, source, buf)) >= 0) {
+            while (length < 0 || remaining > 0) {
+                int count = length < 0 ? BUFFER_SIZE
+                        : (int) Math.min(BUFFER_SIZE, remaining);
+                n = read(session, source, buf, count);
+                if (n < 0) {
+                    break;
+                }
                 out.write(buf, 0, n);
+                remaining -= n;
             }
         }
 
         private int read(VaadinSession session, InputStream source,
-                byte[] buffer) throws IOException {
+                byte[] buffer, int count) throws IOException {
             if (factory.requiresLock()) {
                 session.lock();
                 try {
-                    return source.read(buffer);
+                    return source.read(buffer, 0, count);
                 } finally {
                     session.unlock();
                 }
             } else {
-                return source.read(buffer);
+                return source.read(buffer, 0, count);
             }
         }
     }
 
+    private static class RangePipe extends Pipe
+            implements RangeStreamResourceWriter {
+
+        private RangeInputStreamFactory factory;
+
+        private RangePipe(RangeInputStreamFactory factory) {
+            super(factory);
+            this.factory = factory;
+        }
+
+        @Override
+        public long getLength() {
+            return factory.getLength();
+        }
+
+        @Override
+        public void accept(OutputStream stream, VaadinSession session,
+                long start, long length) throws IOException {
+            write(stream, session, () -> factory.createInputStream(start),
+                    length);
+        }
+    }
+
     /**
      * Creates {@link StreamResource} instance using mandatory parameters
      * {@code name} as a resource file name and output stream {@code writer} as
@@ -162,6 +206,9 @@ public class StreamResource extends AbstractStreamResource {
      * {@code name} parameter value will be used in URI (generated when resource
      * is registered) in a way that the {@code name} is the last segment of the
      * path. So this is synthetic file name (not real one).
+     * <p>
+     * If {@code factory} is a {@link RangeInputStreamFactory}, the resource
+     * answers HTTP range requests with partial content.
      *
      * @param name
      *            resource file name. May not be null.
@@ -169,7 +216,9 @@ public class StreamResource extends AbstractStreamResource {
      *            data input stream factory. May not be null.
      */
     public StreamResource(String name, InputStreamFactory factory) {
-        this(name, new Pipe(factory));
+        this(name, factory instanceof RangeInputStreamFactory
+                ? new RangePipe((RangeInputStreamFactory) factory)
+                : new Pipe(factory));
         assert name != null;
     }
 
@@ -280,6 +329,65 @@ public class StreamResource extends AbstractStreamResource {
         return Collections.unmodifiableMap(headers);
     }
 
+    /**
+     * Sets the entity tag identifying the current version of the resource
+     * data.
+     * <p>
+     * The entity tag is sent in the "ETag" header and allows the browser to
+     * revalidate a cached copy of the resource, in which case the data is not
+     * written again if the entity tag has not changed. The entity tag is also
+     * used to check that a range request refers to the same data. The value
+     * must change whenever the resource data changes.
+     *
+     * @param eTag
+     *            the entity tag, either a quoted value or a value to quote,
+     *            or {@code null} to not send an entity tag
+     * @return this resource
+     */
+    public StreamResource setETag(String eTag) {
+        this.eTag = eTag;
+        return this;
+    }
+
+    /**
+     * Gets the entity tag identifying the current version of the resource
+     * data.
+     *
+     * @return the entity tag, or {@code null} if not set
+     * @see #setETag(String)
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Sets the time when the resource data was last modified.
+     * <p>
+     * The time is sent in the "Last-Modified" header and allows the browser to
+     * revalidate a cached copy of the resource using the "If-Modified-Since"
+     * header when no entity tag is set.
+     *
+     * @param lastModified
+     *            the modification time in milliseconds since the epoch, or a
+     *            negative value if unknown
+     * @return this resource
+     */
+    public StreamResource setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+        return this;
+    }
+
+    /**
+     * Gets the time when the resource data was last modified.
+     *
+     * @return the modification time in milliseconds since the epoch, or
+     *         {@code -1} if unknown
+     * @see #setLastModified(long)
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
     @Override
     public String getName() {
         return fileName;
@@ -21,18 +21,33 @@ import java.net.URISyntaxException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
+import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.server.communication.StreamRequestHandler;
 
 /**
  * Registry for {@link StreamResource} instances.
+ * <p>
+ * The resources are kept in a {@link StreamResourceStore}. By default the
+ * resources are stored in the session until they are unregistered. The
+ * deployment configuration can limit the number of resources and the time
+ * unused resources are kept, see
+ * {@link DeploymentConfiguration#getStreamResourceMaxEntries()} and
+ * {@link DeploymentConfiguration#getStreamResourceTimeToLive()}, and can store
+ * the resources outside of the sessions, see
+ * {@link DeploymentConfiguration#isSharedStreamResources()}.
+ * <p>
+ * Only the resources of a shared store are looked up and served without
+ * holding the session lock. Limiting the resources kept in the session does not
+ * change the locking.
  *
  * @author Vaadin Ltd
  * @since 1.0
  */
 public class StreamResourceRegistry implements Serializable {
 
-    private final Map<URI, AbstractStreamResource> res = new HashMap<>();
+    private final StreamResourceStore res;
 
     private final VaadinSession session;
 
@@ -68,12 +83,71 @@ public class StreamResourceRegistry implements Serializable {
 
     /**
      * Creates stream resource registry for provided {@code session}.
+     * <p>
+     * The store for the resources is chosen based on the deployment
+     * configuration of the session's service.
      *
      * @param session
      *            vaadin session
      */
     public StreamResourceRegistry(VaadinSession session) {
+        this(session, createStore(session));
+    }
+
+    /**
+     * Creates stream resource registry for provided {@code session} which
+     * keeps the resources in the given store.
+     *
+     * @param session
+     *            vaadin session
+     * @param store
+     *            the store for the registered resources, not {@code null}
+     */
+    public StreamResourceRegistry(VaadinSession session,
+            StreamResourceStore store) {
         this.session = session;
+        res = store;
+    }
+
+    private static StreamResourceStore createStore(VaadinSession session) {
+        DeploymentConfiguration configuration = session == null
+                || session.getService() == null ? null
+                        : session.getService().getDeploymentConfiguration();
+        if (configuration == null) {
+            return new SessionStore();
+        }
+        int maxEntries = configuration.getStreamResourceMaxEntries();
+        int timeToLive = configuration.getStreamResourceTimeToLive();
+        if (configuration.isSharedStreamResources()) {
+            return new SharedStoreHandle(session, maxEntries, timeToLive);
+        } else if (maxEntries > 0 || timeToLive > 0) {
+            return new BoundedStreamResourceStore(maxEntries, timeToLive);
+        }
+        return new SessionStore();
+    }
+
+    /**
+     * Checks whether the resources of this registry can be looked up and
+     * served without holding the session lock.
+     *
+     * @return {@code true} if the session lock is not needed, {@code false}
+     *         otherwise
+     * @see StreamResourceStore#isConcurrent()
+     */
+    public boolean isConcurrent() {
+        return res.isConcurrent();
+    }
+
+    /**
+     * Gets the number of resources currently registered.
+     * <p>
+     * If the resources are stored outside of the session, the number includes
+     * the resources of all the sessions sharing the same store.
+     *
+     * @return the number of registered resources
+     */
+    public int getResourceCount() {
+        return res.size();
     }
 
     /**
@@ -159,7 +233,7 @@ public class StreamResourceRegistry implements Serializable {
      *         been registered with this URI
      */
     public Optional<AbstractStreamResource> getResource(URI uri) {
-        session.checkHasLock();
+        checkHasLock();
         return Optional.ofNullable(res.get(uri));
     }
 
@@ -177,7 +251,7 @@ public class StreamResourceRegistry implements Serializable {
      */
     public <T extends AbstractStreamResource> Optional<T> getResource(
             Class<T> type, URI uri) {
-        session.checkHasLock();
+        checkHasLock();
         AbstractStreamResource abstractStreamResource = res.get(uri);
         if (abstractStreamResource != null
                 && type.isAssignableFrom(abstractStreamResource.getClass())) {
@@ -185,4 +259,130 @@ public class StreamResourceRegistry implements Serializable {
         }
         return Optional.empty();
     }
+
+    private void checkHasLock() {
+        if (!res.isConcurrent()) {
+            session.checkHasLock();
+        }
+    }
+
+    /**
+     * The default store keeping the resources in the session.
+     */
+    private static final class SessionStore implements StreamResourceStore {
+
+        private final Map<URI, AbstractStreamResource> resources = new HashMap<>();
+
+        @Override
+        public void put(URI uri, AbstractStreamResource resource) {
+            resources.put(uri, resource);
+        }
+
+        @Override
+        public AbstractStreamResource get(URI uri) {
+            return resources.get(uri);
+        }
+
+        @Override
+        public void remove(URI uri) {
+            resources.remove(uri);
+        }
+
+        @Override
+        public int size() {
+            return resources.size();
+        }
+    }
+
+    /**
+     * The store shared by all the sessions of a context. A resource is only
+     * found through the registry of the session which registered it, since
+     * the keys are prefixed with a random id of the registry. The resources of
+     * a session are removed when the session is destroyed.
+     */
+    private static final class SharedStore extends BoundedStreamResourceStore {
+
+        private SharedStore(int maxEntries, int timeToLiveSeconds) {
+            super(maxEntries, timeToLiveSeconds);
+        }
+
+        private static SharedStore create(VaadinService service,
+                int maxEntries, int timeToLiveSeconds) {
+            SharedStore store = new SharedStore(maxEntries, timeToLiveSeconds);
+            service.addSessionDestroyListener(
+                    event -> store.removeResources(event.getSession()));
+            return store;
+        }
+
+        private void removeResources(VaadinSession session) {
+            StreamResourceRegistry registry = session.getResourceRegistry();
+            if (registry != null
+                    && registry.res instanceof SharedStoreHandle) {
+                String prefix = ((SharedStoreHandle) registry.res).prefix;
+                removeAll(uri -> uri.toString().startsWith(prefix));
+            }
+        }
+    }
+
+    /**
+     * Session side handle to the {@link SharedStore}. Only the handle is
+     * serialized with the session, so the resources are not available after
+     * the session has been deserialized in another server.
+     */
+    private static final class SharedStoreHandle
+            implements StreamResourceStore {
+
+        private final VaadinSession session;
+        private final String prefix = UUID.randomUUID().toString() + '/';
+        private final int maxEntries;
+        private final int timeToLive;
+
+        private transient SharedStore store;
+
+        private SharedStoreHandle(VaadinSession session, int maxEntries,
+                int timeToLive) {
+            this.session = session;
+            this.maxEntries = maxEntries;
+            this.timeToLive = timeToLive;
+        }
+
+        @Override
+        public void put(URI uri, AbstractStreamResource resource) {
+            getStore().put(toKey(uri), resource);
+        }
+
+        @Override
+        public AbstractStreamResource get(URI uri) {
+            return getStore().get(toKey(uri));
+        }
+
+        @Override
+        public void remove(URI uri) {
+            getStore().remove(toKey(uri));
+        }
+
+        @Override
+        public int size() {
+            return getStore().size();
+        }
+
+        @Override
+        public boolean isConcurrent() {
+            return true;
+        }
+
+        private URI toKey(URI uri) {
+            return URI.create(prefix + uri);
+        }
+
+        private SharedStore getStore() {
+            if (store == null) {
+                VaadinService service = session.getService();
+                store = service.getContext().getAttribute(SharedStore.class,
+                        () -> SharedStore.create(service, maxEntries,
+                                timeToLive));
+            }
+            return store;
+        }
+    }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.net.URI;
+
+/**
+ * Storage for the resources registered in a {@link StreamResourceRegistry}.
+ * <p>
+ * A store may evict resources on its own, e.g. to limit the memory used by
+ * resources which are never unregistered. Requests to an evicted resource are
+ * answered with a "not found" response.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see StreamResourceRegistry#StreamResourceRegistry(VaadinSession,
+ *      StreamResourceStore)
+ */
+public interface StreamResourceStore extends Serializable {
+
+    /**
+     * Stores a resource with the given URI, replacing any resource previously
+     * stored with the same URI.
+     *
+     * @param uri
+     *            the resource URI, not {@code null}
+     * @param resource
+     *            the resource, not {@code null}
+     */
+    void put(URI uri, AbstractStreamResource resource);
+
+    /**
+     * Gets the resource stored with the given URI.
+     *
+     * @param uri
+     *            the resource URI, not {@code null}
+     * @return the resource, or {@code null} if there is no resource for the
+     *         URI
+     */
+    AbstractStreamResource get(URI uri);
+
+    /**
+     * Removes the resource stored with the given URI, if any.
+     *
+     * @param uri
+     *            the resource URI, not {@code null}
+     */
+    void remove(URI uri);
+
+    /**
+     * Gets the number of resources currently in the store.
+     *
+     * @return the number of resources
+     */
+    int size();
+
+    /**
+     * Checks whether the store can be used without holding the session lock.
+     * <p>
+     * Resources registered in a concurrent store are looked up and served
+     * without locking the session, so their content type resolvers, headers
+     * and writers must not rely on the session being locked.
+     *
+     * @return {@code true} if the store is thread safe, {@code false} if it
+     *         may only be used while holding the session lock
+     */
+    default boolean isConcurrent() {
+        return false;
+    }
+}
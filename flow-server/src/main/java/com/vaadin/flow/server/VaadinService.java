@@ -41,6 +41,7 @@ import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
@@ -167,6 +168,14 @@ public abstract class VaadinService implements Serializable {
 
     private Iterable<DependencyFilter> dependencyFilters;
 
+    private transient InactiveUISweeper inactiveUISweeper;
+
+    private transient volatile ExecutorService executor;
+
+    private transient volatile FlowMetrics metrics;
+
+    private transient SessionLockDiagnostics sessionLockDiagnostics;
+
     private boolean atmosphereAvailable = checkAtmosphereSupport();
 
     private BootstrapInitialPredicate bootstrapInitialPredicate;
@@ -271,9 +280,49 @@ public abstract class VaadinService implements Serializable {
             UsageStatistics.markAsUsed("flow/pnpm", null);
         }
 
+        if (configuration.isProductionMode()) {
+            // Initialize the PWA resources before the first request, so that
+            // icons not rendered by the build are rendered in the background
+            // already
+            try {
+                runWithServiceContext(this::getPwaRegistry);
+            } catch (RuntimeException e) {
+                // Don't fail the initialization, the resources are initialized
+                // again when they are first requested, as without preloading
+                getLogger().warn(
+                        "Failed to initialize the PWA resources, retrying on the first request",
+                        e);
+            }
+        }
+
+        if (getMetrics().isEnabled()) {
+            addMetricsListeners(getMetrics());
+        }
+
+        int lockThreshold = configuration.getSessionLockDiagnosticsThreshold();
+        if (lockThreshold > 0) {
+            sessionLockDiagnostics = new SessionLockDiagnostics(lockThreshold);
+        }
+
+        int sweepInterval = configuration.getInactiveUISweepInterval();
+        if (sweepInterval > 0) {
+            inactiveUISweeper = new InactiveUISweeper(this);
+            inactiveUISweeper.start(sweepInterval);
+        }
+
         initialized = true;
     }
 
+    private void addMetricsListeners(FlowMetrics flowMetrics) {
+        addSessionInitListener(event -> flowMetrics.sessionCreated());
+        addSessionDestroyListener(event -> flowMetrics.sessionDestroyed());
+        addUIInitListener(event -> {
+            flowMetrics.uiCreated();
+            event.getUI().addDetachListener(
+                    detachEvent -> flowMetrics.uiDestroyed());
+        });
+    }
+
     private void addRouterUsageStatistics() {
         if (UsageStatistics.getEntries().anyMatch(
                 e -> Constants.STATISTIC_ROUTING_CLIENT.equals(e.getName()))) {
@@ -788,7 +837,7 @@ public abstract class VaadinService implements Serializable {
             synchronized (VaadinService.class) {
                 lock = getSessionLock(wrappedSession);
                 if (lock == null) {
-                    lock = new ReentrantLock();
+                    lock = createSessionLock();
                     setSessionLock(wrappedSession, lock);
                 }
             }
@@ -808,6 +857,15 @@ public abstract class VaadinService implements Serializable {
         return lock;
     }
 
+    private ReentrantLock createSessionLock() {
+        FlowMetrics flowMetrics = getMetrics();
+        if (flowMetrics.isEnabled() || sessionLockDiagnostics != null) {
+            return new InstrumentedSessionLock(flowMetrics,
+                    sessionLockDiagnostics);
+        }
+        return new ReentrantLock();
+    }
+
     /**
      * Releases the lock for the given session for this service instance.
      * Typically you want to call {@link VaadinSession#unlock()} instead of this
@@ -1321,6 +1379,21 @@ public abstract class VaadinService implements Serializable {
         }
     }
 
+    /**
+     * Closes inactive UIs in the given session and removes closed UIs from the
+     * session, unless the session itself is inactive. The session must be
+     * locked.
+     *
+     * @param session
+     *            the session to clean up
+     */
+    void cleanupInactiveUIs(VaadinSession session) {
+        if (isSessionActive(session)) {
+            closeInactiveUIs(session);
+            removeClosedUIs(session);
+        }
+    }
+
     /**
      * Removes those UIs from the given session for which {@link UI#isClosing()
      * isClosing} yields true.
@@ -1999,12 +2072,25 @@ public abstract class VaadinService implements Serializable {
      * If the session is currently locked by the current thread or some other
      * thread, the queue will be purged when the session is unlocked. If the
      * lock is not held by any thread, it is acquired and the queue is purged
-     * right away.
+     * right away, or by the {@link #getExecutor() executor} if
+     * {@link DeploymentConfiguration#isAsyncAccessQueuePurgeEnabled()} is
+     * enabled and the current thread does not hold the lock.
      *
      * @param session
      *            the session for which the access queue should be purged
      */
     public void ensureAccessQueuePurged(VaadinSession session) {
+        if (!session.hasLock() && getDeploymentConfiguration()
+                .isAsyncAccessQueuePurgeEnabled()) {
+            // Don't make the calling thread wait for the lock and for the
+            // tasks, e.g. when called from a background thread
+            getExecutor().execute(() -> purgeAccessQueue(session));
+        } else {
+            purgeAccessQueue(session);
+        }
+    }
+
+    private static void purgeAccessQueue(VaadinSession session) {
         /*
          * If no thread is currently holding the lock, pending changes for UIs
          * with automatic push would not be processed and pushed until the next
@@ -2107,6 +2193,96 @@ public abstract class VaadinService implements Serializable {
         ServiceDestroyEvent event = new ServiceDestroyEvent(this);
         serviceDestroyListeners
                 .forEach(listener -> listener.serviceDestroy(event));
+        if (inactiveUISweeper != null) {
+            inactiveUISweeper.stop();
+            inactiveUISweeper = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * Gets the executor for running background tasks related to this service.
+     * <p>
+     * The executor is created by the {@link ExecutorFactory} found through the
+     * {@link Lookup}, or by {@link DefaultExecutorFactory} which uses virtual
+     * threads when they are available. The tasks are run with the current
+     * instances of the submitting thread, e.g. {@link UI#getCurrent()}, except
+     * for the current request and response. The session is however not locked
+     * when the tasks are run, so they should use {@link UI#access(Command)} to
+     * update the UI.
+     * <p>
+     * The executor is shut down when the service is destroyed.
+     *
+     * @return the executor, not {@code null}
+     */
+    public ExecutorService getExecutor() {
+        ExecutorService result = executor;
+        if (result == null) {
+            synchronized (this) {
+                result = executor;
+                if (result == null) {
+                    result = new CurrentInstancePropagatingExecutor(
+                            createExecutor());
+                    executor = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the diagnostics of the session locks of this service.
+     * <p>
+     * The diagnostics are enabled with
+     * {@link InitParameters#SERVLET_PARAMETER_SESSION_LOCK_DIAGNOSTICS_THRESHOLD}.
+     * Only the locks of the sessions created while the diagnostics are enabled
+     * are instrumented.
+     *
+     * @return the session lock diagnostics, or an empty optional if they are
+     *         not enabled
+     */
+    public Optional<SessionLockDiagnostics> getSessionLockDiagnostics() {
+        return Optional.ofNullable(sessionLockDiagnostics);
+    }
+
+    /**
+     * Gets the metrics which the internals of this service report their
+     * measurements to.
+     * <p>
+     * The metrics are provided by the {@link FlowMetrics} implementation found
+     * through the {@link Lookup}. If there is none, {@link FlowMetrics#DISABLED}
+     * is returned and nothing is measured.
+     *
+     * @return the metrics, not {@code null}
+     */
+    public FlowMetrics getMetrics() {
+        FlowMetrics result = metrics;
+        if (result == null) {
+            VaadinContext context = getContext();
+            Lookup lookup = context == null ? null
+                    : context.getAttribute(Lookup.class);
+            // lookup may be null in tests
+            result = lookup == null ? null : lookup.lookup(FlowMetrics.class);
+            if (result == null) {
+                result = FlowMetrics.DISABLED;
+            }
+            metrics = result;
+        }
+        return result;
+    }
+
+    private ExecutorService createExecutor() {
+        Lookup lookup = getContext().getAttribute(Lookup.class);
+        // lookup may be null in tests
+        ExecutorFactory factory = lookup == null ? null
+                : lookup.lookup(ExecutorFactory.class);
+        if (factory == null) {
+            factory = new DefaultExecutorFactory();
+        }
+        return factory.createExecutor(this);
     }
 
     /**
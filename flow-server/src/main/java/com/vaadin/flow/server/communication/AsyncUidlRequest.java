@@ -0,0 +1,156 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.server.HttpStatusCode;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinServletRequest;
+import com.vaadin.flow.server.VaadinServletResponse;
+import com.vaadin.flow.server.VaadinSession;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Receives the body of a UIDL request using non-blocking servlet I/O.
+ * <p>
+ * The request body is received with a {@link ReadListener}, so that no
+ * container thread waits for slow clients. Once the whole body has been
+ * received, the request is dispatched to the container again and the RPC
+ * invocations are handled like in a regular request: the dispatch passes
+ * through the filter chain, which sets up the thread context, e.g. the
+ * security context, and {@link com.vaadin.flow.server.VaadinService} ends
+ * the request only after the RPC invocations have been handled.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+class AsyncUidlRequest implements ReadListener, Serializable {
+
+    private static final String BODY_ATTRIBUTE = AsyncUidlRequest.class
+            .getName() + ".body";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final VaadinServletRequest request;
+    private final VaadinServletResponse response;
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    private transient AsyncContext asyncContext;
+    private transient ServletInputStream input;
+
+    AsyncUidlRequest(VaadinServletRequest request,
+            VaadinServletResponse response) {
+        this.request = request;
+        this.response = response;
+    }
+
+    /**
+     * Checks whether the body of the given UIDL request can be received
+     * asynchronously.
+     *
+     * @param session
+     *            the session for the request
+     * @param request
+     *            the request to handle
+     * @return {@code true} if asynchronous handling is enabled and supported
+     *         for the request, {@code false} otherwise
+     */
+    static boolean isSupported(VaadinSession session, VaadinRequest request) {
+        if (!(request instanceof VaadinServletRequest)
+                || !session.getConfiguration().isAsyncUidlHandlingEnabled()
+                || getReceivedBody(request) != null) {
+            return false;
+        }
+        // Not supported if any filter in the chain doesn't support async
+        // processing
+        HttpServletRequest httpRequest = ((VaadinServletRequest) request)
+                .getHttpServletRequest();
+        return httpRequest.isAsyncSupported() && !httpRequest.isAsyncStarted();
+    }
+
+    /**
+     * Gets the body received asynchronously for the given request.
+     *
+     * @param request
+     *            the request dispatched after receiving the body
+     * @return the received body, or {@code null} if the body has not been
+     *         received asynchronously
+     */
+    static String getReceivedBody(VaadinRequest request) {
+        return (String) request.getAttribute(BODY_ATTRIBUTE);
+    }
+
+    /**
+     * Puts the request in asynchronous mode and starts reading the request
+     * body.
+     *
+     * @throws IOException
+     *             if the request body cannot be read
+     */
+    void start() throws IOException {
+        asyncContext = request.getHttpServletRequest().startAsync();
+        input = request.getInputStream();
+        input.setReadListener(this);
+    }
+
+    @Override
+    public void onDataAvailable() throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        while (input.isReady() && !input.isFinished()) {
+            int count = input.read(buffer);
+            if (count < 0) {
+                break;
+            }
+            body.write(buffer, 0, count);
+        }
+    }
+
+    @Override
+    public void onAllDataRead() {
+        request.setAttribute(BODY_ATTRIBUTE, body.toString(UTF_8));
+        asyncContext.dispatch();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        getLogger().debug("Failed to receive UIDL request asynchronously",
+                throwable);
+        if (!response.isCommitted()) {
+            response.setStatus(
+                    HttpStatusCode.INTERNAL_SERVER_ERROR.getCode());
+        }
+        asyncContext.complete();
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(AsyncUidlRequest.class);
+    }
+}
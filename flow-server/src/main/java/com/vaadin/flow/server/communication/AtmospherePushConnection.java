@@ -33,6 +33,7 @@ import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.internal.UsageStatistics;
+import com.vaadin.flow.server.FlowMetrics;
 import com.vaadin.flow.shared.communication.PushConstants;
 
 import elemental.json.JsonObject;
@@ -195,7 +196,14 @@ public class AtmospherePushConnection implements PushConnection {
             try {
                 JsonObject response = new UidlWriter().createUidl(getUI(),
                         async);
-                sendMessage("for(;;);[" + response.toJson() + "]");
+                String message = "for(;;);[" + response.toJson() + "]";
+                sendMessage(message);
+                FlowMetrics metrics = FlowMetrics
+                        .get(getUI().getSession().getService());
+                if (metrics.isEnabled()) {
+                    metrics.recordPush(message.length(), getUI().getSession()
+                            .getPendingAccessQueue().size());
+                }
             } catch (Exception e) {
                 throw new RuntimeException("Push failed", e);
             }
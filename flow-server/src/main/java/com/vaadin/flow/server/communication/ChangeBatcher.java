@@ -0,0 +1,351 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+/**
+ * Rewrites encoded state tree changes to a more compact form before they are
+ * sent to the client.
+ * <p>
+ * Consecutive put changes of primitive values to the same map feature of a
+ * node, e.g. setting several style properties of an element, are merged into
+ * one {@link JsonConstants#CHANGE_TYPE_PUTS} change. Identical changes of
+ * different nodes, e.g. setting the same style properties or adding the same
+ * class name to many elements, are then written once with the ids of all the
+ * nodes in {@link JsonConstants#CHANGE_NODES}. A change is only moved to an
+ * earlier change of another node if there are no other changes of its own
+ * node in between, so that the changes of each node are still applied in the
+ * original order.
+ * <p>
+ * Only used if {@link
+ * com.vaadin.flow.function.DeploymentConfiguration#isUidlChangeBatchingEnabled()}
+ * is enabled. The given changes are never modified.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+final class ChangeBatcher implements Serializable {
+
+    private static final class NodeGroup implements Serializable {
+        private final int index;
+        private final JsonObject change;
+        private final JsonArray nodes = Json.createArray();
+
+        private NodeGroup(int index, JsonObject change) {
+            this.index = index;
+            this.change = change;
+            nodes.set(0, change.getNumber(JsonConstants.CHANGE_NODE));
+        }
+
+        private JsonObject toJson() {
+            if (nodes.length() == 1) {
+                return change;
+            }
+            JsonObject json = copy(change);
+            json.remove(JsonConstants.CHANGE_NODE);
+            json.put(JsonConstants.CHANGE_NODES, nodes);
+            return json;
+        }
+    }
+
+    /**
+     * Key of a change without its node. The properties of the change are
+     * compared by primitive equality. The members of an object or array
+     * property, e.g. the values of a puts change, are compared by primitive
+     * equality or identity, so that large values are never traversed.
+     */
+    private static final class ChangeKey implements Serializable {
+        private final JsonObject change;
+        private final int hash;
+
+        private ChangeKey(JsonObject change) {
+            this.change = change;
+            int sum = 0;
+            for (String key : change.keys()) {
+                if (!JsonConstants.CHANGE_NODE.equals(key)) {
+                    sum += key.hashCode() ^ hash(change.get(key), true);
+                }
+            }
+            hash = sum;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ChangeKey)) {
+                return false;
+            }
+            ChangeKey other = (ChangeKey) obj;
+            if (hash != other.hash) {
+                return false;
+            }
+            String[] keys = change.keys();
+            if (keys.length != other.change.keys().length) {
+                return false;
+            }
+            for (String key : keys) {
+                if (!JsonConstants.CHANGE_NODE.equals(key)
+                        && !(other.change.hasKey(key) && same(change.get(key),
+                                other.change.get(key), true))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean same(JsonValue value1, JsonValue value2,
+                boolean compareMembers) {
+            if (value1 == value2) {
+                return true;
+            }
+            if (value1 == null || value2 == null
+                    || value1.getType() != value2.getType()) {
+                return false;
+            }
+            switch (value1.getType()) {
+            case STRING:
+                return value1.asString().equals(value2.asString());
+            case NUMBER:
+                return Double.compare(value1.asNumber(),
+                        value2.asNumber()) == 0;
+            case BOOLEAN:
+                return value1.asBoolean() == value2.asBoolean();
+            case NULL:
+                return true;
+            case OBJECT:
+                return compareMembers && sameMembers((JsonObject) value1,
+                        (JsonObject) value2);
+            case ARRAY:
+                return compareMembers
+                        && sameMembers((JsonArray) value1, (JsonArray) value2);
+            default:
+                return false;
+            }
+        }
+
+        private static boolean sameMembers(JsonObject object1,
+                JsonObject object2) {
+            String[] keys = object1.keys();
+            if (keys.length != object2.keys().length) {
+                return false;
+            }
+            for (String key : keys) {
+                if (!object2.hasKey(key)
+                        || !same(object1.get(key), object2.get(key), false)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean sameMembers(JsonArray array1,
+                JsonArray array2) {
+            if (array1.length() != array2.length()) {
+                return false;
+            }
+            for (int i = 0; i < array1.length(); i++) {
+                if (!same(array1.get(i), array2.get(i), false)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int hash(JsonValue value, boolean hashMembers) {
+            if (value == null) {
+                return 0;
+            }
+            switch (value.getType()) {
+            case STRING:
+                return value.asString().hashCode();
+            case NUMBER:
+                return Double.hashCode(value.asNumber());
+            case BOOLEAN:
+                return Boolean.hashCode(value.asBoolean());
+            case OBJECT:
+                if (!hashMembers) {
+                    return System.identityHashCode(value);
+                }
+                JsonObject object = (JsonObject) value;
+                int sum = 0;
+                for (String key : object.keys()) {
+                    sum += key.hashCode() ^ hash(object.get(key), false);
+                }
+                return sum;
+            case ARRAY:
+                if (!hashMembers) {
+                    return System.identityHashCode(value);
+                }
+                JsonArray array = (JsonArray) value;
+                int result = 1;
+                for (int i = 0; i < array.length(); i++) {
+                    result = 31 * result + hash(array.get(i), false);
+                }
+                return result;
+            default:
+                return 0;
+            }
+        }
+    }
+
+    private ChangeBatcher() {
+        // Only static helpers here
+    }
+
+    /**
+     * Rewrites the given changes to a more compact form.
+     *
+     * @param changes
+     *            the encoded changes, not {@code null}
+     * @return an array with the compacted changes, which has the same effect
+     *         as the given changes when applied on the client side
+     */
+    static JsonArray batch(JsonArray changes) {
+        return groupNodes(mergePuts(changes));
+    }
+
+    private static List<JsonObject> mergePuts(JsonArray changes) {
+        List<JsonObject> result = new ArrayList<>(changes.length());
+        for (int i = 0; i < changes.length(); i++) {
+            JsonObject change = changes.getObject(i);
+            int last = result.size() - 1;
+            if (isValuePut(change) && last >= 0
+                    && canMergePut(result.get(last), change)) {
+                JsonObject puts = result.get(last);
+                if (isType(puts, JsonConstants.CHANGE_TYPE_PUT)) {
+                    puts = createPuts(puts);
+                    result.set(last, puts);
+                }
+                JsonValue value = change.get(JsonConstants.CHANGE_PUT_VALUE);
+                puts.getObject(JsonConstants.CHANGE_PUTS_VALUES).put(
+                        change.getString(JsonConstants.CHANGE_MAP_KEY), value);
+            } else {
+                result.add(change);
+            }
+        }
+        return result;
+    }
+
+    private static JsonArray groupNodes(List<JsonObject> changes) {
+        // Each entry is either a JsonObject or a NodeGroup
+        List<Object> result = new ArrayList<>(changes.size());
+        Map<ChangeKey, NodeGroup> groups = new HashMap<>();
+        // Index in result of the last change of each node
+        Map<Integer, Integer> lastIndexes = new HashMap<>();
+        for (JsonObject change : changes) {
+            int node = (int) change.getNumber(JsonConstants.CHANGE_NODE);
+            if (!isGroupable(change)) {
+                lastIndexes.put(node, result.size());
+                result.add(change);
+                continue;
+            }
+            ChangeKey key = new ChangeKey(change);
+
+            NodeGroup group = groups.get(key);
+            Integer lastIndex = lastIndexes.get(node);
+            if (group != null
+                    && (lastIndex == null || lastIndex < group.index)) {
+                group.nodes.set(group.nodes.length(), node);
+                lastIndexes.put(node, group.index);
+            } else {
+                group = new NodeGroup(result.size(), change);
+                groups.put(key, group);
+                lastIndexes.put(node, result.size());
+                result.add(group);
+            }
+        }
+
+        JsonArray array = Json.createArray();
+        for (Object entry : result) {
+            array.set(array.length(),
+                    entry instanceof NodeGroup ? ((NodeGroup) entry).toJson()
+                            : (JsonObject) entry);
+        }
+        return array;
+    }
+
+    private static boolean canMergePut(JsonObject previous,
+            JsonObject change) {
+        return (isValuePut(previous)
+                || isType(previous, JsonConstants.CHANGE_TYPE_PUTS))
+                && previous.getNumber(JsonConstants.CHANGE_NODE) == change
+                        .getNumber(JsonConstants.CHANGE_NODE)
+                && previous.getNumber(JsonConstants.CHANGE_FEATURE) == change
+                        .getNumber(JsonConstants.CHANGE_FEATURE);
+    }
+
+    private static JsonObject createPuts(JsonObject put) {
+        JsonObject puts = Json.createObject();
+        puts.put(JsonConstants.CHANGE_TYPE, JsonConstants.CHANGE_TYPE_PUTS);
+        puts.put(JsonConstants.CHANGE_NODE,
+                put.getNumber(JsonConstants.CHANGE_NODE));
+        puts.put(JsonConstants.CHANGE_FEATURE,
+                put.getNumber(JsonConstants.CHANGE_FEATURE));
+        JsonObject values = Json.createObject();
+        JsonValue value = put.get(JsonConstants.CHANGE_PUT_VALUE);
+        values.put(put.getString(JsonConstants.CHANGE_MAP_KEY), value);
+        puts.put(JsonConstants.CHANGE_PUTS_VALUES, values);
+        return puts;
+    }
+
+    private static boolean isValuePut(JsonObject change) {
+        return isType(change, JsonConstants.CHANGE_TYPE_PUT)
+                && change.hasKey(JsonConstants.CHANGE_PUT_VALUE);
+    }
+
+    private static boolean isGroupable(JsonObject change) {
+        // Changes referring to other nodes and changes attaching, detaching
+        // or populating nodes are kept as they are
+        if (isType(change, JsonConstants.CHANGE_TYPE_SPLICE)) {
+            return !change.hasKey(JsonConstants.CHANGE_SPLICE_ADD_NODES);
+        }
+        return isValuePut(change)
+                || isType(change, JsonConstants.CHANGE_TYPE_PUTS)
+                || isType(change, JsonConstants.CHANGE_TYPE_REMOVE)
+                || isType(change, JsonConstants.CHANGE_TYPE_CLEAR);
+    }
+
+    private static boolean isType(JsonObject change, String type) {
+        return type.equals(change.getString(JsonConstants.CHANGE_TYPE));
+    }
+
+    private static JsonObject copy(JsonObject object) {
+        JsonObject copy = Json.createObject();
+        for (String key : object.keys()) {
+            JsonValue value = object.get(key);
+            copy.put(key, value);
+        }
+        return copy;
+    }
+}
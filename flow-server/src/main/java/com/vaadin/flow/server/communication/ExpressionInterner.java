@@ -0,0 +1,103 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.internal.ConstantPoolKey;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+/**
+ * Interns the expressions of JavaScript invocations of a UI in its constant
+ * pool.
+ * <p>
+ * An expression is interned only when it is executed again, since an
+ * expression executed only once, e.g. one that has the values inlined instead
+ * of passing them as parameters, gains nothing from being interned. The
+ * number of interned expressions is limited, since the constant pools on the
+ * server and on the client keep the interned expressions for the lifetime of
+ * the UI. Other expressions are sent as is.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+class ExpressionInterner implements Serializable {
+
+    static final int MAX_INTERNED = 256;
+
+    static final int MAX_CANDIDATES = 256;
+
+    private final ConstantPool constantPool;
+
+    private final Set<String> interned = new HashSet<>();
+
+    // Ids of expressions executed once, least recently executed first
+    private final Map<String, Boolean> candidates = new LinkedHashMap<String, Boolean>(
+            16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_CANDIDATES;
+        }
+    };
+
+    /**
+     * Creates an interner for the given constant pool.
+     *
+     * @param constantPool
+     *            the constant pool of the UI, not {@code null}
+     */
+    ExpressionInterner(ConstantPool constantPool) {
+        this.constantPool = constantPool;
+    }
+
+    /**
+     * Encodes the given expression, either as is or as a reference to the
+     * interned expression.
+     *
+     * @param expression
+     *            the expression to encode, not {@code null}
+     * @return the encoded expression
+     */
+    JsonValue encode(String expression) {
+        ConstantPoolKey key = new ConstantPoolKey(Json.create(expression));
+        String id = key.getId();
+        if (!interned.contains(id)) {
+            if (interned.size() >= MAX_INTERNED) {
+                return Json.create(expression);
+            }
+            if (candidates.remove(id) == null) {
+                candidates.put(id, Boolean.TRUE);
+                return Json.create(expression);
+            }
+            interned.add(id);
+        }
+        JsonObject reference = Json.createObject();
+        reference.put(JsonConstants.UIDL_KEY_EXECUTE_EXPRESSION,
+                constantPool.getConstantId(key));
+        return reference;
+    }
+}
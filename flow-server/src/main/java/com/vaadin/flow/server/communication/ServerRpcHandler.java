@@ -24,9 +24,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -397,6 +399,7 @@ public class ServerRpcHandler implements Serializable {
      */
     private void handleInvocations(UI ui, JsonArray invocationsData) {
         List<JsonObject> data = new ArrayList<>(invocationsData.length());
+        List<JsonObject> mapSyncData = new ArrayList<>();
         List<Runnable> pendingChangeEvents = new ArrayList<>();
 
         RpcInvocationHandler mapSyncHandler = getInvocationHandlers()
@@ -407,18 +410,57 @@ public class ServerRpcHandler implements Serializable {
             String type = invocationJson.getString(JsonConstants.RPC_TYPE);
             assert type != null;
             if (JsonConstants.RPC_TYPE_MAP_SYNC.equals(type)) {
-                // Handle these before any RPC invocations.
-                mapSyncHandler.handle(ui, invocationJson)
-                        .ifPresent(pendingChangeEvents::add);
+                mapSyncData.add(invocationJson);
             } else {
                 data.add(invocationJson);
             }
         }
 
+        // Handle these before any RPC invocations.
+        coalesceMapSyncs(mapSyncData)
+                .forEach(json -> mapSyncHandler.handle(ui, json)
+                        .ifPresent(pendingChangeEvents::add));
+
         pendingChangeEvents.forEach(runnable -> runMapSyncTask(ui, runnable));
         data.forEach(json -> handleInvocationData(ui, json));
     }
 
+    /**
+     * Removes the property updates which are overridden by a later update of
+     * the same property in the same message, so that only the last value is
+     * applied and only one property change event is fired.
+     *
+     * @param mapSyncData
+     *            the property update invocations in the order they were sent
+     * @return the invocations to handle, in the original order
+     */
+    private static List<JsonObject> coalesceMapSyncs(
+            List<JsonObject> mapSyncData) {
+        if (mapSyncData.size() < 2) {
+            return mapSyncData;
+        }
+        Set<String> updatedProperties = new HashSet<>();
+        List<JsonObject> coalesced = new ArrayList<>(mapSyncData.size());
+        for (int i = mapSyncData.size() - 1; i >= 0; i--) {
+            JsonObject invocationJson = mapSyncData.get(i);
+            String property = (int) invocationJson
+                    .getNumber(JsonConstants.RPC_NODE) + ":"
+                    + (int) invocationJson.getNumber(JsonConstants.RPC_FEATURE)
+                    + ":"
+                    + invocationJson.getString(JsonConstants.RPC_PROPERTY);
+            if (updatedProperties.add(property)) {
+                coalesced.add(invocationJson);
+            }
+        }
+        if (coalesced.size() < mapSyncData.size()) {
+            getLogger().debug("Skipped {} property updates overridden by "
+                    + "later updates in the same message",
+                    mapSyncData.size() - coalesced.size());
+        }
+        Collections.reverse(coalesced);
+        return coalesced;
+    }
+
     private void runMapSyncTask(UI ui, Runnable runnable) {
         try {
             runnable.run();
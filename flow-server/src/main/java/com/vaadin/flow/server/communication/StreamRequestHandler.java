@@ -27,6 +27,7 @@ import com.vaadin.flow.server.HttpStatusCode;
 import com.vaadin.flow.server.RequestHandler;
 import com.vaadin.flow.server.StreamReceiver;
 import com.vaadin.flow.server.StreamResource;
+import com.vaadin.flow.server.StreamResourceRegistry;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinResponse;
 import com.vaadin.flow.server.VaadinSession;
@@ -84,17 +85,25 @@ public class StreamRequestHandler implements RequestHandler {
         }
 
         Optional<AbstractStreamResource> abstractStreamResource;
-        session.lock();
+        StreamResourceRegistry registry = session.getResourceRegistry();
+        // Concurrent registries don't need the session lock, which avoids
+        // queueing resource requests behind UIDL requests
+        boolean lock = !registry.isConcurrent();
+        if (lock) {
+            session.lock();
+        }
         try {
             abstractStreamResource = StreamRequestHandler.getPathUri(pathInfo)
-                    .flatMap(session.getResourceRegistry()::getResource);
+                    .flatMap(registry::getResource);
             if (!abstractStreamResource.isPresent()) {
                 response.sendError(HttpStatusCode.NOT_FOUND.getCode(),
                         "Resource is not found for path=" + pathInfo);
                 return true;
             }
         } finally {
-            session.unlock();
+            if (lock) {
+                session.unlock();
+            }
         }
 
         if (abstractStreamResource.isPresent()) {
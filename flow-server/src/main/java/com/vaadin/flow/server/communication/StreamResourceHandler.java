@@ -21,7 +21,11 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serializable;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.vaadin.flow.server.HttpStatusCode;
+import com.vaadin.flow.server.RangeStreamResourceWriter;
 import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.server.StreamResourceWriter;
 import com.vaadin.flow.server.VaadinRequest;
@@ -32,6 +36,11 @@ import com.vaadin.flow.server.VaadinSession;
 /**
  * Handles {@link StreamResource} instances registered in {@link VaadinSession}.
  * <p>
+ * Conditional requests are answered with "304 Not Modified" based on the
+ * entity tag and modification time of the resource. Single range requests
+ * for resources with a {@link RangeStreamResourceWriter} are answered with
+ * "206 Partial Content".
+ * <p>
  * For internal use only. May be renamed or removed in a future release.
  *
  * @author Vaadin Ltd
@@ -40,6 +49,26 @@ import com.vaadin.flow.server.VaadinSession;
  */
 public class StreamResourceHandler implements Serializable {
 
+    private static final String BYTES_UNIT = "bytes";
+
+    private static final class ByteRange implements Serializable {
+
+        private static final ByteRange NOT_SATISFIABLE = new ByteRange(-1,
+                -1);
+
+        private final long start;
+        private final long end;
+
+        private ByteRange(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        private long getLength() {
+            return end - start + 1;
+        }
+    }
+
     /**
      * Handle sending for a stream resource request.
      *
@@ -60,7 +89,13 @@ public class StreamResourceHandler implements Serializable {
             throws IOException {
 
         StreamResourceWriter writer;
-        session.lock();
+        String eTag;
+        long lastModified;
+        long length = -1;
+        boolean lock = !session.getResourceRegistry().isConcurrent();
+        if (lock) {
+            session.lock();
+        }
         try {
             ServletContext context = ((VaadinServletRequest) request)
                     .getServletContext();
@@ -74,13 +109,55 @@ public class StreamResourceHandler implements Serializable {
                 throw new IOException(
                         "Stream resource produces null input stream");
             }
+            eTag = formatETag(streamResource.getETag());
+            lastModified = streamResource.getLastModified();
+            if (writer instanceof RangeStreamResourceWriter) {
+                length = ((RangeStreamResourceWriter) writer).getLength();
+            }
         } catch (Exception exception) {
             response.setStatus(HttpStatusCode.INTERNAL_SERVER_ERROR.getCode());
             throw exception;
 
         } finally {
-            session.unlock();
+            if (lock) {
+                session.unlock();
+            }
         }
+
+        if (eTag != null) {
+            response.setHeader("ETag", eTag);
+        }
+        if (lastModified >= 0) {
+            response.setDateHeader("Last-Modified", lastModified);
+        }
+        if (isNotModified(request, eTag, lastModified)) {
+            response.setStatus(HttpStatusCode.NOT_MODIFIED.getCode());
+            return;
+        }
+
+        ByteRange range = null;
+        if (length >= 0) {
+            response.setHeader("Accept-Ranges", BYTES_UNIT);
+            range = getRange(request, eTag, lastModified, length);
+            if (range == ByteRange.NOT_SATISFIABLE) {
+                response.setStatus(
+                        HttpStatusCode.REQUESTED_RANGE_NOT_SATISFIABLE
+                                .getCode());
+                response.setHeader("Content-Range",
+                        BYTES_UNIT + " */" + length);
+                return;
+            }
+            if (range == null) {
+                range = new ByteRange(0, length - 1);
+            } else {
+                response.setStatus(HttpStatusCode.PARTIAL_CONTENT.getCode());
+                response.setHeader("Content-Range", BYTES_UNIT + " "
+                        + range.start + "-" + range.end + "/" + length);
+            }
+            response.setHeader("Content-Length",
+                    String.valueOf(range.getLength()));
+        }
+
         // don't use here "try resource" syntax sugar because in case there is
         // an exception the {@code outputStream} will be closed before "catch"
         // block which sets the status code and this code will not have any
@@ -88,7 +165,12 @@ public class StreamResourceHandler implements Serializable {
         OutputStream outputStream = null;
         try {
             outputStream = response.getOutputStream();
-            writer.accept(outputStream, session);
+            if (range != null) {
+                ((RangeStreamResourceWriter) writer).accept(outputStream,
+                        session, range.start, range.getLength());
+            } else {
+                writer.accept(outputStream, session);
+            }
         } catch (Exception exception) {
             response.setStatus(HttpStatusCode.INTERNAL_SERVER_ERROR.getCode());
             throw exception;
@@ -99,4 +181,114 @@ public class StreamResourceHandler implements Serializable {
         }
     }
 
+    private static String formatETag(String eTag) {
+        if (eTag == null || eTag.startsWith("\"") || eTag.startsWith("W/\"")) {
+            return eTag;
+        }
+        return '"' + eTag + '"';
+    }
+
+    private static boolean isNotModified(VaadinRequest request, String eTag,
+            long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            // If-None-Match takes precedence over If-Modified-Since
+            return eTag != null && matchesAny(ifNoneMatch, eTag);
+        }
+        if (lastModified < 0) {
+            return false;
+        }
+        long ifModifiedSince = getDateHeader(request, "If-Modified-Since");
+        // HTTP dates have a precision of one second
+        return ifModifiedSince >= 0
+                && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private static boolean matchesAny(String eTags, String eTag) {
+        String opaqueTag = stripWeakPrefix(eTag);
+        for (String candidate : eTags.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag) || stripWeakPrefix(tag).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeakPrefix(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    private static ByteRange getRange(VaadinRequest request, String eTag,
+            long lastModified, long length) {
+        String header = request.getHeader("Range");
+        if (header == null || !header.startsWith(BYTES_UNIT + "=")
+                || !isRangeApplicable(request, eTag, lastModified)) {
+            return null;
+        }
+        String spec = header.substring(BYTES_UNIT.length() + 1).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            // Invalid or multiple ranges, serve the full content instead
+            return null;
+        }
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+        try {
+            if (first.isEmpty()) {
+                // Suffix range, i.e. the last N bytes
+                long suffixLength = Long.parseLong(last);
+                if (suffixLength < 0) {
+                    return null;
+                }
+                if (suffixLength == 0 || length == 0) {
+                    return ByteRange.NOT_SATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, length - suffixLength),
+                        length - 1);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= length) {
+                return ByteRange.NOT_SATISFIABLE;
+            }
+            return new ByteRange(start, Math.min(end, length - 1));
+        } catch (NumberFormatException e) {
+            getLogger().trace("Unable to parse Range header '{}'", header, e);
+            return null;
+        }
+    }
+
+    private static boolean isRangeApplicable(VaadinRequest request,
+            String eTag, long lastModified) {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // If-Range requires a strong entity tag match
+            return eTag != null && !eTag.startsWith("W/")
+                    && eTag.equals(ifRange);
+        }
+        long date = getDateHeader(request, "If-Range");
+        return lastModified >= 0 && date >= 0
+                && lastModified / 1000 == date / 1000;
+    }
+
+    private static long getDateHeader(VaadinRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            getLogger().trace("Unable to parse {}", name, e);
+            return -1;
+        }
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(StreamResourceHandler.class);
+    }
 }
@@ -18,8 +18,12 @@ package com.vaadin.flow.server.communication;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -29,6 +33,8 @@ import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.internal.JavaScriptBootstrapUI;
+import com.vaadin.flow.server.FlowMetrics;
+import com.vaadin.flow.server.FlowMetrics.UidlPhase;
 import com.vaadin.flow.server.HandlerHelper;
 import com.vaadin.flow.server.HandlerHelper.RequestType;
 import com.vaadin.flow.server.SessionExpiredHandler;
@@ -36,6 +42,8 @@ import com.vaadin.flow.server.SynchronizedRequestHandler;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinResponse;
 import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServletRequest;
+import com.vaadin.flow.server.VaadinServletResponse;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.communication.ServerRpcHandler.InvalidUIDLSecurityKeyException;
 import com.vaadin.flow.server.communication.ServerRpcHandler.ResynchronizationRequiredException;
@@ -46,12 +54,14 @@ import elemental.json.JsonArray;
 import elemental.json.JsonException;
 import elemental.json.JsonObject;
 import elemental.json.JsonType;
+import elemental.json.JsonValue;
 import elemental.json.impl.JsonUtil;
 
 import static com.vaadin.flow.shared.ApplicationConstants.RPC_INVOCATIONS;
 import static com.vaadin.flow.shared.ApplicationConstants.SERVER_SYNC_ID;
 import static com.vaadin.flow.shared.JsonConstants.RPC_NAVIGATION_LOCATION;
 import static com.vaadin.flow.shared.JsonConstants.UIDL_KEY_EXECUTE;
+import static com.vaadin.flow.shared.JsonConstants.UIDL_KEY_EXECUTE_EXPRESSION;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
@@ -71,6 +81,11 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
 
     private AtomicReference<ServerRpcHandler> rpcHandler = new AtomicReference<>();
 
+    // Ids of the interned execute expressions which push a history state.
+    // The ids are content based, so they are the same for all UIs.
+    private final Set<String> pushStateExpressionIds = ConcurrentHashMap
+            .newKeySet();
+
     public static final Pattern HASH_PATTERN = Pattern
             .compile("window.location.hash ?= ?'(.*?)'");
     public static final Pattern URL_PATTERN = Pattern.compile("^(.*)#(.+)$");
@@ -82,6 +97,7 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
     private static final String LOCATION = RPC_NAVIGATION_LOCATION;
     private static final String CHANGES = "changes";
     private static final String EXECUTE = UIDL_KEY_EXECUTE;
+    private static final String CONSTANTS = "constants";
 
     @Override
     protected boolean canHandleRequest(VaadinRequest request) {
@@ -97,34 +113,87 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         return new ServerRpcHandler();
     }
 
+    @Override
+    public boolean handleRequest(VaadinSession session, VaadinRequest request,
+            VaadinResponse response) throws IOException {
+        if (!canHandleRequest(request)) {
+            return false;
+        }
+        if (AsyncUidlRequest.isSupported(session, request)) {
+            // The body is received without holding the session lock or
+            // blocking the container thread. The request is then dispatched
+            // again and handled with the received body.
+            new AsyncUidlRequest((VaadinServletRequest) request,
+                    (VaadinServletResponse) response).start();
+            return true;
+        }
+        // The response is created with the session locked, but written only
+        // after the lock has been released so that other requests to the
+        // session don't wait for the client to receive the response
+        String json;
+        session.lock();
+        try {
+            json = createResponse(session, request, getBodyReader(request));
+        } finally {
+            session.unlock();
+        }
+        commitJsonResponse(response, json);
+        return true;
+    }
+
     @Override
     public boolean synchronizedHandleRequest(VaadinSession session,
             VaadinRequest request, VaadinResponse response) throws IOException {
+        commitJsonResponse(response,
+                createResponse(session, request, getBodyReader(request)));
+        return true;
+    }
+
+    private static Reader getBodyReader(VaadinRequest request)
+            throws IOException {
+        String body = AsyncUidlRequest.getReceivedBody(request);
+        return body == null ? request.getReader() : new StringReader(body);
+    }
+
+    /**
+     * Handles the RPC invocations of a UIDL request and creates the JSON
+     * response with the resulting changes.
+     * <p>
+     * Must be called with the session locked.
+     *
+     * @param session
+     *            the session for the request
+     * @param request
+     *            the request to handle
+     * @param reader
+     *            the reader for the request body
+     * @return the JSON response
+     * @throws IOException
+     *             if an IO error occurred
+     */
+    String createResponse(VaadinSession session, VaadinRequest request,
+            Reader reader) throws IOException {
         UI uI = session.getService().findUI(request);
         if (uI == null) {
             // This should not happen but it will if the UI has been closed. We
             // really don't want to see it in the server logs though
-            commitJsonResponse(response,
-                    VaadinService.createUINotFoundJSON(false));
-            return true;
+            return VaadinService.createUINotFoundJSON(false);
         }
 
         StringWriter stringWriter = new StringWriter();
 
         try {
-            getRpcHandler(session).handleRpc(uI, request.getReader(), request);
+            handleRpc(session, uI, reader, request);
             writeUidl(uI, stringWriter, false);
         } catch (JsonException e) {
             getLogger().error("Error writing JSON to response", e);
             // Refresh on client side
-            writeRefresh(response);
-            return true;
+            return createRefreshJSON();
         } catch (InvalidUIDLSecurityKeyException e) {
             getLogger().warn("Invalid security key received from {}",
                     request.getRemoteHost());
             // Refresh on client side
-            writeRefresh(response);
-            return true;
+            return createRefreshJSON();
         } catch (ResynchronizationRequiredException e) { // NOSONAR
             // Resync on the client side
             writeUidl(uI, stringWriter, true);
@@ -132,14 +201,29 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
             stringWriter.close();
         }
 
-        commitJsonResponse(response, stringWriter.toString());
-        return true;
+        return stringWriter.toString();
     }
 
-    private void writeRefresh(VaadinResponse response) throws IOException {
-        String json = VaadinService.createCriticalNotificationJSON(null, null,
-                null, null);
-        commitJsonResponse(response, json);
+    private void handleRpc(VaadinSession session, UI ui, Reader reader,
+            VaadinRequest request) throws IOException,
+            InvalidUIDLSecurityKeyException {
+        FlowMetrics metrics = FlowMetrics.get(session.getService());
+        if (!metrics.isEnabled()) {
+            getRpcHandler(session).handleRpc(ui, reader, request);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            getRpcHandler(session).handleRpc(ui, reader, request);
+        } finally {
+            metrics.recordUidlPhase(UidlPhase.RPC_HANDLING,
+                    System.nanoTime() - start);
+        }
+    }
+
+    private static String createRefreshJSON() {
+        return VaadinService.createCriticalNotificationJSON(null, null, null,
+                null);
     }
 
     void writeUidl(UI ui, Writer writer, boolean resync) throws IOException {
@@ -214,6 +298,10 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
 
         byte[] b = json.getBytes(UTF_8);
         response.setContentLength(b.length);
+        FlowMetrics metrics = FlowMetrics.get(response.getService());
+        if (metrics.isEnabled()) {
+            metrics.recordUidlResponseSize(b.length);
+        }
 
         OutputStream outputStream = response.getOutputStream();
         outputStream.write(b);
@@ -222,6 +310,7 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
     }
 
     private void removeOffendingMprHashFragment(JsonObject uidl) {
+        collectPushStateExpressionIds(uidl);
         if (!uidl.hasKey(EXECUTE)) {
             return;
         }
@@ -232,14 +321,14 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         for (int i = 0; i < exec.length(); i++) {
             JsonArray arr = exec.get(i);
             for (int j = 0; j < arr.length(); j++) {
-                if (!arr.get(j).getType().equals(JsonType.STRING)) {
+                if (isPushStateExpression(arr.get(j))) {
+                    idx = i;
                     continue;
                 }
-                String script = arr.getString(j);
-                if (script.contains("history.pushState")) {
-                    idx = i;
+                if (!arr.get(j).getType().equals(JsonType.STRING)) {
                     continue;
                 }
+                String script = arr.getString(j);
                 if (!script.startsWith(SYNC_ID)) {
                     continue;
                 }
@@ -268,6 +357,36 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         }
     }
 
+    private boolean isPushStateExpression(JsonValue value) {
+        if (value.getType().equals(JsonType.STRING)) {
+            return isPushStateScript(value.asString());
+        }
+        // Interned expression, which may have been sent in an earlier
+        // response
+        return value.getType().equals(JsonType.OBJECT)
+                && ((JsonObject) value).hasKey(UIDL_KEY_EXECUTE_EXPRESSION)
+                && pushStateExpressionIds.contains(((JsonObject) value)
+                        .getString(UIDL_KEY_EXECUTE_EXPRESSION));
+    }
+
+    private void collectPushStateExpressionIds(JsonObject uidl) {
+        if (!uidl.hasKey(CONSTANTS)) {
+            return;
+        }
+        JsonObject constants = uidl.getObject(CONSTANTS);
+        for (String id : constants.keys()) {
+            JsonValue constant = constants.get(id);
+            if (constant.getType().equals(JsonType.STRING)
+                    && isPushStateScript(constant.asString())) {
+                pushStateExpressionIds.add(id);
+            }
+        }
+    }
+
+    private static boolean isPushStateScript(String script) {
+        return script.contains("history.pushState");
+    }
+
     private String removeHashInV7Uidl(JsonObject json) {
         String removed = null;
         JsonArray changes = json.getArray(CHANGES);
@@ -37,12 +37,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
 import com.vaadin.flow.component.Composite;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.internal.DependencyList;
 import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
 import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.internal.ConstantPool;
 import com.vaadin.flow.internal.JsonCodec;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.StateNode;
@@ -53,6 +55,8 @@ import com.vaadin.flow.internal.nodefeature.ComponentMapping;
 import com.vaadin.flow.internal.nodefeature.ReturnChannelMap;
 import com.vaadin.flow.internal.nodefeature.ReturnChannelRegistration;
 import com.vaadin.flow.server.DependencyFilter;
+import com.vaadin.flow.server.FlowMetrics;
+import com.vaadin.flow.server.FlowMetrics.UidlPhase;
 import com.vaadin.flow.server.SystemMessages;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
@@ -169,13 +173,21 @@ public class UidlWriter implements Serializable {
             response.put("meta", meta);
         }
 
-        JsonArray stateChanges = Json.createArray();
-
-        encodeChanges(ui, stateChanges);
+        JsonArray stateChanges = encodeChanges(ui,
+                service.getDeploymentConfiguration()
+                        .isUidlChangeBatchingEnabled());
 
         populateDependencies(response, uiInternals.getDependencyList(),
                 new ResolveContext(service, session.getBrowser()));
 
+        // Encode the invocations before dumping the constants so that the
+        // interned expressions are sent in the same message
+        List<PendingJavaScriptInvocation> executeJavaScriptList = uiInternals
+                .dumpPendingJavaScriptInvocations();
+        JsonArray executeJavaScript = executeJavaScriptList.isEmpty() ? null
+                : encodeExecuteJavaScriptList(executeJavaScriptList,
+                        getExpressionInterner(ui));
+
         if (uiInternals.getConstantPool().hasNewConstants()) {
             response.put("constants",
                     uiInternals.getConstantPool().dumpConstants());
@@ -184,11 +196,8 @@ public class UidlWriter implements Serializable {
             response.put("changes", stateChanges);
         }
 
-        List<PendingJavaScriptInvocation> executeJavaScriptList = uiInternals
-                .dumpPendingJavaScriptInvocations();
-        if (!executeJavaScriptList.isEmpty()) {
-            response.put(JsonConstants.UIDL_KEY_EXECUTE,
-                    encodeExecuteJavaScriptList(executeJavaScriptList));
+        if (executeJavaScript != null) {
+            response.put(JsonConstants.UIDL_KEY_EXECUTE, executeJavaScript);
         }
         if (service.getDeploymentConfiguration().isRequestTiming()) {
             response.put("timings", createPerformanceData(ui));
@@ -300,11 +309,30 @@ public class UidlWriter implements Serializable {
     // non-private for testing purposes
     static JsonArray encodeExecuteJavaScriptList(
             List<PendingJavaScriptInvocation> executeJavaScriptList) {
+        return encodeExecuteJavaScriptList(executeJavaScriptList, null);
+    }
+
+    // non-private for testing purposes
+    static JsonArray encodeExecuteJavaScriptList(
+            List<PendingJavaScriptInvocation> executeJavaScriptList,
+            ExpressionInterner interner) {
         return executeJavaScriptList.stream()
-                .map(UidlWriter::encodeExecuteJavaScript)
+                .map(invocation -> encodeExecuteJavaScript(invocation,
+                        interner))
                 .collect(JsonUtils.asArray());
     }
 
+    private static ExpressionInterner getExpressionInterner(UI ui) {
+        ExpressionInterner interner = ComponentUtil.getData(ui,
+                ExpressionInterner.class);
+        if (interner == null) {
+            interner = new ExpressionInterner(
+                    ui.getInternals().getConstantPool());
+            ComponentUtil.setData(ui, ExpressionInterner.class, interner);
+        }
+        return interner;
+    }
+
     private static ReturnChannelRegistration createReturnValueChannel(
             StateNode owner, List<ReturnChannelRegistration> registrations,
             SerializableConsumer<JsonValue> action) {
@@ -322,7 +350,8 @@ public class UidlWriter implements Serializable {
     }
 
     private static JsonArray encodeExecuteJavaScript(
-            PendingJavaScriptInvocation invocation) {
+            PendingJavaScriptInvocation invocation,
+            ExpressionInterner interner) {
         List<Object> parametersList = invocation.getInvocation()
                 .getParameters();
 
@@ -367,10 +396,23 @@ public class UidlWriter implements Serializable {
         // [argument1, argument2, ..., script]
         return Stream
                 .concat(parameters.map(JsonCodec::encodeWithTypeInfo),
-                        Stream.of(Json.create(expression)))
+                        Stream.of(encodeExpression(expression, interner)))
                 .collect(JsonUtils.asArray());
     }
 
+    /*
+     * Interns repeatedly executed expressions so that they are sent only once
+     * and the client can reuse the function it compiled for them. The
+     * expression is sent as is if there is no interner.
+     */
+    private static JsonValue encodeExpression(String expression,
+            ExpressionInterner interner) {
+        if (interner == null) {
+            return Json.create(expression);
+        }
+        return interner.encode(expression);
+    }
+
     /**
      * Encodes the state tree changes of the given UI. The executions registered
      * at
@@ -379,31 +421,78 @@ public class UidlWriter implements Serializable {
      *
      * @param ui
      *            the UI
-     * @param stateChanges
-     *            a JSON array to put state changes into
+     * @param batch
+     *            whether to rewrite the encoded changes to a more compact form
+     *            using {@link ChangeBatcher}
+     * @return a JSON array with the state changes
      * @see StateTree#runExecutionsBeforeClientResponse()
      */
-    private void encodeChanges(UI ui, JsonArray stateChanges) {
+    private JsonArray encodeChanges(UI ui, boolean batch) {
         UIInternals uiInternals = ui.getInternals();
         StateTree stateTree = uiInternals.getStateTree();
+        FlowMetrics metrics = FlowMetrics.get(ui.getSession().getService());
+        boolean measure = metrics.isEnabled();
+        long start = measure ? System.nanoTime() : 0;
 
         stateTree.runExecutionsBeforeClientResponse();
 
+        if (measure) {
+            start = recordPhase(metrics, UidlPhase.BEFORE_CLIENT_RESPONSE,
+                    start);
+        }
+
         Set<Class<? extends Component>> componentsWithDependencies = new LinkedHashSet<>();
+        List<NodeChange> changes = new ArrayList<>();
         stateTree.collectChanges(change -> {
             if (attachesComponent(change)) {
                 ComponentMapping.getComponent(change.getNode())
                         .ifPresent(component -> addComponentHierarchy(ui,
                                 componentsWithDependencies, component));
             }
-
-            // Encode the actual change
-            stateChanges.set(stateChanges.length(),
-                    change.toJson(uiInternals.getConstantPool()));
+            changes.add(change);
         });
 
         componentsWithDependencies
                 .forEach(uiInternals::addComponentDependencies);
+
+        if (measure) {
+            start = recordPhase(metrics, UidlPhase.COLLECT_CHANGES, start);
+            metrics.recordDirtyNodes(countNodes(changes));
+        }
+
+        // Encode the actual changes
+        JsonArray encoded = Json.createArray();
+        ConstantPool constantPool = uiInternals.getConstantPool();
+        for (NodeChange change : changes) {
+            encoded.set(encoded.length(), change.toJson(constantPool));
+        }
+        if (batch) {
+            encoded = ChangeBatcher.batch(encoded);
+        }
+        if (measure) {
+            recordPhase(metrics, UidlPhase.ENCODE, start);
+        }
+        return encoded;
+    }
+
+    private static long recordPhase(FlowMetrics metrics, UidlPhase phase,
+            long start) {
+        long end = System.nanoTime();
+        metrics.recordUidlPhase(phase, end - start);
+        return end;
+    }
+
+    private static int countNodes(List<NodeChange> changes) {
+        // The changes of a node are collected one after another
+        int count = 0;
+        StateNode previous = null;
+        for (NodeChange change : changes) {
+            if (change.getNode() != previous) {
+                previous = change.getNode();
+                count++;
+            }
+        }
+        return count;
     }
 
     private static boolean attachesComponent(NodeChange change) {
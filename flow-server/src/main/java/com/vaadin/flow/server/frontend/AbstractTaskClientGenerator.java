@@ -18,6 +18,8 @@ package com.vaadin.flow.server.frontend;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
@@ -111,4 +113,17 @@ public abstract class AbstractTaskClientGenerator implements FallibleCommand {
         }
         return FileUtils.readFileToString(generatedFile, UTF_8);
     }
+
+    /**
+     * Creates the file dependencies of a generator which reads the given files
+     * and writes the generated file.
+     *
+     * @param inputs
+     *            the files read by the generator
+     * @return the file dependencies
+     */
+    FileDependencies generatorFiles(File... inputs) {
+        return new FileDependencies(Arrays.asList(inputs),
+                Collections.singletonList(getGeneratedFile()));
+    }
 }
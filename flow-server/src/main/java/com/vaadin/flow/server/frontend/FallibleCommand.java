@@ -40,4 +40,17 @@ public interface FallibleCommand {
      *             if there is an execution error
      */
     void execute() throws ExecutionFailedException;
+
+    /**
+     * Gets the files and directories this command reads and writes.
+     * <p>
+     * Commands which do not declare their files are run on their own: after
+     * all the preceding commands have completed and before any of the
+     * following commands are started.
+     *
+     * @return the files of the command, or {@code null} if they are not known
+     */
+    default FileDependencies getFileDependencies() {
+        return null;
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend;
+
+import java.io.File;
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * The files and directories a {@link FallibleCommand} reads and writes.
+ * <p>
+ * {@link NodeTasks} runs commands whose files do not overlap concurrently. A
+ * command which is {@link #isSkippable() skippable} is not run at all if its
+ * files have not changed since the previous successful run.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class FileDependencies implements Serializable {
+
+    private final List<File> inputs;
+    private final List<File> outputs;
+    private boolean skippable;
+
+    /**
+     * Creates a new instance with the given files. A directory covers all the
+     * files in it. {@code null} files are ignored.
+     *
+     * @param inputs
+     *            the files and directories read by the command, not
+     *            {@code null}
+     * @param outputs
+     *            the files and directories written by the command, not
+     *            {@code null}
+     */
+    public FileDependencies(Collection<File> inputs,
+            Collection<File> outputs) {
+        this.inputs = normalize(inputs);
+        this.outputs = normalize(outputs);
+    }
+
+    /**
+     * Marks the command as skippable. A skippable command only depends on the
+     * contents of its inputs, and writing its outputs again without any
+     * changes in the inputs has no effect.
+     *
+     * @return this instance
+     */
+    public FileDependencies skippable() {
+        skippable = true;
+        return this;
+    }
+
+    /**
+     * Checks whether the command can be skipped if its files have not changed
+     * since the previous run.
+     *
+     * @return {@code true} if the command can be skipped, {@code false}
+     *         otherwise
+     */
+    public boolean isSkippable() {
+        return skippable;
+    }
+
+    /**
+     * Gets the files and directories read by the command.
+     *
+     * @return the absolute input files, not {@code null}
+     */
+    public List<File> getInputs() {
+        return inputs;
+    }
+
+    /**
+     * Gets the files and directories written by the command.
+     *
+     * @return the absolute output files, not {@code null}
+     */
+    public List<File> getOutputs() {
+        return outputs;
+    }
+
+    /**
+     * Checks whether a command with these files must not run concurrently
+     * with a command with the given files, i.e. whether either one writes a
+     * file which the other one reads or writes.
+     *
+     * @param other
+     *            the files of the other command, not {@code null}
+     * @return {@code true} if the commands must be run one after the other,
+     *         {@code false} if they may run concurrently
+     */
+    public boolean conflictsWith(FileDependencies other) {
+        return overlaps(outputs, other.inputs)
+                || overlaps(outputs, other.outputs)
+                || overlaps(other.outputs, inputs);
+    }
+
+    private static boolean overlaps(List<File> files1, List<File> files2) {
+        for (File file1 : files1) {
+            Path path1 = file1.toPath();
+            for (File file2 : files2) {
+                Path path2 = file2.toPath();
+                if (path1.startsWith(path2) || path2.startsWith(path1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<File> normalize(Collection<File> files) {
+        return Collections.unmodifiableList(files.stream()
+                .filter(Objects::nonNull)
+                .map(file -> file.toPath().toAbsolutePath().normalize()
+                        .toFile())
+                .collect(Collectors.toList()));
+    }
+}
@@ -21,6 +21,9 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
@@ -243,6 +246,8 @@ public class JarContentsManager {
      * @param wildcardPathInclusions
      *            wildcard inclusions that are used to check each path against
      *            before copying
+     * @return the paths of the files from the jar, relative to the output
+     *         directory, including the files which were already up to date
      * @throws IllegalArgumentException
      *             if jar file specified is not a file or does not exist or if
      *             output directory is not a directory or does not exist
@@ -252,7 +257,7 @@ public class JarContentsManager {
      *             if {@link IOException} occurs during the operation, for
      *             instance, when jar file specified is not a jar file
      */
-    public void copyIncludedFilesFromJarTrimmingBasePath(File jar,
+    public List<String> copyIncludedFilesFromJarTrimmingBasePath(File jar,
             String jarDirectoryToCopyFrom, File outputDirectory,
             String... wildcardPathInclusions) {
         requireFileExistence(jar);
@@ -266,12 +271,13 @@ public class JarContentsManager {
         String basePath = normalizeJarBasePath(jarDirectoryToCopyFrom);
 
         try (JarFile jarFile = new JarFile(jar, false)) {
-            jarFile.stream().filter(file -> !file.isDirectory())
+            return jarFile.stream().filter(file -> !file.isDirectory())
                     .filter(file -> file.getName().toLowerCase(Locale.ENGLISH)
                             .startsWith(basePath.toLowerCase(Locale.ENGLISH)))
                     .filter(file -> includeFile(file, wildcardPathInclusions))
-                    .forEach(jarEntry -> copyJarEntryTrimmingBasePath(jarFile,
-                            jarEntry, basePath, outputDirectory));
+                    .map(jarEntry -> copyJarEntryTrimmingBasePath(jarFile,
+                            jarEntry, basePath, outputDirectory))
+                    .collect(Collectors.toList());
         } catch (IOException e) {
             throw new UncheckedIOException(String.format(
                     "Failed to extract files from jarFile '%s' to directory '%s'",
@@ -300,7 +306,7 @@ public class JarContentsManager {
                 .wildcardMatch(filePath, inclusionRule));
     }
 
-    private void copyJarEntryTrimmingBasePath(JarFile jarFile,
+    private String copyJarEntryTrimmingBasePath(JarFile jarFile,
             ZipEntry jarEntry, String basePath, File outputDirectory) {
         String fullPath = jarEntry.getName();
         String relativePath = fullPath
@@ -309,17 +315,37 @@ public class JarContentsManager {
                         + basePath.length());
         File target = new File(outputDirectory, relativePath);
         try {
-            if (!target.exists()
+            // The size is usually known, which avoids comparing the contents
+            // of files which have obviously changed
+            boolean sameSize = jarEntry.getSize() < 0
+                    || jarEntry.getSize() == target.length();
+            if (!target.exists() || !sameSize
                     || !hasSameContent(jarFile.getInputStream(jarEntry),
                             target)) {
-                FileUtils.copyInputStreamToFile(
-                        jarFile.getInputStream(jarEntry), target);
+                copyToFile(jarFile.getInputStream(jarEntry), target);
             }
         } catch (IOException e) {
             throw new UncheckedIOException(String.format(
                     "Failed to extract jar entry '%s' from jarFile", jarEntry),
                     e);
         }
+        return relativePath;
+    }
+
+    private void copyToFile(InputStream content, File target)
+            throws IOException {
+        // Several jars may contain the same file and be extracted
+        // concurrently, so never leave a partially written file behind
+        FileUtils.forceMkdirParent(target);
+        Path temporary = new File(target.getParentFile(), target.getName()
+                + "." + Thread.currentThread().getId() + ".tmp").toPath();
+        try (InputStream stream = content) {
+            Files.copy(stream, temporary, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temporary, target.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
     }
 
     private boolean hasSameContent(InputStream jarContent, File existingContent)
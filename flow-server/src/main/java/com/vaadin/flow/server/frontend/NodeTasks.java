@@ -17,17 +17,29 @@
 package com.vaadin.flow.server.frontend;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.net.URI;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.vaadin.experimental.FeatureFlags;
 import com.vaadin.flow.di.Lookup;
 import com.vaadin.flow.server.Constants;
@@ -49,6 +61,13 @@ import static com.vaadin.flow.server.frontend.FrontendUtils.PARAM_GENERATED_DIR;
  * An executor that it's run when the servlet context is initialised in dev-mode
  * or when flow-maven-plugin goals are run. It can chain a set of task to run.
  * <p>
+ * The tasks are run in a predefined order. Tasks which declare their
+ * {@link FileDependencies} are run in a fork-join pool, concurrently with the
+ * other declared tasks whose files do not overlap with theirs, and skippable
+ * tasks are not run at all if their files have not changed since the previous
+ * run. Tasks which do not declare their files are run alone in the calling
+ * thread.
+ * <p>
  * For internal use only. May be renamed or removed in a future release.
  *
  * @since 2.0
@@ -112,6 +131,8 @@ public class NodeTasks implements FallibleCommand {
 
         private boolean copyTemplates = false;
 
+        private boolean generatePwaIcons = false;
+
         /**
          * Directory for npm and folders and files.
          */
@@ -158,6 +179,11 @@ public class NodeTasks implements FallibleCommand {
          */
         private File javaResourceFolder;
 
+        /**
+         * The source folder of the web application content.
+         */
+        private File webappSourceFolder;
+
         /**
          * Additional npm packages to run postinstall for.
          */
@@ -361,6 +387,35 @@ public class NodeTasks implements FallibleCommand {
             return this;
         }
 
+        /**
+         * Sets whether to render the PWA icons to
+         * {@code META-INF/VAADIN/config/pwa-icons}, so that they do not need
+         * to be rendered at runtime.
+         *
+         * @param generatePwaIcons
+         *            whether to render the PWA icons
+         *
+         * @return the builder
+         */
+        public Builder generatePwaIcons(boolean generatePwaIcons) {
+            this.generatePwaIcons = generatePwaIcons;
+            return this;
+        }
+
+        /**
+         * Sets the source folder of the web application content, where the
+         * PWA logo is looked up when rendering the PWA icons. Defaults to
+         * {@code src/main/webapp} in the npm folder.
+         *
+         * @param webappSourceFolder
+         *            the web application source folder
+         * @return this builder
+         */
+        public Builder setWebappSourceFolder(File webappSourceFolder) {
+            this.webappSourceFolder = webappSourceFolder;
+            return this;
+        }
+
         /**
          * Sets whether to collect and package
          * {@link com.vaadin.flow.component.WebComponentExporter} dependencies.
@@ -726,13 +781,21 @@ public class NodeTasks implements FallibleCommand {
             TaskUpdateVite.class,
             TaskUpdateImports.class,
             TaskUpdateThemeImport.class,
-            TaskCopyTemplateFiles.class
+            TaskCopyTemplateFiles.class,
+            TaskGeneratePwaIcons.class
         ));
     // @formatter:on
 
+    private static final String TASK_FINGERPRINTS_FILE = "frontend-task-fingerprints.json";
+
     private final List<FallibleCommand> commands = new ArrayList<>();
 
+    private final File fingerprintsFile;
+
     private NodeTasks(Builder builder) {
+        fingerprintsFile = new File(
+                new File(builder.npmFolder, builder.buildDirectory),
+                TASK_FINGERPRINTS_FILE);
 
         ClassFinder classFinder = new ClassFinder.CachedClassFinder(
                 builder.classFinder);
@@ -834,7 +897,8 @@ public class NodeTasks implements FallibleCommand {
 
         if (builder.jarFiles != null && builder.flowResourcesFolder != null) {
             commands.add(new TaskCopyFrontendFiles(builder.flowResourcesFolder,
-                    builder.jarFiles));
+                    builder.jarFiles,
+                    new File(builder.npmFolder, builder.buildDirectory)));
         }
 
         if (builder.localResourcesFolder != null
@@ -891,6 +955,30 @@ public class NodeTasks implements FallibleCommand {
                     builder.npmFolder, builder.resourceOutputDirectory,
                     builder.frontendDirectory));
         }
+
+        if (builder.generatePwaIcons && frontendDependencies != null
+                && builder.resourceOutputDirectory != null
+                && frontendDependencies.getPwaConfiguration().isEnabled()) {
+            commands.add(new TaskGeneratePwaIcons(classFinder,
+                    getPwaLogoDirectories(builder),
+                    builder.resourceOutputDirectory,
+                    frontendDependencies.getPwaConfiguration()));
+        }
+    }
+
+    private static List<File> getPwaLogoDirectories(Builder builder) {
+        // Same locations as the servlet context and the class path fallback
+        // of PwaRegistry at runtime
+        List<File> directories = new ArrayList<>();
+        directories.add(builder.webappSourceFolder != null
+                ? builder.webappSourceFolder
+                : new File(builder.npmFolder, "src/main/webapp"));
+        if (builder.javaResourceFolder != null) {
+            for (String path : TaskGeneratePwaIcons.CLASS_PATH_LOCATIONS) {
+                directories.add(new File(builder.javaResourceFolder, path));
+            }
+        }
+        return directories;
     }
 
     private void addBootstrapTasks(Builder builder) {
@@ -973,9 +1061,120 @@ public class NodeTasks implements FallibleCommand {
     public void execute() throws ExecutionFailedException {
         sortCommands(commands);
 
-        for (FallibleCommand command : commands) {
-            command.execute();
+        List<FileDependencies> declaredFiles = commands.stream()
+                .map(FallibleCommand::getFileDependencies)
+                .collect(Collectors.toList());
+        TaskFingerprints fingerprints = declaredFiles.stream()
+                .anyMatch(files -> files != null && files.isSkippable())
+                        ? new TaskFingerprints(fingerprintsFile)
+                        : null;
+
+        // The declared commands started after the latest undeclared command
+        Map<FileDependencies, CompletableFuture<Void>> running = new LinkedHashMap<>();
+        ForkJoinPool pool = null;
+        try {
+            for (int i = 0; i < commands.size(); i++) {
+                FallibleCommand command = commands.get(i);
+                FileDependencies files = declaredFiles.get(i);
+                if (files == null) {
+                    awaitAll(running.values());
+                    running.clear();
+                    command.execute();
+                    continue;
+                }
+                if (pool == null) {
+                    pool = createPool();
+                }
+                CompletableFuture<?>[] dependencies = running.entrySet()
+                        .stream()
+                        .filter(entry -> entry.getKey().conflictsWith(files))
+                        .map(Map.Entry::getValue)
+                        .toArray(CompletableFuture[]::new);
+                running.put(files, CompletableFuture.allOf(dependencies)
+                        .thenRunAsync(() -> runCommand(command, files,
+                                fingerprints), pool));
+            }
+            awaitAll(running.values());
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        if (fingerprints != null) {
+            try {
+                fingerprints.save();
+            } catch (IOException e) {
+                log().debug("Unable to save the task fingerprints to '{}'",
+                        fingerprintsFile, e);
+            }
+        }
+    }
+
+    private static void runCommand(FallibleCommand command,
+            FileDependencies files, TaskFingerprints fingerprints) {
+        boolean fingerprinted = fingerprints != null && files.isSkippable();
+        // The fingerprint also covers the outputs, so changes made by the
+        // preceding commands in this run prevent skipping the command
+        if (fingerprinted && fingerprints.isUnchanged(command, files)) {
+            log().debug("Skipping {}, its files have not changed",
+                    command.getClass().getSimpleName());
+        } else {
+            try {
+                command.execute();
+            } catch (ExecutionFailedException e) {
+                throw new CompletionException(e);
+            }
         }
+        if (fingerprinted) {
+            // Recorded right away, as the following commands in this run
+            // have not been run either when the fingerprint is compared in
+            // the next run
+            fingerprints.update(command, files);
+        }
+    }
+
+    private static void awaitAll(Collection<CompletableFuture<Void>> futures)
+            throws ExecutionFailedException {
+        Throwable failure = null;
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        if (failure instanceof ExecutionFailedException) {
+            throw (ExecutionFailedException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new ExecutionFailedException(failure);
+        }
+    }
+
+    private static ForkJoinPool createPool() {
+        // Tasks may load resources through the context class loader
+        ClassLoader contextClassLoader = Thread.currentThread()
+                .getContextClassLoader();
+        // The tasks mostly do file IO, so overlap them even on a single CPU
+        int parallelism = Math.max(2,
+                Runtime.getRuntime().availableProcessors());
+        return new ForkJoinPool(parallelism,
+                forkJoinPool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory
+                            .newThread(forkJoinPool);
+                    thread.setContextClassLoader(contextClassLoader);
+                    return thread;
+                }, null, false);
+    }
+
+    private static Logger log() {
+        return LoggerFactory.getLogger(NodeTasks.class);
     }
 
     /**
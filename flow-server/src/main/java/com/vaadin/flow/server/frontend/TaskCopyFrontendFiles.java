@@ -16,20 +16,51 @@
 package com.vaadin.flow.server.frontend;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.vaadin.flow.internal.JsonUtils;
+
+import elemental.json.Json;
+import elemental.json.JsonException;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+import elemental.json.impl.JsonUtil;
+
 import static com.vaadin.flow.server.Constants.COMPATIBILITY_RESOURCES_FRONTEND_DEFAULT;
 import static com.vaadin.flow.server.Constants.RESOURCES_FRONTEND_DEFAULT;
 import static com.vaadin.flow.server.Constants.RESOURCES_JAR_DEFAULT;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Copies JavaScript and CSS files from JAR files into a given folder.
  * <p>
+ * When a build directory is given, the size, modification time and content
+ * hash of each JAR file, and the size and modification time of the files
+ * copied from it, are recorded in a manifest. JAR files which have not changed
+ * since the previous run, and whose copied files are still unchanged in the
+ * target folder, are not opened again. The other ones are extracted in
+ * parallel, and the files no longer provided by any JAR file are removed.
+ * <p>
  * For internal use only. May be renamed or removed in a future release.
  *
  * @since 2.0
@@ -39,8 +70,19 @@ public class TaskCopyFrontendFiles implements FallibleCommand {
             "**/*.js", "**/*.js.map", "**/*.css", "**/*.css.map", "**/*.ts",
             "**/*.ts.map", "**/*.tsx", "**/*.tsx.map" };
     private static final String WILDCARD_INCLUSION_APP_THEME_JAR = "**/themes/**/*";
+
+    static final String MANIFEST_FILE = "frontend-jar-manifest.json";
+
+    private static final String TARGET = "target";
+    private static final String JARS = "jars";
+    private static final String SIZE = "size";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String HASH = "hash";
+    private static final String FILES = "files";
+
     private File targetDirectory;
     private Set<File> resourceLocations = null;
+    private final File manifestFile;
 
     /**
      * Scans the jar files given defined by {@code resourcesToScan}.
@@ -51,6 +93,23 @@ public class TaskCopyFrontendFiles implements FallibleCommand {
      *            folders and jar files to scan.
      */
     TaskCopyFrontendFiles(File targetDirectory, Set<File> resourcesToScan) {
+        this(targetDirectory, resourcesToScan, null);
+    }
+
+    /**
+     * Scans the jar files given defined by {@code resourcesToScan}, skipping
+     * the jar files which have not changed since the previous run.
+     *
+     * @param targetDirectory
+     *            target directory for the discovered files
+     * @param resourcesToScan
+     *            folders and jar files to scan.
+     * @param buildDirectory
+     *            the directory to keep the manifest of the copied files in,
+     *            or {@code null} to always scan all the jar files
+     */
+    TaskCopyFrontendFiles(File targetDirectory, Set<File> resourcesToScan,
+            File buildDirectory) {
         Objects.requireNonNull(targetDirectory,
                 "Parameter 'targetDirectory' must not be " + "null");
         Objects.requireNonNull(resourcesToScan,
@@ -58,6 +117,8 @@ public class TaskCopyFrontendFiles implements FallibleCommand {
         this.targetDirectory = targetDirectory;
         resourceLocations = resourcesToScan.stream().filter(File::exists)
                 .collect(Collectors.toSet());
+        manifestFile = buildDirectory == null ? null
+                : new File(buildDirectory, MANIFEST_FILE);
     }
 
     @Override
@@ -65,7 +126,10 @@ public class TaskCopyFrontendFiles implements FallibleCommand {
         long start = System.nanoTime();
         log().info("Copying frontend resources from jar files ...");
         TaskCopyLocalFrontendFiles.createTargetFolder(targetDirectory);
-        JarContentsManager jarContentsManager = new JarContentsManager();
+
+        JsonObject previousJars = loadManifest();
+        JsonObject jars = Json.createObject();
+        List<File> changedJars = new ArrayList<>();
         for (File location : resourceLocations) {
             if (location.isDirectory()) {
                 TaskCopyLocalFrontendFiles.copyLocalResources(
@@ -76,23 +140,223 @@ public class TaskCopyFrontendFiles implements FallibleCommand {
                                 COMPATIBILITY_RESOURCES_FRONTEND_DEFAULT),
                         targetDirectory);
             } else {
-                jarContentsManager.copyIncludedFilesFromJarTrimmingBasePath(
-                        location, RESOURCES_FRONTEND_DEFAULT, targetDirectory,
-                        WILDCARD_INCLUSIONS);
-                jarContentsManager.copyIncludedFilesFromJarTrimmingBasePath(
-                        location, COMPATIBILITY_RESOURCES_FRONTEND_DEFAULT,
-                        targetDirectory, WILDCARD_INCLUSIONS);
-                jarContentsManager.copyIncludedFilesFromJarTrimmingBasePath(
-                        location, RESOURCES_JAR_DEFAULT, targetDirectory,
-                        WILDCARD_INCLUSION_APP_THEME_JAR);
+                JsonObject unchanged = getUnchangedEntry(location,
+                        previousJars);
+                if (unchanged != null) {
+                    jars.put(location.getAbsolutePath(), unchanged);
+                } else {
+                    changedJars.add(location);
+                }
             }
         }
+
+        JarContentsManager jarContentsManager = createJarContentsManager();
+        Map<File, JsonObject> extracted = changedJars.parallelStream()
+                .collect(Collectors.toMap(Function.identity(),
+                        jar -> extract(jarContentsManager, jar)));
+        // The files are recorded once all jars have been extracted, since
+        // several jars may provide the same file
+        extracted.forEach((jar, entry) -> {
+            JsonObject files = entry.getObject(FILES);
+            for (String file : files.keys()) {
+                files.put(file, getFileInfo(new File(targetDirectory, file)));
+            }
+            jars.put(jar.getAbsolutePath(), entry);
+        });
+
+        removeStaleFiles(previousJars, jars);
+        saveManifest(jars);
+
         long ms = (System.nanoTime() - start) / 1000000;
-        log().info("Visited {} resources. Took {} ms.",
-                resourceLocations.size(), ms);
+        log().info("Visited {} resources, extracted {} changed jar files. "
+                + "Took {} ms.", resourceLocations.size(), changedJars.size(),
+                ms);
+    }
+
+    private JsonObject extract(JarContentsManager jarContents, File jar) {
+        Set<String> files = new LinkedHashSet<>();
+        files.addAll(jarContents.copyIncludedFilesFromJarTrimmingBasePath(
+                jar, RESOURCES_FRONTEND_DEFAULT, targetDirectory,
+                WILDCARD_INCLUSIONS));
+        files.addAll(jarContents.copyIncludedFilesFromJarTrimmingBasePath(
+                jar, COMPATIBILITY_RESOURCES_FRONTEND_DEFAULT, targetDirectory,
+                WILDCARD_INCLUSIONS));
+        files.addAll(jarContents.copyIncludedFilesFromJarTrimmingBasePath(
+                jar, RESOURCES_JAR_DEFAULT, targetDirectory,
+                WILDCARD_INCLUSION_APP_THEME_JAR));
+
+        JsonObject entry = Json.createObject();
+        entry.put(SIZE, jar.length());
+        entry.put(LAST_MODIFIED, jar.lastModified());
+        entry.put(HASH, manifestFile == null ? "" : hash(jar));
+        JsonObject fileObject = Json.createObject();
+        files.forEach(file -> fileObject.put(file, Json.createNull()));
+        entry.put(FILES, fileObject);
+        return entry;
+    }
+
+    /**
+     * Creates the manager used for extracting the changed jar files.
+     *
+     * @return the jar contents manager
+     */
+    JarContentsManager createJarContentsManager() {
+        return new JarContentsManager();
+    }
+
+    private static JsonObject getFileInfo(File file) {
+        JsonObject info = Json.createObject();
+        info.put(SIZE, file.length());
+        info.put(LAST_MODIFIED, file.lastModified());
+        return info;
+    }
+
+    private JsonObject getUnchangedEntry(File jar, JsonObject previousJars) {
+        String key = jar.getAbsolutePath();
+        if (!previousJars.hasKey(key)
+                || previousJars.get(key).getType() != JsonType.OBJECT) {
+            return null;
+        }
+        JsonObject entry = previousJars.getObject(key);
+        if (!isNumber(entry, SIZE) || !isNumber(entry, LAST_MODIFIED)
+                || !isString(entry, HASH) || !isObject(entry, FILES)
+                || (long) entry.getNumber(SIZE) != jar.length()) {
+            return null;
+        }
+        // A rebuilt or downloaded again jar usually has the same contents
+        // with a new modification time
+        if ((long) entry.getNumber(LAST_MODIFIED) != jar.lastModified()) {
+            if (!entry.getString(HASH).equals(hash(jar))) {
+                return null;
+            }
+            entry.put(LAST_MODIFIED, jar.lastModified());
+        }
+        // The copied files may have been removed, e.g. by cleaning the target
+        // directory, or edited
+        JsonObject files = entry.getObject(FILES);
+        for (String file : files.keys()) {
+            File target = new File(targetDirectory, file);
+            if (files.get(file).getType() != JsonType.OBJECT
+                    || !target.isFile() || !JsonUtils.jsonEquals(
+                            files.getObject(file), getFileInfo(target))) {
+                return null;
+            }
+        }
+        return entry;
+    }
+
+    private void removeStaleFiles(JsonObject previousJars, JsonObject jars) {
+        Set<String> stale = new HashSet<>();
+        for (String key : previousJars.keys()) {
+            if (previousJars.get(key).getType() == JsonType.OBJECT
+                    && isObject(previousJars.getObject(key), FILES)) {
+                stale.addAll(getFiles(previousJars.getObject(key)));
+            }
+        }
+        for (String key : jars.keys()) {
+            stale.removeAll(getFiles(jars.getObject(key)));
+        }
+        for (String file : stale) {
+            if (!isInResourceFolder(file)) {
+                log().debug("Removing '{}', no longer provided by any jar",
+                        file);
+                FileUtils.deleteQuietly(new File(targetDirectory, file));
+            }
+        }
+    }
+
+    private boolean isInResourceFolder(String file) {
+        return resourceLocations.stream().filter(File::isDirectory)
+                .anyMatch(location -> new File(
+                        new File(location, RESOURCES_FRONTEND_DEFAULT), file)
+                                .exists()
+                        || new File(new File(location,
+                                COMPATIBILITY_RESOURCES_FRONTEND_DEFAULT),
+                                file).exists());
+    }
+
+    private JsonObject loadManifest() {
+        if (manifestFile == null || !manifestFile.isFile()) {
+            return Json.createObject();
+        }
+        try {
+            JsonObject manifest = Json.parse(
+                    FileUtils.readFileToString(manifestFile, UTF_8));
+            // The files are relative to the target directory
+            if (isString(manifest, TARGET)
+                    && manifest.getString(TARGET)
+                            .equals(targetDirectory.getAbsolutePath())
+                    && manifest.hasKey(JARS)
+                    && manifest.get(JARS).getType() == JsonType.OBJECT) {
+                return manifest.getObject(JARS);
+            }
+        } catch (IOException | JsonException e) {
+            log().debug("Unable to read the jar manifest '{}'", manifestFile,
+                    e);
+        }
+        return Json.createObject();
+    }
+
+    private void saveManifest(JsonObject jars) {
+        if (manifestFile == null) {
+            return;
+        }
+        JsonObject manifest = Json.createObject();
+        manifest.put(TARGET, targetDirectory.getAbsolutePath());
+        manifest.put(JARS, jars);
+        try {
+            FileUtils.forceMkdirParent(manifestFile);
+            FileUtils.write(manifestFile, JsonUtil.stringify(manifest, 2),
+                    UTF_8);
+        } catch (IOException e) {
+            log().debug("Unable to write the jar manifest '{}'", manifestFile,
+                    e);
+        }
+    }
+
+    private static List<String> getFiles(JsonObject entry) {
+        return Arrays.asList(entry.getObject(FILES).keys());
+    }
+
+    private static String hash(File jar) {
+        try (InputStream stream = Files.newInputStream(jar.toPath())) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isNumber(JsonObject object, String key) {
+        return object.hasKey(key)
+                && object.get(key).getType() == JsonType.NUMBER;
+    }
+
+    private static boolean isString(JsonObject object, String key) {
+        return object.hasKey(key)
+                && object.get(key).getType() == JsonType.STRING;
+    }
+
+    private static boolean isObject(JsonObject object, String key) {
+        return object.hasKey(key)
+                && object.get(key).getType() == JsonType.OBJECT;
     }
 
     private Logger log() {
         return LoggerFactory.getLogger(this.getClass());
     }
+
+    @Override
+    public FileDependencies getFileDependencies() {
+        // The manifest is null when copying without a build directory
+        return new FileDependencies(resourceLocations,
+                Arrays.asList(targetDirectory, manifestFile));
+    }
 }
@@ -21,7 +21,10 @@ import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.commons.io.FileUtils;
@@ -102,4 +105,34 @@ public class TaskCopyLocalFrontendFiles implements FallibleCommand {
     private static Logger log() {
         return LoggerFactory.getLogger(TaskCopyLocalFrontendFiles.class);
     }
+
+    @Override
+    public FileDependencies getFileDependencies() {
+        // Only copies files, so there is nothing to do if neither the local
+        // resources nor the copied files have changed. The other files in the
+        // target folder are written by other commands and are not declared,
+        // so that changes to them do not prevent skipping this command.
+        return new FileDependencies(
+                Collections.singletonList(localResourcesFolder),
+                getCopiedFiles()).skippable();
+    }
+
+    private List<File> getCopiedFiles() {
+        if (localResourcesFolder == null
+                || !localResourcesFolder.isDirectory()) {
+            return Collections.emptyList();
+        }
+        Path source = localResourcesFolder.toPath();
+        Path target = flowResourcesFolder.toPath();
+        try (Stream<Path> fileStream = Files.walk(source)) {
+            return fileStream.filter(Files::isRegularFile)
+                    .map(file -> target.resolve(source.relativize(file))
+                            .toFile())
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format(
+                    "Failed to list project frontend resources in '%s'",
+                    source), e);
+        }
+    }
 }
@@ -17,25 +17,37 @@ package com.vaadin.flow.server.frontend;
 
 import java.io.File;
 import java.io.IOException;
-
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashSet;
 import java.util.Set;
 
 import org.apache.commons.io.FileUtils;
+import org.jsoup.nodes.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+
 import com.vaadin.flow.component.dependency.JsModule;
+import com.vaadin.flow.component.template.internal.TemplateIdIndex;
 import com.vaadin.flow.internal.Template;
 import com.vaadin.flow.server.Constants;
 import com.vaadin.flow.server.ExecutionFailedException;
 import com.vaadin.flow.server.frontend.scanner.ClassFinder;
 
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import elemental.json.impl.JsonUtil;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * Copies template files to the target folder so as to be available for parsing
  * at runtime in production mode.
  * <p>
+ * Also writes an index of the elements with an id in Lit templates to
+ * {@link Constants#TEMPLATE_ID_INDEX}, so that the template sources do not need
+ * to be parsed at runtime.
+ * <p>
  * For internal use only. May be renamed or removed in a future release.
  */
 public class TaskCopyTemplateFiles implements FallibleCommand {
@@ -66,6 +78,7 @@ public class TaskCopyTemplateFiles implements FallibleCommand {
             throw new ExecutionFailedException(e);
         }
 
+        JsonObject templateIndex = Json.createObject();
         for (Class<?> clazz : classes) {
             for (Annotation jsmAnnotation : clazz
                     .getAnnotationsByType(jsModuleAnnotationClass)) {
@@ -82,11 +95,43 @@ public class TaskCopyTemplateFiles implements FallibleCommand {
                 target.mkdirs();
                 try {
                     FileUtils.copyFileToDirectory(source, target);
+                    indexTemplate(templateIndex, path, source);
                 } catch (IOException e) {
                     throw new ExecutionFailedException(e);
                 }
             }
         }
+        writeTemplateIndex(templateIndex);
+    }
+
+    private void indexTemplate(JsonObject templateIndex, String path,
+            File source) throws IOException {
+        String key = TemplateIdIndex.getKey(path);
+        if (templateIndex.hasKey(key)) {
+            return;
+        }
+        Element templateElement = TemplateIdIndex
+                .parseLitTemplate(FileUtils.readFileToString(source, UTF_8));
+        if (templateElement == null) {
+            // Not a Lit template, parsed from the sources at runtime
+            log().debug("No Lit template found in '{}', skipping indexing",
+                    path);
+            return;
+        }
+        templateIndex.put(key, TemplateIdIndex.collectIds(templateElement));
+    }
+
+    private void writeTemplateIndex(JsonObject templateIndex)
+            throws ExecutionFailedException {
+        File indexFile = new File(resourceOutputDirectory,
+                Constants.TEMPLATE_ID_INDEX);
+        try {
+            FileUtils.forceMkdirParent(indexFile);
+            FileUtils.write(indexFile, JsonUtil.stringify(templateIndex, 2),
+                    UTF_8);
+        } catch (IOException e) {
+            throw new ExecutionFailedException(e);
+        }
     }
 
     private String getJsModuleAnnotationValue(Annotation jsmAnnotation)
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.internal.MessageDigestUtil;
+
+import elemental.json.Json;
+import elemental.json.JsonException;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+import elemental.json.impl.JsonUtil;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Fingerprints of the files of the skippable commands run by
+ * {@link NodeTasks}, stored between the runs.
+ * <p>
+ * A fingerprint covers the paths, sizes and modification times of all the
+ * input and output files of a command, so that a command can be skipped if
+ * nothing has changed since the previous successful run.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+class TaskFingerprints {
+
+    private final File file;
+    private final JsonObject stored;
+    private final JsonObject updated = Json.createObject();
+
+    /**
+     * Creates a new instance backed by the given file.
+     *
+     * @param file
+     *            the file to read the fingerprints of the previous run from
+     *            and to save the new fingerprints to
+     */
+    TaskFingerprints(File file) {
+        this.file = file;
+        stored = load(file);
+    }
+
+    /**
+     * Checks whether the files of the given command are the same as after the
+     * previous successful run.
+     *
+     * @param command
+     *            the command
+     * @param files
+     *            the files of the command
+     * @return {@code true} if the command can be skipped, {@code false}
+     *         otherwise
+     */
+    boolean isUnchanged(FallibleCommand command, FileDependencies files) {
+        String key = command.getClass().getName();
+        return stored.hasKey(key)
+                && stored.get(key).getType() == JsonType.STRING
+                && stored.getString(key).equals(compute(files));
+    }
+
+    /**
+     * Records the current state of the files of the given command. May be
+     * called concurrently for different commands.
+     *
+     * @param command
+     *            the command
+     * @param files
+     *            the files of the command
+     */
+    void update(FallibleCommand command, FileDependencies files) {
+        String fingerprint = compute(files);
+        synchronized (updated) {
+            updated.put(command.getClass().getName(), fingerprint);
+        }
+    }
+
+    /**
+     * Saves the recorded fingerprints, replacing the ones of the previous run.
+     *
+     * @throws IOException
+     *             if writing the file fails
+     */
+    void save() throws IOException {
+        FileUtils.forceMkdirParent(file);
+        String contents;
+        synchronized (updated) {
+            contents = JsonUtil.stringify(updated, 2);
+        }
+        FileUtils.write(file, contents, UTF_8);
+    }
+
+    private static String compute(FileDependencies files) {
+        StringBuilder state = new StringBuilder();
+        state.append("inputs\n");
+        files.getInputs().forEach(input -> appendState(state, input));
+        state.append("outputs\n");
+        files.getOutputs().forEach(output -> appendState(state, output));
+        return Base64.getEncoder().encodeToString(
+                MessageDigestUtil.sha256(state.toString()));
+    }
+
+    private static void appendState(StringBuilder state, File root) {
+        if (!root.exists()) {
+            state.append(root).append(" -\n");
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root.toPath())) {
+            Iterator<Path> iterator = paths.sorted().iterator();
+            while (iterator.hasNext()) {
+                Path path = iterator.next();
+                BasicFileAttributes attributes = Files.readAttributes(path,
+                        BasicFileAttributes.class);
+                state.append(path);
+                if (attributes.isRegularFile()) {
+                    state.append(' ').append(attributes.size()).append(' ')
+                            .append(attributes.lastModifiedTime().toMillis());
+                }
+                state.append('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static JsonObject load(File file) {
+        if (file.isFile()) {
+            try {
+                return Json.parse(FileUtils.readFileToString(file, UTF_8));
+            } catch (IOException | JsonException e) {
+                getLogger().debug("Unable to read task fingerprints from '{}'",
+                        file, e);
+            }
+        }
+        return Json.createObject();
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(TaskFingerprints.class);
+    }
+}
@@ -102,4 +102,10 @@ public class TaskGenerateBootstrap extends AbstractTaskClientGenerator {
         ThemeDefinition themeDef = frontDeps.getThemeDefinition();
         return themeDef != null && !"".equals(themeDef.getName());
     }
+
+    @Override
+    public FileDependencies getFileDependencies() {
+        return generatorFiles(new File(frontendDirectory, INDEX_TS),
+                new File(frontendDirectory, INDEX_JS));
+    }
 }
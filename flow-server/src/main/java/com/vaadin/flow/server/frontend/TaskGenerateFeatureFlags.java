@@ -71,4 +71,9 @@ public class TaskGenerateFeatureFlags extends AbstractTaskClientGenerator {
     protected boolean shouldGenerate() {
         return true;
     }
+
+    @Override
+    public FileDependencies getFileDependencies() {
+        return generatorFiles();
+    }
 }
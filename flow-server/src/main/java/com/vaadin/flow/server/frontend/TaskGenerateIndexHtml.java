@@ -65,4 +65,9 @@ public class TaskGenerateIndexHtml extends AbstractTaskClientGenerator {
     protected boolean shouldGenerate() {
         return !indexHtml.exists();
     }
+
+    @Override
+    public FileDependencies getFileDependencies() {
+        return generatorFiles(indexHtml);
+    }
 }
@@ -135,4 +135,9 @@ public class TaskGenerateIndexTs extends AbstractTaskClientGenerator {
         }
     }
 
+    @Override
+    public FileDependencies getFileDependencies() {
+        return generatorFiles(new File(frontendDirectory, INDEX_TS),
+                new File(frontendDirectory, INDEX_JS));
+    }
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend;
+
+import javax.imageio.ImageIO;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.server.BootstrapHandler;
+import com.vaadin.flow.server.Constants;
+import com.vaadin.flow.server.ExecutionFailedException;
+import com.vaadin.flow.server.PwaConfiguration;
+import com.vaadin.flow.server.PwaIcon;
+import com.vaadin.flow.server.PwaIconCache;
+import com.vaadin.flow.server.frontend.scanner.ClassFinder;
+
+import elemental.json.Json;
+import elemental.json.JsonException;
+import elemental.json.JsonObject;
+import elemental.json.impl.JsonUtil;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Renders the PWA icons to {@link Constants#PWA_ICONS_DIRECTORY} so that they
+ * do not need to be rendered when the application starts in production mode.
+ * <p>
+ * The logo is looked up from the configured source directories, i.e. the web
+ * application directory and the {@code META-INF/resources} and {@code static}
+ * folders of the Java resources, and then from the same folders in the class
+ * path, in the same way as at runtime.
+ * The icons are only rendered again if the logo or the icon path has changed
+ * since the previous build.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class TaskGeneratePwaIcons implements FallibleCommand {
+
+    /**
+     * The class path folders the logo is looked up from, in lookup order.
+     */
+    static final List<String> CLASS_PATH_LOCATIONS = Collections
+            .unmodifiableList(Arrays.asList("META-INF/resources", "static"));
+
+    private final ClassFinder classFinder;
+    private final List<File> logoDirectories;
+    private final File resourceOutputDirectory;
+    private final PwaConfiguration pwaConfiguration;
+
+    /**
+     * Creates a task for rendering the PWA icons.
+     *
+     * @param classFinder
+     *            the class finder for looking up the logo in the class path
+     * @param logoDirectories
+     *            the source directories to look up the logo from, in lookup
+     *            order
+     * @param resourceOutputDirectory
+     *            the directory to write the icons to
+     * @param pwaConfiguration
+     *            the PWA configuration of the application
+     */
+    TaskGeneratePwaIcons(ClassFinder classFinder, List<File> logoDirectories,
+            File resourceOutputDirectory, PwaConfiguration pwaConfiguration) {
+        this.classFinder = classFinder;
+        this.logoDirectories = logoDirectories;
+        this.resourceOutputDirectory = resourceOutputDirectory;
+        this.pwaConfiguration = pwaConfiguration;
+    }
+
+    @Override
+    public void execute() throws ExecutionFailedException {
+        String iconPath = pwaConfiguration.getIconPath();
+        File indexFile = new File(resourceOutputDirectory,
+                Constants.PWA_ICONS_INDEX);
+        File iconDirectory = new File(resourceOutputDirectory,
+                Constants.PWA_ICONS_DIRECTORY);
+        try {
+            byte[] logo = readLogo(iconPath);
+            if (isUpToDate(indexFile, iconDirectory, iconPath, logo)) {
+                log().debug("PWA icons for '{}' are up to date", iconPath);
+                return;
+            }
+            BufferedImage baseImage = ImageIO
+                    .read(new ByteArrayInputStream(logo));
+            if (baseImage == null) {
+                log().warn("Unable to read the PWA logo '{}', "
+                        + "the icons are rendered at runtime", iconPath);
+                FileUtils.deleteQuietly(indexFile);
+                return;
+            }
+            List<PwaIcon> icons = PwaIconCache.renderIcons(iconPath,
+                    baseImage);
+            FileUtils.forceMkdir(iconDirectory);
+            JsonObject index = PwaIconCache.createIndex(iconPath, logo);
+            for (PwaIcon icon : icons) {
+                File iconFile = new File(iconDirectory,
+                        PwaIconCache.getFileName(icon));
+                try (OutputStream out = Files
+                        .newOutputStream(iconFile.toPath())) {
+                    icon.write(out);
+                }
+                PwaIconCache.addIcon(index, icon);
+            }
+            FileUtils.write(indexFile, JsonUtil.stringify(index, 2), UTF_8);
+            log().debug("Rendered {} PWA icons from '{}'", icons.size(),
+                    iconPath);
+        } catch (IOException e) {
+            throw new ExecutionFailedException(e);
+        }
+    }
+
+    private boolean isUpToDate(File indexFile, File iconDirectory,
+            String iconPath, byte[] logo) throws IOException {
+        if (!indexFile.exists()) {
+            return false;
+        }
+        PwaIconCache cache;
+        try {
+            cache = new PwaIconCache(
+                    Json.parse(FileUtils.readFileToString(indexFile, UTF_8)));
+        } catch (JsonException e) {
+            return false;
+        }
+        if (!cache.isRenderedFrom(iconPath, logo)) {
+            return false;
+        }
+        return PwaIconCache.getIconTemplates(iconPath).stream()
+                .map(cache::getIconFile).allMatch(file -> file != null
+                        && new File(iconDirectory, file).exists());
+    }
+
+    private byte[] readLogo(String iconPath) throws IOException {
+        for (File directory : logoDirectories) {
+            File logo = new File(directory, iconPath);
+            if (logo.isFile()) {
+                return FileUtils.readFileToByteArray(logo);
+            }
+        }
+        URL logo = null;
+        for (String location : CLASS_PATH_LOCATIONS) {
+            logo = classFinder.getResource(location + "/" + iconPath);
+            if (logo != null) {
+                break;
+            }
+        }
+        if (logo == null) {
+            logo = BootstrapHandler.class.getResource("default-logo.png");
+        }
+        try (InputStream stream = logo.openStream()) {
+            return IOUtils.toByteArray(stream);
+        }
+    }
+
+    private Logger log() {
+        return LoggerFactory.getLogger(getClass());
+    }
+}
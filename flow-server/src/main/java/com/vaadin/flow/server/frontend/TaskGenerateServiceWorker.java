@@ -71,4 +71,10 @@ public class TaskGenerateServiceWorker extends AbstractTaskClientGenerator {
                 SERVICE_WORKER_SRC_JS);
         return !serviceWorker.exists() && !serviceWorkerJs.exists();
     }
+
+    @Override
+    public FileDependencies getFileDependencies() {
+        return generatorFiles(new File(frontendDirectory, SERVICE_WORKER_SRC),
+                new File(frontendDirectory, SERVICE_WORKER_SRC_JS));
+    }
 }
@@ -126,4 +126,9 @@ public class TaskGenerateTsConfig extends AbstractTaskClientGenerator {
     protected boolean shouldGenerate() {
         return !new File(npmFolder, TSCONFIG_JSON).exists();
     }
+
+    @Override
+    public FileDependencies getFileDependencies() {
+        return generatorFiles(getGeneratedFile());
+    }
 }
@@ -66,4 +66,10 @@ public class TaskGenerateTsDefinitions extends AbstractTaskClientGenerator {
                 && new File(npmFolder, TaskGenerateTsConfig.TSCONFIG_JSON)
                         .exists();
     }
+
+    @Override
+    public FileDependencies getFileDependencies() {
+        return generatorFiles(getGeneratedFile(),
+                new File(npmFolder, TaskGenerateTsConfig.TSCONFIG_JSON));
+    }
 }
@@ -70,4 +70,8 @@ public class TaskGenerateViteDevMode extends AbstractTaskClientGenerator {
         }
     }
 
+    @Override
+    public FileDependencies getFileDependencies() {
+        return generatorFiles();
+    }
 }
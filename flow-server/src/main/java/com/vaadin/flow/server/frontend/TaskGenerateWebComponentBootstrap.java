@@ -81,4 +81,9 @@ public class TaskGenerateWebComponentBootstrap
     protected boolean shouldGenerate() {
         return true;
     }
+
+    @Override
+    public FileDependencies getFileDependencies() {
+        return generatorFiles();
+    }
 }
@@ -70,4 +70,9 @@ public class TaskGenerateWebComponentHtml extends AbstractTaskClientGenerator {
     protected boolean shouldGenerate() {
         return !webComponentHtml.exists();
     }
+
+    @Override
+    public FileDependencies getFileDependencies() {
+        return generatorFiles(webComponentHtml);
+    }
 }
@@ -39,6 +39,8 @@ import com.vaadin.flow.internal.BrowserLiveReloadAccessor;
 import com.vaadin.flow.internal.DevModeHandlerManager;
 import com.vaadin.flow.internal.ReflectTools;
 import com.vaadin.flow.router.RoutePathProvider;
+import com.vaadin.flow.server.ExecutorFactory;
+import com.vaadin.flow.server.FlowMetrics;
 import com.vaadin.flow.server.StaticFileHandlerFactory;
 import com.vaadin.flow.server.VaadinContext;
 import com.vaadin.flow.server.VaadinServletContext;
@@ -60,7 +62,8 @@ import com.vaadin.flow.server.frontend.TaskGenerateHilla;
         ApplicationConfigurationFactory.class, AbstractLookupInitializer.class,
         AppShellPredicate.class, StaticFileHandlerFactory.class,
         DevModeHandlerManager.class, BrowserLiveReloadAccessor.class,
-        RoutePathProvider.class, TaskGenerateHilla.class })
+        RoutePathProvider.class, TaskGenerateHilla.class,
+        ExecutorFactory.class, FlowMetrics.class })
 public class LookupServletContainerInitializer
         implements ClassLoaderAwareServletContainerInitializer {
 
@@ -38,6 +38,12 @@ public class JsonConstants implements Serializable {
      */
     public static final String CHANGE_NODE = "node";
 
+    /**
+     * Key holding the ids of the nodes affected by a change which is applied
+     * to several nodes. Used instead of {@link #CHANGE_NODE}.
+     */
+    public static final String CHANGE_NODES = "nodes";
+
     /**
      * Key holding the type of a change.
      */
@@ -69,6 +75,11 @@ public class JsonConstants implements Serializable {
      */
     public static final String CHANGE_TYPE_PUT = "put";
 
+    /**
+     * Change type for map put changes of several keys.
+     */
+    public static final String CHANGE_TYPE_PUTS = "puts";
+
     /**
      * Change type for map remove changes.
      */
@@ -124,6 +135,11 @@ public class JsonConstants implements Serializable {
      */
     public static final String CHANGE_PUT_NODE_VALUE = "nodeValue";
 
+    /**
+     * Key holding the values by map key of a put change of several keys.
+     */
+    public static final String CHANGE_PUTS_VALUES = "values";
+
     /**
      * Key holding the type in of messages sent from the client.
      */
@@ -165,6 +181,12 @@ public class JsonConstants implements Serializable {
      */
     public static final String UIDL_KEY_EXECUTE = "execute";
 
+    /**
+     * Key used in an {@link #UIDL_KEY_EXECUTE} invocation for the constant
+     * pool id of the expression to execute.
+     */
+    public static final String UIDL_KEY_EXECUTE_EXPRESSION = "expr";
+
     /**
      * Key used to hold the feature id when synchronizing node values.
      */
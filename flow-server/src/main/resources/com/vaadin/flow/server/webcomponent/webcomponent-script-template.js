@@ -87,28 +87,22 @@ _ThemeImport_class _TagCamel_ extends HTMLElement {
     this.$.id = "_TagCamel_-" + _TagCamel_.id++;
     console.debug('registering',this,'using id',this.$.id);
 
+    _TagCamel_._queueConnect(this);
+  }
+  _connectTo(flowClient) {
     // Needed to make Flow do lookup correctly
-    const poller = () => {
-      var flowClient = this._getClient();
-      if (flowClient && flowClient.connectWebComponent) {
-        document.body.$ = document.body.$ || {};
-        document.body.$[this.$.id] = this;
-        const properties = {};
-        for (var prop in _TagCamel_.properties) {
-          if (prop === "_propertyUpdatedFromServer") {
-            continue;
-          }
-          properties[prop] = this[prop];
-        }
-        flowClient.connectWebComponent({tag: '_TagDash_', id: this.$.id,
-            userAssignedId: this.id, attributeValues:
-            _PropertyValues_});
-      } else {
-        setTimeout(poller, 10);
+    document.body.$ = document.body.$ || {};
+    document.body.$[this.$.id] = this;
+    const properties = {};
+    for (var prop in _TagCamel_.properties) {
+      if (prop === "_propertyUpdatedFromServer") {
+        continue;
       }
-    };
-
-    poller();
+      properties[prop] = this[prop];
+    }
+    flowClient.connectWebComponent({tag: '_TagDash_', id: this.$.id,
+        userAssignedId: this.id, attributeValues:
+        _PropertyValues_});
   }
   _getClient() {
     if (_TagCamel_._getClientStrategy){
@@ -186,4 +180,35 @@ _TagCamel_._getClients = function(){
     return window.Vaadin.Flow.clients;
 }
 
+/*
+ * Connects the web components of all the exported tags on the page in the
+ * same task, so that the connections share a single round trip to the server.
+ */
+_TagCamel_._queueConnect = function(element) {
+    window.Vaadin = window.Vaadin || {};
+    window.Vaadin.Flow = window.Vaadin.Flow || {};
+    const pending = window.Vaadin.Flow.pendingWebComponents =
+        window.Vaadin.Flow.pendingWebComponents || [];
+    pending.push(element);
+    if (pending.length > 1) {
+        // Already scheduled by another web component
+        return;
+    }
+    const connectPending = () => {
+        const waiting = pending.splice(0).filter(pendingElement => {
+            const flowClient = pendingElement._getClient();
+            if (flowClient && flowClient.connectWebComponent) {
+                pendingElement._connectTo(flowClient);
+                return false;
+            }
+            return true;
+        });
+        if (waiting.length > 0) {
+            pending.unshift(...waiting);
+            setTimeout(connectPending, 10);
+        }
+    };
+    setTimeout(connectPending);
+}
+
 customElements.define('_TagDash_', _TagCamel_);
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -46,6 +47,8 @@ import com.vaadin.flow.dom.impl.AbstractTextElementStateProvider;
 import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.function.SerializableRunnable;
+import com.vaadin.flow.i18n.LocaleChangeEvent;
+import com.vaadin.flow.i18n.LocaleChangeObserver;
 import com.vaadin.flow.internal.CurrentInstance;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.router.AfterNavigationEvent;
@@ -73,6 +76,7 @@ import com.vaadin.flow.router.internal.AfterNavigationHandler;
 import com.vaadin.flow.router.internal.BeforeEnterHandler;
 import com.vaadin.flow.router.internal.BeforeLeaveHandler;
 import com.vaadin.flow.server.BootstrapHandlerTest;
+import com.vaadin.flow.server.InitParameters;
 import com.vaadin.flow.server.InvalidRouteConfigurationException;
 import com.vaadin.flow.server.MockVaadinContext;
 import com.vaadin.flow.server.MockVaadinServletService;
@@ -85,6 +89,7 @@ import com.vaadin.flow.server.VaadinServletRequest;
 import com.vaadin.flow.server.frontend.MockLogger;
 import com.vaadin.flow.shared.Registration;
 import com.vaadin.tests.util.AlwaysLockedVaadinSession;
+import com.vaadin.tests.util.MockDeploymentConfiguration;
 import com.vaadin.tests.util.MockUI;
 
 import static org.junit.Assert.assertEquals;
@@ -909,6 +914,75 @@ public class UITest {
                 .get(3) instanceof AfterNavigationListenerThird);
     }
 
+    @Tag(Tag.DIV)
+    private static class LocaleObserverComponent extends Component
+            implements LocaleChangeObserver {
+        private final List<Locale> notifiedLocales = new ArrayList<>();
+
+        @Override
+        public void localeChange(LocaleChangeEvent event) {
+            notifiedLocales.add(event.getLocale());
+        }
+    }
+
+    @Test
+    public void setLocale_batchingEnabled_observersNotifiedOnceBeforeClientResponse() {
+        UI ui = createLocaleBatchingTestUI();
+        LocaleObserverComponent observer = new LocaleObserverComponent();
+        ui.add(observer);
+        observer.notifiedLocales.clear();
+        Locale locale = ui.getLocale().equals(Locale.FRENCH) ? Locale.GERMAN
+                : Locale.FRENCH;
+
+        ui.setLocale(Locale.CHINESE);
+        ui.setLocale(locale);
+
+        Assert.assertTrue(observer.notifiedLocales.isEmpty());
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+        Assert.assertEquals(Collections.singletonList(locale),
+                observer.notifiedLocales);
+    }
+
+    @Test
+    public void setLocale_batchingEnabledAndLocaleChangedBack_observersNotNotified() {
+        UI ui = createLocaleBatchingTestUI();
+        LocaleObserverComponent observer = new LocaleObserverComponent();
+        ui.add(observer);
+        observer.notifiedLocales.clear();
+        Locale originalLocale = ui.getLocale();
+
+        ui.setLocale(Locale.CHINESE.equals(originalLocale) ? Locale.GERMAN
+                : Locale.CHINESE);
+        ui.setLocale(originalLocale);
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+
+        Assert.assertTrue(observer.notifiedLocales.isEmpty());
+    }
+
+    @Test
+    public void setLocale_batchingDisabled_observersNotifiedImmediately() {
+        UI ui = new MockUI(
+                new AlwaysLockedVaadinSession(new MockVaadinServletService()));
+        LocaleObserverComponent observer = new LocaleObserverComponent();
+        ui.add(observer);
+        observer.notifiedLocales.clear();
+        Locale locale = ui.getLocale().equals(Locale.FRENCH) ? Locale.GERMAN
+                : Locale.FRENCH;
+
+        ui.setLocale(locale);
+
+        Assert.assertEquals(Collections.singletonList(locale),
+                observer.notifiedLocales);
+    }
+
+    private static UI createLocaleBatchingTestUI() {
+        MockVaadinServletService service = new MockVaadinServletService();
+        ((MockDeploymentConfiguration) service.getDeploymentConfiguration())
+                .setApplicationOrSystemProperty(
+                        InitParameters.I18N_BATCH_LOCALE_CHANGES, "true");
+        return new MockUI(new AlwaysLockedVaadinSession(service));
+    }
+
     @Test(expected = NullPointerException.class)
     public void accessLaterRunnable_nullHandler_exception() {
         UI ui = createAccessableTestUI();
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.component.webcomponent;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.WebComponentExporter;
+import com.vaadin.flow.component.webcomponent.WebComponentUI.WebComponentConnectEvent;
+import com.vaadin.flow.component.webcomponent.WebComponentWrapperTest.MyComponentExporter;
+import com.vaadin.flow.internal.nodefeature.VirtualChildrenList;
+import com.vaadin.flow.server.MockVaadinServletService;
+import com.vaadin.flow.server.VaadinServletRequest;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.webcomponent.WebComponentConfigurationRegistry;
+import com.vaadin.tests.util.AlwaysLockedVaadinSession;
+
+import elemental.json.Json;
+
+public class WebComponentUITest {
+
+    private MockVaadinServletService service;
+    private WebComponentUI ui;
+
+    @Before
+    public void setUp() {
+        service = new MockVaadinServletService();
+        VaadinSession session = new AlwaysLockedVaadinSession(service);
+        VaadinSession.setCurrent(session);
+
+        WebComponentConfiguration<? extends Component> configuration = new WebComponentExporter.WebComponentConfigurationFactory()
+                .create(new MyComponentExporter());
+        WebComponentConfigurationRegistry
+                .getInstance(service.getContext())
+                .setConfigurations(Collections.singleton(configuration));
+
+        ui = new WebComponentUI();
+        ui.getInternals().setSession(session);
+        VaadinServletRequest request = Mockito
+                .mock(VaadinServletRequest.class);
+        Mockito.when(request.getContextPath()).thenReturn("");
+        ui.doInit(request, 1);
+    }
+
+    @After
+    public void tearDown() {
+        VaadinSession.setCurrent(null);
+        service.destroy();
+    }
+
+    @Test
+    public void connectSeveralWebComponents_sameRequest_countedAsOneRoundTrip() {
+        connect("my-component-0");
+        connect("my-component-1");
+        connect("my-component-2");
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+
+        Assert.assertEquals(1, ui.getConnectRoundTrips());
+        Assert.assertEquals(3, ui.getConnectedWebComponentCount());
+        Assert.assertEquals(3, ui.getElement().getNode()
+                .getFeature(VirtualChildrenList.class).size());
+    }
+
+    @Test
+    public void connectWebComponents_separateRequests_eachCountedAsRoundTrip() {
+        connect("my-component-0");
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+        connect("my-component-1");
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+
+        Assert.assertEquals(2, ui.getConnectRoundTrips());
+        Assert.assertEquals(2, ui.getConnectedWebComponentCount());
+    }
+
+    private void connect(String id) {
+        ComponentUtil.fireEvent(ui, new WebComponentConnectEvent(ui, true,
+                "my-component", id, null, Json.createObject()));
+    }
+}
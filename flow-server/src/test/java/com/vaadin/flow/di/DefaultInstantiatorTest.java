@@ -24,6 +24,9 @@ import org.mockito.Mockito;
 
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.i18n.CachingI18NProvider;
+import com.vaadin.flow.i18n.I18NProvider;
 import com.vaadin.flow.server.VaadinContext;
 import com.vaadin.flow.server.VaadinService;
 
@@ -75,6 +78,42 @@ public class DefaultInstantiatorTest {
         Assert.assertNotNull(component);
     }
 
+    @Test
+    public void cacheTranslations_cacheEnabled_sameCachingProviderReturned() {
+        VaadinService service = mockI18NProviderCache(true);
+        DefaultInstantiator instantiator = new DefaultInstantiator(service);
+        I18NProvider provider = Mockito.mock(I18NProvider.class);
+
+        I18NProvider cached = instantiator.cacheTranslations(provider);
+
+        Assert.assertTrue(cached instanceof CachingI18NProvider);
+        Assert.assertSame(provider,
+                ((CachingI18NProvider) cached).getProvider());
+        Assert.assertSame(cached, instantiator.cacheTranslations(provider));
+        Mockito.verify(provider).getProvidedLocales();
+    }
+
+    @Test
+    public void cacheTranslations_cacheDisabled_providerReturned() {
+        VaadinService service = mockI18NProviderCache(false);
+        DefaultInstantiator instantiator = new DefaultInstantiator(service);
+        I18NProvider provider = Mockito.mock(I18NProvider.class);
+
+        Assert.assertSame(provider, instantiator.cacheTranslations(provider));
+        Assert.assertNull(instantiator.cacheTranslations(null));
+    }
+
+    private VaadinService mockI18NProviderCache(boolean enabled) {
+        VaadinService service = Mockito.mock(VaadinService.class);
+        DeploymentConfiguration configuration = Mockito
+                .mock(DeploymentConfiguration.class);
+        Mockito.when(configuration.isI18NProviderCacheEnabled())
+                .thenReturn(enabled);
+        Mockito.when(service.getDeploymentConfiguration())
+                .thenReturn(configuration);
+        return service;
+    }
+
     private Lookup mockLookup(VaadinService service) {
         VaadinContext context = Mockito.mock(VaadinContext.class);
         Mockito.when(service.getContext()).thenReturn(context);
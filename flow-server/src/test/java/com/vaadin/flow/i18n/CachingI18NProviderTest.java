@@ -0,0 +1,124 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.i18n;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class CachingI18NProviderTest {
+
+    private I18NProvider provider;
+    private CachingI18NProvider cachingProvider;
+
+    @Before
+    public void setUp() {
+        provider = Mockito.mock(I18NProvider.class);
+        Map<String, String> finnish = new HashMap<>();
+        finnish.put("title", "Otsikko");
+        finnish.put("greeting", "Hei {0}!");
+        finnish.put("count", "{0,number,integer} riviä");
+        finnish.put("broken", "Rikki {0");
+        Mockito.when(provider.getProvidedLocales())
+                .thenReturn(Arrays.asList(new Locale("fi"), Locale.ENGLISH));
+        Mockito.when(provider.getMessagePatterns(new Locale("fi")))
+                .thenReturn(finnish);
+        Mockito.when(provider.getMessagePatterns(Locale.ENGLISH))
+                .thenReturn(new HashMap<>());
+        Mockito.when(provider.getTranslation(Mockito.anyString(),
+                Mockito.any(Locale.class), Mockito.any()))
+                .thenAnswer(invocation -> "provider:"
+                        + invocation.getArgument(0));
+        cachingProvider = new CachingI18NProvider(provider);
+    }
+
+    @Test
+    public void getTranslation_patternProvided_formattedWithoutProvider() {
+        Locale finnish = new Locale("fi");
+
+        Assert.assertEquals("Otsikko",
+                cachingProvider.getTranslation("title", finnish));
+        Assert.assertEquals("Hei Maija!",
+                cachingProvider.getTranslation("greeting", finnish, "Maija"));
+        Assert.assertEquals(
+                new MessageFormat("{0,number,integer} riviä", finnish)
+                        .format(new Object[] { 1234 }),
+                cachingProvider.getTranslation("count", finnish, 1234));
+
+        Mockito.verify(provider, Mockito.never()).getTranslation(
+                Mockito.anyString(), Mockito.any(Locale.class),
+                Mockito.any());
+        Mockito.verify(provider).getMessagePatterns(finnish);
+    }
+
+    @Test
+    public void getTranslation_invalidOrMissingPattern_translatedByProvider() {
+        Locale finnish = new Locale("fi");
+
+        Assert.assertEquals("provider:broken",
+                cachingProvider.getTranslation("broken", finnish, "x"));
+        Assert.assertEquals("provider:missing",
+                cachingProvider.getTranslation("missing", finnish, "x"));
+    }
+
+    @Test
+    public void getTranslation_noPatternsAndNoParameters_translationCached() {
+        Assert.assertEquals("provider:title",
+                cachingProvider.getTranslation("title", Locale.ENGLISH));
+        Assert.assertEquals("provider:title",
+                cachingProvider.getTranslation("title", Locale.ENGLISH));
+        cachingProvider.getTranslation("greeting", Locale.ENGLISH, "a");
+        cachingProvider.getTranslation("greeting", Locale.ENGLISH, "b");
+
+        Mockito.verify(provider).getTranslation("title", Locale.ENGLISH);
+        Mockito.verify(provider, Mockito.times(2)).getTranslation(
+                Mockito.eq("greeting"), Mockito.eq(Locale.ENGLISH),
+                Mockito.any());
+    }
+
+    @Test
+    public void clearCache_translationsLoadedAgain() {
+        Locale finnish = new Locale("fi");
+        cachingProvider.getTranslation("title", finnish);
+        cachingProvider.getProvidedLocales();
+
+        cachingProvider.clearCache();
+        cachingProvider.getTranslation("title", finnish);
+        cachingProvider.getProvidedLocales();
+
+        Mockito.verify(provider, Mockito.times(2)).getMessagePatterns(finnish);
+        Mockito.verify(provider, Mockito.times(2)).getProvidedLocales();
+    }
+
+    @Test
+    public void preload_allProvidedLocalesLoaded() {
+        cachingProvider.preload();
+
+        Mockito.verify(provider).getMessagePatterns(new Locale("fi"));
+        Mockito.verify(provider).getMessagePatterns(Locale.ENGLISH);
+        List<Locale> locales = cachingProvider.getProvidedLocales();
+        Assert.assertEquals(2, locales.size());
+        Mockito.verify(provider).getProvidedLocales();
+    }
+}
@@ -21,6 +21,7 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Optional;
@@ -101,6 +102,14 @@ public class ReflectToolsTest {
         }
     }
 
+    public static class VarArgsCtorRecordingArgs {
+        private final String[] args;
+
+        public VarArgsCtorRecordingArgs(String... args) {
+            this.args = args;
+        }
+    }
+
     public interface Entity<ID> {
         ID getId();
 
@@ -147,6 +156,41 @@ public class ReflectToolsTest {
                 VarArgsCtor.class, instance.getClass());
     }
 
+    @Test
+    public void createInstance_sameClassTwice_newInstanceEachTime() {
+        OkToCreate first = ReflectTools.createInstance(OkToCreate.class);
+        OkToCreate second = ReflectTools.createInstance(OkToCreate.class);
+
+        Assert.assertNotSame(first, second);
+    }
+
+    @Test
+    public void createInstance_varArgsCtor_emptyArrayPassed() {
+        VarArgsCtorRecordingArgs instance = ReflectTools
+                .createInstance(VarArgsCtorRecordingArgs.class);
+
+        Assert.assertArrayEquals(new String[0], instance.args);
+    }
+
+    @Test
+    public void createInstance_constructorThrows_exceptionIsCause() {
+        try {
+            ReflectTools.createInstance(ConstructorThrowsExceptionClass.class);
+            Assert.fail("Creation should fail");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(
+                    e.getCause() instanceof InvocationTargetException);
+            Assert.assertTrue(e.getCause()
+                    .getCause() instanceof NullPointerException);
+        }
+    }
+
+    @Test
+    public void createInstance_abstractClass_fails() {
+        assertError(ReflectTools.CREATE_INSTANCE_FAILED,
+                TestAbstractClass.class);
+    }
+
     @Test
     public void createNonStaticInnerClass() {
         assertError(
@@ -17,6 +17,7 @@ package com.vaadin.flow.internal.nodefeature;
 
 import java.io.Serializable;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -29,6 +30,7 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.DebouncePhase;
 import com.vaadin.flow.dom.DisabledUpdateMode;
 import com.vaadin.flow.dom.DomEvent;
 import com.vaadin.flow.dom.DomEventListener;
@@ -491,6 +493,63 @@ public class ElementListenersTest
         Assert.assertEquals(1, eventCount.get());
     }
 
+    @Test
+    public void throttleAdaptively_slowListener_periodIncreased() {
+        DomListenerRegistration registration = ns.add("foo", e -> {
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }).throttleAdaptively(10, 1000);
+        Assert.assertEquals(10, registration.getDebounceTimeout());
+
+        ns.fireEvent(createEvent("foo"));
+        ns.fireEvent(createEvent("foo"));
+
+        int period = registration.getDebounceTimeout();
+        Assert.assertTrue("Unexpected period " + period,
+                period >= 60 && period <= 1000);
+        Assert.assertEquals(
+                EnumSet.of(DebouncePhase.LEADING, DebouncePhase.INTERMEDIATE),
+                registration.getDebouncePhases());
+    }
+
+    @Test
+    public void throttleAdaptively_slowListener_periodLimitedToMax() {
+        DomListenerRegistration registration = ns.add("foo", e -> {
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }).throttleAdaptively(0, 20);
+
+        ns.fireEvent(createEvent("foo"));
+
+        Assert.assertEquals(20, registration.getDebounceTimeout());
+    }
+
+    @Test
+    public void throttleAdaptively_thenDebounce_periodNotAdapted() {
+        DomListenerRegistration registration = ns.add("foo", e -> {
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }).throttleAdaptively(10, 1000).debounce(5);
+
+        ns.fireEvent(createEvent("foo"));
+
+        Assert.assertEquals(5, registration.getDebounceTimeout());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void throttleAdaptively_maxLessThanMin_throws() {
+        ns.add("foo", noOp).throttleAdaptively(100, 10);
+    }
+
     // Helper for accessing package private API from other tests
     public static Set<String> getExpressions(
             ElementListenerMap elementListenerMap, String eventName) {
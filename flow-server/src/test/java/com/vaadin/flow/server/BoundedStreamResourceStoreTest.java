@@ -0,0 +1,116 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BoundedStreamResourceStoreTest {
+
+    private long time;
+
+    private class TestStore extends BoundedStreamResourceStore {
+        private TestStore(int maxEntries, int timeToLiveSeconds) {
+            super(maxEntries, timeToLiveSeconds);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return time;
+        }
+    }
+
+    @Test
+    public void put_maxEntriesExceeded_leastRecentlyUsedEvicted() {
+        BoundedStreamResourceStore store = new TestStore(2, -1);
+        StreamResource first = resource();
+        store.put(uri(1), first);
+        store.put(uri(2), resource());
+        store.get(uri(1));
+        store.put(uri(3), resource());
+
+        Assert.assertEquals(2, store.size());
+        Assert.assertSame(first, store.get(uri(1)));
+        Assert.assertNull(store.get(uri(2)));
+        Assert.assertNotNull(store.get(uri(3)));
+        Assert.assertEquals(1, store.getEvictionCount());
+    }
+
+    @Test
+    public void get_timeToLiveExceeded_resourceEvicted() {
+        BoundedStreamResourceStore store = new TestStore(-1, 10);
+        store.put(uri(1), resource());
+        store.put(uri(2), resource());
+
+        time += TimeUnit.SECONDS.toMillis(5);
+        Assert.assertNotNull(store.get(uri(1)));
+
+        time += TimeUnit.SECONDS.toMillis(6);
+        Assert.assertNotNull("Used resource should not expire",
+                store.get(uri(1)));
+        Assert.assertNull(store.get(uri(2)));
+        Assert.assertEquals(1, store.getEvictionCount());
+    }
+
+    @Test
+    public void put_expiredResourcesEvicted() {
+        BoundedStreamResourceStore store = new TestStore(-1, 10);
+        store.put(uri(1), resource());
+        store.put(uri(2), resource());
+
+        time += TimeUnit.SECONDS.toMillis(11);
+        store.put(uri(3), resource());
+
+        Assert.assertEquals(1, store.size());
+        Assert.assertEquals(2, store.getEvictionCount());
+    }
+
+    @Test
+    public void remove_notCountedAsEviction() {
+        BoundedStreamResourceStore store = new TestStore(1, 1);
+        store.put(uri(1), resource());
+        store.remove(uri(1));
+
+        Assert.assertEquals(0, store.size());
+        Assert.assertEquals(0, store.getEvictionCount());
+        Assert.assertFalse(store.isConcurrent());
+    }
+
+    @Test
+    public void serializeAndDeserialize_resourcesNotExpired() {
+        BoundedStreamResourceStore store = new BoundedStreamResourceStore(-1,
+                60);
+        store.put(uri(1), resource());
+
+        BoundedStreamResourceStore deserialized = SerializationUtils
+                .deserialize(SerializationUtils.serialize(store));
+
+        Assert.assertNotNull(deserialized.get(uri(1)));
+        Assert.assertEquals(0, deserialized.getEvictionCount());
+    }
+
+    private static URI uri(int id) {
+        return URI.create("VAADIN/dynamic/resource/1/" + id + "/name");
+    }
+
+    private static StreamResource resource() {
+        return new StreamResource("name", () -> null);
+    }
+}
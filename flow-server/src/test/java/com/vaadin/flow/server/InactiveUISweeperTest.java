@@ -0,0 +1,189 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.server.InactiveUISweeper.SweepResult;
+import com.vaadin.flow.shared.Registration;
+
+public class InactiveUISweeperTest {
+
+    private SessionInitListener initListener;
+    private SessionDestroyListener destroyListener;
+
+    private MockVaadinServletService service;
+    private MockVaadinSession session;
+    private InactiveUISweeper sweeper;
+
+    @Before
+    public void setUp() throws ServiceException {
+        service = new MockVaadinServletService() {
+            @Override
+            public Registration addSessionInitListener(
+                    SessionInitListener listener) {
+                initListener = listener;
+                return super.addSessionInitListener(listener);
+            }
+
+            @Override
+            public Registration addSessionDestroyListener(
+                    SessionDestroyListener listener) {
+                destroyListener = listener;
+                return super.addSessionDestroyListener(listener);
+            }
+
+            @Override
+            protected Lock getSessionLock(WrappedSession wrappedSession) {
+                return session.getLockInstance();
+            }
+        };
+        session = new MockVaadinSession(service);
+        session.getLockInstance().lock();
+        try {
+            session.refreshTransients(Mockito.mock(WrappedSession.class),
+                    service);
+        } finally {
+            session.getLockInstance().unlock();
+        }
+
+        sweeper = new InactiveUISweeper(service);
+        initListener.sessionInit(new SessionInitEvent(service, session, null));
+    }
+
+    @After
+    public void tearDown() {
+        sweeper.stop();
+        CurrentInstance.clearAll();
+    }
+
+    @Test
+    public void sweep_inactiveUI_closedAndRemoved() {
+        UI inactive = addUI(0);
+        UI active = addUI(System.currentTimeMillis());
+
+        SweepResult result = sweeper.sweep();
+
+        Assert.assertEquals(1, result.getClosedUIs());
+        Assert.assertEquals(1, result.getSessions());
+        Assert.assertTrue(result.getReleasedNodes() > 1);
+        Assert.assertTrue(inactive.isClosing());
+        Assert.assertFalse(active.isClosing());
+
+        session.lock();
+        try {
+            Assert.assertNull(session.getUIById(inactive.getUIId()));
+            Assert.assertSame(active, session.getUIById(active.getUIId()));
+        } finally {
+            session.unlock();
+        }
+    }
+
+    @Test
+    public void sweep_onlyActiveUIs_nothingReclaimed() {
+        addUI(System.currentTimeMillis());
+
+        SweepResult result = sweeper.sweep();
+
+        Assert.assertEquals(0, result.getClosedUIs());
+        Assert.assertEquals(0, result.getSessions());
+        Assert.assertEquals(0, result.getReleasedNodes());
+    }
+
+    @Test
+    public void sweep_sessionLockedByOtherThread_sessionSkipped()
+            throws InterruptedException {
+        UI inactive = addUI(0);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            session.getLockInstance().lock();
+            try {
+                locked.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                session.getLockInstance().unlock();
+            }
+        });
+        holder.start();
+        Assert.assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        SweepResult result = sweeper.sweep();
+        release.countDown();
+        holder.join();
+
+        Assert.assertEquals(0, result.getClosedUIs());
+        Assert.assertFalse(inactive.isClosing());
+
+        Assert.assertEquals(1, sweeper.sweep().getClosedUIs());
+    }
+
+    @Test
+    public void sweep_destroyedSession_notSwept() {
+        UI inactive = addUI(0);
+
+        destroyListener
+                .sessionDestroy(new SessionDestroyEvent(service, session));
+
+        Assert.assertEquals(0, sweeper.sweep().getClosedUIs());
+        Assert.assertFalse(inactive.isClosing());
+    }
+
+    @Test
+    public void sweep_closedSession_notSwept() {
+        UI inactive = addUI(0);
+        session.lock();
+        try {
+            session.setState(VaadinSessionState.CLOSING);
+        } finally {
+            session.unlock();
+        }
+
+        Assert.assertEquals(0, sweeper.sweep().getClosedUIs());
+        Assert.assertFalse(inactive.isClosing());
+    }
+
+    private UI addUI(long lastHeartbeat) {
+        session.lock();
+        try {
+            UI ui = new UI();
+            ui.getInternals().setSession(session);
+            ui.doInit(Mockito.mock(VaadinServletRequest.class),
+                    session.getNextUIid());
+            ui.getElement().appendChild(new Element("div"),
+                    new Element("div"));
+            ui.getInternals().setLastHeartbeatTimestamp(lastHeartbeat);
+            session.addUI(ui);
+            return ui;
+        } finally {
+            session.unlock();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.server.SlowSessionLockEvent.Type;
+
+public class InstrumentedSessionLockTest {
+
+    private final List<SlowSessionLockEvent> events = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void reentrantLock_outermostWaitAndHoldRecorded() {
+        FlowMetrics metrics = Mockito.mock(FlowMetrics.class,
+                Mockito.CALLS_REAL_METHODS);
+        SessionLockDiagnostics diagnostics = new SessionLockDiagnostics(1000);
+        InstrumentedSessionLock lock = new InstrumentedSessionLock(metrics,
+                diagnostics);
+
+        lock.lock();
+        lock.lock();
+        lock.unlock();
+        Assert.assertEquals(0, diagnostics.getHoldTimes().getCount());
+        lock.unlock();
+
+        Assert.assertEquals(1, diagnostics.getWaitTimes().getCount());
+        Assert.assertEquals(1, diagnostics.getHoldTimes().getCount());
+        Mockito.verify(metrics).recordSessionLockWait(Mockito.anyLong());
+        Mockito.verify(metrics).recordSessionLockHold(Mockito.anyLong());
+    }
+
+    @Test
+    public void heldLongerThanThreshold_holdEventFired() throws Exception {
+        SessionLockDiagnostics diagnostics = createDiagnostics(10);
+        InstrumentedSessionLock lock = new InstrumentedSessionLock(null,
+                diagnostics);
+
+        lock.lock();
+        Thread.sleep(30);
+        lock.unlock();
+
+        Assert.assertEquals(1, events.size());
+        SlowSessionLockEvent event = events.get(0);
+        Assert.assertEquals(Type.HOLD, event.getType());
+        Assert.assertSame(diagnostics, event.getSource());
+        Assert.assertTrue(event.getDurationMillis() >= 10);
+        Assert.assertEquals(Thread.currentThread().getName(),
+                event.getHolderName());
+        Assert.assertEquals(0, event.getHolderStackTrace().length);
+    }
+
+    @Test
+    public void heldShorterThanThreshold_noEvent() {
+        InstrumentedSessionLock lock = new InstrumentedSessionLock(null,
+                createDiagnostics(10_000));
+
+        lock.lock();
+        lock.unlock();
+
+        Assert.assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void waitLongerThanThreshold_holderStackTraceReported()
+            throws Exception {
+        SessionLockDiagnostics diagnostics = createDiagnostics(20);
+        InstrumentedSessionLock lock = new InstrumentedSessionLock(null,
+                diagnostics);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // The holder is released only after the wait has been reported
+        diagnostics.addSlowSessionLockListener(event -> {
+            if (event.getType() == Type.WAIT) {
+                release.countDown();
+            }
+        });
+        Thread holder = new Thread(() -> {
+            lock.lock();
+            try {
+                locked.countDown();
+                blockingCall(release);
+            } finally {
+                lock.unlock();
+            }
+        }, "slow-holder");
+        holder.start();
+        Assert.assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        lock.lock();
+        lock.unlock();
+        holder.join(10_000);
+
+        SlowSessionLockEvent wait = events.get(0);
+        Assert.assertEquals(Type.WAIT, wait.getType());
+        Assert.assertEquals("slow-holder", wait.getHolderName());
+        Assert.assertEquals(Thread.currentThread().getName(),
+                wait.getWaiterName());
+        Assert.assertTrue(containsBlockingCall(wait.getHolderStackTrace()));
+
+        SlowSessionLockEvent hold = events.stream()
+                .filter(event -> event.getType() == Type.HOLD
+                        && "slow-holder".equals(event.getHolderName()))
+                .findFirst().get();
+        Assert.assertTrue(containsBlockingCall(hold.getHolderStackTrace()));
+    }
+
+    @Test
+    public void tryLockTimesOut_waitReportedAndFalseReturned()
+            throws Exception {
+        InstrumentedSessionLock lock = new InstrumentedSessionLock(null,
+                createDiagnostics(10));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            lock.lock();
+            try {
+                locked.countDown();
+                blockingCall(release);
+            } finally {
+                lock.unlock();
+            }
+        });
+        holder.start();
+        Assert.assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        try {
+            Assert.assertFalse(lock.tryLock(50, TimeUnit.MILLISECONDS));
+        } finally {
+            release.countDown();
+            holder.join(10_000);
+        }
+
+        Assert.assertEquals(Type.WAIT, events.get(0).getType());
+    }
+
+    private SessionLockDiagnostics createDiagnostics(long thresholdMillis) {
+        SessionLockDiagnostics diagnostics = new SessionLockDiagnostics(
+                thresholdMillis);
+        diagnostics.addSlowSessionLockListener(events::add);
+        return diagnostics;
+    }
+
+    private static void blockingCall(CountDownLatch release) {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean containsBlockingCall(
+            StackTraceElement[] stackTrace) {
+        for (StackTraceElement element : stackTrace) {
+            if ("blockingCall".equals(element.getMethodName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -51,6 +51,7 @@ public class MockServletServiceSessionSetup {
         private List<BootstrapListener> bootstrapListeners = new ArrayList<>();
         private List<IndexHtmlRequestListener> indexHtmlRequestListeners = new ArrayList<>();
         private VaadinContext context;
+        private FlowMetrics metrics;
 
         public TestVaadinServletService(TestVaadinServlet testVaadinServlet,
                 DeploymentConfiguration deploymentConfiguration) {
@@ -131,6 +132,18 @@ public class MockServletServiceSessionSetup {
             this.context = context;
         }
 
+        @Override
+        public FlowMetrics getMetrics() {
+            if (metrics != null) {
+                return metrics;
+            }
+            return super.getMetrics();
+        }
+
+        public void setMetrics(FlowMetrics metrics) {
+            this.metrics = metrics;
+        }
+
     }
 
     public class TestVaadinServlet extends VaadinServlet {
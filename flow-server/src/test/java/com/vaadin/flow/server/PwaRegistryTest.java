@@ -17,20 +17,32 @@ package com.vaadin.flow.server;
 
 import javax.servlet.ServletContext;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 
 import com.vaadin.experimental.FeatureFlags;
+import com.vaadin.flow.di.Lookup;
+import com.vaadin.flow.di.ResourceProvider;
 import com.vaadin.flow.server.startup.ApplicationConfiguration;
 
+import elemental.json.JsonObject;
+
 @PWA(name = "foo", shortName = "bar")
 public class PwaRegistryTest {
 
@@ -44,6 +56,9 @@ public class PwaRegistryTest {
 
     private static List<PwaIcon> splashIconsForAppleDevices;
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @BeforeClass
     public static void initPwaWithCustomIconPath() throws IOException {
         PwaRegistry registry = preparePwaRegistry(
@@ -75,8 +90,122 @@ public class PwaRegistryTest {
         Assert.assertEquals(26, stream.toByteArray()[36]);
     }
 
+    @Test
+    public void precomputedIcons_renderedFromSameLogo_iconsLoaded()
+            throws IOException {
+        byte[] iconData = writePrecomputedIcons(readLogo());
+
+        PwaRegistry registry = preparePwaRegistry(
+                PwaRegistryTest.class.getAnnotation(PWA.class), false,
+                mockContext(false));
+
+        Assert.assertEquals(
+                PwaRegistry.getIconTemplates("icons/icon.png").size(),
+                registry.getIcons().size());
+        for (PwaIcon icon : registry.getIcons()) {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            icon.write(stream);
+            Assert.assertArrayEquals(iconData, stream.toByteArray());
+        }
+        Assert.assertTrue(registry.getManifestJson()
+                .contains(registry.getManifestIcons().get(0).getHref()));
+    }
+
+    @Test
+    public void precomputedIcons_renderedFromOtherLogo_iconsRendered()
+            throws IOException {
+        byte[] iconData = writePrecomputedIcons(new byte[] { 1, 2, 3 });
+
+        PwaRegistry registry = preparePwaRegistry(
+                PwaRegistryTest.class.getAnnotation(PWA.class), false,
+                mockContext(false));
+
+        PwaIcon icon = registry.getIcons().get(0);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        icon.write(stream);
+        Assert.assertFalse(Arrays.equals(iconData, stream.toByteArray()));
+    }
+
+    @Test
+    public void productionMode_noPrecomputedIcons_iconsRenderedInBackground()
+            throws IOException {
+        PwaRegistry registry = preparePwaRegistry(
+                PwaRegistryTest.class.getAnnotation(PWA.class), false,
+                mockContext(true));
+
+        List<PwaIcon> icons = registry.getIcons();
+        Assert.assertEquals(
+                PwaRegistry.getIconTemplates("icons/icon.png").size(),
+                icons.size());
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        icons.get(0).write(stream);
+        Assert.assertTrue(stream.size() > 0);
+        Assert.assertTrue(registry.getRuntimeServiceWorkerJs()
+                .contains(registry.getPwaConfiguration().getManifestPath()));
+        Assert.assertFalse(registry.getHeaderIcons().isEmpty());
+    }
+
+    private byte[] writePrecomputedIcons(byte[] logo) throws IOException {
+        byte[] iconData = new byte[] { 42, 42 };
+        JsonObject index = PwaIconCache.createIndex("icons/icon.png", logo);
+        File directory = new File(temporaryFolder.getRoot(),
+                Constants.VAADIN_SERVLET_RESOURCES
+                        + Constants.PWA_ICONS_DIRECTORY);
+        for (PwaIcon icon : PwaRegistry.getIconTemplates("icons/icon.png")) {
+            FileUtils.writeByteArrayToFile(
+                    new File(directory, PwaIconCache.getFileName(icon)),
+                    iconData);
+            PwaIconCache.addIcon(index, icon);
+        }
+        FileUtils.write(
+                new File(temporaryFolder.getRoot(),
+                        Constants.VAADIN_SERVLET_RESOURCES
+                                + Constants.PWA_ICONS_INDEX),
+                index.toJson(), StandardCharsets.UTF_8);
+        return iconData;
+    }
+
+    private ServletContext mockContext(boolean productionMode) {
+        ServletContext context = Mockito.mock(ServletContext.class);
+        ResourceProvider resourceProvider = Mockito
+                .mock(ResourceProvider.class);
+        Mockito.when(resourceProvider.getApplicationResource(Mockito.any()))
+                .thenAnswer(invocation -> {
+                    File file = new File(temporaryFolder.getRoot(),
+                            invocation.getArgument(0));
+                    return file.exists() ? file.toURI().toURL() : null;
+                });
+        Lookup lookup = Mockito.mock(Lookup.class);
+        Mockito.when(lookup.lookup(ResourceProvider.class))
+                .thenReturn(resourceProvider);
+        Mockito.when(context.getAttribute(Lookup.class.getName()))
+                .thenReturn(lookup);
+        ApplicationConfiguration configuration = Mockito
+                .mock(ApplicationConfiguration.class);
+        Mockito.when(configuration.isProductionMode())
+                .thenReturn(productionMode);
+        Mockito.when(
+                context.getAttribute(ApplicationConfiguration.class.getName()))
+                .thenReturn(configuration);
+        return context;
+    }
+
+    private static byte[] readLogo() throws IOException {
+        try (InputStream stream = PwaRegistryTest.class
+                .getResourceAsStream("/META-INF/resources/icons/icon.png")) {
+            return IOUtils.toByteArray(stream);
+        }
+    }
+
     private static PwaRegistry preparePwaRegistry(PWA pwa,
             boolean webpackEnabled) throws IOException {
+        return preparePwaRegistry(pwa, webpackEnabled,
+                Mockito.mock(ServletContext.class));
+    }
+
+    private static PwaRegistry preparePwaRegistry(PWA pwa,
+            boolean webpackEnabled, ServletContext context)
+            throws IOException {
         try (MockedStatic<VaadinService> vaadinService = Mockito
                 .mockStatic(VaadinService.class);
                 MockedStatic<ApplicationConfiguration> configuration = Mockito
@@ -104,7 +233,6 @@ public class PwaRegistryTest {
             featureFlags.when(() -> FeatureFlags.get(Mockito.any()))
                     .thenReturn(flags);
 
-            ServletContext context = Mockito.mock(ServletContext.class);
             return new PwaRegistry(pwa, context);
         }
     }
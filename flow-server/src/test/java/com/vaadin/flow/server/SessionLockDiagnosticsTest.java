@@ -0,0 +1,72 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.server.SessionLockDiagnostics.Histogram;
+
+public class SessionLockDiagnosticsTest {
+
+    @Test
+    public void histogram_durationsCountedInSmallestFittingBucket() {
+        Histogram histogram = new Histogram();
+
+        histogram.record(0);
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(4));
+        histogram.record(TimeUnit.HOURS.toNanos(1));
+
+        long[] counts = histogram.getBucketCounts();
+        long[] bounds = histogram.getBucketUpperBounds();
+        Assert.assertEquals(counts.length, bounds.length);
+        Assert.assertEquals(1, bounds[0]);
+        Assert.assertEquals(2, counts[0]);
+        Assert.assertEquals(4, bounds[2]);
+        Assert.assertEquals(2, counts[2]);
+        Assert.assertEquals(Long.MAX_VALUE, bounds[bounds.length - 1]);
+        Assert.assertEquals(1, counts[counts.length - 1]);
+        Assert.assertEquals(5, histogram.getCount());
+        Assert.assertEquals(TimeUnit.HOURS.toMillis(1),
+                histogram.getMaxMillis());
+        Assert.assertEquals(TimeUnit.HOURS.toMillis(1) + 8,
+                histogram.getTotalMillis());
+    }
+
+    @Test
+    public void listenerThrows_otherListenersNotified() {
+        SessionLockDiagnostics diagnostics = new SessionLockDiagnostics(1);
+        diagnostics.addSlowSessionLockListener(event -> {
+            throw new IllegalStateException("Broken listener");
+        });
+        int[] calls = new int[1];
+        diagnostics.addSlowSessionLockListener(event -> calls[0]++);
+
+        diagnostics.held(TimeUnit.MILLISECONDS.toNanos(5),
+                new StackTraceElement[0]);
+
+        Assert.assertEquals(1, calls[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveThreshold_throws() {
+        new SessionLockDiagnostics(0);
+    }
+}
@@ -30,6 +30,8 @@ import org.mockito.Mockito;
 
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.tests.util.AlwaysLockedVaadinSession;
+import com.vaadin.tests.util.MockDeploymentConfiguration;
 
 public class StreamResourceRegistryTest {
 
@@ -141,6 +143,123 @@ public class StreamResourceRegistryTest {
         assertResourceUriIsEncoded("my file.png", "my%20file.png");
     }
 
+    @Test
+    public void defaultConfiguration_resourcesKeptAndLockRequired() {
+        StreamResourceRegistry registry = new StreamResourceRegistry(session);
+        for (int i = 0; i < 10; i++) {
+            registry.registerResource(
+                    new StreamResource("name", this::makeEmptyStream));
+        }
+
+        Assert.assertEquals(10, registry.getResourceCount());
+        Assert.assertFalse(registry.isConcurrent());
+    }
+
+    @Test
+    public void maxEntriesConfigured_leastRecentlyUsedResourceEvicted() {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_STREAM_RESOURCE_MAX_ENTRIES,
+                "2");
+        StreamResourceRegistry registry = new StreamResourceRegistry(
+                createSession(configuration));
+
+        StreamRegistration first = registry.registerResource(
+                new StreamResource("first", this::makeEmptyStream));
+        StreamRegistration second = registry.registerResource(
+                new StreamResource("second", this::makeEmptyStream));
+        // Using the first resource makes the second one least recently used
+        registry.getResource(first.getResourceUri());
+        StreamRegistration third = registry.registerResource(
+                new StreamResource("third", this::makeEmptyStream));
+
+        Assert.assertEquals(2, registry.getResourceCount());
+        Assert.assertFalse(registry.isConcurrent());
+        Assert.assertNotNull(first.getResource());
+        Assert.assertNull(second.getResource());
+        Assert.assertNotNull(third.getResource());
+    }
+
+    @Test
+    public void sharedResources_notFoundFromOtherSession() {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_SHARED_STREAM_RESOURCES,
+                "true");
+        VaadinSession session1 = createSession(configuration);
+        VaadinSession session2 = new VaadinSession(session1.getService()) {
+            @Override
+            public boolean hasLock() {
+                return true;
+            }
+        };
+        StreamResourceRegistry registry1 = new StreamResourceRegistry(
+                session1);
+        StreamResourceRegistry registry2 = new StreamResourceRegistry(
+                session2);
+
+        StreamResource resource = new StreamResource("name",
+                this::makeEmptyStream);
+        URI uri = registry1.registerResource(resource).getResourceUri();
+
+        Assert.assertTrue(registry1.isConcurrent());
+        Assert.assertSame(resource, registry1.getResource(uri).get());
+        Assert.assertFalse(registry2.getResource(uri).isPresent());
+        Assert.assertEquals(1, registry2.getResourceCount());
+    }
+
+    @Test
+    public void timeToLiveConfigured_lockRequired() {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_STREAM_RESOURCE_TIME_TO_LIVE,
+                "60");
+        StreamResourceRegistry registry = new StreamResourceRegistry(
+                createSession(configuration));
+
+        Assert.assertFalse(registry.isConcurrent());
+    }
+
+    @Test
+    public void sharedResources_sessionDestroyed_resourcesRemoved() {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_SHARED_STREAM_RESOURCES,
+                "true");
+        VaadinSession session2 = createSession(configuration);
+        VaadinSession session1 = new AlwaysLockedVaadinSession(
+                session2.getService());
+        StreamResourceRegistry registry1 = session1.getResourceRegistry();
+        StreamResourceRegistry registry2 = session2.getResourceRegistry();
+
+        registry1.registerResource(
+                new StreamResource("first", this::makeEmptyStream));
+        StreamRegistration registration = registry2.registerResource(
+                new StreamResource("second", this::makeEmptyStream));
+        Assert.assertEquals(2, registry2.getResourceCount());
+
+        session1.getService().fireSessionDestroy(session1);
+        // Runs the queued session access
+        session1.unlock();
+
+        Assert.assertEquals(1, registry2.getResourceCount());
+        Assert.assertNotNull(registration.getResource());
+    }
+
+    private VaadinSession createSession(
+            MockDeploymentConfiguration configuration) {
+        VaadinSession vaadinSession = new VaadinSession(
+                new MockVaadinServletService(configuration)) {
+            @Override
+            public boolean hasLock() {
+                return true;
+            }
+        };
+        // Service initialization clears the current instances
+        UI.setCurrent(ui);
+        return vaadinSession;
+    }
+
     private void assertResourceUriIsEncoded(String resourceName,
             String suffix) {
         StreamResourceRegistry registry = new StreamResourceRegistry(session);
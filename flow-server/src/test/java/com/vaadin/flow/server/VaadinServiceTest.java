@@ -20,14 +20,21 @@ import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpSessionBindingEvent;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -94,6 +101,26 @@ public class VaadinServiceTest {
         }
     }
 
+    @Test
+    public void init_productionMode_pwaInitializationFails_serviceInitialized() {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setProductionMode(true);
+        AtomicInteger pwaRegistryCalls = new AtomicInteger();
+
+        MockVaadinServletService service = new MockVaadinServletService(
+                configuration) {
+            @Override
+            protected PwaRegistry getPwaRegistry() {
+                pwaRegistryCalls.incrementAndGet();
+                throw new UncheckedIOException(
+                        new IOException("Unreadable logo"));
+            }
+        };
+
+        Assert.assertEquals(1, pwaRegistryCalls.get());
+        Assert.assertNotNull(service.getRequestHandlers());
+    }
+
     @Test
     public void should_reported_routing_server() {
 
@@ -481,6 +508,144 @@ public class VaadinServiceTest {
         Mockito.verify(vaadinSession, Mockito.times(2)).unlock();
     }
 
+    @Test
+    public void getExecutor_taskRunWithCurrentInstancesExceptRequest()
+            throws Exception {
+        VaadinService service = createService();
+        VaadinSession session = Mockito.mock(VaadinSession.class);
+        VaadinRequest request = Mockito.mock(VaadinRequest.class);
+
+        AtomicReference<VaadinService> currentService = new AtomicReference<>();
+        AtomicReference<VaadinSession> currentSession = new AtomicReference<>();
+        AtomicReference<VaadinRequest> currentRequest = new AtomicReference<>();
+        try {
+            CurrentInstance.set(VaadinService.class, service);
+            CurrentInstance.set(VaadinSession.class, session);
+            CurrentInstance.set(VaadinRequest.class, request);
+
+            service.getExecutor().submit(() -> {
+                currentService.set(VaadinService.getCurrent());
+                currentSession.set(VaadinSession.getCurrent());
+                currentRequest.set(VaadinRequest.getCurrent());
+            }).get(10, TimeUnit.SECONDS);
+        } finally {
+            CurrentInstance.clearAll();
+            service.destroy();
+        }
+
+        Assert.assertSame(service, currentService.get());
+        Assert.assertSame(session, currentSession.get());
+        Assert.assertNull(currentRequest.get());
+    }
+
+    @Test
+    public void getExecutor_executorFactoryFromLookup_usedAndShutDownOnDestroy()
+            throws ServiceException {
+        VaadinService service = createService();
+        ExecutorService delegate = Mockito.mock(ExecutorService.class);
+        Lookup lookup = Mockito.mock(Lookup.class);
+        Mockito.when(lookup.lookup(ExecutorFactory.class))
+                .thenReturn(factoryService -> delegate);
+        service.getContext().setAttribute(Lookup.class, lookup);
+
+        Runnable task = () -> {
+        };
+        ExecutorService executor = service.getExecutor();
+        executor.execute(task);
+        Assert.assertSame(executor, service.getExecutor());
+        Mockito.verify(delegate).execute(Mockito.any(Runnable.class));
+
+        service.destroy();
+        Mockito.verify(delegate).shutdown();
+    }
+
+    @Test
+    public void getMetrics_noImplementationInLookup_disabled() {
+        Assert.assertSame(FlowMetrics.DISABLED,
+                new MockVaadinServletService().getMetrics());
+    }
+
+    @Test
+    public void getMetrics_implementationInLookup_used() {
+        FlowMetrics metrics = Mockito.mock(FlowMetrics.class);
+        Lookup lookup = Mockito.mock(Lookup.class);
+        Mockito.when(lookup.lookup(FlowMetrics.class)).thenReturn(metrics);
+        VaadinContext context = Mockito.mock(VaadinContext.class);
+        Mockito.when(context.getAttribute(Lookup.class)).thenReturn(lookup);
+        VaadinService service = Mockito.mock(VaadinService.class,
+                Mockito.CALLS_REAL_METHODS);
+        Mockito.when(service.getContext()).thenReturn(context);
+
+        Assert.assertSame(metrics, service.getMetrics());
+        Assert.assertSame(metrics, service.getMetrics());
+        Mockito.verify(lookup).lookup(FlowMetrics.class);
+    }
+
+    @Test
+    public void lockSession_metricsEnabled_outermostWaitAndHoldRecorded() {
+        FlowMetrics metrics = Mockito.mock(FlowMetrics.class,
+                Mockito.CALLS_REAL_METHODS);
+        VaadinService service = createService(metrics);
+        WrappedSession wrappedSession = Mockito.mock(WrappedSession.class);
+
+        Lock lock = service.lockSession(wrappedSession);
+        lock.lock();
+        lock.unlock();
+        Mockito.verify(metrics, Mockito.never())
+                .recordSessionLockHold(Mockito.anyLong());
+        service.unlockSession(wrappedSession, lock);
+
+        Mockito.verify(metrics).recordSessionLockWait(Mockito.anyLong());
+        Mockito.verify(metrics).recordSessionLockHold(Mockito.anyLong());
+    }
+
+    @Test
+    public void lockSession_metricsDisabled_plainLockUsed()
+            throws ServiceException {
+        WrappedSession wrappedSession = Mockito.mock(WrappedSession.class);
+
+        Lock lock = createService().lockSession(wrappedSession);
+
+        Assert.assertEquals(ReentrantLock.class, lock.getClass());
+    }
+
+    @Test
+    public void lockSession_diagnosticsThresholdSet_instrumentedLockUsed() {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_SESSION_LOCK_DIAGNOSTICS_THRESHOLD,
+                "100");
+        VaadinService service = new MockVaadinServletService(configuration);
+        WrappedSession wrappedSession = Mockito.mock(WrappedSession.class);
+
+        Lock lock = service.lockSession(wrappedSession);
+        service.unlockSession(wrappedSession, lock);
+
+        Assert.assertTrue(lock instanceof InstrumentedSessionLock);
+        SessionLockDiagnostics diagnostics = service
+                .getSessionLockDiagnostics().get();
+        Assert.assertEquals(100, diagnostics.getThresholdMillis());
+        Assert.assertEquals(1, diagnostics.getHoldTimes().getCount());
+    }
+
+    @Test
+    public void getSessionLockDiagnostics_noThreshold_empty()
+            throws ServiceException {
+        Assert.assertFalse(
+                createService().getSessionLockDiagnostics().isPresent());
+    }
+
+    @Test
+    public void fireSessionDestroy_metricsEnabled_sessionDestroyedRecorded() {
+        FlowMetrics metrics = Mockito.mock(FlowMetrics.class,
+                Mockito.CALLS_REAL_METHODS);
+        VaadinService service = createService(metrics);
+
+        service.fireSessionDestroy(new MockVaadinSession(service));
+
+        Mockito.verify(metrics).sessionDestroyed();
+    }
+
     private WrappedSession mockSession(VaadinRequest request,
             VaadinSession vaadinSession, String attributeName) {
         WrappedSession session = Mockito.mock(WrappedSession.class);
@@ -513,4 +678,14 @@ public class VaadinServiceTest {
         VaadinService service = new MockVaadinServletService();
         return service;
     }
+
+    private static VaadinService createService(FlowMetrics metrics) {
+        // The metrics are needed already when the service is initialized
+        return new MockVaadinServletService() {
+            @Override
+            public FlowMetrics getMetrics() {
+                return metrics;
+            }
+        };
+    }
 }
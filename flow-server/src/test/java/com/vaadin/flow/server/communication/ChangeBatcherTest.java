@@ -0,0 +1,199 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.internal.JsonUtils;
+import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+public class ChangeBatcherTest {
+
+    @Test
+    public void putsToSameNodeAndFeature_mergedToPutsChange() {
+        JsonArray changes = JsonUtils.createArray(put(1, 2, "a", "x"),
+                put(1, 2, "b", "y"), put(1, 3, "c", "z"));
+
+        JsonArray batched = ChangeBatcher.batch(changes);
+
+        Assert.assertEquals(2, batched.length());
+        JsonObject puts = batched.getObject(0);
+        Assert.assertEquals(JsonConstants.CHANGE_TYPE_PUTS,
+                puts.getString(JsonConstants.CHANGE_TYPE));
+        Assert.assertEquals(1, (int) puts.getNumber(JsonConstants.CHANGE_NODE));
+        Assert.assertEquals(2,
+                (int) puts.getNumber(JsonConstants.CHANGE_FEATURE));
+        JsonObject values = puts.getObject(JsonConstants.CHANGE_PUTS_VALUES);
+        Assert.assertEquals("x", values.getString("a"));
+        Assert.assertEquals("y", values.getString("b"));
+        Assert.assertTrue(
+                JsonUtils.jsonEquals(changes.get(2), batched.get(1)));
+    }
+
+    @Test
+    public void nodeValuePut_notMerged() {
+        JsonObject nodeValuePut = change(1, 2, JsonConstants.CHANGE_TYPE_PUT);
+        nodeValuePut.put(JsonConstants.CHANGE_MAP_KEY, "b");
+        nodeValuePut.put(JsonConstants.CHANGE_PUT_NODE_VALUE, 5);
+        JsonArray changes = JsonUtils.createArray(put(1, 2, "a", "x"),
+                nodeValuePut);
+
+        JsonArray batched = ChangeBatcher.batch(changes);
+
+        Assert.assertTrue(JsonUtils.jsonEquals(changes, batched));
+    }
+
+    @Test
+    public void identicalChangesOfSeveralNodes_writtenOnce() {
+        JsonArray changes = JsonUtils.createArray(put(1, 2, "a", "x"),
+                splice(1, 4, "cell"), put(2, 2, "a", "x"),
+                splice(2, 4, "cell"), put(3, 2, "a", "y"));
+
+        JsonArray batched = ChangeBatcher.batch(changes);
+
+        Assert.assertEquals(3, batched.length());
+        assertNodes(batched.getObject(0), 1, 2);
+        Assert.assertEquals("x",
+                batched.getObject(0).getString(JsonConstants.CHANGE_PUT_VALUE));
+        assertNodes(batched.getObject(1), 1, 2);
+        Assert.assertEquals(JsonConstants.CHANGE_TYPE_SPLICE,
+                batched.getObject(1).getString(JsonConstants.CHANGE_TYPE));
+        Assert.assertTrue(
+                JsonUtils.jsonEquals(changes.get(4), batched.get(2)));
+    }
+
+    @Test
+    public void otherChangeOfSameNodeInBetween_changeNotMovedBeforeIt() {
+        JsonArray changes = JsonUtils.createArray(splice(1, 4, "a"),
+                splice(2, 4, "b"), splice(2, 4, "a"));
+
+        JsonArray batched = ChangeBatcher.batch(changes);
+
+        Assert.assertTrue(JsonUtils.jsonEquals(changes, batched));
+    }
+
+    @Test
+    public void nestedValuesWithSameContent_notComparedByContent() {
+        JsonObject value = Json.createObject();
+        value.put("id", "foo");
+        JsonObject change1 = put(1, 2, "a", "x");
+        change1.put(JsonConstants.CHANGE_PUT_VALUE,
+                JsonUtils.createArray(value));
+        JsonObject change2 = put(2, 2, "a", "x");
+        change2.put(JsonConstants.CHANGE_PUT_VALUE,
+                JsonUtils.createArray(value));
+        JsonObject change3 = put(3, 2, "a", "x");
+        change3.put(JsonConstants.CHANGE_PUT_VALUE,
+                JsonUtils.createArray(Json.parse(value.toJson())));
+        JsonArray changes = JsonUtils.createArray(change1, change2, change3);
+
+        JsonArray batched = ChangeBatcher.batch(changes);
+
+        Assert.assertEquals(2, batched.length());
+        assertNodes(batched.getObject(0), 1, 2);
+        Assert.assertTrue(JsonUtils.jsonEquals(change3, batched.get(1)));
+    }
+
+    @Test
+    public void batch_givenChangesNotModified() {
+        JsonArray changes = JsonUtils.createArray(put(1, 2, "a", "x"),
+                put(1, 2, "b", "y"), put(2, 2, "a", "x"),
+                put(2, 2, "b", "y"));
+        String json = changes.toJson();
+
+        ChangeBatcher.batch(changes);
+
+        Assert.assertEquals(json, changes.toJson());
+    }
+
+    @Test
+    public void restyledTable_payloadMuchSmaller() {
+        UI ui = new UI();
+        Element table = new Element("table");
+        ui.getElement().appendChild(table);
+        Element[] cells = IntStream.range(0, 2000)
+                .mapToObj(i -> new Element("td")).toArray(Element[]::new);
+        table.appendChild(cells);
+        StateTree tree = ui.getInternals().getStateTree();
+        tree.collectChanges(change -> {
+        });
+
+        for (Element cell : cells) {
+            cell.getStyle().set("color", "red").set("background", "white")
+                    .set("font-weight", "bold");
+            cell.getClassList().add("highlighted");
+        }
+        ConstantPool constantPool = new ConstantPool();
+        JsonArray changes = Json.createArray();
+        tree.collectChanges(change -> changes.set(changes.length(),
+                change.toJson(constantPool)));
+
+        JsonArray batched = ChangeBatcher.batch(changes);
+
+        int size = changes.toJson().length();
+        int batchedSize = batched.toJson().length();
+        Assert.assertEquals(4 * cells.length, changes.length());
+        Assert.assertEquals(2, batched.length());
+        Assert.assertTrue("Expected a much smaller payload than " + size
+                + " characters, was " + batchedSize, batchedSize * 5 < size);
+    }
+
+    private static void assertNodes(JsonObject change, int... nodes) {
+        Assert.assertFalse(change.hasKey(JsonConstants.CHANGE_NODE));
+        JsonArray nodesJson = change.getArray(JsonConstants.CHANGE_NODES);
+        Assert.assertEquals(nodes.length, nodesJson.length());
+        for (int i = 0; i < nodes.length; i++) {
+            Assert.assertEquals(nodes[i], (int) nodesJson.getNumber(i));
+        }
+    }
+
+    private static JsonObject put(int node, int feature, String key,
+            String value) {
+        JsonObject json = change(node, feature,
+                JsonConstants.CHANGE_TYPE_PUT);
+        json.put(JsonConstants.CHANGE_MAP_KEY, key);
+        json.put(JsonConstants.CHANGE_PUT_VALUE, value);
+        return json;
+    }
+
+    private static JsonObject splice(int node, int feature, String add) {
+        JsonObject json = change(node, feature,
+                JsonConstants.CHANGE_TYPE_SPLICE);
+        json.put(JsonConstants.CHANGE_SPLICE_INDEX, 0);
+        json.put(JsonConstants.CHANGE_SPLICE_ADD,
+                JsonUtils.createArray(Json.create(add)));
+        return json;
+    }
+
+    private static JsonObject change(int node, int feature, String type) {
+        JsonObject json = Json.createObject();
+        json.put(JsonConstants.CHANGE_TYPE, type);
+        json.put(JsonConstants.CHANGE_NODE, node);
+        json.put(JsonConstants.CHANGE_FEATURE, feature);
+        return json;
+    }
+}
@@ -3,6 +3,12 @@ package com.vaadin.flow.server.communication;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -21,7 +27,11 @@ import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.communication.ServerRpcHandler.InvalidUIDLSecurityKeyException;
+import com.vaadin.flow.server.communication.rpc.RpcInvocationHandler;
 import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.JsonObject;
 
 public class ServerRpcHandlerTest {
     private VaadinRequest request;
@@ -110,6 +120,40 @@ public class ServerRpcHandlerTest {
         handler.handleRpc(ui, Mockito.mock(Reader.class), request);
     }
 
+    @Test
+    public void handleRpc_severalUpdatesOfSameProperty_onlyLastUpdateHandled()
+            throws InvalidUIDLSecurityKeyException, IOException {
+        List<String> handledValues = new ArrayList<>();
+        RpcInvocationHandler mapSyncHandler = Mockito
+                .mock(RpcInvocationHandler.class);
+        Mockito.when(mapSyncHandler.handle(Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    JsonObject json = invocation.getArgument(1);
+                    handledValues.add((int) json.getNumber(JsonConstants.RPC_NODE)
+                            + json.getString(JsonConstants.RPC_PROPERTY) + "="
+                            + json.getString(
+                                    JsonConstants.RPC_PROPERTY_VALUE));
+                    return Optional.empty();
+                });
+        ServerRpcHandler handler = new ServerRpcHandler() {
+            @Override
+            protected Map<String, RpcInvocationHandler> getInvocationHandlers() {
+                return Collections.singletonMap(
+                        JsonConstants.RPC_TYPE_MAP_SYNC, mapSyncHandler);
+            }
+        };
+
+        StringReader reader = new StringReader("{\"csrfToken\": \""
+                + csrfToken + "\", \"rpc\":[" + mapSync(1, "value", "a") + ","
+                + mapSync(1, "value", "ab") + "," + mapSync(2, "value", "x")
+                + "," + mapSync(1, "checked", "true") + ","
+                + mapSync(1, "value", "abc") + "]}");
+        handler.handleRpc(ui, reader, request);
+
+        Assert.assertEquals(Arrays.asList("2value=x", "1checked=true",
+                "1value=abc"), handledValues);
+    }
+
     @Test(expected = UnsupportedOperationException.class)
     public void handleRpc_unexpectedMessage_throw()
             throws InvalidUIDLSecurityKeyException, IOException {
@@ -126,4 +170,10 @@ public class ServerRpcHandlerTest {
 
         handler.handleRpc(ui, Mockito.mock(Reader.class), request);
     }
+
+    private static String mapSync(int node, String property, String value) {
+        return "{\"type\":\"" + JsonConstants.RPC_TYPE_MAP_SYNC
+                + "\",\"node\":" + node + ",\"feature\":1,\"property\":\""
+                + property + "\",\"value\":\"" + value + "\"}";
+    }
 }
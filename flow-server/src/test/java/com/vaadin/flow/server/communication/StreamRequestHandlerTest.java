@@ -6,6 +6,7 @@ import javax.servlet.ServletOutputStream;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import net.jcip.annotations.NotThreadSafe;
 import org.junit.After;
@@ -17,6 +18,7 @@ import org.mockito.Mockito;
 
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.server.BoundedStreamResourceStore;
 import com.vaadin.flow.server.MockVaadinServletService;
 import com.vaadin.flow.server.MockVaadinSession;
 import com.vaadin.flow.server.ServiceException;
@@ -134,6 +136,56 @@ public class StreamRequestHandlerTest {
                 "readme + mine.md");
     }
 
+    @Test
+    public void concurrentRegistry_resourceServedWithoutSessionLock()
+            throws IOException {
+        AtomicInteger locks = countLocks();
+        streamResourceRegistry = new StreamResourceRegistry(session,
+                new BoundedStreamResourceStore(10, -1) {
+                    @Override
+                    public boolean isConcurrent() {
+                        return true;
+                    }
+                });
+        int initialLocks = locks.get();
+
+        testStreamResourceStreamResourceWriter("concurrent", "readme.md");
+
+        Assert.assertEquals("The session should not be locked", initialLocks,
+                locks.get());
+    }
+
+    @Test
+    public void boundedRegistry_resourceServedWithSessionLock()
+            throws IOException {
+        AtomicInteger locks = countLocks();
+        streamResourceRegistry = new StreamResourceRegistry(session,
+                new BoundedStreamResourceStore(10, 60));
+        int initialLocks = locks.get();
+
+        testStreamResourceStreamResourceWriter("bounded", "readme.md");
+
+        Assert.assertTrue("The session should be locked",
+                locks.get() > initialLocks);
+    }
+
+    private AtomicInteger countLocks() {
+        AtomicInteger locks = new AtomicInteger();
+        session = new AlwaysLockedVaadinSession(session.getService()) {
+            @Override
+            public StreamResourceRegistry getResourceRegistry() {
+                return streamResourceRegistry;
+            }
+
+            @Override
+            public void lock() {
+                locks.incrementAndGet();
+                super.lock();
+            }
+        };
+        return locks;
+    }
+
     private void testStreamResourceInputStreamFactory(String testString,
             String fileName) throws IOException {
 
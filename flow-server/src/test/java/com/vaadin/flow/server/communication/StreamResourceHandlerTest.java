@@ -17,14 +17,24 @@ package com.vaadin.flow.server.communication;
 
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
 
+import com.vaadin.flow.server.FileInputStreamFactory;
 import com.vaadin.flow.server.HttpStatusCode;
 import com.vaadin.flow.server.InputStreamFactory;
 import com.vaadin.flow.server.MockVaadinServletService;
@@ -39,13 +49,18 @@ import com.vaadin.tests.util.AlwaysLockedVaadinSession;
 
 public class StreamResourceHandlerTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private StreamResourceHandler handler = new StreamResourceHandler();
     private MockVaadinSession session;
     private VaadinServletRequest request;
     private VaadinServletResponse response;
+    private ByteArrayOutputStream output = new ByteArrayOutputStream();
 
     @Before
-    public void setUp() throws ServletException, ServiceException {
+    public void setUp()
+            throws ServletException, ServiceException, IOException {
         VaadinService service = new MockVaadinServletService();
 
         session = new AlwaysLockedVaadinSession(service);
@@ -53,6 +68,10 @@ public class StreamResourceHandlerTest {
         ServletContext context = Mockito.mock(ServletContext.class);
         Mockito.when(request.getServletContext()).thenReturn(context);
         response = Mockito.mock(VaadinServletResponse.class);
+        Mockito.when(request.getDateHeader(Mockito.anyString()))
+                .thenReturn(-1L);
+        Mockito.when(response.getOutputStream()).thenAnswer(
+                invocation -> new ByteArrayServletOutputStream(output));
     }
 
     @Test
@@ -119,4 +138,135 @@ public class StreamResourceHandlerTest {
 
         Mockito.verify(response).setHeader("foo", "bar");
     }
+
+    @Test
+    public void rangeResource_noRangeHeader_fullContentWritten()
+            throws IOException {
+        StreamResource res = createFileResource("0123456789");
+
+        handler.handleRequest(session, request, response, res);
+
+        Assert.assertEquals("0123456789",
+                output.toString(StandardCharsets.UTF_8));
+        Mockito.verify(response).setHeader("Accept-Ranges", "bytes");
+        Mockito.verify(response).setHeader("Content-Length", "10");
+        Mockito.verify(response, Mockito.never()).setStatus(Mockito.anyInt());
+    }
+
+    @Test
+    public void rangeResource_rangeRequested_partialContentWritten()
+            throws IOException {
+        StreamResource res = createFileResource("0123456789");
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=2-5");
+
+        handler.handleRequest(session, request, response, res);
+
+        Assert.assertEquals("2345", output.toString(StandardCharsets.UTF_8));
+        Mockito.verify(response)
+                .setStatus(HttpStatusCode.PARTIAL_CONTENT.getCode());
+        Mockito.verify(response).setHeader("Content-Range", "bytes 2-5/10");
+        Mockito.verify(response).setHeader("Content-Length", "4");
+
+        output.reset();
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=-3");
+        handler.handleRequest(session, request, response, res);
+        Assert.assertEquals("789", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void rangeResource_rangeNotSatisfiable_responseStatusIs416()
+            throws IOException {
+        StreamResource res = createFileResource("0123456789");
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=10-");
+
+        handler.handleRequest(session, request, response, res);
+
+        Assert.assertEquals(0, output.size());
+        Mockito.verify(response).setStatus(
+                HttpStatusCode.REQUESTED_RANGE_NOT_SATISFIABLE.getCode());
+        Mockito.verify(response).setHeader("Content-Range", "bytes */10");
+    }
+
+    @Test
+    public void rangeResource_ifRangeDoesNotMatch_fullContentWritten()
+            throws IOException {
+        StreamResource res = createFileResource("0123456789").setETag("v2");
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=2-5");
+        Mockito.when(request.getHeader("If-Range")).thenReturn("\"v1\"");
+
+        handler.handleRequest(session, request, response, res);
+
+        Assert.assertEquals("0123456789",
+                output.toString(StandardCharsets.UTF_8));
+        Mockito.verify(response, Mockito.never()).setStatus(Mockito.anyInt());
+    }
+
+    @Test
+    public void eTagMatches_responseStatusIs304() throws IOException {
+        StreamResource res = new StreamResource("readme.md",
+                () -> new ByteArrayInputStream(new byte[] { 1 }))
+                        .setETag("v1");
+        Mockito.when(request.getHeader("If-None-Match"))
+                .thenReturn("\"v0\", W/\"v1\"");
+
+        handler.handleRequest(session, request, response, res);
+
+        Mockito.verify(response).setHeader("ETag", "\"v1\"");
+        Mockito.verify(response)
+                .setStatus(HttpStatusCode.NOT_MODIFIED.getCode());
+        Assert.assertEquals(0, output.size());
+    }
+
+    @Test
+    public void notModifiedSince_responseStatusIs304() throws IOException {
+        StreamResource res = new StreamResource("readme.md",
+                () -> new ByteArrayInputStream(new byte[] { 1 }))
+                        .setLastModified(100_000L);
+        Mockito.when(request.getDateHeader("If-Modified-Since"))
+                .thenReturn(100_000L);
+
+        handler.handleRequest(session, request, response, res);
+
+        Mockito.verify(response).setDateHeader("Last-Modified", 100_000L);
+        Mockito.verify(response)
+                .setStatus(HttpStatusCode.NOT_MODIFIED.getCode());
+        Assert.assertEquals(0, output.size());
+
+        res.setLastModified(200_000L);
+        handler.handleRequest(session, request, response, res);
+        Assert.assertEquals(1, output.size());
+    }
+
+    private StreamResource createFileResource(String content)
+            throws IOException {
+        File file = temporaryFolder.newFile();
+        FileUtils.write(file, content, StandardCharsets.UTF_8);
+        return new StreamResource("file.txt",
+                new FileInputStreamFactory(file));
+    }
+
+    private static class ByteArrayServletOutputStream
+            extends ServletOutputStream {
+
+        private final ByteArrayOutputStream output;
+
+        private ByteArrayServletOutputStream(ByteArrayOutputStream output) {
+            this.output = output;
+        }
+
+        @Override
+        public void write(int b) {
+            output.write(b);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            // NOOP
+        }
+    }
 }
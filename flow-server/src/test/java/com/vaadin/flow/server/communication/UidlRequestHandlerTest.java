@@ -17,18 +17,28 @@
 
 package com.vaadin.flow.server.communication;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Properties;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 import com.vaadin.flow.component.internal.JavaScriptBootstrapUI;
+import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.server.DefaultDeploymentConfiguration;
 import com.vaadin.flow.server.HandlerHelper.RequestType;
 import com.vaadin.flow.server.MockVaadinContext;
@@ -36,11 +46,16 @@ import com.vaadin.flow.server.VaadinContext;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinResponse;
 import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServletRequest;
+import com.vaadin.flow.server.VaadinServletResponse;
 import com.vaadin.flow.server.VaadinServletService;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.startup.ApplicationConfiguration;
 import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
 
+import elemental.json.Json;
+import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 import elemental.json.impl.JsonUtil;
 
@@ -212,6 +227,35 @@ public class UidlRequestHandlerTest {
                 uidl.getArray("execute").getArray(1).getString(1));
     }
 
+    @Test
+    public void should_replacePushState_when_expressionInterned()
+            throws Exception {
+        JavaScriptBootstrapUI ui = mock(JavaScriptBootstrapUI.class);
+
+        UidlRequestHandler handler = spy(new UidlRequestHandler());
+
+        // The first response sends the interned expression
+        JsonObject uidl = generateUidl(true, true);
+        internPushStateExpression(uidl, true);
+        doReturn(uidl).when(handler).createUidl(ui, false);
+        handler.writeUidl(ui, new StringWriter(), false);
+
+        // A later response only refers to the known expression
+        StringWriter writer = new StringWriter();
+        uidl = generateUidl(true, true);
+        internPushStateExpression(uidl, false);
+        doReturn(uidl).when(handler).createUidl(ui, false);
+        handler.writeUidl(ui, writer, false);
+
+        String out = writer.toString();
+        uidl = JsonUtil.parse(out.substring(9, out.length() - 1));
+
+        assertEquals(4, uidl.getArray("execute").length());
+        assertEquals(
+                "setTimeout(() => history.pushState(null, null, 'http://localhost:9998/#!away'));",
+                uidl.getArray("execute").getArray(1).getString(1));
+    }
+
     @Test
     public void should_not_modify_non_MPR_Uidl() throws Exception {
         JavaScriptBootstrapUI ui = mock(JavaScriptBootstrapUI.class);
@@ -254,6 +298,109 @@ public class UidlRequestHandlerTest {
         Assert.assertFalse(out.contains("history.pushState"));
     }
 
+    @Test
+    public void asyncUidlHandlingEnabled_bodyReceivedWithoutLockAndRequestDispatched()
+            throws Exception {
+        VaadinSession session = mockAsyncSession();
+        HttpServletRequest httpRequest = mock(HttpServletRequest.class);
+        when(httpRequest.isAsyncSupported()).thenReturn(true);
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        when(httpRequest.startAsync()).thenReturn(asyncContext);
+        VaadinServletRequest servletRequest = mockUidlRequest(httpRequest);
+        ServletInputStream input = mock(ServletInputStream.class);
+        when(servletRequest.getInputStream()).thenReturn(input);
+        when(input.isReady()).thenReturn(true, false);
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        when(input.read(Mockito.any(byte[].class))).then(invocation -> {
+            byte[] buffer = invocation.getArgument(0);
+            System.arraycopy(body, 0, buffer, 0, body.length);
+            return body.length;
+        });
+
+        Assert.assertTrue(handler.handleRequest(session, servletRequest,
+                mock(VaadinServletResponse.class)));
+
+        ArgumentCaptor<ReadListener> readListener = ArgumentCaptor
+                .forClass(ReadListener.class);
+        Mockito.verify(input).setReadListener(readListener.capture());
+        readListener.getValue().onDataAvailable();
+        readListener.getValue().onAllDataRead();
+
+        Mockito.verify(servletRequest).setAttribute(Mockito.anyString(),
+                Mockito.eq("{}"));
+        Mockito.verify(asyncContext).dispatch();
+        Mockito.verify(session, Mockito.never()).lock();
+    }
+
+    @Test
+    public void asyncUidlHandlingEnabled_dispatchedRequest_handledWithReceivedBody()
+            throws Exception {
+        VaadinSession session = mockAsyncSession();
+        HttpServletRequest httpRequest = mock(HttpServletRequest.class);
+        when(httpRequest.isAsyncSupported()).thenReturn(true);
+        VaadinServletRequest servletRequest = mockUidlRequest(httpRequest);
+        when(servletRequest.getAttribute(Mockito.anyString()))
+                .thenReturn("{}");
+        VaadinServletResponse servletResponse = mock(
+                VaadinServletResponse.class);
+        ServletOutputStream output = mock(ServletOutputStream.class);
+        when(servletResponse.getOutputStream()).thenReturn(output);
+
+        Assert.assertTrue(handler.handleRequest(session, servletRequest,
+                servletResponse));
+
+        Mockito.verify(httpRequest, Mockito.never()).startAsync();
+        Mockito.verify(servletRequest, Mockito.never()).getReader();
+        InOrder inOrder = Mockito.inOrder(session, output);
+        inOrder.verify(session).lock();
+        inOrder.verify(session).unlock();
+        byte[] expected = VaadinService.createUINotFoundJSON(false)
+                .getBytes(StandardCharsets.UTF_8);
+        inOrder.verify(output).write(expected);
+    }
+
+    @Test
+    public void handleRequest_responseWrittenAfterUnlockingSession()
+            throws Exception {
+        VaadinService service = mock(VaadinService.class);
+        VaadinSession session = mock(VaadinSession.class);
+        when(session.getService()).thenReturn(service);
+        when(session.getConfiguration())
+                .thenReturn(mock(DeploymentConfiguration.class));
+        when(request.getParameter(ApplicationConstants.REQUEST_TYPE_PARAMETER))
+                .thenReturn(RequestType.UIDL.getIdentifier());
+
+        Assert.assertTrue(handler.handleRequest(session, request, response));
+
+        InOrder inOrder = Mockito.inOrder(session, outputStream);
+        inOrder.verify(session).lock();
+        inOrder.verify(session).unlock();
+        byte[] expected = VaadinService.createUINotFoundJSON(false)
+                .getBytes(StandardCharsets.UTF_8);
+        inOrder.verify(outputStream).write(expected);
+    }
+
+    private VaadinSession mockAsyncSession() {
+        DeploymentConfiguration configuration = mock(
+                DeploymentConfiguration.class);
+        when(configuration.isAsyncUidlHandlingEnabled()).thenReturn(true);
+        VaadinService service = mock(VaadinService.class);
+        VaadinSession session = mock(VaadinSession.class);
+        when(session.getService()).thenReturn(service);
+        when(session.getConfiguration()).thenReturn(configuration);
+        return session;
+    }
+
+    private VaadinServletRequest mockUidlRequest(
+            HttpServletRequest httpRequest) {
+        VaadinServletRequest servletRequest = mock(VaadinServletRequest.class);
+        when(servletRequest.getHttpServletRequest()).thenReturn(httpRequest);
+        when(servletRequest.getParameter(
+                ApplicationConstants.REQUEST_TYPE_PARAMETER))
+                        .thenReturn(RequestType.UIDL.getIdentifier());
+        return servletRequest;
+    }
+
     private JsonObject generateUidl(boolean withLocation, boolean withHash) {
 
         // @formatter:off
@@ -316,6 +463,20 @@ public class UidlRequestHandlerTest {
         return uidl;
     }
 
+    private void internPushStateExpression(JsonObject uidl,
+            boolean sendConstant) {
+        JsonArray invocation = uidl.getArray("execute").getArray(1);
+        if (sendConstant) {
+            JsonObject constants = Json.createObject();
+            constants.put("pushStateId", invocation.getString(1));
+            uidl.put("constants", constants);
+        }
+        JsonObject reference = Json.createObject();
+        reference.put(JsonConstants.UIDL_KEY_EXECUTE_EXPRESSION,
+                "pushStateId");
+        invocation.set(1, reference);
+    }
+
     private JsonObject getUidlWithNoHashInLocation() {
         // @formatter:off
         return JsonUtil.parse(
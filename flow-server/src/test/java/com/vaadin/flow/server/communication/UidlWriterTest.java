@@ -18,11 +18,13 @@ package com.vaadin.flow.server.communication;
 import javax.servlet.http.HttpServletRequest;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import net.jcip.annotations.NotThreadSafe;
@@ -40,6 +42,7 @@ import com.vaadin.flow.component.internal.UIInternals.JavaScriptInvocation;
 import com.vaadin.flow.di.Lookup;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.dom.ElementFactory;
+import com.vaadin.flow.internal.ConstantPool;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.router.ParentLayout;
 import com.vaadin.flow.router.Route;
@@ -47,12 +50,16 @@ import com.vaadin.flow.router.RouteConfiguration;
 import com.vaadin.flow.router.RoutePathProvider;
 import com.vaadin.flow.router.RouterLayout;
 import com.vaadin.flow.server.BootstrapHandlerTest;
+import com.vaadin.flow.server.FlowMetrics;
+import com.vaadin.flow.server.FlowMetrics.UidlPhase;
+import com.vaadin.flow.server.InitParameters;
 import com.vaadin.flow.server.MockServletServiceSessionSetup;
 import com.vaadin.flow.server.MockVaadinContext.RoutePathProviderImpl;
 import com.vaadin.flow.server.VaadinServletContext;
 import com.vaadin.flow.server.VaadinServletRequest;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
 import com.vaadin.flow.shared.ui.Dependency;
 import com.vaadin.flow.shared.ui.LoadMode;
 
@@ -186,6 +193,116 @@ public class UidlWriterTest {
         assertTrue(JsonUtils.jsonEquals(expectedJson, json));
     }
 
+    @Test
+    public void testEncodeExecuteJavaScript_constantPool_repeatedExpressionsInterned() {
+        Element element = ElementFactory.createDiv();
+        ConstantPool constantPool = new ConstantPool();
+
+        List<PendingJavaScriptInvocation> executeJavaScriptList = Stream
+                .of(new JavaScriptInvocation("$0.focus()", element),
+                        new JavaScriptInvocation("$0.focus()", element),
+                        new JavaScriptInvocation("$0.focus()", element),
+                        new JavaScriptInvocation("console.log($0)", "foo"))
+                .map(invocation -> new PendingJavaScriptInvocation(
+                        element.getNode(), invocation))
+                .collect(Collectors.toList());
+
+        JsonArray json = UidlWriter.encodeExecuteJavaScriptList(
+                executeJavaScriptList, new ExpressionInterner(constantPool));
+
+        // Expressions executed only once are sent as is
+        assertEquals("$0.focus()", json.getArray(0).getString(1));
+        assertEquals("console.log($0)", json.getArray(3).getString(1));
+
+        JsonObject focus = json.getArray(1).getObject(1);
+        assertTrue(JsonUtils.jsonEquals(focus, json.getArray(2).getObject(1)));
+
+        JsonObject constants = constantPool.dumpConstants();
+        assertEquals(1, constants.keys().length);
+        assertEquals("$0.focus()", constants.getString(
+                focus.getString(JsonConstants.UIDL_KEY_EXECUTE_EXPRESSION)));
+    }
+
+    @Test
+    public void testEncodeExecuteJavaScript_maxInternedExpressions_expressionsSentAsIs() {
+        Element element = ElementFactory.createDiv();
+        ConstantPool constantPool = new ConstantPool();
+        ExpressionInterner interner = new ExpressionInterner(constantPool);
+
+        List<PendingJavaScriptInvocation> executeJavaScriptList = IntStream
+                .rangeClosed(0, ExpressionInterner.MAX_INTERNED)
+                .mapToObj(i -> new JavaScriptInvocation("window.x" + i + "=1"))
+                .flatMap(invocation -> Stream.of(invocation, invocation))
+                .map(invocation -> new PendingJavaScriptInvocation(
+                        element.getNode(), invocation))
+                .collect(Collectors.toList());
+
+        JsonArray json = UidlWriter
+                .encodeExecuteJavaScriptList(executeJavaScriptList, interner);
+
+        assertEquals(ExpressionInterner.MAX_INTERNED,
+                constantPool.dumpConstants().keys().length);
+        JsonArray last = json.getArray(json.length() - 1);
+        assertEquals("window.x" + ExpressionInterner.MAX_INTERNED + "=1",
+                last.getString(last.length() - 1));
+    }
+
+    @Test
+    public void createUidl_executeJs_expressionSentInSameResponse()
+            throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        UidlWriter uidlWriter = new UidlWriter();
+        addInitialComponentDependencies(ui, uidlWriter);
+
+        ui.getPage().executeJs("window.foo = $0", "bar");
+        JsonObject response = uidlWriter.createUidl(ui, false);
+        assertEquals("window.foo = $0", response
+                .getArray(JsonConstants.UIDL_KEY_EXECUTE).getArray(0)
+                .getString(1));
+
+        // The expression is interned when it is executed again
+        ui.getPage().executeJs("window.foo = $0", "baz");
+        response = uidlWriter.createUidl(ui, false);
+
+        String id = response.getArray(JsonConstants.UIDL_KEY_EXECUTE)
+                .getArray(0).getObject(1)
+                .getString(JsonConstants.UIDL_KEY_EXECUTE_EXPRESSION);
+        assertEquals("window.foo = $0",
+                response.getObject("constants").getString(id));
+
+        // The expression is known by the client after that response
+        ui.getPage().executeJs("window.foo = $0", "qux");
+        response = uidlWriter.createUidl(ui, false);
+
+        assertFalse(response.hasKey("constants"));
+        assertEquals(id,
+                response.getArray(JsonConstants.UIDL_KEY_EXECUTE).getArray(0)
+                        .getObject(1)
+                        .getString(JsonConstants.UIDL_KEY_EXECUTE_EXPRESSION));
+    }
+
+    @Test
+    public void createUidl_metricsEnabled_phasesAndDirtyNodesRecorded()
+            throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        UidlWriter uidlWriter = new UidlWriter();
+        addInitialComponentDependencies(ui, uidlWriter);
+        FlowMetrics metrics = Mockito.mock(FlowMetrics.class,
+                Mockito.CALLS_REAL_METHODS);
+        mocks.getService().setMetrics(metrics);
+
+        ui.add(new ChildComponent(), new ChildComponent());
+        uidlWriter.createUidl(ui, false);
+
+        for (UidlPhase phase : Arrays.asList(UidlPhase.BEFORE_CLIENT_RESPONSE,
+                UidlPhase.COLLECT_CHANGES, UidlPhase.ENCODE)) {
+            Mockito.verify(metrics).recordUidlPhase(Mockito.eq(phase),
+                    Mockito.anyLong());
+        }
+        // The UI children list and the two added components
+        Mockito.verify(metrics).recordDirtyNodes(3);
+    }
+
     @Test
     public void componentDependencies_npmMode() throws Exception {
         UI ui = initializeUIForDependenciesTest(new TestUI());
@@ -289,6 +406,44 @@ public class UidlWriterTest {
                 response.getBoolean(ApplicationConstants.RESYNCHRONIZE_ID));
     }
 
+    @Test
+    public void changeBatchingDisabledByDefault_changesOfEachNodeWritten()
+            throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        List<Element> elements = addElements(ui);
+        UidlWriter uidlWriter = new UidlWriter();
+        uidlWriter.createUidl(ui, false);
+        elements.forEach(
+                element -> element.getClassList().add("highlighted"));
+
+        JsonArray changes = uidlWriter.createUidl(ui, false)
+                .getArray("changes");
+
+        assertFalse(changes.toJson().contains(
+                '"' + JsonConstants.CHANGE_NODES + '"'));
+    }
+
+    @Test
+    public void changeBatchingEnabled_identicalChangesWrittenOnce()
+            throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        mocks.getDeploymentConfiguration().setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_BATCH_UIDL_CHANGES, "true");
+        List<Element> elements = addElements(ui);
+        UidlWriter uidlWriter = new UidlWriter();
+        uidlWriter.createUidl(ui, false);
+        elements.forEach(
+                element -> element.getClassList().add("highlighted"));
+
+        JsonArray changes = uidlWriter.createUidl(ui, false)
+                .getArray("changes");
+
+        long batched = JsonUtils.<JsonObject> stream(changes)
+                .filter(change -> change.hasKey(JsonConstants.CHANGE_NODES))
+                .count();
+        assertTrue(batched > 0);
+    }
+
     private void assertInlineDependencies(List<JsonObject> inlineDependencies) {
         assertThat("Should have an inline dependency", inlineDependencies,
                 hasSize(1));
@@ -346,6 +501,16 @@ public class UidlWriterTest {
         return ui;
     }
 
+    private static List<Element> addElements(UI ui) {
+        List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Element element = new Element("div");
+            ui.getElement().appendChild(element);
+            elements.add(element);
+        }
+        return elements;
+    }
+
     private void addInitialComponentDependencies(UI ui, UidlWriter uidlWriter) {
         ui.add(new ActualComponent());
 
@@ -1,5 +1,6 @@
 package com.vaadin.flow.server.frontend;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
@@ -7,6 +8,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -124,6 +128,148 @@ public class NodeTasksExecutionTest {
                 UnknownTaskException.class, nodeTasks::execute);
     }
 
+    @Test
+    public void declaredCommandsWithoutCommonFiles_executedConcurrently()
+            throws Exception {
+        CountDownLatch latch = new CountDownLatch(2);
+        List<FallibleCommand> declared = new ArrayList<>();
+        for (String name : List.of("a.txt", "b.txt")) {
+            FallibleCommand command = mockDeclaredCommand(
+                    name.equals("a.txt") ? TaskGenerateIndexHtml.class
+                            : TaskGenerateTsConfig.class,
+                    new FileDependencies(Collections.emptyList(),
+                            List.of(temporaryFolder.newFile(name))));
+            Mockito.doAnswer(invocation -> {
+                latch.countDown();
+                // Both commands must be running at the same time
+                Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+                return null;
+            }).when(command).execute();
+            declared.add(command);
+        }
+        commands.addAll(declared);
+
+        nodeTasks.execute();
+
+        Assert.assertEquals(0, latch.getCount());
+    }
+
+    @Test
+    public void declaredCommandsWithCommonFiles_executedInDefinedOrder()
+            throws Exception {
+        File file = temporaryFolder.newFile("shared.txt");
+        List<Class<? extends FallibleCommand>> executed = Collections
+                .synchronizedList(new ArrayList<>());
+        for (Class<? extends FallibleCommand> type : List.of(
+                TaskGenerateTsConfig.class, TaskGenerateIndexHtml.class)) {
+            FallibleCommand command = mockDeclaredCommand(type,
+                    new FileDependencies(List.of(file), List.of(file)));
+            Mockito.doAnswer(invocation -> {
+                Thread.sleep(50);
+                executed.add(type);
+                return null;
+            }).when(command).execute();
+            commands.add(command);
+        }
+
+        nodeTasks.execute();
+
+        Assert.assertEquals(List.of(TaskGenerateIndexHtml.class,
+                TaskGenerateTsConfig.class), executed);
+    }
+
+    @Test
+    public void skippableCommand_filesNotChanged_notExecutedAgain()
+            throws Exception {
+        File input = temporaryFolder.newFolder("input");
+        File output = temporaryFolder.newFolder("output");
+        Files.writeString(new File(input, "foo.js").toPath(), "foo");
+        nodeTasks = new NodeTasks.Builder(Mockito.mock(Lookup.class),
+                temporaryFolder.getRoot(), TARGET).build();
+        commands = getCommands(nodeTasks);
+        commands.clear();
+
+        AtomicInteger executions = new AtomicInteger();
+        FallibleCommand command = mockDeclaredCommand(
+                TaskCopyLocalFrontendFiles.class,
+                new FileDependencies(List.of(input), List.of(output))
+                        .skippable());
+        Mockito.doAnswer(invocation -> executions.incrementAndGet())
+                .when(command).execute();
+        commands.add(command);
+
+        nodeTasks.execute();
+        nodeTasks.execute();
+        Assert.assertEquals(1, executions.get());
+
+        File changed = new File(input, "foo.js");
+        Files.writeString(changed.toPath(), "changed");
+        changed.setLastModified(changed.lastModified() + 2000);
+        nodeTasks.execute();
+        Assert.assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void copyLocalFrontendFiles_otherCommandsWriteToSameFolder_skippedOnNextRun()
+            throws Exception {
+        File local = temporaryFolder.newFolder("local");
+        File target = temporaryFolder.newFolder("flow-frontend");
+        Files.writeString(new File(local, "foo.js").toPath(), "foo");
+        nodeTasks = new NodeTasks.Builder(Mockito.mock(Lookup.class),
+                temporaryFolder.getRoot(), TARGET).build();
+        commands = getCommands(nodeTasks);
+        commands.clear();
+
+        TaskCopyLocalFrontendFiles copyLocal = Mockito
+                .spy(new TaskCopyLocalFrontendFiles(target, local));
+        commands.add(copyLocal);
+        // Commands run before and after the local copy which write other
+        // files to the same folder on every run
+        AtomicInteger writes = new AtomicInteger();
+        for (Class<? extends FallibleCommand> type : List.of(
+                TaskCopyFrontendFiles.class, TaskCopyTemplateFiles.class)) {
+            FallibleCommand command = mockDeclaredCommand(type,
+                    new FileDependencies(Collections.emptyList(),
+                            List.of(target)));
+            Mockito.doAnswer(invocation -> {
+                File written = new File(target,
+                        type.getSimpleName() + ".js");
+                Files.writeString(written.toPath(),
+                        String.valueOf(writes.incrementAndGet()));
+                written.setLastModified(written.lastModified()
+                        + writes.get() * 2000L);
+                return null;
+            }).when(command).execute();
+            commands.add(command);
+        }
+
+        nodeTasks.execute();
+        nodeTasks.execute();
+        Mockito.verify(copyLocal, Mockito.times(1)).execute();
+        Assert.assertEquals(4, writes.get());
+
+        File copied = new File(target, "foo.js");
+        Files.writeString(copied.toPath(), "edited");
+        nodeTasks.execute();
+        Mockito.verify(copyLocal, Mockito.times(2)).execute();
+        Assert.assertEquals("foo", Files.readString(copied.toPath()));
+    }
+
+    private FallibleCommand mockDeclaredCommand(
+            Class<? extends FallibleCommand> type, FileDependencies files) {
+        FallibleCommand command = Mockito.mock(type);
+        Mockito.when(command.getFileDependencies()).thenReturn(files);
+        return command;
+    }
+
+    private static List<FallibleCommand> getCommands(NodeTasks nodeTasks)
+            throws Exception {
+        final Field commandsField = NodeTasks.class
+                .getDeclaredField("commands");
+        commandsField.setAccessible(true);
+        return (List<FallibleCommand>) commandsField.get(nodeTasks);
+    }
+
     private class NewTask implements FallibleCommand {
         @Override
         public void execute() throws ExecutionFailedException {
@@ -19,11 +19,13 @@ package com.vaadin.flow.server.frontend;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -83,6 +85,107 @@ public class TaskCopyFrontendFilesTest extends NodeUpdateTestUtil {
         Assert.assertFalse(deps.hasKey("@vaadin/flow-deps"));
     }
 
+    @Test
+    public void jarNotChanged_jarNotExtractedAgain() throws IOException {
+        File jar = copyTestJar();
+        File buildDirectory = temporaryFolder.newFolder();
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar),
+                buildDirectory).execute();
+
+        JarContentsManager jarContentsManager = executeWithSpy(jar,
+                buildDirectory);
+
+        Mockito.verifyNoInteractions(jarContentsManager);
+        Assert.assertTrue(
+                new File(frontendDepsFolder, "ExampleConnector.js").isFile());
+    }
+
+    @Test
+    public void jarTouched_contentsNotChanged_jarNotExtractedAgain()
+            throws IOException {
+        File jar = copyTestJar();
+        File buildDirectory = temporaryFolder.newFolder();
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar),
+                buildDirectory).execute();
+        Assert.assertTrue(jar.setLastModified(jar.lastModified() + 5000));
+
+        JarContentsManager jarContentsManager = executeWithSpy(jar,
+                buildDirectory);
+
+        Mockito.verifyNoInteractions(jarContentsManager);
+    }
+
+    @Test
+    public void copiedFileEdited_jarExtractedAgain() throws IOException {
+        File jar = copyTestJar();
+        File buildDirectory = temporaryFolder.newFolder();
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar),
+                buildDirectory).execute();
+        File copied = new File(frontendDepsFolder, "ExampleConnector.js");
+        String content = FileUtils.readFileToString(copied,
+                StandardCharsets.UTF_8);
+        FileUtils.write(copied, "edited", StandardCharsets.UTF_8);
+
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar),
+                buildDirectory).execute();
+
+        Assert.assertEquals(content,
+                FileUtils.readFileToString(copied, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void copiedFileRemoved_jarExtractedAgain() throws IOException {
+        File jar = copyTestJar();
+        File buildDirectory = temporaryFolder.newFolder();
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar),
+                buildDirectory).execute();
+        File copied = new File(frontendDepsFolder, "ExampleConnector.js");
+        Assert.assertTrue(copied.delete());
+
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar),
+                buildDirectory).execute();
+
+        Assert.assertTrue(copied.isFile());
+    }
+
+    @Test
+    public void jarRemoved_filesOfJarRemoved() throws IOException {
+        File jar = copyTestJar();
+        File dir = TestUtils.getTestFolder("dir-with-modern-frontend");
+        File buildDirectory = temporaryFolder.newFolder();
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar, dir),
+                buildDirectory).execute();
+        Assert.assertTrue(
+                new File(frontendDepsFolder, "ExampleConnector.js").isFile());
+
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(dir),
+                buildDirectory).execute();
+
+        List<String> files = TestUtils.listFilesRecursively(frontendDepsFolder);
+        Assert.assertFalse(files.contains("ExampleConnector.js"));
+        Assert.assertTrue(files.contains("resourceInFolder.js"));
+    }
+
+    private JarContentsManager executeWithSpy(File jar, File buildDirectory) {
+        JarContentsManager jarContentsManager = Mockito
+                .spy(new JarContentsManager());
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar),
+                buildDirectory) {
+            @Override
+            JarContentsManager createJarContentsManager() {
+                return jarContentsManager;
+            }
+        }.execute();
+        return jarContentsManager;
+    }
+
+    private File copyTestJar() throws IOException {
+        File jar = new File(temporaryFolder.newFolder(), "frontend.jar");
+        FileUtils.copyFile(
+                TestUtils.getTestJar("jar-with-modern-frontend.jar"), jar);
+        return jar;
+    }
+
     private void should_collectJsAndCssFilesFromJars(String jarFile,
             String fsDir) throws IOException {
 
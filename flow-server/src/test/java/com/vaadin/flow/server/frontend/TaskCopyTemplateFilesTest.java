@@ -19,9 +19,11 @@ package com.vaadin.flow.server.frontend;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -36,6 +38,10 @@ import com.vaadin.flow.server.Constants;
 import com.vaadin.flow.server.frontend.scanner.ClassFinder;
 import com.vaadin.flow.testutil.TestUtils;
 
+import elemental.json.Json;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
+
 public class TaskCopyTemplateFilesTest {
 
     @Tag("my-lit-element-view")
@@ -78,6 +84,51 @@ public class TaskCopyTemplateFilesTest {
         executeTaskCopyTemplateFiles("frontend-custom");
     }
 
+    @Test
+    public void should_writeTemplateIdIndexForLitTemplates() throws Exception {
+        File frontendDirectory = new File(projectDirectory,
+                FrontendUtils.FRONTEND);
+        frontendDirectory.mkdirs();
+        FileUtils.write(new File(frontendDirectory, "my-lit-element-view.js"),
+                "class MyLitElementView extends LitElement {\n"
+                        + "  render() {\n    return html`\n"
+                        + "      <vaadin-text-field id=\"name\" label=\"Name\""
+                        + " required></vaadin-text-field>\n"
+                        + "      <div><span id=\"label\"></span></div>\n"
+                        + "    `;\n  }\n}",
+                StandardCharsets.UTF_8);
+
+        TaskCopyTemplateFiles task = new TaskCopyTemplateFiles(finder,
+                projectDirectory, resourceOutputDirectory, frontendDirectory);
+        task.execute();
+
+        File indexFile = new File(resourceOutputDirectory,
+                Constants.TEMPLATE_ID_INDEX);
+        Assert.assertTrue("Template id index should have been written",
+                indexFile.exists());
+        JsonObject index = Json.parse(
+                FileUtils.readFileToString(indexFile, StandardCharsets.UTF_8));
+        JsonObject ids = index.getObject("my-lit-element-view.js");
+        Assert.assertEquals("vaadin-text-field",
+                ids.getObject("name").getString("tag"));
+        Assert.assertEquals("Name", ids.getObject("name")
+                .getObject("attributes").getString("label"));
+        Assert.assertEquals(JsonType.NULL, ids.getObject("name")
+                .getObject("attributes").get("required").getType());
+        Assert.assertEquals("span", ids.getObject("label").getString("tag"));
+    }
+
+    @Test
+    public void should_notIndexNonLitTemplate() throws Exception {
+        executeTaskCopyTemplateFiles(FrontendUtils.FRONTEND);
+
+        JsonObject index = Json.parse(FileUtils.readFileToString(
+                new File(resourceOutputDirectory,
+                        Constants.TEMPLATE_ID_INDEX),
+                StandardCharsets.UTF_8));
+        Assert.assertEquals(0, index.keys().length);
+    }
+
     private void executeTaskCopyTemplateFiles(String frontedDirectoryName)
             throws Exception {
         // prepare frontend resource
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend;
+
+import javax.imageio.ImageIO;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.server.Constants;
+import com.vaadin.flow.server.PWA;
+import com.vaadin.flow.server.PwaConfiguration;
+import com.vaadin.flow.server.PwaIcon;
+import com.vaadin.flow.server.PwaIconCache;
+import com.vaadin.flow.server.frontend.scanner.ClassFinder;
+
+import elemental.json.Json;
+
+@PWA(name = "foo", shortName = "bar", iconPath = "icons/logo.png")
+public class TaskGeneratePwaIconsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File projectDirectory;
+    private File webappDirectory;
+    private File javaResourceFolder;
+    private File resourceOutputDirectory;
+    private File logo;
+    private ClassFinder classFinder;
+    private PwaConfiguration configuration;
+    private TaskGeneratePwaIcons task;
+
+    @Before
+    public void setup() throws IOException {
+        projectDirectory = temporaryFolder.newFolder();
+        resourceOutputDirectory = new File(projectDirectory,
+                "target/" + Constants.VAADIN_SERVLET_RESOURCES);
+        webappDirectory = new File(projectDirectory, "src/main/webapp");
+        javaResourceFolder = new File(projectDirectory, "src/main/resources");
+        logo = new File(webappDirectory, "icons/logo.png");
+        writeLogo(Color.RED);
+
+        classFinder = Mockito.mock(ClassFinder.class);
+        configuration = new PwaConfiguration(
+                TaskGeneratePwaIconsTest.class.getAnnotation(PWA.class));
+        task = createTask(webappDirectory);
+    }
+
+    @Test
+    public void execute_iconsAndIndexWritten() throws Exception {
+        task.execute();
+
+        PwaIconCache cache = readIndex();
+        Assert.assertTrue(cache.isRenderedFrom("icons/logo.png",
+                FileUtils.readFileToByteArray(logo)));
+        for (PwaIcon icon : PwaIconCache.getIconTemplates("icons/logo.png")) {
+            File iconFile = new File(resourceOutputDirectory,
+                    Constants.PWA_ICONS_DIRECTORY + cache.getIconFile(icon));
+            BufferedImage image = ImageIO.read(iconFile);
+            Assert.assertEquals(icon.getWidth(), image.getWidth());
+            Assert.assertEquals(icon.getHeight(), image.getHeight());
+        }
+    }
+
+    @Test
+    public void execute_logoNotChanged_iconsNotRenderedAgain()
+            throws Exception {
+        task.execute();
+        File iconFile = new File(resourceOutputDirectory,
+                Constants.PWA_ICONS_DIRECTORY + "192x192.png");
+        FileUtils.write(iconFile, "unchanged", StandardCharsets.UTF_8);
+
+        task.execute();
+
+        Assert.assertEquals("unchanged",
+                FileUtils.readFileToString(iconFile, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void execute_logoChanged_iconsRenderedAgain() throws Exception {
+        task.execute();
+        writeLogo(Color.BLUE);
+
+        task.execute();
+
+        PwaIconCache cache = readIndex();
+        Assert.assertTrue(cache.isRenderedFrom("icons/logo.png",
+                FileUtils.readFileToByteArray(logo)));
+        BufferedImage image = ImageIO.read(new File(resourceOutputDirectory,
+                Constants.PWA_ICONS_DIRECTORY + "192x192.png"));
+        Assert.assertEquals(Color.BLUE.getRGB(), image.getRGB(96, 96));
+    }
+
+    @Test
+    public void execute_customWebappDirectory_logoReadFromIt()
+            throws Exception {
+        File customWebapp = new File(projectDirectory, "webapp");
+        logo = new File(customWebapp, "icons/logo.png");
+        writeLogo(Color.BLUE);
+
+        createTask(customWebapp).execute();
+
+        assertIconsRenderedFrom(Color.BLUE);
+    }
+
+    @Test
+    public void execute_logoInStaticResources_logoReadFromIt()
+            throws Exception {
+        FileUtils.deleteDirectory(webappDirectory);
+        logo = new File(javaResourceFolder, "static/icons/logo.png");
+        writeLogo(Color.BLUE);
+
+        task.execute();
+
+        assertIconsRenderedFrom(Color.BLUE);
+    }
+
+    @Test
+    public void execute_logoInMetaInfResources_logoReadFromIt()
+            throws Exception {
+        FileUtils.deleteDirectory(webappDirectory);
+        logo = new File(javaResourceFolder,
+                "META-INF/resources/icons/logo.png");
+        writeLogo(Color.BLUE);
+
+        task.execute();
+
+        assertIconsRenderedFrom(Color.BLUE);
+    }
+
+    @Test
+    public void execute_logoInClassPathStatic_logoReadFromClassPath()
+            throws Exception {
+        FileUtils.deleteDirectory(webappDirectory);
+        logo = new File(temporaryFolder.newFolder(), "static/icons/logo.png");
+        writeLogo(Color.BLUE);
+        Mockito.when(classFinder.getResource("static/icons/logo.png"))
+                .thenReturn(logo.toURI().toURL());
+
+        task.execute();
+
+        assertIconsRenderedFrom(Color.BLUE);
+    }
+
+    private TaskGeneratePwaIcons createTask(File webapp) {
+        return new TaskGeneratePwaIcons(classFinder,
+                Arrays.asList(webapp,
+                        new File(javaResourceFolder, "META-INF/resources"),
+                        new File(javaResourceFolder, "static")),
+                resourceOutputDirectory, configuration);
+    }
+
+    private void assertIconsRenderedFrom(Color color) throws IOException {
+        PwaIconCache cache = readIndex();
+        Assert.assertTrue(cache.isRenderedFrom("icons/logo.png",
+                FileUtils.readFileToByteArray(logo)));
+        BufferedImage image = ImageIO.read(new File(resourceOutputDirectory,
+                Constants.PWA_ICONS_DIRECTORY + "192x192.png"));
+        Assert.assertEquals(color.getRGB(), image.getRGB(96, 96));
+    }
+
+    private PwaIconCache readIndex() throws IOException {
+        File indexFile = new File(resourceOutputDirectory,
+                Constants.PWA_ICONS_INDEX);
+        Assert.assertTrue("PWA icon index should have been written",
+                indexFile.exists());
+        return new PwaIconCache(Json.parse(
+                FileUtils.readFileToString(indexFile, StandardCharsets.UTF_8)));
+    }
+
+    private void writeLogo(Color color) throws IOException {
+        BufferedImage image = new BufferedImage(64, 64,
+                BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < 64; x++) {
+            for (int y = 0; y < 64; y++) {
+                image.setRGB(x, y, color.getRGB());
+            }
+        }
+        FileUtils.forceMkdirParent(logo);
+        ImageIO.write(image, "png", logo);
+    }
+}
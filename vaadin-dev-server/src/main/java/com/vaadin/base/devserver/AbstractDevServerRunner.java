@@ -22,9 +22,12 @@ import java.io.UncheckedIOException;
 import java.net.HttpURLConnection;
 import java.net.InetAddress;
 import java.net.ServerSocket;
+import java.net.URI;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -104,6 +107,7 @@ public abstract class AbstractDevServerRunner implements DevModeHandler {
 
     private static final int DEFAULT_BUFFER_SIZE = 32 * 1024;
     private static final int DEFAULT_TIMEOUT = 120 * 1000;
+    private static final long DEFAULT_PROXY_CACHE_SIZE = 64 * 1024 * 1024;
 
     private final File npmFolder;
     private volatile int port;
@@ -125,6 +129,8 @@ public abstract class AbstractDevServerRunner implements DevModeHandler {
 
     private String failedOutput = null;
 
+    private final DevServerProxy proxy;
+
     /**
      * Craete an instance that waits for the given task to complete before
      * starting or connecting to the server.
@@ -147,6 +153,12 @@ public abstract class AbstractDevServerRunner implements DevModeHandler {
                 .lookup(ApplicationConfiguration.class);
         reuseDevServer = applicationConfiguration.reuseDevServer();
         devServerPortFile = getDevServerPortFile(npmFolder);
+        boolean cacheImmutableResponses = applicationConfiguration
+                .getBooleanProperty(
+                        InitParameters.SERVLET_PARAMETER_DEVMODE_CACHE_IMMUTABLE_RESPONSES,
+                        false);
+        proxy = new DevServerProxy(Duration.ofMillis(DEFAULT_TIMEOUT),
+                cacheImmutableResponses ? DEFAULT_PROXY_CACHE_SIZE : 0);
 
         BrowserLiveReloadAccessor liveReloadAccess = lookup
                 .lookup(BrowserLiveReloadAccessor.class);
@@ -606,7 +618,8 @@ public abstract class AbstractDevServerRunner implements DevModeHandler {
     public HttpURLConnection prepareConnection(String path, String method)
             throws IOException {
         // path should have been checked at this point for any outside requests
-        URL uri = new URL(DEV_SERVER_HOST + ":" + getPort() + path);
+        URL uri = new URL(
+                DEV_SERVER_HOST + ":" + getPort() + getDevServerPath(path));
         HttpURLConnection connection = (HttpURLConnection) uri.openConnection();
         connection.setRequestMethod(method);
         connection.setReadTimeout(DEFAULT_TIMEOUT);
@@ -614,6 +627,18 @@ public abstract class AbstractDevServerRunner implements DevModeHandler {
         return connection;
     }
 
+    /**
+     * Gets the path of the given resource on the dev server.
+     *
+     * @param path
+     *            the path of the requested resource, starting with
+     *            {@code /VAADIN/} for resources served by the dev server
+     * @return the path to request from the dev server
+     */
+    protected String getDevServerPath(String path) {
+        return path;
+    }
+
     @Override
     public boolean handleRequest(VaadinSession session, VaadinRequest request,
             VaadinResponse response) throws IOException {
@@ -704,53 +729,52 @@ public abstract class AbstractDevServerRunner implements DevModeHandler {
         if (request.getQueryString() != null) {
             devServerRequestPath += "?" + request.getQueryString();
         }
-        HttpURLConnection connection = prepareConnection(devServerRequestPath,
-                request.getMethod());
+        URI uri = URI.create(DEV_SERVER_HOST + ":" + getPort()
+                + getDevServerPath(devServerRequestPath));
 
         // Copies all the headers from the original request
+        Map<String, String> headers = new HashMap<>();
         Enumeration<String> headerNames = request.getHeaderNames();
         while (headerNames.hasMoreElements()) {
             String header = headerNames.nextElement();
-            connection.setRequestProperty(header,
-                    // Exclude keep-alive
-                    "Connect".equals(header) ? "close"
-                            : request.getHeader(header));
+            headers.put(header, request.getHeader(header));
         }
 
         // Send the request
         getLogger().debug("Requesting resource from {} {}", getServerName(),
-                connection.getURL());
-        int responseCode = connection.getResponseCode();
-        if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
-            getLogger().debug("Resource not served by {} {}", getServerName(),
-                    devServerRequestPath);
-            // the dev server cannot access the resource, return false so Flow
-            // can
-            // handle it
-            return false;
-        }
-        getLogger().debug("Served resource by {}: {} {}", getServerName(),
-                responseCode, devServerRequestPath);
-
-        // Copies response headers
-        connection.getHeaderFields().forEach((header, values) -> {
-            if (header != null) {
-                if ("Transfer-Encoding".equals(header)) {
+                uri);
+        try (DevServerProxy.Response proxied = proxy.send(uri,
+                request.getMethod(), headers)) {
+            int responseCode = proxied.getStatusCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+                getLogger().debug("Resource not served by {} {}",
+                        getServerName(), devServerRequestPath);
+                // the dev server cannot access the resource, return false so
+                // Flow can handle it
+                return false;
+            }
+            getLogger().debug("Served resource by {}{}: {} {}",
+                    getServerName(), proxied.isCached() ? " (cached)" : "",
+                    responseCode, devServerRequestPath);
+
+            // Copies response headers
+            proxied.getHeaders().forEach((header, values) -> {
+                if ("Transfer-Encoding".equalsIgnoreCase(header)
+                        || values.isEmpty()) {
                     return;
                 }
                 response.addHeader(header, values.get(0));
+            });
+
+            if (responseCode == HttpURLConnection.HTTP_OK) {
+                // Copies response payload
+                proxied.writeBody(response.getOutputStream());
+            } else if (responseCode < 400) {
+                response.setStatus(responseCode);
+            } else {
+                // Copies response code
+                response.sendError(responseCode);
             }
-        });
-
-        if (responseCode == HttpURLConnection.HTTP_OK) {
-            // Copies response payload
-            writeStream(response.getOutputStream(),
-                    connection.getInputStream());
-        } else if (responseCode < 400) {
-            response.setStatus(responseCode);
-        } else {
-            // Copies response code
-            response.sendError(responseCode);
         }
 
         // Close request to avoid issues in CI and Chrome
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.base.devserver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends the requests proxied to the frontend development server.
+ * <p>
+ * The connections to the dev server are kept alive and reused for the
+ * following requests, which matters as a page load in development mode makes
+ * hundreds of requests for individual modules. Responses marked as immutable,
+ * such as the pre-bundled dependencies served by Vite, can optionally be
+ * cached in memory.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+class DevServerProxy {
+
+    // Headers which are managed by the HTTP client itself. Java 11 also
+    // restricts date, from, origin, referer, via and warning.
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection",
+            "content-length", "date", "expect", "from", "host", "origin",
+            "referer", "upgrade", "via", "warning");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_CACHED_RESPONSE_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * A response from the dev server.
+     */
+    static final class Response implements AutoCloseable {
+        private final int statusCode;
+        private final Map<String, List<String>> headers;
+        private final InputStream body;
+        private final byte[] content;
+
+        private Response(int statusCode, Map<String, List<String>> headers,
+                InputStream body, byte[] content) {
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.body = body;
+            this.content = content;
+        }
+
+        /**
+         * Gets the status code of the response.
+         *
+         * @return the status code
+         */
+        int getStatusCode() {
+            return statusCode;
+        }
+
+        /**
+         * Gets the headers of the response.
+         *
+         * @return the headers, not {@code null}
+         */
+        Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        /**
+         * Writes the body of the response to the given stream.
+         *
+         * @param out
+         *            the stream to write to
+         * @throws IOException
+         *             if reading the response or writing to the stream fails
+         */
+        void writeBody(OutputStream out) throws IOException {
+            if (content != null) {
+                out.write(content);
+                return;
+            }
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int bytes;
+            while ((bytes = body.read(buffer)) >= 0) {
+                out.write(buffer, 0, bytes);
+            }
+        }
+
+        boolean isCached() {
+            return content != null && body == null;
+        }
+
+        /**
+         * Releases the connection of the response, so that it can be reused.
+         */
+        @Override
+        public void close() throws IOException {
+            if (body != null) {
+                // The connection is only returned to the pool once the body
+                // has been read completely
+                try (InputStream stream = body) {
+                    stream.transferTo(OutputStream.nullOutputStream());
+                }
+            }
+        }
+    }
+
+    private final HttpClient client;
+    private final Duration timeout;
+    private final long cacheSize;
+    private final LinkedHashMap<URI, Response> cache = new LinkedHashMap<>(16,
+            0.75f, true);
+    private long cachedBytes;
+
+    /**
+     * Creates a new proxy.
+     *
+     * @param timeout
+     *            the timeout for connecting to the dev server and for
+     *            receiving the response headers
+     * @param cacheSize
+     *            the maximum number of bytes of immutable responses to cache,
+     *            zero to not cache any responses
+     */
+    DevServerProxy(Duration timeout, long cacheSize) {
+        this.timeout = timeout;
+        this.cacheSize = cacheSize;
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(timeout).build();
+    }
+
+    /**
+     * Sends a request without a body to the dev server.
+     * <p>
+     * The returned response must be closed once its body is no longer needed.
+     *
+     * @param uri
+     *            the URI of the requested resource
+     * @param method
+     *            the request method
+     * @param headers
+     *            the request headers to forward, the headers managed by the
+     *            HTTP client are ignored
+     * @return the response of the dev server, not {@code null}
+     * @throws IOException
+     *             if the dev server cannot be reached
+     */
+    Response send(URI uri, String method, Map<String, String> headers)
+            throws IOException {
+        boolean cacheable = cacheSize > 0 && "GET".equals(method);
+        if (cacheable) {
+            Response cached = getCached(uri);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .method(method, HttpRequest.BodyPublishers.noBody());
+        headers.forEach((name, value) -> {
+            if (value != null && !RESTRICTED_HEADERS
+                    .contains(name.toLowerCase(Locale.ENGLISH))) {
+                try {
+                    request.header(name, value);
+                } catch (IllegalArgumentException e) {
+                    // Restricted by the HTTP client of this Java version, or
+                    // not a valid header
+                    getLogger().debug("Not forwarding the header '{}' to the "
+                            + "dev server: {}", name, e.getMessage());
+                }
+            }
+        });
+
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(request.build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(
+                    "Interrupted while waiting for " + uri);
+        }
+
+        Map<String, List<String>> responseHeaders = response.headers().map();
+        if (cacheable && isCacheable(response)) {
+            byte[] content;
+            try (InputStream body = response.body()) {
+                content = body.readAllBytes();
+            }
+            Response cached = new Response(response.statusCode(),
+                    responseHeaders, null, content);
+            putCached(uri, cached);
+            return cached;
+        }
+        return new Response(response.statusCode(), responseHeaders,
+                response.body(), null);
+    }
+
+    /**
+     * Removes all cached responses.
+     */
+    synchronized void clearCache() {
+        cache.clear();
+        cachedBytes = 0;
+    }
+
+    private static boolean isCacheable(HttpResponse<?> response) {
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        OptionalLong length = response.headers()
+                .firstValueAsLong("Content-Length");
+        if (length.isEmpty() || length.getAsLong() > MAX_CACHED_RESPONSE_SIZE) {
+            return false;
+        }
+        return response.headers().allValues("Cache-Control").stream()
+                .anyMatch(value -> value.toLowerCase(Locale.ENGLISH)
+                        .contains("immutable"));
+    }
+
+    private synchronized Response getCached(URI uri) {
+        return cache.get(uri);
+    }
+
+    private synchronized void putCached(URI uri, Response response) {
+        Response previous = cache.put(uri, response);
+        if (previous != null) {
+            cachedBytes -= previous.content.length;
+        }
+        cachedBytes += response.content.length;
+        // Iteration order is from the least to the most recently used entry
+        Iterator<Response> iterator = cache.values().iterator();
+        while (cachedBytes > cacheSize && iterator.hasNext()) {
+            cachedBytes -= iterator.next().content.length;
+            iterator.remove();
+        }
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(DevServerProxy.class);
+    }
+}
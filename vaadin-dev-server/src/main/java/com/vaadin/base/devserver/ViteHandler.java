@@ -16,8 +16,6 @@
 package com.vaadin.base.devserver;
 
 import java.io.File;
-import java.io.IOException;
-import java.net.HttpURLConnection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -136,21 +134,17 @@ public final class ViteHandler extends AbstractDevServerRunner {
     }
 
     @Override
-    public HttpURLConnection prepareConnection(String path, String method)
-            throws IOException {
+    protected String getDevServerPath(String path) {
         for (String fileInSerlvetPath : FILES_IN_ROOT) {
             if (path.equals("/" + fileInSerlvetPath)) {
-                return super.prepareConnection(
-                        getPathToVaadin() + fileInSerlvetPath, method);
+                return getPathToVaadin() + fileInSerlvetPath;
             }
         }
 
         // The path passed to this method starts with /VAADIN and
         // getPathToVaadin() also
         // includes /VAADIN so one needs to be removed
-        String vitePath = getPathToVaadin().replace("/" + VAADIN_MAPPING, "")
-                + path;
-        return super.prepareConnection(vitePath, method);
+        return getPathToVaadin().replace("/" + VAADIN_MAPPING, "") + path;
     }
 
     private String getPathToVaadin() {
@@ -6,6 +6,7 @@ import java.net.HttpURLConnection;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -22,6 +23,7 @@ import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import com.sun.net.httpserver.HttpServer;
 import com.vaadin.base.devserver.startup.AbstractDevModeTest;
 import com.vaadin.flow.internal.DevModeHandler;
 import com.vaadin.flow.server.ExecutionFailedException;
@@ -99,28 +101,39 @@ public class AbstractDevServerRunnerTest extends AbstractDevModeTest {
 
     @Test
     public void shouldPassEncodedUrlToDevServer() throws Exception {
-        handler = new DummyRunner();
-        DevModeHandler devServer = Mockito.spy(handler);
-
-        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
-        Mockito.when(response.getOutputStream())
-                .thenReturn(Mockito.mock(ServletOutputStream.class));
-        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
-        Mockito.when(request.getRequestURI()).thenReturn("/foo%20bar");
-        Mockito.when(request.getPathInfo()).thenReturn("foo bar");
-        Mockito.when(request.getHeaderNames())
-                .thenReturn(Collections.emptyEnumeration());
-
         AtomicReference<String> requestedPath = new AtomicReference<>();
-        Mockito.when(devServer.prepareConnection(Mockito.any(), Mockito.any()))
-                .then(invocation -> {
-                    requestedPath.set((String) invocation.getArguments()[0]);
-                    return Mockito.mock(HttpURLConnection.class);
-                });
-        Assert.assertTrue("Dev server should have served the resource",
-                devServer.serveDevModeRequest(request, response));
-        Assert.assertEquals("foo%20bar", requestedPath.get());
-
+        HttpServer httpServer = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        httpServer.createContext("/", exchange -> {
+            requestedPath.set(exchange.getRequestURI().getRawPath());
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, -1);
+            exchange.close();
+        });
+        httpServer.start();
+        try {
+            handler = new DummyRunner();
+            DevModeHandler devServer = Mockito.spy(handler);
+            Mockito.when(devServer.getPort())
+                    .thenReturn(httpServer.getAddress().getPort());
+
+            HttpServletResponse response = Mockito
+                    .mock(HttpServletResponse.class);
+            Mockito.when(response.getOutputStream())
+                    .thenReturn(Mockito.mock(ServletOutputStream.class));
+            HttpServletRequest request = Mockito
+                    .mock(HttpServletRequest.class);
+            Mockito.when(request.getRequestURI()).thenReturn("/foo%20bar");
+            Mockito.when(request.getPathInfo()).thenReturn("/foo bar");
+            Mockito.when(request.getMethod()).thenReturn("GET");
+            Mockito.when(request.getHeaderNames())
+                    .thenReturn(Collections.emptyEnumeration());
+
+            Assert.assertTrue("Dev server should have served the resource",
+                    devServer.serveDevModeRequest(request, response));
+            Assert.assertEquals("/foo%20bar", requestedPath.get());
+        } finally {
+            httpServer.stop(0);
+        }
     }
 
     @Test
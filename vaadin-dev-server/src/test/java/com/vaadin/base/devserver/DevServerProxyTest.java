@@ -0,0 +1,211 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.base.devserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DevServerProxyTest {
+
+    private static final String IMMUTABLE = "max-age=31536000,immutable";
+
+    private HttpServer httpServer;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Set<InetSocketAddress> clients = ConcurrentHashMap
+            .newKeySet();
+    private final Map<String, String> receivedHeaders = new ConcurrentHashMap<>();
+    private volatile String cacheControl = "no-cache";
+
+    @Before
+    public void startServer() throws IOException {
+        httpServer = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        httpServer.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            clients.add(exchange.getRemoteAddress());
+            exchange.getRequestHeaders().forEach((name, values) -> {
+                receivedHeaders.put(name, values.get(0));
+            });
+            String path = exchange.getRequestURI().getPath();
+            byte[] body = ("content of " + path)
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+            exchange.sendResponseHeaders(path.endsWith("missing") ? 404 : 200,
+                    body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        httpServer.start();
+    }
+
+    @After
+    public void stopServer() {
+        httpServer.stop(0);
+    }
+
+    @Test
+    public void send_severalRequests_connectionReused() throws IOException {
+        DevServerProxy proxy = new DevServerProxy(Duration.ofSeconds(10), 0);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals("content of /foo" + i,
+                    get(proxy, "/foo" + i));
+        }
+        Assert.assertEquals(5, requests.get());
+        Assert.assertEquals(1, clients.size());
+    }
+
+    @Test
+    public void send_responseClosedWithoutReadingBody_connectionReused()
+            throws IOException {
+        DevServerProxy proxy = new DevServerProxy(Duration.ofSeconds(10), 0);
+        try (DevServerProxy.Response response = proxy.send(uri("/missing"),
+                "GET", Collections.emptyMap())) {
+            Assert.assertEquals(404, response.getStatusCode());
+        }
+        Assert.assertEquals("content of /foo", get(proxy, "/foo"));
+        Assert.assertEquals(1, clients.size());
+    }
+
+    @Test
+    public void send_immutableResponse_servedFromCache() throws IOException {
+        cacheControl = IMMUTABLE;
+        DevServerProxy proxy = new DevServerProxy(Duration.ofSeconds(10),
+                1024);
+
+        Assert.assertEquals("content of /foo", get(proxy, "/foo"));
+        try (DevServerProxy.Response response = proxy.send(uri("/foo"),
+                "GET", Collections.emptyMap())) {
+            Assert.assertTrue(response.isCached());
+            Assert.assertEquals(200, response.getStatusCode());
+            Assert.assertEquals(IMMUTABLE,
+                    response.getHeaders().get("cache-control").get(0));
+        }
+        Assert.assertEquals("content of /foo", get(proxy, "/foo"));
+        Assert.assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void send_immutableResponse_cacheDisabled_notCached()
+            throws IOException {
+        cacheControl = IMMUTABLE;
+        DevServerProxy proxy = new DevServerProxy(Duration.ofSeconds(10), 0);
+
+        get(proxy, "/foo");
+        get(proxy, "/foo");
+        Assert.assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void send_mutableResponse_notCached() throws IOException {
+        DevServerProxy proxy = new DevServerProxy(Duration.ofSeconds(10),
+                1024);
+
+        get(proxy, "/foo");
+        get(proxy, "/foo");
+        Assert.assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void send_cacheFull_leastRecentlyUsedResponseEvicted()
+            throws IOException {
+        cacheControl = IMMUTABLE;
+        // Each response is 14 bytes, so three of them fit in the cache
+        DevServerProxy proxy = new DevServerProxy(Duration.ofSeconds(10),
+                45);
+        get(proxy, "/aa");
+        get(proxy, "/bb");
+        get(proxy, "/cc");
+        get(proxy, "/aa");
+        get(proxy, "/dd");
+        Assert.assertEquals(4, requests.get());
+
+        get(proxy, "/aa");
+        Assert.assertEquals(4, requests.get());
+        get(proxy, "/bb");
+        Assert.assertEquals(5, requests.get());
+    }
+
+    @Test
+    public void send_restrictedHeadersIgnored_otherHeadersForwarded()
+            throws IOException {
+        DevServerProxy proxy = new DevServerProxy(Duration.ofSeconds(10), 0);
+        try (DevServerProxy.Response response = proxy.send(uri("/foo"),
+                "GET", Map.of("Host", "example.com", "Connection", "close",
+                        "Accept", "text/javascript"))) {
+            Assert.assertEquals(200, response.getStatusCode());
+        }
+        Assert.assertEquals("text/javascript", receivedHeaders.get("Accept"));
+        Assert.assertNotEquals("example.com", receivedHeaders.get("Host"));
+    }
+
+    @Test
+    public void send_headersRestrictedInJava11_requestSent()
+            throws IOException {
+        DevServerProxy proxy = new DevServerProxy(Duration.ofSeconds(10), 0);
+        try (DevServerProxy.Response response = proxy.send(uri("/foo"),
+                "GET",
+                Map.of("Date", "Tue, 15 Nov 1994 08:12:31 GMT", "From",
+                        "user@example.com", "Origin", "http://example.com",
+                        "Referer", "http://example.com/", "Via",
+                        "1.1 example.com", "Warning", "199 - \"foo\"",
+                        "Accept", "text/javascript"))) {
+            Assert.assertEquals(200, response.getStatusCode());
+        }
+        Assert.assertEquals("text/javascript", receivedHeaders.get("Accept"));
+    }
+
+    @Test
+    public void send_headerRejectedByClient_headerSkipped() throws IOException {
+        DevServerProxy proxy = new DevServerProxy(Duration.ofSeconds(10), 0);
+        try (DevServerProxy.Response response = proxy.send(uri("/foo"),
+                "GET", Map.of("X-Invalid", "foo\r\nbar", "Accept",
+                        "text/javascript"))) {
+            Assert.assertEquals(200, response.getStatusCode());
+        }
+        Assert.assertEquals("text/javascript", receivedHeaders.get("Accept"));
+        Assert.assertFalse(receivedHeaders.containsKey("X-invalid"));
+    }
+
+    private String get(DevServerProxy proxy, String path) throws IOException {
+        try (DevServerProxy.Response response = proxy.send(uri(path), "GET",
+                Collections.emptyMap())) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            response.writeBody(out);
+            return out.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:"
+                + httpServer.getAddress().getPort() + path);
+    }
+}
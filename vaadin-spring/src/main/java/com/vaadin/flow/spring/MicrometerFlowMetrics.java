@@ -0,0 +1,193 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.spring;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.server.FlowMetrics;
+
+/**
+ * Publishes the measurements of Flow internals to a Micrometer
+ * {@link MeterRegistry}, and through it e.g. to JMX or Prometheus.
+ * <p>
+ * The following meters are registered, all prefixed with {@code vaadin.}:
+ * <ul>
+ * <li>{@code uidl.phase}: time spent in each phase of creating a response,
+ * tagged with {@code phase}
+ * <li>{@code uidl.response.size}: size of the UIDL responses, in bytes
+ * <li>{@code uidl.dirty.nodes}: number of changed state nodes per response
+ * or push message
+ * <li>{@code push.message.length}: length of the push messages, in characters
+ * <li>{@code push.queue.depth}: number of access tasks waiting when a push
+ * message is sent
+ * <li>{@code session.lock.wait} and {@code session.lock.hold}: time spent
+ * waiting for and holding session locks
+ * <li>{@code sessions.active} and {@code uis.active}: number of active
+ * sessions and UIs
+ * <li>{@code data.fetch}: time spent fetching items for data communicators
+ * <li>{@code navigation}: time spent navigating, tagged with the
+ * {@code route} target class
+ * </ul>
+ * The counts of active sessions and UIs only include the sessions and UIs
+ * created after this instance has been taken into use.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see VaadinMetricsAutoConfiguration
+ */
+public class MicrometerFlowMetrics implements FlowMetrics {
+
+    private static final String PREFIX = "vaadin.";
+
+    private final MeterRegistry registry;
+
+    private final Map<UidlPhase, Timer> phaseTimers = new EnumMap<>(
+            UidlPhase.class);
+    private final DistributionSummary responseSize;
+    private final DistributionSummary dirtyNodes;
+    private final DistributionSummary pushLength;
+    private final DistributionSummary pushQueueDepth;
+    private final Timer lockWait;
+    private final Timer lockHold;
+    private final Timer dataFetch;
+    private final Map<Class<?>, Timer> navigationTimers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicInteger activeUIs = new AtomicInteger();
+
+    /**
+     * Creates a new instance registering its meters to the given registry.
+     *
+     * @param registry
+     *            the registry to publish the measurements to, not
+     *            {@code null}
+     */
+    public MicrometerFlowMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (UidlPhase phase : UidlPhase.values()) {
+            phaseTimers.put(phase, Timer.builder(PREFIX + "uidl.phase")
+                    .description("Time spent creating UIDL responses")
+                    .tag("phase", phase.name().toLowerCase(Locale.ENGLISH))
+                    .register(registry));
+        }
+        responseSize = DistributionSummary
+                .builder(PREFIX + "uidl.response.size")
+                .description("Size of UIDL responses")
+                .baseUnit(BaseUnits.BYTES).register(registry);
+        dirtyNodes = DistributionSummary.builder(PREFIX + "uidl.dirty.nodes")
+                .description("Changed state nodes per response")
+                .register(registry);
+        pushLength = DistributionSummary
+                .builder(PREFIX + "push.message.length")
+                .description("Length of push messages").register(registry);
+        pushQueueDepth = DistributionSummary
+                .builder(PREFIX + "push.queue.depth")
+                .description("Access tasks waiting when pushing")
+                .register(registry);
+        lockWait = Timer.builder(PREFIX + "session.lock.wait")
+                .description("Time spent waiting for session locks")
+                .register(registry);
+        lockHold = Timer.builder(PREFIX + "session.lock.hold")
+                .description("Time session locks are held")
+                .register(registry);
+        dataFetch = Timer.builder(PREFIX + "data.fetch")
+                .description("Time spent fetching items from data providers")
+                .register(registry);
+        Gauge.builder(PREFIX + "sessions.active", activeSessions,
+                AtomicInteger::get).description("Active sessions")
+                .register(registry);
+        Gauge.builder(PREFIX + "uis.active", activeUIs, AtomicInteger::get)
+                .description("Active UIs").register(registry);
+    }
+
+    @Override
+    public void recordUidlPhase(UidlPhase phase, long nanos) {
+        phaseTimers.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordUidlResponseSize(int bytes) {
+        responseSize.record(bytes);
+    }
+
+    @Override
+    public void recordDirtyNodes(int count) {
+        dirtyNodes.record(count);
+    }
+
+    @Override
+    public void recordPush(int length, int queueDepth) {
+        pushLength.record(length);
+        pushQueueDepth.record(queueDepth);
+    }
+
+    @Override
+    public void recordSessionLockWait(long nanos) {
+        lockWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordSessionLockHold(long nanos) {
+        lockHold.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void sessionCreated() {
+        activeSessions.incrementAndGet();
+    }
+
+    @Override
+    public void sessionDestroyed() {
+        activeSessions.decrementAndGet();
+    }
+
+    @Override
+    public void uiCreated() {
+        activeUIs.incrementAndGet();
+    }
+
+    @Override
+    public void uiDestroyed() {
+        activeUIs.decrementAndGet();
+    }
+
+    @Override
+    public void recordDataFetch(long nanos, int items) {
+        dataFetch.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordNavigation(Class<? extends Component> navigationTarget,
+            long nanos) {
+        navigationTimers.computeIfAbsent(navigationTarget,
+                target -> Timer.builder(PREFIX + "navigation")
+                        .description("Time spent navigating to routes")
+                        .tag("route", target.getName()).register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
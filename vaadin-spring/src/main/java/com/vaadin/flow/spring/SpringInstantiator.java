@@ -74,7 +74,7 @@ public class SpringInstantiator extends DefaultInstantiator {
     public I18NProvider getI18NProvider() {
         int beansCount = context.getBeanNamesForType(I18NProvider.class).length;
         if (beansCount == 1) {
-            return context.getBean(I18NProvider.class);
+            return cacheTranslations(context.getBean(I18NProvider.class));
         } else {
             if (loggingEnabled.compareAndSet(true, false)) {
                 LoggerFactory.getLogger(SpringInstantiator.class.getName())
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.spring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.vaadin.flow.server.FlowMetrics;
+
+/**
+ * Spring boot auto-configuration which publishes the measurements of Flow
+ * internals to the Micrometer {@link MeterRegistry} of the application.
+ * <p>
+ * Measuring has a small cost in the hot paths of request handling, so it is
+ * only enabled with the {@code vaadin.metrics.enabled=true} property.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see MicrometerFlowMetrics
+ */
+@Configuration
+@AutoConfigureAfter(name = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "vaadin.metrics", name = "enabled", havingValue = "true")
+public class VaadinMetricsAutoConfiguration {
+
+    /**
+     * Creates the metrics which the Vaadin service reports to, found by the
+     * service through the {@link com.vaadin.flow.di.Lookup Lookup}.
+     *
+     * @param registry
+     *            the registry to publish the measurements to
+     * @return the metrics
+     */
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnMissingBean(FlowMetrics.class)
+    public MicrometerFlowMetrics vaadinFlowMetrics(MeterRegistry registry) {
+        return new MicrometerFlowMetrics(registry);
+    }
+}
@@ -16,8 +16,8 @@
 package com.vaadin.flow.spring.scopes;
 
 import java.io.Serializable;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
@@ -29,6 +29,13 @@ import com.vaadin.flow.server.VaadinSession;
 
 /**
  * Spring bean store class to keep scope objects.
+ * <p>
+ * Beans which have already been created are looked up without locking the
+ * session, so that threads which do not hold the session lock can resolve
+ * scoped beans without contending with the request handling. Beans are
+ * created and removed, and the store is destroyed, while holding the session
+ * lock, so that each bean is only created once and destruction callbacks are
+ * run with the session locked.
  *
  * @author Vaadin Ltd
  *
@@ -40,9 +47,9 @@ class BeanStore implements Serializable {
 
     private final VaadinSession session;
 
-    private final Map<String, Object> objects = new HashMap<>();
+    private final Map<String, Object> objects = new ConcurrentHashMap<>();
 
-    private final Map<String, Runnable> destructionCallbacks = new HashMap<>();
+    private final Map<String, Runnable> destructionCallbacks = new ConcurrentHashMap<>();
 
     /**
      * Creates a new instance for the given {@code session}.
@@ -68,6 +75,10 @@ class BeanStore implements Serializable {
      * @see Scope#get(String, ObjectFactory)
      */
     Object get(String name, ObjectFactory<?> objectFactory) {
+        Object bean = getStoredBean(name);
+        if (bean != null) {
+            return bean;
+        }
         return execute(() -> doGet(name, objectFactory));
     }
 
@@ -91,7 +102,7 @@ class BeanStore implements Serializable {
      * @see Scope#registerDestructionCallback(String, Runnable)
      */
     void registerDestructionCallback(String name, Runnable callback) {
-        execute(() -> destructionCallbacks.put(name, callback));
+        destructionCallbacks.put(name, callback);
     }
 
     void destroy() {
@@ -141,6 +152,18 @@ class BeanStore implements Serializable {
         return bean;
     }
 
+    /**
+     * Gets an already created object without locking the session.
+     *
+     * @param name
+     *            the name of the object to get
+     * @return the stored object, or {@code null} if the object has not been
+     *         created or it must be looked up while holding the session lock
+     */
+    Object getStoredBean(String name) {
+        return objects.get(name);
+    }
+
     void storeBean(String name, Object bean) {
         objects.put(name, bean);
     }
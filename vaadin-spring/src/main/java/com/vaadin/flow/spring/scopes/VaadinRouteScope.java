@@ -340,6 +340,12 @@ public class VaadinRouteScope extends AbstractScope implements UIInitListener {
             return super.doGet(name, objectFactory);
         }
 
+        @Override
+        Object getStoredBean(String name) {
+            // The owner of the bean must be checked while holding the lock
+            return null;
+        }
+
         @Override
         protected void storeBean(String name, Object bean) {
             super.storeBean(name, bean);
@@ -15,6 +15,11 @@
  */
 package com.vaadin.flow.spring.scopes;
 
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 
@@ -42,6 +47,8 @@ public class VaadinSessionScope extends AbstractScope {
 
         private final Registration sessionDestroyListenerRegistration;
 
+        private transient Runnable unregister;
+
         private SessionBeanStore(VaadinSession session) {
             super(session);
             if (session instanceof SpringVaadinSession) {
@@ -58,6 +65,9 @@ public class VaadinSessionScope extends AbstractScope {
         Void doDestroy() {
             try {
                 getVaadinSession().setAttribute(BeanStore.class, null);
+                if (unregister != null) {
+                    unregister.run();
+                }
                 super.doDestroy();
             } finally {
                 if (sessionDestroyListenerRegistration != null) {
@@ -68,6 +78,13 @@ public class VaadinSessionScope extends AbstractScope {
         }
     }
 
+    // Bean stores by session, to look them up without locking the session.
+    // The stores are owned by the session attribute, and they refer to their
+    // session, so both are weakly referenced here: a passivated or
+    // deserialized session is not kept in memory by the scope.
+    private final Map<VaadinSession, WeakReference<BeanStore>> beanStores = Collections
+            .synchronizedMap(new WeakHashMap<>());
+
     @Override
     public void postProcessBeanFactory(
             ConfigurableListableBeanFactory beanFactory) {
@@ -84,13 +101,23 @@ public class VaadinSessionScope extends AbstractScope {
     @Override
     protected BeanStore getBeanStore() {
         final VaadinSession session = getVaadinSession();
+        WeakReference<BeanStore> reference = beanStores.get(session);
+        BeanStore beanStore = reference == null ? null : reference.get();
+        if (beanStore != null) {
+            return beanStore;
+        }
         session.lock();
         try {
-            BeanStore beanStore = session.getAttribute(BeanStore.class);
+            beanStore = session.getAttribute(BeanStore.class);
             if (beanStore == null) {
                 beanStore = new SessionBeanStore(session);
                 session.setAttribute(BeanStore.class, beanStore);
             }
+            if (beanStore instanceof SessionBeanStore) {
+                ((SessionBeanStore) beanStore).unregister = () -> beanStores
+                        .remove(session);
+                beanStores.put(session, new WeakReference<>(beanStore));
+            }
             return beanStore;
         } finally {
             session.unlock();
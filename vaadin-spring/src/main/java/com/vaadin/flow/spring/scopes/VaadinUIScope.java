@@ -15,8 +15,11 @@
  */
 package com.vaadin.flow.spring.scopes;
 
-import java.util.HashMap;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
@@ -43,6 +46,13 @@ public class VaadinUIScope extends AbstractScope {
 
     public static final String VAADIN_UI_SCOPE_NAME = "vaadin-ui";
 
+    // UI store wrappers by session, to look up the bean stores of UIs without
+    // locking the session. The wrappers are owned by the session attribute,
+    // and they refer to their session, so both are weakly referenced here: a
+    // passivated or deserialized session is not kept in memory by the scope.
+    private final Map<VaadinSession, WeakReference<UIStoreWrapper>> storeWrappers = Collections
+            .synchronizedMap(new WeakHashMap<>());
+
     private static class UIStoreWrapper
             implements ComponentEventListener<DetachEvent> {
 
@@ -52,9 +62,11 @@ public class VaadinUIScope extends AbstractScope {
 
         private final Map<Integer, BeanStore> uiStores;
 
+        private transient Runnable unregister;
+
         private UIStoreWrapper(VaadinSession session) {
             assert session.hasLock();
-            uiStores = new HashMap<>();
+            uiStores = new ConcurrentHashMap<>();
             this.session = session;
             if (session instanceof SpringVaadinSession) {
                 sessionDestroyListenerRegistration = null;
@@ -76,7 +88,12 @@ public class VaadinUIScope extends AbstractScope {
             }
         }
 
+        BeanStore getBeanStoreIfExists(UI ui) {
+            return uiStores.get(ui.getUIId());
+        }
+
         BeanStore getBeanStore(UI ui) {
+            assert session.hasLock();
             BeanStore beanStore = uiStores.get(ui.getUIId());
             if (beanStore == null) {
                 beanStore = new BeanStore(session);
@@ -90,6 +107,9 @@ public class VaadinUIScope extends AbstractScope {
             session.lock();
             try {
                 session.setAttribute(UIStoreWrapper.class, null);
+                if (unregister != null) {
+                    unregister.run();
+                }
                 uiStores.values().forEach(BeanStore::destroy);
                 uiStores.clear();
             } finally {
@@ -119,14 +139,25 @@ public class VaadinUIScope extends AbstractScope {
     @Override
     protected BeanStore getBeanStore() {
         final VaadinSession session = getVaadinSession();
+        UI ui = getUI();
+        WeakReference<UIStoreWrapper> reference = storeWrappers.get(session);
+        UIStoreWrapper wrapper = reference == null ? null : reference.get();
+        if (wrapper != null) {
+            BeanStore beanStore = wrapper.getBeanStoreIfExists(ui);
+            if (beanStore != null) {
+                return beanStore;
+            }
+        }
         session.lock();
         try {
-            UIStoreWrapper wrapper = session.getAttribute(UIStoreWrapper.class);
+            wrapper = session.getAttribute(UIStoreWrapper.class);
             if (wrapper == null) {
                 wrapper = new UIStoreWrapper(session);
                 session.setAttribute(UIStoreWrapper.class, wrapper);
             }
-            return wrapper.getBeanStore(getUI());
+            wrapper.unregister = () -> storeWrappers.remove(session);
+            storeWrappers.put(session, new WeakReference<>(wrapper));
+            return wrapper.getBeanStore(ui);
         } finally {
             session.unlock();
         }
@@ -17,8 +17,13 @@ package com.vaadin.flow.spring.security.stateless;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -49,6 +54,7 @@ import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.context.HttpRequestResponseHolder;
 import org.springframework.security.web.context.SaveContextOnUpdateOrErrorResponseWrapper;
@@ -57,10 +63,16 @@ import org.springframework.security.web.context.SecurityContextRepository;
 /**
  * A {@link SecurityContextRepository} implementation that stores the
  * authentication using a JWT persisted in cookies.
+ * <p>
+ * Verified tokens are cached until they expire, so that the signature of a
+ * token is only verified once. A new token is only issued when the
+ * authentication has changed or when less than the reissue threshold of the
+ * token lifetime remains.
  */
 class JwtSecurityContextRepository implements SecurityContextRepository {
     private static final String ROLES_CLAIM = "roles";
     private static final String ROLE_AUTHORITY_PREFIX = "ROLE_";
+    private static final int VERIFIED_TOKEN_CACHE_SIZE = 1000;
     private final Log logger = LogFactory.getLog(this.getClass());
     private final SerializedJwtSplitCookieRepository serializedJwtSplitCookieRepository;
     private final JwtAuthenticationConverter jwtAuthenticationConverter;
@@ -70,6 +82,15 @@ class JwtSecurityContextRepository implements SecurityContextRepository {
     private JWSAlgorithm jwsAlgorithm;
     private JwtDecoder jwtDecoder;
     private AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+    private double reissueThreshold = 1;
+    private final Map<String, Jwt> verifiedTokens = Collections
+            .synchronizedMap(new LinkedHashMap<String, Jwt>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<String, Jwt> eldest) {
+                    return size() > VERIFIED_TOKEN_CACHE_SIZE;
+                }
+            });
 
     JwtSecurityContextRepository(
             SerializedJwtSplitCookieRepository serializedJwtSplitCookieRepository) {
@@ -86,10 +107,12 @@ class JwtSecurityContextRepository implements SecurityContextRepository {
     void setJwkSource(
             JWKSource<com.nimbusds.jose.proc.SecurityContext> jwkSource) {
         this.jwkSource = jwkSource;
+        verifiedTokens.clear();
     }
 
     void setJwsAlgorithm(JWSAlgorithm jwsAlgorithm) {
         this.jwsAlgorithm = jwsAlgorithm;
+        verifiedTokens.clear();
     }
 
     void setExpiresIn(long expiresIn) {
@@ -99,12 +122,26 @@ class JwtSecurityContextRepository implements SecurityContextRepository {
 
     void setIssuer(String issuer) {
         this.issuer = issuer;
+        verifiedTokens.clear();
     }
 
     void setTrustResolver(AuthenticationTrustResolver trustResolver) {
         this.trustResolver = trustResolver;
     }
 
+    /**
+     * Sets the fraction of the token lifetime that must remain for the token
+     * of an unchanged authentication to be kept. A new token is issued when
+     * less than this fraction remains. The default is 1, which issues a new
+     * token on every response.
+     *
+     * @param reissueThreshold
+     *            the fraction of the lifetime, between 0 and 1
+     */
+    void setReissueThreshold(double reissueThreshold) {
+        this.reissueThreshold = reissueThreshold;
+    }
+
     private JwtDecoder getJwtDecoder() {
         if (jwtDecoder != null) {
             return jwtDecoder;
@@ -168,8 +205,20 @@ class JwtSecurityContextRepository implements SecurityContextRepository {
             return null;
         }
 
+        Jwt cachedJwt = verifiedTokens.get(serializedJwt);
+        if (cachedJwt != null) {
+            if (Instant.now().isBefore(cachedJwt.getExpiresAt())) {
+                return cachedJwt;
+            }
+            verifiedTokens.remove(serializedJwt);
+        }
+
         try {
-            return getJwtDecoder().decode(serializedJwt);
+            Jwt jwt = getJwtDecoder().decode(serializedJwt);
+            if (jwt.getExpiresAt() != null) {
+                verifiedTokens.put(serializedJwt, jwt);
+            }
+            return jwt;
         } catch (JwtException e) {
             if (this.logger.isTraceEnabled()) {
                 this.logger.trace(
@@ -179,6 +228,27 @@ class JwtSecurityContextRepository implements SecurityContextRepository {
         }
     }
 
+    private boolean isReissueNeeded(Authentication authentication,
+            Jwt loadedJwt) {
+        if (reissueThreshold >= 1
+                || !(authentication instanceof JwtAuthenticationToken)) {
+            return true;
+        }
+        Jwt jwt = ((JwtAuthenticationToken) authentication).getToken();
+        if (!jwt.getTokenValue().equals(loadedJwt.getTokenValue())) {
+            // The authentication has changed during the request
+            return true;
+        }
+        if (jwt.getIssuedAt() == null || jwt.getExpiresAt() == null) {
+            return true;
+        }
+        long lifetime = Duration.between(jwt.getIssuedAt(), jwt.getExpiresAt())
+                .toMillis();
+        long remaining = Duration.between(Instant.now(), jwt.getExpiresAt())
+                .toMillis();
+        return remaining < lifetime * reissueThreshold;
+    }
+
     @Override
     public SecurityContext loadContext(
             HttpRequestResponseHolder requestResponseHolder) {
@@ -194,13 +264,36 @@ class JwtSecurityContextRepository implements SecurityContextRepository {
         }
 
         requestResponseHolder.setResponse(new UpdateJwtResponseWrapper(request,
-                requestResponseHolder.getResponse()));
+                requestResponseHolder.getResponse(), jwt));
         return context;
     }
 
     @Override
     public void saveContext(SecurityContext context, HttpServletRequest request,
             HttpServletResponse response) {
+        saveContext(context, request, response, null);
+    }
+
+    /**
+     * Saves the context of a request for which the given JWT was loaded.
+     *
+     * @param context
+     *            the context to save
+     * @param request
+     *            the request
+     * @param response
+     *            the response to send the cookies
+     * @param loadedJwt
+     *            the JWT loaded for the request, or {@code null} if there was
+     *            none
+     */
+    void saveContext(SecurityContext context, HttpServletRequest request,
+            HttpServletResponse response, Jwt loadedJwt) {
+        if (loadedJwt != null
+                && !isReissueNeeded(context.getAuthentication(), loadedJwt)) {
+            // Keep the token in the request cookies
+            return;
+        }
         String serializedJwt = null;
         try {
             serializedJwt = encodeJwt(context.getAuthentication());
@@ -221,17 +314,19 @@ class JwtSecurityContextRepository implements SecurityContextRepository {
     private final class UpdateJwtResponseWrapper
             extends SaveContextOnUpdateOrErrorResponseWrapper {
         private final HttpServletRequest request;
+        private final Jwt loadedJwt;
 
         private UpdateJwtResponseWrapper(HttpServletRequest request,
-                HttpServletResponse response) {
+                HttpServletResponse response, Jwt loadedJwt) {
             super(response, true);
             this.request = request;
+            this.loadedJwt = loadedJwt;
         }
 
         @Override
         protected void saveContext(SecurityContext context) {
             JwtSecurityContextRepository.this.saveContext(context, this.request,
-                    this);
+                    this, loadedJwt);
         }
     }
 }
@@ -74,7 +74,8 @@ class SerializedJwtSplitCookieRepository {
 
     /**
      * Saves the serialized JWT string using response cookies. If the serialized
-     * JWT is null, the cookies are removed.
+     * JWT is null, the cookies are removed. No cookies are sent if the request
+     * already has the cookies of the same JWT.
      *
      * @param serializedJwt
      *            the serialized JWT
@@ -87,7 +88,7 @@ class SerializedJwtSplitCookieRepository {
             HttpServletResponse response) {
         if (serializedJwt == null) {
             this.removeJwtSplitCookies(request, response);
-        } else {
+        } else if (!serializedJwt.equals(loadSerializedJwt(request))) {
             this.setJwtSplitCookies(serializedJwt, request, response);
         }
     }
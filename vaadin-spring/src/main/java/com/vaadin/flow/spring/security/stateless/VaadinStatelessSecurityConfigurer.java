@@ -73,6 +73,8 @@ public final class VaadinStatelessSecurityConfigurer<H extends HttpSecurityBuild
         AbstractHttpConfigurer<VaadinStatelessSecurityConfigurer<H>, H> {
     private long expiresIn = 1800L;
 
+    private double reissueThreshold = 1;
+
     private String issuer;
 
     private SecretKeyConfigurer secretKeyConfigurer;
@@ -117,6 +119,8 @@ public final class VaadinStatelessSecurityConfigurer<H extends HttpSecurityBuild
                     .setJwkSource(secretKeyConfigurer.getJWKSource());
             jwtSecurityContextRepository.setIssuer(issuer);
             jwtSecurityContextRepository.setExpiresIn(expiresIn);
+            jwtSecurityContextRepository
+                    .setReissueThreshold(reissueThreshold);
 
             AuthenticationTrustResolver trustResolver = http
                     .getSharedObject(AuthenticationTrustResolver.class);
@@ -146,6 +150,31 @@ public final class VaadinStatelessSecurityConfigurer<H extends HttpSecurityBuild
         return this;
     }
 
+    /**
+     * Sets the fraction of the JWT lifetime below which a new JWT is issued
+     * for an unchanged authentication. The default is 1, which issues a new
+     * JWT with a full lifetime on every response.
+     * <p>
+     * For example, with a threshold of 0.5 and the default lifetime of 1800
+     * seconds, the JWT is kept until it is older than 900 seconds, which saves
+     * signing the JWT and sending the cookies on most responses. A new JWT is
+     * always issued when the authentication changes.
+     *
+     * @param reissueThreshold
+     *            the fraction of the lifetime, between 0 and 1
+     * @return the {@link VaadinStatelessSecurityConfigurer} for further
+     *         customization
+     */
+    public VaadinStatelessSecurityConfigurer<H> reissueThreshold(
+            double reissueThreshold) {
+        if (reissueThreshold < 0 || reissueThreshold > 1) {
+            throw new IllegalArgumentException(
+                    "The reissue threshold must be between 0 and 1");
+        }
+        this.reissueThreshold = reissueThreshold;
+        return this;
+    }
+
     /**
      * Sets the issuer claim to use when issuing and verifying the JWT.
      *
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.spring;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.FlowMetrics.UidlPhase;
+
+public class MicrometerFlowMetricsTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private final MicrometerFlowMetrics metrics = new MicrometerFlowMetrics(
+            registry);
+
+    @Test
+    public void recordUidlPhase_timerTaggedWithPhase() {
+        metrics.recordUidlPhase(UidlPhase.ENCODE, 2_000_000);
+
+        Assert.assertEquals(1, registry.get("vaadin.uidl.phase")
+                .tag("phase", "encode").timer().count());
+        Assert.assertEquals(2, registry.get("vaadin.uidl.phase")
+                .tag("phase", "encode").timer()
+                .totalTime(TimeUnit.MILLISECONDS), 0.001);
+        Assert.assertEquals(0, registry.get("vaadin.uidl.phase")
+                .tag("phase", "rpc_handling").timer().count());
+    }
+
+    @Test
+    public void sessionsAndUIs_gaugesFollowCreatedAndDestroyed() {
+        metrics.sessionCreated();
+        metrics.sessionCreated();
+        metrics.sessionDestroyed();
+        metrics.uiCreated();
+
+        Assert.assertEquals(1,
+                registry.get("vaadin.sessions.active").gauge().value(), 0);
+        Assert.assertEquals(1, registry.get("vaadin.uis.active").gauge().value(),
+                0);
+    }
+
+    @Test
+    public void recordNavigation_timerPerRoute() {
+        metrics.recordNavigation(UI.class, 1000);
+        metrics.recordNavigation(UI.class, 1000);
+
+        Assert.assertEquals(2, registry.get("vaadin.navigation")
+                .tag("route", UI.class.getName()).timer().count());
+    }
+}
@@ -84,6 +84,8 @@ public class SpringClassesSerializableTest extends ClassesSerializableTest {
                 "com\\.vaadin\\.flow\\.spring\\.VaadinSpringSecurity",
                 "com\\.vaadin\\.flow\\.spring\\.SpringBootAutoConfiguration",
                 "com\\.vaadin\\.flow\\.spring\\.SpringSecurityAutoConfiguration",
+                "com\\.vaadin\\.flow\\.spring\\.VaadinMetricsAutoConfiguration",
+                "com\\.vaadin\\.flow\\.spring\\.MicrometerFlowMetrics",
                 "com\\.vaadin\\.flow\\.spring\\.SpringApplicationConfigurationFactory(\\$.*)?",
                 "com\\.vaadin\\.flow\\.spring\\.SpringLookupInitializer(\\$.*)?",
                 "com\\.vaadin\\.flow\\.spring\\.VaadinConfigurationProperties",
@@ -15,9 +15,17 @@
  */
 package com.vaadin.flow.spring.scopes;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.ref.WeakReference;
 import java.util.Collections;
 import java.util.Properties;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -52,6 +60,33 @@ public abstract class AbstractScopeTest {
 
     }
 
+    /**
+     * A session which can be serialized and deserialized without a service,
+     * like a passivated session.
+     */
+    public static class SerializableTestSession extends SpringVaadinSession {
+
+        private transient ReentrantLock lock;
+
+        public SerializableTestSession() {
+            super(null);
+        }
+
+        @Override
+        public Lock getLockInstance() {
+            if (lock == null) {
+                lock = new ReentrantLock();
+            }
+            return lock;
+        }
+
+        @Override
+        public void unlock() {
+            getLockInstance().unlock();
+        }
+
+    }
+
     @After
     public void clearSession() {
         session = null;
@@ -117,6 +152,22 @@ public abstract class AbstractScopeTest {
 
     }
 
+    @SuppressWarnings("rawtypes")
+    protected void get_objectIsStored_sessionNotLockedForLookup(Scope scope) {
+        ObjectFactory factory = Mockito.mock(ObjectFactory.class);
+        Object object = new Object();
+        when(factory.getObject()).thenReturn(object);
+        scope.get("foo", factory);
+
+        VaadinSession session = VaadinSession.getCurrent();
+        Mockito.clearInvocations(session);
+        when(session.hasLock()).thenReturn(false);
+
+        Assert.assertSame(object, scope.get("foo", factory));
+        verify(factory).getObject();
+        verify(session, Mockito.never()).lock();
+    }
+
     protected void registerDestructionCallback_currentScopeIsSet_objectIsStored(
             AbstractScope scope) {
         AtomicInteger count = new AtomicInteger();
@@ -167,5 +218,30 @@ public abstract class AbstractScopeTest {
         return session;
     }
 
+    protected VaadinSession serializeAndDeserialize(VaadinSession session)
+            throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        session.lock();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(session);
+        } finally {
+            session.unlock();
+        }
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (VaadinSession) in.readObject();
+        }
+    }
+
+    protected void assertGarbageCollected(WeakReference<?> reference)
+            throws InterruptedException {
+        for (int i = 0; i < 10 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        Assert.assertNull("The object should have been garbage collected",
+                reference.get());
+    }
+
     protected abstract Scope getScope();
 }
@@ -20,6 +20,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.lang.ref.WeakReference;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
@@ -59,6 +60,14 @@ public class VaadinSessionScopeTest extends AbstractScopeTest {
         remove_currentScopeIsSet_objectIsStored(scope);
     }
 
+    @Test
+    public void get_objectIsStored_sessionNotLockedForLookup() {
+        VaadinSessionScope scope = new VaadinSessionScope();
+        mockSession();
+
+        get_objectIsStored_sessionNotLockedForLookup(scope);
+    }
+
     @Test
     public void registerDestructionCallback_currentSessionIsSet_objectIsStored() {
         VaadinSessionScope scope = new VaadinSessionScope();
@@ -104,6 +113,36 @@ public class VaadinSessionScopeTest extends AbstractScopeTest {
         verify(factory, times(2)).getObject();
     }
 
+    @SuppressWarnings("rawtypes")
+    @Test
+    public void serializeSession_deserializedSessionUsesItsBeanStore_originalSessionNotKept()
+            throws Exception {
+        VaadinSessionScope scope = new VaadinSessionScope();
+        VaadinSession session = new SerializableTestSession();
+        VaadinSession.setCurrent(session);
+        session.lock();
+
+        ObjectFactory factory = Mockito.mock(ObjectFactory.class);
+        when(factory.getObject()).thenReturn("foo");
+        scope.get("foo", factory);
+
+        session.unlock();
+        VaadinSession deserialized = serializeAndDeserialize(session);
+        VaadinSession.setCurrent(deserialized);
+        deserialized.lock();
+
+        // The bean is found in the store of the deserialized session
+        Assert.assertEquals("foo", scope.get("foo", factory));
+        verify(factory).getObject();
+        Assert.assertSame(deserialized,
+                scope.getBeanStore().getVaadinSession());
+        deserialized.unlock();
+
+        WeakReference<VaadinSession> reference = new WeakReference<>(session);
+        session = null;
+        assertGarbageCollected(reference);
+    }
+
     @Override
     protected Scope getScope() {
         return new VaadinSessionScope();
@@ -15,6 +15,7 @@
  */
 package com.vaadin.flow.spring.scopes;
 
+import java.lang.ref.WeakReference;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
@@ -51,6 +52,14 @@ public class VaadinUIScopeTest extends AbstractUIScopedTest {
         remove_currentScopeIsSet_objectIsStored(scope);
     }
 
+    @Test
+    public void get_objectIsStored_sessionNotLockedForLookup() {
+        VaadinUIScope scope = new VaadinUIScope();
+
+        mockUI();
+        get_objectIsStored_sessionNotLockedForLookup(scope);
+    }
+
     @Test
     public void registerDestructionCallback_currentSessionIsSet_objectIsStored() {
         VaadinUIScope scope = new VaadinUIScope();
@@ -158,6 +167,39 @@ public class VaadinUIScopeTest extends AbstractUIScopedTest {
         verify(factory, times(2)).getObject();
     }
 
+    @SuppressWarnings("rawtypes")
+    @Test
+    public void serializeSession_deserializedSessionUsesItsBeanStore_originalSessionNotKept()
+            throws Exception {
+        VaadinUIScope scope = new VaadinUIScope();
+        VaadinSession session = new SerializableTestSession();
+        VaadinSession.setCurrent(session);
+        session.lock();
+        UI.setCurrent(new UI());
+
+        ObjectFactory factory = Mockito.mock(ObjectFactory.class);
+        when(factory.getObject()).thenReturn("foo");
+        scope.get("foo", factory);
+
+        session.unlock();
+        VaadinSession deserialized = serializeAndDeserialize(session);
+        VaadinSession.setCurrent(deserialized);
+        deserialized.lock();
+        // The UI is deserialized with the session, and has the same id
+        UI.setCurrent(new UI());
+
+        // The bean is found in the store of the deserialized session
+        Assert.assertEquals("foo", scope.get("foo", factory));
+        verify(factory).getObject();
+        Assert.assertSame(deserialized,
+                scope.getBeanStore().getVaadinSession());
+        deserialized.unlock();
+
+        WeakReference<VaadinSession> reference = new WeakReference<>(session);
+        session = null;
+        assertGarbageCollected(reference);
+    }
+
     @Override
     protected Scope getScope() {
         return new VaadinUIScope();
@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collection;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import com.nimbusds.jose.JOSEException;
@@ -672,6 +673,94 @@ public class JwtSecurityContextRepositoryTest {
         assertClaims(decodedClaimsSet, TEST_USERNAME, TEST_ROLES, 1800);
     }
 
+    @Test
+    public void loadContext_sameJwtTwice_signatureVerifiedOnce()
+            throws JOSEException {
+        ImmutableSecret<com.nimbusds.jose.proc.SecurityContext> secret = new ImmutableSecret<>(
+                TEST_KEY);
+        AtomicInteger keyLookups = new AtomicInteger();
+        jwtSecurityContextRepository.setJwkSource((jwkSelector, context) -> {
+            keyLookups.incrementAndGet();
+            return secret.get(jwkSelector, context);
+        });
+        Mockito.doReturn(getJwt(getHeaderBuilder().build(),
+                getClaimsSetBuilder().build()))
+                .when(serializedJwtSplitCookieRepository)
+                .loadSerializedJwt(request);
+
+        jwtSecurityContextRepository.loadContext(holder);
+        SecurityContext securityContext = jwtSecurityContextRepository
+                .loadContext(new HttpRequestResponseHolder(request, response));
+
+        Assert.assertEquals(1, keyLookups.get());
+        Assert.assertEquals(TEST_USERNAME,
+                securityContext.getAuthentication().getName());
+    }
+
+    @Test
+    public void saveContext_unchangedFreshJwt_doesNotSaveJwt()
+            throws JOSEException {
+        Instant now = Instant.now();
+        JwtAuthenticationToken authentication = getJwtAuthenticationToken(
+                getHeaderBuilder().build(),
+                getClaimsSetBuilder().issueTime(Date.from(now))
+                        .expirationTime(Date.from(now.plusSeconds(1800)))
+                        .build());
+        SecurityContext securityContext = SecurityContextHolder
+                .createEmptyContext();
+        Mockito.doReturn(authentication).when(securityContext)
+                .getAuthentication();
+        jwtSecurityContextRepository.setReissueThreshold(0.5);
+
+        jwtSecurityContextRepository.saveContext(securityContext, request,
+                response, authentication.getToken());
+
+        Mockito.verify(serializedJwtSplitCookieRepository, Mockito.never())
+                .saveSerializedJwt(ArgumentMatchers.any(),
+                        ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void saveContext_unchangedJwtPastReissueThreshold_savesJwt()
+            throws JOSEException {
+        Instant now = Instant.now();
+        JwtAuthenticationToken authentication = getJwtAuthenticationToken(
+                getHeaderBuilder().build(),
+                getClaimsSetBuilder()
+                        .issueTime(Date.from(now.minusSeconds(1500)))
+                        .expirationTime(Date.from(now.plusSeconds(300)))
+                        .build());
+        SecurityContext securityContext = SecurityContextHolder
+                .createEmptyContext();
+        Mockito.doReturn(authentication).when(securityContext)
+                .getAuthentication();
+        jwtSecurityContextRepository.setReissueThreshold(0.5);
+
+        jwtSecurityContextRepository.saveContext(securityContext, request,
+                response, authentication.getToken());
+
+        Assert.assertNotNull(getSavedSerializedJwt());
+    }
+
+    @Test
+    public void saveContext_changedAuthentication_savesJwt()
+            throws JOSEException {
+        JwtAuthenticationToken loaded = getJwtAuthenticationToken(
+                getHeaderBuilder().build(), getClaimsSetBuilder().build());
+        SecurityContext securityContext = SecurityContextHolder
+                .createEmptyContext();
+        User testUser = new User(TEST_USERNAME, "", TEST_AUTHORITIES);
+        Mockito.doReturn(new UsernamePasswordAuthenticationToken(testUser,
+                testUser.getPassword(), testUser.getAuthorities()))
+                .when(securityContext).getAuthentication();
+        jwtSecurityContextRepository.setReissueThreshold(0.5);
+
+        jwtSecurityContextRepository.saveContext(securityContext, request,
+                response, loaded.getToken());
+
+        Assert.assertNotNull(getSavedSerializedJwt());
+    }
+
     private void assertRequestResponseHolder() {
         Assert.assertEquals(request, holder.getRequest());
         Assert.assertTrue(holder
@@ -183,6 +183,16 @@ public class SerializedJwtSplitCookieRepositoryTest {
                 DEFAULT_MAX_AGE - 1, "/");
     }
 
+    @Test
+    public void saveSerializedJwt_doesNotSetCookies_when_sameJwtInRequest() {
+        Mockito.doReturn(new Cookie[] { JWT_HEADER_AND_PAYLOAD_COOKIE,
+                JWT_SIGNATURE_COOKIE }).when(request).getCookies();
+        serializedJwtSplitCookieRepository.saveSerializedJwt(JWT, request,
+                response);
+        Mockito.verify(response, Mockito.never())
+                .addCookie(Mockito.any(Cookie.class));
+    }
+
     private void checkResponseCookiePair(String expectedHeaderAndPayload,
             String expectedSignature, boolean expectedIsSecure, int maxAge,
             String expectedPath) {